@@ -30,7 +30,6 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.tools.compare.simple.CompareObjectsExecutor;
 import org.jkiss.dbeaver.tools.compare.simple.CompareObjectsSettings;
-import org.jkiss.dbeaver.tools.compare.simple.CompareReport;
 import org.jkiss.dbeaver.tools.compare.simple.CompareReportRenderer;
 import org.jkiss.dbeaver.ui.DialogSettingsDelegate;
 import org.jkiss.dbeaver.ui.UIUtils;
@@ -108,9 +107,7 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
                 @Override
                 public void run(DBRProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
                     try {
-                        CompareReport report = generateReport(monitor, executor);
-
-                        renderReport(monitor, report);
+                        compareAndRenderReport(monitor, executor);
                     } catch (DBException e) {
                         throw new InvocationTargetException(e);
                     }
@@ -136,15 +133,7 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
         return true;
     }
 
-    private CompareReport generateReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, InterruptedException
-    {
-        monitor.beginTask("Compare objects", 1000);
-        CompareReport report = executor.compareObjects(monitor, getSettings().getNodes());
-        monitor.done();
-        return report;
-    }
-
-    private void renderReport(DBRProgressMonitor monitor, CompareReport report)
+    private void compareAndRenderReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, InterruptedException
     {
         try {
             File reportFile;
@@ -155,7 +144,7 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
                 default:
                 {
                     StringBuilder fileName = new StringBuilder("compare");//"compare-report.html";
-                    for (DBNDatabaseNode node : report.getNodes()) {
+                    for (DBNDatabaseNode node : settings.getNodes()) {
                         fileName.append("-").append(CommonUtils.escapeIdentifier(node.getName()));
                     }
                     fileName.append("-report.html");
@@ -166,9 +155,12 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
 
             reportFile.deleteOnExit();
             try (OutputStream outputStream = new FileOutputStream(reportFile)) {
-                monitor.beginTask("Render report", report.getReportLines().size());
+                // Report lines are written as soon as they are compared
+                monitor.beginTask("Compare objects", 1000);
                 CompareReportRenderer reportRenderer = new CompareReportRenderer();
-                reportRenderer.renderReport(monitor, report, getSettings(), outputStream);
+                reportRenderer.beginReport(monitor, settings.getNodes(), getSettings(), outputStream);
+                executor.compareObjects(monitor, getSettings().getNodes(), reportRenderer);
+                reportRenderer.endReport();
                 monitor.done();
             }
             UIUtils.launchProgram(reportFile.getAbsolutePath());
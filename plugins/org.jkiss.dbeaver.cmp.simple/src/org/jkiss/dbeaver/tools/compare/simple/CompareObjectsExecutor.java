@@ -27,38 +27,45 @@ import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
-import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
-import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.*;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
-    private final Object PROPS_LOCK = new Object();
+    private static final int MAX_PREFETCH_TASKS = 4;
+    // Number of sibling objects whose properties are read ahead of compare
+    private static final int PREFETCH_BATCH_SIZE = 64;
 
     private CompareObjectsSettings settings;
 
     private final List<DBNDatabaseNode> rootNodes;
     private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
+    private final Map<DataSourcePropertyFilter, Map<Class<?>, List<ObjectPropertyDescriptor>>> classProperties = new HashMap<>();
 
     private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
     private volatile int initializedCount = 0;
     private volatile IStatus initializeError;
-    private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
+    // Property values by object. Values are removed as soon as object's report line is complete
+    private final Map<Object, Map<String, Object>> propertyValues = new IdentityHashMap<>();
 
     private final List<CompareReportLine> reportLines = new ArrayList<>();
+    private CompareReportRenderer reportRenderer;
     private int reportDepth = 0;
     private CompareReportLine lastLine;
 
-    private void reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
+    private CompareReportLine reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
     {
         reportDepth++;
         lastLine = new CompareReportLine();
@@ -79,21 +86,23 @@ public class CompareObjectsExecutor {
                 break;
             }
         }
-        reportLines.add(lastLine);
+        return lastLine;
     }
 
     private void reportPropertyCompare(ObjectPropertyDescriptor property)
     {
         CompareReportProperty reportProperty = new CompareReportProperty(property);
         reportProperty.values = new Object[rootNodes.size()];
-        for (int i = 0; i < lastLine.nodes.length; i++) {
-            DBNDatabaseNode node = lastLine.nodes[i];
-            if (node == null) {
-                continue;
-            }
-            Map<DBPPropertyDescriptor, Object> valueMap = propertyValues.get(node.getObject());
-            if (valueMap != null) {
-                reportProperty.values[i] = valueMap.get(property);
+        synchronized (propertyValues) {
+            for (int i = 0; i < lastLine.nodes.length; i++) {
+                DBNDatabaseNode node = lastLine.nodes[i];
+                if (node == null) {
+                    continue;
+                }
+                Map<String, Object> valueMap = propertyValues.get(node.getObject());
+                if (valueMap != null) {
+                    reportProperty.values[i] = valueMap.get(property.getId());
+                }
             }
         }
         if (lastLine.properties == null) {
@@ -110,6 +119,26 @@ public class CompareObjectsExecutor {
         }
     }
 
+    private void reportObjectsCompareLine(CompareReportLine line) throws DBException
+    {
+        synchronized (propertyValues) {
+            for (DBNDatabaseNode node : line.nodes) {
+                if (node != null) {
+                    propertyValues.remove(node.getObject());
+                }
+            }
+        }
+        if (reportRenderer == null) {
+            reportLines.add(line);
+        } else {
+            try {
+                reportRenderer.renderLine(line);
+            } catch (IOException e) {
+                throw new DBException("Error writing compare report", e);
+            }
+        }
+    }
+
     private void reportObjectsCompareEnd()
     {
         reportDepth--;
@@ -136,9 +165,9 @@ public class CompareObjectsExecutor {
             public void handlePropertyLoad(Object object, DBPPropertyDescriptor property, Object propertyValue, boolean completed)
             {
                 synchronized (propertyValues) {
-                    Map<DBPPropertyDescriptor, Object> objectProps = propertyValues.get(object);
+                    Map<String, Object> objectProps = propertyValues.get(object);
                     if (objectProps != null) {
-                        objectProps.put(property, propertyValue);
+                        objectProps.put(property.getId(), propertyValue);
                     }
                 }
             }
@@ -160,16 +189,47 @@ public class CompareObjectsExecutor {
         throws DBException, InterruptedException
     {
         reportLines.clear();
+        reportRenderer = null;
+        lastLine = null;
+
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            clearPropertyValues();
+        }
+        return new CompareReport(rootNodes, new ArrayList<>(reportLines));
+    }
+
+    /**
+     * Compares nodes and passes each report line to the renderer as soon as it is complete.
+     * Report is never kept in memory so this works for schemas of any size.
+     */
+    public void compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, CompareReportRenderer renderer)
+        throws DBException, InterruptedException
+    {
+        reportLines.clear();
+        reportRenderer = renderer;
         lastLine = null;
 
-        compareNodes(monitor, nodes);
-        return new CompareReport(rootNodes, reportLines);
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            reportRenderer = null;
+            clearPropertyValues();
+        }
+    }
+
+    private void clearPropertyValues()
+    {
+        synchronized (propertyValues) {
+            propertyValues.clear();
+        }
     }
 
     private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
-        reportObjectsCompareBegin(nodes);
+        CompareReportLine line = reportObjectsCompareBegin(nodes);
 
         try {
             if (nodes.size() > 1) {
@@ -177,8 +237,11 @@ public class CompareObjectsExecutor {
                 if (!(nodes.get(0) instanceof DBNDatabaseFolder)) {
                     compareProperties(monitor, nodes);
                 }
+                reportObjectsCompareLine(line);
 
                 compareChildren(monitor, nodes);
+            } else {
+                reportObjectsCompareLine(line);
             }
         } finally {
             reportObjectsCompareEnd();
@@ -187,12 +250,9 @@ public class CompareObjectsExecutor {
 
     private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
     {
-        boolean onlyStruct = settings.isCompareOnlyStructure();
-
         // Clear compare singletons
         this.initializedCount = 0;
         this.initializeError = null;
-        this.propertyValues.clear();
 
         StringBuilder title = new StringBuilder();
         // Initialize nodes
@@ -216,20 +276,57 @@ public class CompareObjectsExecutor {
         }
 
         monitor.subTask("Compare " + title.toString());
-        boolean compareLazyProperties = false;
 
-        DBNDatabaseNode firstNode = nodes.get(0);
-        List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
-            null,
-            firstNode.getObject().getClass(),
-            getDataSourceFilter(firstNode), null);
+        List<ObjectPropertyDescriptor> properties = getObjectProperties(nodes.get(0));
+        if (!isPropertiesCompareEnabled(properties)) {
+            return;
+        }
+
+        // Load all properties (unless they were already prefetched with siblings)
+        for (DBNDatabaseNode node : nodes) {
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            boolean loaded;
+            synchronized (propertyValues) {
+                loaded = propertyValues.containsKey(node.getObject());
+            }
+            if (!loaded) {
+                loadObjectProperties(monitor, node);
+            }
+            monitor.worked(1);
+        }
+
+        // Compare properties
+        for (ObjectPropertyDescriptor prop : properties) {
+            reportPropertyCompare(prop);
+        }
+    }
+
+    private boolean isPropertiesCompareEnabled(List<ObjectPropertyDescriptor> properties)
+    {
+        return !settings.isCompareOnlyStructure() || (settings.isCompareScripts() && hasLazyProperties(properties));
+    }
+
+    private static boolean hasLazyProperties(List<ObjectPropertyDescriptor> properties)
+    {
         for (ObjectPropertyDescriptor prop : properties) {
             if (prop.isLazy()) {
-                compareLazyProperties = true;
-                break;
+                return true;
             }
         }
+        return false;
+    }
 
+    /**
+     * Reads values of all compared properties of the specified node.
+     * May be called concurrently for different nodes.
+     */
+    private void loadObjectProperties(DBRProgressMonitor monitor, DBNDatabaseNode node) throws InterruptedException
+    {
+        boolean onlyStruct = settings.isCompareOnlyStructure();
+        List<ObjectPropertyDescriptor> properties = getObjectProperties(node);
+        boolean compareLazyProperties = hasLazyProperties(properties);
         boolean compareScripts = compareLazyProperties && settings.isCompareScripts();
         compareLazyProperties = compareLazyProperties && settings.isCompareLazyProperties();
 
@@ -237,71 +334,76 @@ public class CompareObjectsExecutor {
             return;
         }
 
-        // Load all properties
-        for (DBNDatabaseNode node : nodes) {
+        DBSObject databaseObject = node.getObject();
+        Map<String, Object> nodeProperties = new HashMap<>();
+        synchronized (propertyValues) {
+            propertyValues.put(databaseObject, nodeProperties);
+        }
+        PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
+        for (ObjectPropertyDescriptor prop : properties) {
             if (monitor.isCanceled()) {
                 throw new InterruptedException();
             }
-            DBSObject databaseObject = node.getObject();
-            Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
-            if (nodeProperties == null) {
-                nodeProperties = new IdentityHashMap<>();
-                propertyValues.put(databaseObject, nodeProperties);
-            }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
-            for (ObjectPropertyDescriptor prop : properties) {
-                boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
-                if (prop.isLazy()) {
-                    if (!compareLazyProperties) {
-                        if (compareScripts) {
-                            // Only DBPScriptObject methods
-                            if (!isScriptProperty) {
-                                continue;
-                            }
-                        } else {
+            boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
+            if (prop.isLazy()) {
+                if (!compareLazyProperties) {
+                    if (compareScripts) {
+                        // Only DBPScriptObject methods
+                        if (!isScriptProperty) {
                             continue;
                         }
-                    }
-                } else {
-                    if (prop.isHidden()) {
+                    } else {
                         continue;
                     }
                 }
-                if (onlyStruct && !isScriptProperty) {
+            } else {
+                if (prop.isHidden()) {
                     continue;
                 }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
-                synchronized (PROPS_LOCK) {
-                    if (propertyValue instanceof DBPNamedObject) {
-                        // Compare just object names
-                        propertyValue = ((DBPNamedObject) propertyValue).getName();
-                    }
-                    nodeProperties.put(prop, propertyValue);
-                }
             }
-            monitor.worked(1);
+            if (onlyStruct && !isScriptProperty) {
+                continue;
+            }
+            Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
+            if (propertyValue instanceof DBPNamedObject) {
+                // Compare just object names
+                propertyValue = ((DBPNamedObject) propertyValue).getName();
+            }
+            synchronized (propertyValues) {
+                nodeProperties.put(prop.getId(), propertyValue);
+            }
         }
+    }
 
-        // Compare properties
-        for (ObjectPropertyDescriptor prop : properties) {
-            reportPropertyCompare(prop);
+    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    {
+        List<List<DBNDatabaseNode>> allNodesToCompare = matchChildren(monitor, nodes);
+        for (int i = 0; i < allNodesToCompare.size(); i++) {
+            if (i % PREFETCH_BATCH_SIZE == 0) {
+                // Read properties of the next siblings. They are released when their report lines are complete.
+                prefetchProperties(monitor, allNodesToCompare.subList(i, Math.min(i + PREFETCH_BATCH_SIZE, allNodesToCompare.size())));
+            }
+            // Compare children recursively
+            compareNodes(monitor, allNodesToCompare.get(i));
         }
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    /**
+     * Reads children of compared nodes and groups them by name
+     */
+    private List<List<DBNDatabaseNode>> matchChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
     {
-        // Compare children
         int nodeCount = nodes.size();
         List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
         // Use submonitor to avoid huge number of tasks
         DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
         for (int i = 0; i < nodeCount; i++) {
             DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
-            }
             try {
+                // Cache structure if possible
+                if (node.getObject() instanceof DBSObjectContainer) {
+                    ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
+                }
                 DBNDatabaseNode[] children = node.getChildren(subMonitor);
                 allChildren.add(children);
             } catch (Exception e) {
@@ -310,10 +412,18 @@ public class CompareObjectsExecutor {
             }
         }
 
+        // Index children by name. The first child wins if there are several children with the same name.
         Set<String> allChildNames = new LinkedHashSet<>();
+        List<Map<String, DBNDatabaseNode>> childrenByName = new ArrayList<>(nodeCount);
         for (DBNDatabaseNode[] childList : allChildren) {
-            if (childList == null) continue;
+            if (childList == null) {
+                childrenByName.add(Collections.emptyMap());
+                continue;
+            }
+            Map<String, DBNDatabaseNode> nameIndex = new HashMap<>(childList.length * 2);
             for (DBNDatabaseNode child : childList) {
+                String childName = child.getNodeName();
+                nameIndex.putIfAbsent(childName, child);
                 DBXTreeNode meta = child.getMeta();
                 if (meta.isVirtual()) {
                     // Skip virtual nodes
@@ -323,60 +433,93 @@ public class CompareObjectsExecutor {
                     // Skip system objects
                     continue;
                 }
-                allChildNames.add(child.getNodeName());
+                allChildNames.add(childName);
             }
+            childrenByName.add(nameIndex);
         }
 
+        List<List<DBNDatabaseNode>> allNodesToCompare = new ArrayList<>(allChildNames.size());
         for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
+            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
             for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
+                DBNDatabaseNode child = childrenByName.get(i).get(childName);
+                if (child != null) {
+                    nodesToCompare.add(child);
                 }
             }
+            allNodesToCompare.add(nodesToCompare);
+        }
+        return allNodesToCompare;
+    }
 
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
+    /**
+     * Loads properties of sibling objects which will be compared.
+     * Properties of different objects are read in parallel.
+     */
+    private void prefetchProperties(DBRProgressMonitor monitor, List<List<DBNDatabaseNode>> siblings) throws DBException, InterruptedException
+    {
+        Queue<DBNDatabaseNode> prefetchNodes = new ConcurrentLinkedQueue<>();
+        for (List<DBNDatabaseNode> nodes : siblings) {
+            // Only nodes with counterparts are compared
+            if (nodes.size() > 1 && !(nodes.get(0) instanceof DBNDatabaseFolder) && isPropertiesCompareEnabled(getObjectProperties(nodes.get(0)))) {
+                prefetchNodes.addAll(nodes);
+            }
+        }
+        if (prefetchNodes.size() < 2) {
+            // Nothing to parallelize. Properties will be read during compare.
+            return;
+        }
+        List<DBRRunnableWithProgress> prefetchTasks = new ArrayList<>();
+        for (int i = Math.min(MAX_PREFETCH_TASKS, prefetchNodes.size()); i > 0; i--) {
+            prefetchTasks.add(taskMonitor -> {
+                for (DBNDatabaseNode node = prefetchNodes.poll(); node != null; node = prefetchNodes.poll()) {
+                    if (taskMonitor.isCanceled()) {
+                        throw new InterruptedException();
                     }
+                    loadObjectProperties(taskMonitor, node);
                 }
-            }
-            // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+            });
+        }
+        monitor.subTask("Read properties");
+        try {
+            RuntimeUtils.runParallelTasks(monitor, "Read objects properties", prefetchTasks);
+        } catch (InvocationTargetException e) {
+            throw new DBException("Error reading objects properties", e.getTargetException());
         }
     }
 
-
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
         DBPDataSource dataSource = node.getDataSourceContainer().getDataSource();
         if (dataSource == null) {
             return null;
         }
-        DataSourcePropertyFilter filter = dataSourceFilters.get(dataSource);
-        if (filter == null) {
-            filter = new DataSourcePropertyFilter(dataSource);
-            dataSourceFilters.put(dataSource, filter);
+        synchronized (dataSourceFilters) {
+            DataSourcePropertyFilter filter = dataSourceFilters.get(dataSource);
+            if (filter == null) {
+                filter = new DataSourcePropertyFilter(dataSource);
+                dataSourceFilters.put(dataSource, filter);
+            }
+            return filter;
+        }
+    }
+
+    /**
+     * Property descriptors are the same for all objects of the same class so we extract them just once.
+     */
+    private List<ObjectPropertyDescriptor> getObjectProperties(DBNDatabaseNode node)
+    {
+        DataSourcePropertyFilter filter = getDataSourceFilter(node);
+        Class<?> objectClass = node.getObject().getClass();
+        synchronized (classProperties) {
+            Map<Class<?>, List<ObjectPropertyDescriptor>> filterProperties = classProperties.computeIfAbsent(filter, f -> new IdentityHashMap<>());
+            List<ObjectPropertyDescriptor> properties = filterProperties.get(objectClass);
+            if (properties == null) {
+                properties = ObjectPropertyDescriptor.extractAnnotations(null, objectClass, filter, null);
+                filterProperties.put(objectClass, properties);
+            }
+            return properties;
         }
-        return filter;
     }
 
-}
\ No newline at end of file
+}
@@ -25,18 +25,42 @@ import org.jkiss.utils.xml.XMLBuilder;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 public class CompareReportRenderer {
 
-    private CompareReport report;
+    // Deeper lines have the same indent
+    private static final int MAX_STYLED_LEVEL = 32;
+
     private XMLBuilder xml;
     private CompareObjectsSettings settings;
+    private DBRProgressMonitor monitor;
+    private List<DBNDatabaseNode> nodes;
+    // Lines which weren't rendered yet. Their visibility depends on their children
+    private final List<CompareReportLine> pendingLines = new ArrayList<>();
+    private int linesCount;
 
     public void renderReport(DBRProgressMonitor monitor, CompareReport report, CompareObjectsSettings settings, OutputStream outputStream) throws IOException
     {
-        this.report = report;
+        beginReport(monitor, report.getNodes(), settings, outputStream);
+        for (CompareReportLine line : report.getReportLines()) {
+            renderLine(line);
+        }
+        endReport();
+    }
+
+    /**
+     * Starts report rendering. Report lines are rendered one by one as they come from the
+     * compare executor (see {@link CompareObjectsExecutor#compareObjects(DBRProgressMonitor, List, CompareReportRenderer)}).
+     */
+    public void beginReport(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, CompareObjectsSettings settings, OutputStream outputStream) throws IOException
+    {
+        this.monitor = monitor;
+        this.nodes = nodes;
         this.settings = settings;
+        this.pendingLines.clear();
+        this.linesCount = 0;
         this.xml = new XMLBuilder(outputStream, GeneralUtils.UTF8_ENCODING, true);
         this.xml.setButify(true);
         xml.addContent(
@@ -44,28 +68,6 @@ public class CompareReportRenderer {
             "     PUBLIC \"-//W3C//DTD XHTML 1.0 Strict//EN\"\n" +
             "    \"http://www.w3.org/TR/xhtml1/DTD/xhtml1-strict.dtd\">");
 
-        if (settings.isShowOnlyDifferences()) {
-            // Mark differences on tree nodes
-            List<CompareReportLine> reportLines = report.getReportLines();
-            int reportLinesSize = reportLines.size();
-            for (int i = 0; i < reportLinesSize; i++) {
-                if (reportLines.get(i).hasDifference) {
-                    int depth = reportLines.get(i).depth;
-                    for (int k = i - 1; k >= 0; k--) {
-                        CompareReportLine prevNode = reportLines.get(k);
-                        if (prevNode.depth < depth) {
-                            if (prevNode.hasDifference) {
-                                // Already set
-                                break;
-                            }
-                            depth = prevNode.depth;
-                            prevNode.hasDifference = true;
-                        }
-                    }
-                }
-            }
-        }
-
         xml.startElement("html");
         xml.startElement("head");
         xml.startElement("meta");
@@ -75,17 +77,79 @@ public class CompareReportRenderer {
         xml.startElement("title");
         xml.addText("Compare report");
         xml.endElement();
+        renderHeader();
         xml.endElement();
         xml.startElement("body");
 
-        renderHeader();
-
         xml.startElement("table");
         xml.addAttribute("width", "100%");
         //xml.addAttribute("border", "1");
         xml.addAttribute("cellspacing", 0);
         xml.addAttribute("cellpadding", 0);
-        renderBody(monitor);
+
+        // Table head
+        xml.startElement("tr");
+        xml.startElement("th");
+        xml.addText("Structure");
+        xml.endElement();
+        for (DBNDatabaseNode node : nodes) {
+            xml.startElement("th");
+            xml.addText(node.getNodeFullName());
+            xml.endElement();
+        }
+        xml.endElement();
+    }
+
+    void renderLine(CompareReportLine line) throws IOException
+    {
+        monitor.worked(1);
+        linesCount++;
+
+        // Lines which are not parents of this line have no more children
+        while (!pendingLines.isEmpty() && pendingLines.get(pendingLines.size() - 1).depth >= line.depth) {
+            pendingLines.remove(pendingLines.size() - 1);
+        }
+
+        if (settings.isShowOnlyDifferences()) {
+            if (!line.hasDifference) {
+                // Will be rendered only if some child differs. Its own properties are all the same.
+                line.properties = null;
+                pendingLines.add(line);
+                return;
+            }
+            // Mark differences on parent nodes
+            for (CompareReportLine parentLine : pendingLines) {
+                parentLine.hasDifference = true;
+                renderLineContent(parentLine);
+            }
+        } else {
+            // Parent folders are not empty
+            for (CompareReportLine parentLine : pendingLines) {
+                renderLineContent(parentLine);
+            }
+            if (isOnlyStructure(line)) {
+                // Skip empty folders
+                pendingLines.clear();
+                pendingLines.add(line);
+                return;
+            }
+        }
+        pendingLines.clear();
+        renderLineContent(line);
+    }
+
+    public void endReport() throws IOException
+    {
+        pendingLines.clear();
+
+        // Table footer
+        xml.startElement("tr");
+        xml.addAttribute("class", "object");
+        xml.startElement("td");
+        xml.addAttribute("colspan", nodes.size() + 1);
+        xml.addText("" + linesCount + " objects compared");
+        xml.endElement();
+        xml.endElement();
 
         xml.endElement();
         xml.endElement();
@@ -96,13 +160,6 @@ public class CompareReportRenderer {
 
     private void renderHeader() throws IOException
     {
-        int maxLevel = 0;
-        for (CompareReportLine line : report.getReportLines()) {
-            if (line.depth > maxLevel) {
-                maxLevel = line.depth;
-            }
-        }
-        maxLevel++;
         xml.startElement("style");
         StringBuilder styles = new StringBuilder();
         styles.append("table {font-family:\"Lucida Sans Unicode\", \"Lucida Grande\", Sans-Serif;font-size:12px;text-align:left;} ");
@@ -112,134 +169,109 @@ public class CompareReportRenderer {
         styles.append(".struct {border-top:none; !important } ");
 //        styles.append(".object:first-child {border:none; } ");
 //        styles.append(".property:first-child {border:none; } ");
-        for (int i = 1; i <= maxLevel; i++) {
+        // Report depth is unknown until the last line, so styles are added for all levels which may appear
+        for (int i = 1; i <= MAX_STYLED_LEVEL; i++) {
             styles.append(".level").append(i).append(" td,th { text-align:left; padding-left:").append(20 * i).append("px; } ");
         }
         xml.addText(styles.toString(), false);
         xml.endElement();
     }
 
-    private void renderBody(DBRProgressMonitor monitor) throws IOException
+    private static String getLevelStyle(int level)
     {
-        // Table head
-        xml.startElement("tr");
-        xml.startElement("th");
-        xml.addText("Structure");
-        xml.endElement();
-        for (DBNDatabaseNode node : report.getNodes()) {
-            xml.startElement("th");
-            xml.addText(node.getNodeFullName());
-            xml.endElement();
-        }
-        xml.endElement();
+        return "level" + Math.min(level, MAX_STYLED_LEVEL);
+    }
+
+    private static boolean isOnlyStructure(CompareReportLine line)
+    {
+        return line.structure instanceof DBNDatabaseFolder && !line.hasDifference;
+    }
 
-        // Table body
+    private void renderLineContent(CompareReportLine line) throws IOException
+    {
         boolean showOnlyDifferences = settings.isShowOnlyDifferences();
-        int objectCount = report.getNodes().size();
-        List<CompareReportLine> reportLines = report.getReportLines();
-        int reportLinesSize = reportLines.size();
-        for (int i = 0; i < reportLinesSize; i++) {
-            monitor.worked(1);
-            CompareReportLine line = reportLines.get(i);
-            if (showOnlyDifferences && !line.hasDifference) {
-                continue;
-            }
-            boolean onlyStructure = line.structure instanceof DBNDatabaseFolder && !line.hasDifference;
-            // Skip empty folders
-            if (onlyStructure && (i >= reportLinesSize - 1 || reportLines.get(i + 1).depth <= line.depth)) {
-                continue;
-            }
+        int objectCount = nodes.size();
+        boolean onlyStructure = isOnlyStructure(line);
 
-            xml.startElement("tr");
-            xml.addAttribute("class", "object level" + line.depth);
-            xml.addAttribute("valign", "top");
+        xml.startElement("tr");
+        xml.addAttribute("class", "object " + getLevelStyle(line.depth));
+        xml.addAttribute("valign", "top");
+        xml.startElement("td");
+        xml.addText(line.structure.getNodeType());
+        xml.endElement();
+        if (onlyStructure) {
             xml.startElement("td");
-            xml.addText(line.structure.getNodeType());
+            xml.addAttribute("colspan", line.nodes.length);
+            xml.addText("&nbsp;", false);
             xml.endElement();
-            if (onlyStructure) {
+        } else {
+            for (int k = 0; k < objectCount; k++) {
                 xml.startElement("td");
-                xml.addAttribute("colspan", line.nodes.length);
-                xml.addText("&nbsp;", false);
-                xml.endElement();
-            } else {
-                for (int k = 0; k < objectCount; k++) {
-                    xml.startElement("td");
-                    if (line.nodes[k] == null) {
-                        xml.addAttribute("class", "missing");
-                        xml.addText("N/A");
-                    } else {
-                        xml.addText(line.nodes[k].getName());
-                    }
-                    xml.endElement();
+                if (line.nodes[k] == null) {
+                    xml.addAttribute("class", "missing");
+                    xml.addText("N/A");
+                } else {
+                    xml.addText(line.nodes[k].getName());
                 }
+                xml.endElement();
             }
+        }
 
-            xml.endElement();
+        xml.endElement();
 
-            if (line.properties != null) {
-                for (CompareReportProperty reportProperty : line.properties) {
-                    boolean differs = false;
-                    Object firstValue = null;
-                    boolean hasValue = false;
-                    for (int k = 0; k < reportProperty.values.length; k++) {
-                        if (line.nodes[k] == null) {
-                            // Ignore properties of missing objects
-                            continue;
-                        }
-                        Object value = reportProperty.values[k];
-                        if (value != null) {
-                            hasValue = true;
-                            if (firstValue == null) {
-                                firstValue = value;
-                            }
-                        }
-                        if (!CompareUtils.equalPropertyValues(value, firstValue)) {
-                            differs = true;
-                            break;
-                        }
-                    }
-                    if (!hasValue) {
-                        // Skip[ properties when nobody have it's value
-                        continue;
-                    }
-                    if (showOnlyDifferences && !differs) {
+        if (line.properties != null) {
+            for (CompareReportProperty reportProperty : line.properties) {
+                boolean differs = false;
+                Object firstValue = null;
+                boolean hasValue = false;
+                for (int k = 0; k < reportProperty.values.length; k++) {
+                    if (line.nodes[k] == null) {
+                        // Ignore properties of missing objects
                         continue;
                     }
-                    xml.startElement("tr");
-                    xml.addAttribute("class", "property level" + (line.depth + 1) + (differs ? " differs" : ""));
-                    xml.addAttribute("valign", "top");
-                    xml.startElement("td");
-                    xml.addText(reportProperty.property.getDisplayName());
-                    xml.endElement();
-
-                    for (int k = 0; k < objectCount; k++) {
-                        xml.startElement("td");
-                        String stringValue = "";
-                        if (reportProperty.values[k] != null) {
-                            stringValue = reportProperty.values[k].toString();
-                        }
-                        if (CommonUtils.isEmpty(stringValue)) {
-                            xml.addText("&nbsp;", false);
-                        } else {
-                            xml.addText(stringValue);
+                    Object value = reportProperty.values[k];
+                    if (value != null) {
+                        hasValue = true;
+                        if (firstValue == null) {
+                            firstValue = value;
                         }
+                    }
+                    if (!CompareUtils.equalPropertyValues(value, firstValue)) {
+                        differs = true;
+                        break;
+                    }
+                }
+                if (!hasValue) {
+                    // Skip[ properties when nobody have it's value
+                    continue;
+                }
+                if (showOnlyDifferences && !differs) {
+                    continue;
+                }
+                xml.startElement("tr");
+                xml.addAttribute("class", "property " + getLevelStyle(line.depth + 1) + (differs ? " differs" : ""));
+                xml.addAttribute("valign", "top");
+                xml.startElement("td");
+                xml.addText(reportProperty.property.getDisplayName());
+                xml.endElement();
 
-                        xml.endElement();
+                for (int k = 0; k < objectCount; k++) {
+                    xml.startElement("td");
+                    String stringValue = "";
+                    if (reportProperty.values[k] != null) {
+                        stringValue = reportProperty.values[k].toString();
+                    }
+                    if (CommonUtils.isEmpty(stringValue)) {
+                        xml.addText("&nbsp;", false);
+                    } else {
+                        xml.addText(stringValue);
                     }
 
                     xml.endElement();
                 }
+
+                xml.endElement();
             }
         }
-
-        // Table footer
-        xml.startElement("tr");
-        xml.addAttribute("class", "object");
-        xml.startElement("td");
-        xml.addAttribute("colspan", report.getNodes().size() + 1);
-        xml.addText("" + reportLines.size() + " objects compared");
-        xml.endElement();
-        xml.endElement();
-
     }
-}
\ No newline at end of file
+}
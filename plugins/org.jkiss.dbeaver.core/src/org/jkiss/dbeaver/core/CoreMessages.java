@@ -443,6 +443,15 @@ public class CoreMessages extends NLS {
 	public static String pref_page_connection_label_general;
 
 	public static String pref_page_connection_label_use_environment;
+
+	public static String pref_page_connection_pool_group;
+	public static String pref_page_connection_pool_label_enable;
+	public static String pref_page_connection_pool_label_enable_tip;
+	public static String pref_page_connection_pool_label_min_idle;
+	public static String pref_page_connection_pool_label_max_idle;
+	public static String pref_page_connection_pool_label_max_active;
+	public static String pref_page_connection_pool_label_max_active_tip;
+	public static String pref_page_connection_pool_label_idle_timeout;
     public static String pref_page_connections_application_name_text;
 
 	public static String transaction_info_dialog_checkbox_show_all_queries;
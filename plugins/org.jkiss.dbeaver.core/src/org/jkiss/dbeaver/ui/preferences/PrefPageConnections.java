@@ -67,6 +67,12 @@ public class PrefPageConnections extends TargetPrefPage
 
     private Button connUseEnvVariables;
 
+    private Button poolEnabledCheck;
+    private Spinner poolMinIdleSpinner;
+    private Spinner poolMaxIdleSpinner;
+    private Spinner poolMaxActiveSpinner;
+    private Spinner poolIdleTimeoutSpinner;
+
     public PrefPageConnections()
     {
         super();
@@ -81,7 +87,13 @@ public class PrefPageConnections extends TargetPrefPage
             store.contains(ModelPreferences.META_CLIENT_NAME_OVERRIDE) ||
             store.contains(ModelPreferences.META_CLIENT_NAME_VALUE) ||
 
-            store.contains(ModelPreferences.CONNECT_USE_ENV_VARS)
+            store.contains(ModelPreferences.CONNECT_USE_ENV_VARS) ||
+
+            store.contains(ModelPreferences.CONNECTION_POOL_ENABLED) ||
+            store.contains(ModelPreferences.CONNECTION_POOL_MIN_IDLE) ||
+            store.contains(ModelPreferences.CONNECTION_POOL_MAX_IDLE) ||
+            store.contains(ModelPreferences.CONNECTION_POOL_MAX_ACTIVE) ||
+            store.contains(ModelPreferences.CONNECTION_POOL_IDLE_TIMEOUT)
             ;
     }
 
@@ -126,6 +138,23 @@ public class PrefPageConnections extends TargetPrefPage
 
             connUseEnvVariables = UIUtils.createCheckbox(connGroup, CoreMessages.pref_page_connection_label_use_environment, null, false, 2);
         }
+
+        {
+            Group poolGroup = UIUtils.createControlGroup(composite, CoreMessages.pref_page_connection_pool_group, 2, GridData.FILL_HORIZONTAL, 0);
+
+            poolEnabledCheck = UIUtils.createCheckbox(poolGroup, CoreMessages.pref_page_connection_pool_label_enable, CoreMessages.pref_page_connection_pool_label_enable_tip, false, 2);
+            poolEnabledCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    updatePoolEnablement();
+                }
+            });
+            poolMinIdleSpinner = UIUtils.createLabelSpinner(poolGroup, CoreMessages.pref_page_connection_pool_label_min_idle, 0, 0, 100);
+            poolMaxIdleSpinner = UIUtils.createLabelSpinner(poolGroup, CoreMessages.pref_page_connection_pool_label_max_idle, 4, 0, 100);
+            poolMaxActiveSpinner = UIUtils.createLabelSpinner(poolGroup, CoreMessages.pref_page_connection_pool_label_max_active,
+                CoreMessages.pref_page_connection_pool_label_max_active_tip, 20, 0, 1000);
+            poolIdleTimeoutSpinner = UIUtils.createLabelSpinner(poolGroup, CoreMessages.pref_page_connection_pool_label_idle_timeout, 300, 1, 86400);
+        }
         return composite;
     }
 
@@ -133,6 +162,14 @@ public class PrefPageConnections extends TargetPrefPage
         clientApplicationNameText.setEnabled(overrideClientApplicationNameCheck.getSelection());
     }
 
+    private void updatePoolEnablement() {
+        boolean enabled = poolEnabledCheck.getSelection();
+        poolMinIdleSpinner.setEnabled(enabled);
+        poolMaxIdleSpinner.setEnabled(enabled);
+        poolMaxActiveSpinner.setEnabled(enabled);
+        poolIdleTimeoutSpinner.setEnabled(enabled);
+    }
+
     @Override
     protected void loadPreferences(DBPPreferenceStore store)
     {
@@ -143,7 +180,14 @@ public class PrefPageConnections extends TargetPrefPage
 
             connUseEnvVariables.setSelection(store.getBoolean(ModelPreferences.CONNECT_USE_ENV_VARS));
 
+            poolEnabledCheck.setSelection(store.getBoolean(ModelPreferences.CONNECTION_POOL_ENABLED));
+            poolMinIdleSpinner.setSelection(store.getInt(ModelPreferences.CONNECTION_POOL_MIN_IDLE));
+            poolMaxIdleSpinner.setSelection(store.getInt(ModelPreferences.CONNECTION_POOL_MAX_IDLE));
+            poolMaxActiveSpinner.setSelection(store.getInt(ModelPreferences.CONNECTION_POOL_MAX_ACTIVE));
+            poolIdleTimeoutSpinner.setSelection(store.getInt(ModelPreferences.CONNECTION_POOL_IDLE_TIMEOUT) / 1000);
+
             updateClientAppEnablement();
+            updatePoolEnablement();
         } catch (Exception e) {
             log.warn(e);
         }
@@ -158,6 +202,12 @@ public class PrefPageConnections extends TargetPrefPage
             store.setValue(ModelPreferences.META_CLIENT_NAME_VALUE, clientApplicationNameText.getText());
 
             store.setValue(ModelPreferences.CONNECT_USE_ENV_VARS, connUseEnvVariables.getSelection());
+
+            store.setValue(ModelPreferences.CONNECTION_POOL_ENABLED, poolEnabledCheck.getSelection());
+            store.setValue(ModelPreferences.CONNECTION_POOL_MIN_IDLE, poolMinIdleSpinner.getSelection());
+            store.setValue(ModelPreferences.CONNECTION_POOL_MAX_IDLE, poolMaxIdleSpinner.getSelection());
+            store.setValue(ModelPreferences.CONNECTION_POOL_MAX_ACTIVE, poolMaxActiveSpinner.getSelection());
+            store.setValue(ModelPreferences.CONNECTION_POOL_IDLE_TIMEOUT, poolIdleTimeoutSpinner.getSelection() * 1000);
         } catch (Exception e) {
             log.warn(e);
         }
@@ -172,6 +222,12 @@ public class PrefPageConnections extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_CLIENT_NAME_VALUE);
 
         store.setToDefault(ModelPreferences.CONNECT_USE_ENV_VARS);
+
+        store.setToDefault(ModelPreferences.CONNECTION_POOL_ENABLED);
+        store.setToDefault(ModelPreferences.CONNECTION_POOL_MIN_IDLE);
+        store.setToDefault(ModelPreferences.CONNECTION_POOL_MAX_IDLE);
+        store.setToDefault(ModelPreferences.CONNECTION_POOL_MAX_ACTIVE);
+        store.setToDefault(ModelPreferences.CONNECTION_POOL_IDLE_TIMEOUT);
     }
 
     @Override
@@ -0,0 +1,147 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.gis.panel;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spatial index of geometries rendered by map viewer.
+ *
+ * Geometries are kept in the map CRS. Viewer requests only geometries which intersect current viewport,
+ * simplified with the tolerance of the current zoom level (size of one screen pixel).
+ */
+class GISFeatureIndex {
+
+    private static final Log log = Log.getLog(GISFeatureIndex.class);
+
+    static class Feature {
+        // Null if geometry can't be parsed. Such features are always rendered.
+        private final Geometry geometry;
+        private final String text;
+        private final String tip;
+
+        Feature(@Nullable Geometry geometry, @NotNull String text, @NotNull String tip) {
+            this.geometry = geometry;
+            this.text = text;
+            this.tip = tip;
+        }
+
+        /**
+         * Geometry WKT
+         */
+        @NotNull
+        String getText() {
+            return text;
+        }
+
+        /**
+         * Tip properties JSON
+         */
+        @NotNull
+        String getTip() {
+            return tip;
+        }
+
+        @NotNull
+        String getSimplifiedText(double tolerance) {
+            if (geometry == null || tolerance <= 0 || geometry.getDimension() == 0) {
+                return text;
+            }
+            try {
+                return TopologyPreservingSimplifier.simplify(geometry, tolerance).toText();
+            } catch (Exception e) {
+                log.debug("Error simplifying geometry", e);
+                return text;
+            }
+        }
+    }
+
+    private final STRtree tree = new STRtree();
+    private final List<Feature> features = new ArrayList<>();
+    private final List<Feature> unindexedFeatures = new ArrayList<>();
+    private final Envelope bounds = new Envelope();
+
+    void addFeature(@NotNull Object value, @NotNull String tip) {
+        Geometry geometry = null;
+        if (value instanceof Geometry) {
+            geometry = (Geometry) value;
+        } else {
+            try {
+                geometry = new WKTReader().read(value.toString());
+            } catch (Exception e) {
+                // Let the viewer parse it
+            }
+        }
+        Feature feature = new Feature(geometry, value.toString(), tip);
+        features.add(feature);
+        if (geometry == null || geometry.isEmpty()) {
+            unindexedFeatures.add(feature);
+        } else {
+            Envelope envelope = geometry.getEnvelopeInternal();
+            tree.insert(envelope, feature);
+            bounds.expandToInclude(envelope);
+        }
+    }
+
+    int getFeatureCount() {
+        return features.size();
+    }
+
+    @NotNull
+    List<Feature> getFeatures() {
+        return features;
+    }
+
+    /**
+     * Bounds of all indexed geometries. Null bounds means there are no indexed geometries.
+     */
+    @NotNull
+    Envelope getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Finds features intersecting the viewport.
+     * If there are more than maxFeatures features then they are sampled evenly.
+     */
+    @NotNull
+    List<Feature> findFeatures(@NotNull Envelope viewport, int maxFeatures) {
+        List<Feature> result = new ArrayList<>(unindexedFeatures);
+        @SuppressWarnings("unchecked")
+        List<Feature> found = tree.query(viewport);
+        if (result.size() + found.size() <= maxFeatures) {
+            result.addAll(found);
+        } else {
+            double step = (double) found.size() / Math.max(1, maxFeatures - result.size());
+            for (double i = 0; i < found.size() && result.size() < maxFeatures; i += step) {
+                result.add(found.get((int) i));
+            }
+        }
+        return result;
+    }
+
+}
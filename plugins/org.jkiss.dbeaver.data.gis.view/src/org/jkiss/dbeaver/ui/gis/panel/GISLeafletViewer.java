@@ -23,6 +23,7 @@ import org.eclipse.jface.action.Separator;
 import org.eclipse.jface.action.ToolBarManager;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.browser.BrowserFunction;
 import org.eclipse.swt.dnd.Clipboard;
 import org.eclipse.swt.dnd.ImageTransfer;
 import org.eclipse.swt.dnd.Transfer;
@@ -65,6 +66,7 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 
 import java.io.*;
@@ -84,12 +86,16 @@ public class GISLeafletViewer implements IGeometryValueEditor {
     private static final String PROP_FLIP_COORDINATES = "gis.flipCoords";
     private static final String PROP_SRID = "gis.srid";
 
+    // Browser callback which returns geometries intersecting current viewport
+    private static final String FUNCTION_LOAD_VIEWPORT = "gisLoadViewport";
+
     private static final Gson gson = new GsonBuilder()
             .registerTypeHierarchyAdapter(DBDContent.class, new DBDContentAdapter()).create();
 
     private final IValueController valueController;
     private final Browser browser;
     private DBGeometry[] lastValue;
+    private GISFeatureIndex featureIndex;
     private int sourceSRID; // Explicitly set SRID
     private int actualSourceSRID; // SRID taken from geometry value
     private File scriptFile;
@@ -113,6 +119,12 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             cleanupFiles();
         });
         browser.setLayoutData(new GridData(GridData.FILL_BOTH));
+        new BrowserFunction(browser, FUNCTION_LOAD_VIEWPORT) {
+            @Override
+            public Object function(Object[] arguments) {
+                return loadViewportFeatures(arguments);
+            }
+        };
 
         {
             Composite bottomPanel = UIUtils.createPlaceholder(composite, 1);//new Composite(composite, SWT.NONE);
@@ -211,16 +223,8 @@ public class GISLeafletViewer implements IGeometryValueEditor {
         if (!force && CommonUtils.equalObjects(lastValue, values)) {
             return;
         }
-        int maxObjects = GISViewerActivator.getDefault().getPreferences().getInt(GeometryViewerConstants.PREF_MAX_OBJECTS_RENDER);
-        if (maxObjects <= 0) {
-            maxObjects = GeometryViewerConstants.DEFAULT_MAX_OBJECTS_RENDER;
-        }
-        if (values != null && values.length > maxObjects) {
-            // Truncate value list
-            DBGeometry[] truncValues = new DBGeometry[maxObjects];
-            System.arraycopy(values, 0, truncValues, 0, maxObjects);
-            values = truncValues;
-        }
+        // All values are indexed. Max objects setting limits number of geometries rendered at once.
+        featureIndex = null;
         if (browser != null) {
             try {
                 if (ArrayUtils.isEmpty(values)) {
@@ -255,8 +259,7 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             }
         }
 
-        List<String> geomValues = new ArrayList<>();
-        List<String> geomTipValues = new ArrayList<>();
+        GISFeatureIndex index = new GISFeatureIndex();
         boolean showMap = false;
         for (int i = 0; i < values.length; i++) {
             DBGeometry value = values[i];
@@ -304,11 +307,9 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             if (targetValue == null) {
                 continue;
             }
-            geomValues.add("'" + targetValue + "'");
+            String tipValue = "null";
             try {
-                if (CommonUtils.isEmpty(value.getProperties())) {
-                    geomTipValues.add("null");
-                } else {
+                if (!CommonUtils.isEmpty(value.getProperties())) {
                     Map<String, Object> simplifiedProperties = new LinkedHashMap<>();
                     for (Map.Entry<String, Object> pe : value.getProperties().entrySet()) {
                         Object pv = pe.getValue();
@@ -321,15 +322,31 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                         }
                         simplifiedProperties.put(pe.getKey(), pv);
                     }
-                    geomTipValues.add(gson.toJson(simplifiedProperties));
+                    tipValue = gson.toJson(simplifiedProperties);
                 }
             } catch (Exception e) {
                 log.debug(e);
             }
+            index.addFeature(targetValue, tipValue);
         }
         this.defaultSRID = actualSourceSRID;
+        this.featureIndex = index;
+
+        // Large layers are loaded by viewport. Initial values are used only if page is opened in external browser.
+        int maxObjects = getMaxObjectsRender();
+        boolean loadViewport = index.getFeatureCount() > maxObjects;
+        Envelope bounds = index.getBounds();
+        List<GISFeatureIndex.Feature> features = loadViewport ? index.findFeatures(bounds, maxObjects) : index.getFeatures();
+        List<String> geomValues = new ArrayList<>(features.size());
+        List<String> geomTipValues = new ArrayList<>(features.size());
+        for (GISFeatureIndex.Feature feature : features) {
+            geomValues.add("'" + feature.getText() + "'");
+            geomTipValues.add(feature.getTip());
+        }
         String geomValuesString = String.join(",", geomValues);
         String geomTipValuesString = String.join(",", geomTipValues);
+        String geomBoundsString = bounds.isNull() ? "null" :
+            "[[" + bounds.getMinY() + "," + bounds.getMinX() + "],[" + bounds.getMaxY() + "," + bounds.getMaxX() + "]]";
         String geomCRS = actualSourceSRID == GisConstants.SRID_SIMPLE ? GisConstants.LL_CRS_SIMPLE : GisConstants.LL_CRS_3857;
         boolean isShowMap = showMap;
 
@@ -347,6 +364,12 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                         return String.valueOf(geomTipValuesString);
                     case "geomSRID":
                         return String.valueOf(defaultSRID);
+                    case "geomBounds":
+                        return geomBoundsString;
+                    case "loadViewport":
+                        return String.valueOf(loadViewport);
+                    case "loadViewportFunction":
+                        return FUNCTION_LOAD_VIEWPORT;
                     case "showMap":
                         return String.valueOf(isShowMap);
                     case "showTools":
@@ -368,6 +391,42 @@ public class GISLeafletViewer implements IGeometryValueEditor {
         return scriptFile;
     }
 
+    /**
+     * Returns JSON with geometries intersecting viewport.
+     * Arguments are viewport bounds (west, south, east, north) and viewport width in pixels.
+     */
+    private String loadViewportFeatures(Object[] arguments) {
+        GISFeatureIndex index = featureIndex;
+        StringBuilder values = new StringBuilder();
+        StringBuilder tips = new StringBuilder();
+        if (index != null && arguments != null && arguments.length >= 5) {
+            double west = CommonUtils.toDouble(arguments[0]);
+            double south = CommonUtils.toDouble(arguments[1]);
+            double east = CommonUtils.toDouble(arguments[2]);
+            double north = CommonUtils.toDouble(arguments[3]);
+            double width = CommonUtils.toDouble(arguments[4]);
+            // Details smaller than a pixel are not visible anyway
+            double tolerance = width > 0 ? (east - west) / width : 0;
+            for (GISFeatureIndex.Feature feature : index.findFeatures(new Envelope(west, east, south, north), getMaxObjectsRender())) {
+                if (values.length() > 0) {
+                    values.append(',');
+                    tips.append(',');
+                }
+                values.append(gson.toJson(feature.getSimplifiedText(tolerance)));
+                tips.append(feature.getTip());
+            }
+        }
+        return "{\"values\":[" + values + "],\"tips\":[" + tips + "]}";
+    }
+
+    private static int getMaxObjectsRender() {
+        int maxObjects = GISViewerActivator.getDefault().getPreferences().getInt(GeometryViewerConstants.PREF_MAX_OBJECTS_RENDER);
+        if (maxObjects <= 0) {
+            maxObjects = GeometryViewerConstants.DEFAULT_MAX_OBJECTS_RENDER;
+        }
+        return maxObjects;
+    }
+
     private void checkIncludesExistence(File scriptDir) throws IOException {
         File incFolder = new File(scriptDir, "inc");
         if (!incFolder.exists()) {
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.data.gis.handlers;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCSession;
@@ -31,9 +32,11 @@ import org.locationtech.jts.geom.Geometry;
 import java.sql.SQLException;
 
 /**
- * GIS geometry handler
+ * GIS geometry handler.
+ * Binary values are decoded on first access to geometry, so values which are just copied (e.g. in data transfer)
+ * are written back as is.
  */
-public class GISGeometryValueHandler extends JDBCAbstractValueHandler {
+public class GISGeometryValueHandler extends JDBCAbstractValueHandler implements DBGeometry.BinaryDecoder {
 
     private int defaultSRID;
     private boolean invertCoordinates;
@@ -72,7 +75,14 @@ public class GISGeometryValueHandler extends JDBCAbstractValueHandler {
     @Override
     protected void bindParameter(JDBCSession session, JDBCPreparedStatement statement, DBSTypedObject paramType, int paramIndex, Object value) throws DBCException, SQLException {
         if (value instanceof DBGeometry) {
-            value = ((DBGeometry) value).getRawValue();
+            DBGeometry geometry = (DBGeometry) value;
+            DBGeometry.BinaryDecoder binaryDecoder = geometry.getBinaryDecoder();
+            if (geometry.getBinaryValue() != null && binaryDecoder != null && binaryDecoder.getClass() == getClass()) {
+                // Value is in our binary format
+                value = geometry.getBinaryValue();
+            } else {
+                value = geometry.getRawValue();
+            }
         }
         if (value == null) {
             statement.setNull(paramIndex, paramType.getTypeID());
@@ -108,14 +118,19 @@ public class GISGeometryValueHandler extends JDBCAbstractValueHandler {
         } else if (object instanceof Geometry) {
             geometry = new DBGeometry((Geometry)object);
         } else if (object instanceof byte[]) {
-            try {
-                Geometry jtsGeometry = convertGeometryFromBinaryFormat(session, (byte[]) object);
+            byte[] bytes = (byte[]) object;
+            if (isLazyBinaryDecoding()) {
+                geometry = new DBGeometry(bytes, getBinarySRID(bytes), this);
+            } else {
+                try {
+                    Geometry jtsGeometry = convertGeometryFromBinaryFormat(session, bytes);
 //            if (invertCoordinates) {
 //                jtsGeometry.apply(GeometryConverter.INVERT_COORDINATE_FILTER);
 //            }
-                geometry = new DBGeometry(jtsGeometry);
-            } catch (DBCException e) {
-                throw new DBCException("Error parsing geometry value from binary", e);
+                    geometry = new DBGeometry(jtsGeometry);
+                } catch (DBCException e) {
+                    throw new DBCException("Error parsing geometry value from binary", e);
+                }
             }
         } else if (object instanceof String) {
             try {
@@ -133,6 +148,31 @@ public class GISGeometryValueHandler extends JDBCAbstractValueHandler {
         return geometry;
     }
 
+    /**
+     * Lazily decoded binary values are decoded without session (see {@link #decodeGeometry(byte[])}).
+     * Handlers which need session to decode binary format must return false.
+     */
+    protected boolean isLazyBinaryDecoding() {
+        return true;
+    }
+
+    protected int getBinarySRID(@NotNull byte[] bytes) {
+        return GeometryConverter.getInstance().getSRID(bytes);
+    }
+
+    @NotNull
+    @Override
+    public Geometry decodeGeometry(@NotNull byte[] value) throws DBException {
+        Geometry geometry = convertGeometryFromBinaryFormat(null, value);
+        if (geometry == null) {
+            throw new DBCException("Empty geometry binary value");
+        }
+        return geometry;
+    }
+
+    /**
+     * @param session session or null if value is decoded lazily
+     */
     protected Geometry convertGeometryFromBinaryFormat(DBCSession session, byte[] object) throws DBCException {
         return GeometryConverter.getInstance().fromWKB(object);
     }
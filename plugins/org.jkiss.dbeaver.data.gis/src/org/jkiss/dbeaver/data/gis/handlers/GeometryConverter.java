@@ -74,6 +74,16 @@ public class GeometryConverter {
         }
     }
 
+    /**
+     * Read SRID from byte array containing SRID + WKB Geometry
+     */
+    public int getSRID(byte[] bytes) {
+        if (bytes == null || bytes.length < 4) {
+            return 0;
+        }
+        return ByteOrderValues.getInt(bytes, byteOrder);
+    }
+
     /**
      * Convert Geometry object into byte array containing SRID + WKB Geometry
      */
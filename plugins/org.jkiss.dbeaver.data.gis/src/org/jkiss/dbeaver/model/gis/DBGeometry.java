@@ -17,7 +17,9 @@
 
 package org.jkiss.dbeaver.model.gis;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.data.gis.handlers.GeometryConverter;
 import org.jkiss.dbeaver.model.data.DBDValue;
 import org.jkiss.utils.CommonUtils;
@@ -33,7 +35,21 @@ import java.util.Map;
  */
 public class DBGeometry implements DBDValue {
 
-    private Object rawValue;
+    private static final Log log = Log.getLog(DBGeometry.class);
+
+    /**
+     * Decoder of binary geometry values
+     */
+    public interface BinaryDecoder {
+        @NotNull
+        Geometry decodeGeometry(@NotNull byte[] value) throws DBException;
+    }
+
+    // Volatile: binary value may be decoded by another thread
+    private volatile Object rawValue;
+    // Binary value as it was read from database. It is decoded on first access to geometry.
+    private byte[] binaryValue;
+    private BinaryDecoder binaryDecoder;
     private int srid;
     private Map<String, Object> properties;
 
@@ -47,6 +63,8 @@ public class DBGeometry implements DBDValue {
 
     public DBGeometry(DBGeometry source) {
         this.rawValue = source.rawValue;
+        this.binaryValue = source.binaryValue;
+        this.binaryDecoder = source.binaryDecoder;
         this.srid = source.srid;
         this.properties = source.properties == null ? null : new LinkedHashMap<>(source.properties);
     }
@@ -61,22 +79,52 @@ public class DBGeometry implements DBDValue {
         this.srid = srid;
     }
 
+    /**
+     * Creates geometry from binary value. Value is decoded only when geometry is requested.
+     */
+    public DBGeometry(@NotNull byte[] binaryValue, int srid, @NotNull BinaryDecoder binaryDecoder) {
+        this.binaryValue = binaryValue;
+        this.binaryDecoder = binaryDecoder;
+        this.srid = srid;
+    }
+
     public Geometry getGeometry() {
-        return rawValue instanceof Geometry ? (Geometry) rawValue : null;
+        Object value = getRawValue();
+        return value instanceof Geometry ? (Geometry) value : null;
     }
 
     public String getString() {
-        return rawValue == null ? null : CommonUtils.toString(rawValue);
+        Object value = getRawValue();
+        return value == null ? null : CommonUtils.toString(value);
     }
 
+    /**
+     * Returns decoded geometry. If binary value can't be decoded then returns binary value itself.
+     */
     @Override
     public Object getRawValue() {
-        return rawValue;
+        Object value = rawValue;
+        if (value == null && binaryValue != null) {
+            value = decodeBinaryValue();
+        }
+        return value;
+    }
+
+    /**
+     * Binary value as it was read from database or null if geometry wasn't read in binary format.
+     * It can be written back as is by the same decoder's value handler.
+     */
+    public byte[] getBinaryValue() {
+        return binaryValue;
+    }
+
+    public BinaryDecoder getBinaryDecoder() {
+        return binaryDecoder;
     }
 
     @Override
     public boolean isNull() {
-        return rawValue == null;
+        return rawValue == null && binaryValue == null;
     }
 
     @Override
@@ -91,7 +139,8 @@ public class DBGeometry implements DBDValue {
 
     @Override
     public String toString() {
-        return rawValue == null ? null : rawValue.toString();
+        Object value = getRawValue();
+        return value == null ? null : value.toString();
     }
 
     public int getSRID() {
@@ -102,6 +151,19 @@ public class DBGeometry implements DBDValue {
         this.srid = srid;
     }
 
+    private synchronized Object decodeBinaryValue() {
+        if (rawValue == null) {
+            try {
+                rawValue = binaryDecoder.decodeGeometry(binaryValue);
+            } catch (Exception e) {
+                // Keep raw bytes, so value is not lost (e.g. in data transfer) and decoding is not retried
+                log.error("Error decoding geometry value", e);
+                rawValue = binaryValue;
+            }
+        }
+        return rawValue;
+    }
+
     public DBGeometry flipCoordinates() throws DBException {
         Geometry jtsGeometry = getGeometry();
         if (jtsGeometry == null) {
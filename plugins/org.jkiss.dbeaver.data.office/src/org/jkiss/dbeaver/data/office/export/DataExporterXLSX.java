@@ -74,12 +74,19 @@ public class DataExporterXLSX extends StreamExporterAbstract {
 
     private static final String PROP_DATE_FORMAT = "dateFormat";
 
+    private static final String PROP_WIDTH_SAMPLE_ROWS = "widthSampleRows";
+    private static final String PROP_COMPRESS_TEMP_FILES = "compressTempFiles";
+
     private static final int EXCEL2007MAXROWS = 1048575;
     private boolean showDescription;
 
     enum FontStyleProp {NONE, BOLD, ITALIC, STRIKEOUT, UNDERLINE}
 
     private static final int ROW_WINDOW = 100;
+    private static final int DEFAULT_WIDTH_SAMPLE_ROWS = 100;
+    // Excel column width limit (in characters)
+    private static final int MAX_COLUMN_WIDTH = 255;
+    private static final int DATE_VALUE_WIDTH = 10;
 
     private String nullString;
 
@@ -95,6 +102,8 @@ public class DataExporterXLSX extends StreamExporterAbstract {
     private boolean exportSql = false;
     private boolean splitSqlText = false;
     private String dateFormat = "";
+    private int widthSampleRows = DEFAULT_WIDTH_SAMPLE_ROWS;
+    private boolean compressTempFiles = true;
 
     private int splitByRowCount = EXCEL2007MAXROWS;
     private int splitByCol = 0;
@@ -120,6 +129,8 @@ public class DataExporterXLSX extends StreamExporterAbstract {
         properties.put(DataExporterXLSX.PROP_SPLIT_BYROWCOUNT, EXCEL2007MAXROWS);
         properties.put(DataExporterXLSX.PROP_SPLIT_BYCOL, 0);
         properties.put(DataExporterXLSX.PROP_DATE_FORMAT, "");
+        properties.put(DataExporterXLSX.PROP_WIDTH_SAMPLE_ROWS, DEFAULT_WIDTH_SAMPLE_ROWS);
+        properties.put(DataExporterXLSX.PROP_COMPRESS_TEMP_FILES, true);
         return properties;
     }
 
@@ -185,7 +196,27 @@ public class DataExporterXLSX extends StreamExporterAbstract {
             dateFormat = "";
         }
 
+        try {
+            widthSampleRows = CommonUtils.toInt(properties.get(PROP_WIDTH_SAMPLE_ROWS), DEFAULT_WIDTH_SAMPLE_ROWS);
+        } catch (Exception e) {
+            widthSampleRows = DEFAULT_WIDTH_SAMPLE_ROWS;
+        }
+
+        try {
+            compressTempFiles = CommonUtils.getBoolean(properties.get(PROP_COMPRESS_TEMP_FILES), true);
+        } catch (Exception e) {
+            compressTempFiles = true;
+        }
+
         wb = new SXSSFWorkbook(ROW_WINDOW);
+        // Only ROW_WINDOW rows are kept in memory, the rest goes to temp files. Compressed they take much less disk space.
+        wb.setCompressTempFiles(compressTempFiles);
+
+        // Sheet can't have more rows than spreadsheet format allows
+        int maxRows = wb.getSpreadsheetVersion().getMaxRows();
+        if (splitByRowCount <= 0 || splitByRowCount > maxRows) {
+            splitByRowCount = maxRows;
+        }
 
         worksheets = new HashMap<>(1);
 
@@ -301,6 +332,11 @@ public class DataExporterXLSX extends StreamExporterAbstract {
                 }
             }
             if (wb != null) {
+                if (worksheets != null) {
+                    for (Worksheet w : worksheets.values()) {
+                        w.applyColumnWidths(MAX_COLUMN_WIDTH);
+                    }
+                }
                 wb.write(getSite().getOutputStream());
                 wb.dispose();
             }
@@ -363,7 +399,9 @@ public class DataExporterXLSX extends StreamExporterAbstract {
 
         int startCol = rowNumber ? 1 : 0;
 
-        sh.trackAllColumnsForAutoSizing();
+        if (!wsh.isSamplingWidths()) {
+            sh.trackAllColumnsForAutoSizing();
+        }
         for (int i = 0, columnsSize = columns.length; i < columnsSize; i++) {
             DBDAttributeBinding column = columns[i];
 
@@ -374,6 +412,7 @@ public class DataExporterXLSX extends StreamExporterAbstract {
             Cell cell = row.createCell(i + startCol, CellType.STRING);
             cell.setCellValue(colName);
             cell.setCellStyle(styleHeader);
+            wsh.updateColumnWidth(i + startCol, colName.length());
         }
 
         if (hasDescription) {
@@ -387,11 +426,14 @@ public class DataExporterXLSX extends StreamExporterAbstract {
                 }
                 descCell.setCellValue(description);
                 descCell.setCellStyle(styleHeader);
+                wsh.updateColumnWidth(i + startCol, description.length());
             }
         }
 
-        for (int i = 0, columnsSize = columns.length; i < columnsSize; i++) {
-            sh.autoSizeColumn(i);
+        if (!wsh.isSamplingWidths()) {
+            for (int i = 0, columnsSize = columns.length; i < columnsSize; i++) {
+                sh.autoSizeColumn(i);
+            }
         }
 
         wsh.incRow();
@@ -402,10 +444,12 @@ public class DataExporterXLSX extends StreamExporterAbstract {
             throw new DBException("Error processing header", e);
         }
 
-        sh.untrackAllColumnsForAutoSizing();
+        if (!wsh.isSamplingWidths()) {
+            sh.untrackAllColumnsForAutoSizing();
+        }
     }
 
-    private void writeCellValue(Cell cell, Reader reader) throws IOException {
+    private int writeCellValue(Cell cell, Reader reader) throws IOException {
         try {
             StringBuilder sb = new StringBuilder();
             char buffer[] = new char[2000];
@@ -418,14 +462,20 @@ public class DataExporterXLSX extends StreamExporterAbstract {
             }
 
             cell.setCellValue(sb.toString());
-
+            return sb.length();
         } finally {
             ContentUtils.close(reader);
         }
     }
 
     private Worksheet createSheet(DBCResultSet resultSet, Object colValue) throws DBException {
-        Worksheet w = new Worksheet(wb.createSheet(), colValue, 0);
+        Worksheet w;
+        if (widthSampleRows > 0) {
+            // Estimate column widths by the first rows. Auto-sizing by all rows is very slow on big sheets.
+            w = new Worksheet(wb.createSheet(), colValue, 0, columns.length + (rowNumber ? 1 : 0));
+        } else {
+            w = new Worksheet(wb.createSheet(), colValue, 0);
+        }
         if (printHeader) {
             printHeader(resultSet, w);
         }
@@ -440,6 +490,7 @@ public class DataExporterXLSX extends StreamExporterAbstract {
             worksheets.put(w.getColumnVal(), w);
         } else {
             if (w.getCurrentRow() >= splitByRowCount) {
+                w.applyColumnWidths(MAX_COLUMN_WIDTH);
                 w = createSheet(resultSet, colValue);
                 worksheets.put(w.getColumnVal(), w);
             }
@@ -456,12 +507,17 @@ public class DataExporterXLSX extends StreamExporterAbstract {
         Row rowX = wsh.getSh().createRow(wsh.getCurrentRow());
 
         int startCol = 0;
+        boolean sampleWidths = wsh.isSamplingWidths();
 
         if (rowNumber) {
 
             Cell cell = rowX.createCell(startCol, CellType.NUMERIC);
             cell.setCellStyle(style);
-            cell.setCellValue(String.valueOf(wsh.getCurrentRow()));
+            String rowNumberString = String.valueOf(wsh.getCurrentRow());
+            cell.setCellValue(rowNumberString);
+            if (sampleWidths) {
+                wsh.updateColumnWidth(startCol, rowNumberString.length());
+            }
             startCol++;
         }
 
@@ -469,12 +525,15 @@ public class DataExporterXLSX extends StreamExporterAbstract {
             DBDAttributeBinding column = columns[i];
             Cell cell = rowX.createCell(i + startCol, getCellType(column));
             cell.setCellStyle(style);
+            int valueWidth;
 
             if (DBUtils.isNullValue(row[i])) {
                 if (!CommonUtils.isEmpty(nullString)) {
                     cell.setCellValue(nullString);
+                    valueWidth = nullString.length();
                 } else {
                     cell.setCellValue("");
+                    valueWidth = 0;
                 }
             } else if (row[i] instanceof DBDContent) {
                 DBDContent content = (DBDContent) row[i];
@@ -482,10 +541,12 @@ public class DataExporterXLSX extends StreamExporterAbstract {
                     DBDContentStorage cs = content.getContents(session.getProgressMonitor());
                     if (cs == null) {
                         cell.setCellValue(DBConstants.NULL_VALUE_LABEL);
+                        valueWidth = DBConstants.NULL_VALUE_LABEL.length();
                     } else if (ContentUtils.isTextContent(content)) {
-                        writeCellValue(cell, cs.getContentReader());
+                        valueWidth = writeCellValue(cell, cs.getContentReader());
                     } else {
                         cell.setCellValue(BINARY_FIXED);
+                        valueWidth = BINARY_FIXED.length();
                     }
                 } finally {
                     content.release();
@@ -497,25 +558,38 @@ public class DataExporterXLSX extends StreamExporterAbstract {
                 } else {
                     cell.setCellValue((Boolean) row[i]);
                 }
+                valueWidth = ((Boolean) row[i] ? boolTrue : boolFalse).length();
 
             } else if (row[i] instanceof Number) {
 
                 cell.setCellValue(((Number) row[i]).doubleValue());
+                valueWidth = sampleWidths ? row[i].toString().length() : 0;
 
             } else if (row[i] instanceof Date) {
 
                 cell.setCellValue((Date) row[i]);
                 cell.setCellStyle(styleDate);
+                valueWidth = CommonUtils.isEmpty(dateFormat) ? DATE_VALUE_WIDTH : dateFormat.length();
 
             } else {
 
                 String stringValue = super.getValueDisplayString(column, row[i]);
                 cell.setCellValue(stringValue);
+                valueWidth = stringValue.length();
+            }
+            if (sampleWidths) {
+                wsh.updateColumnWidth(i + startCol, valueWidth);
             }
 
         }
         wsh.incRow();
         rowCount++;
+        if (sampleWidths) {
+            wsh.incSampledRows();
+            if (wsh.getSampledRows() >= widthSampleRows) {
+                wsh.applyColumnWidths(MAX_COLUMN_WIDTH);
+            }
+        }
     }
 
     private CellType getCellType(DBDAttributeBinding column) {
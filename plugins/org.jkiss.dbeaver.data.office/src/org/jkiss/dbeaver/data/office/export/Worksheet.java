@@ -24,6 +24,9 @@ public class Worksheet {
 	private Sheet sh;
 	private Object columnVal;
 	private int currentRow;
+	// Estimated column widths (in characters). Null if widths are already applied or not estimated.
+	private int[] columnWidths;
+	private int sampledRows;
 	
 	public Worksheet(Sheet sh, Object columnVal, int currentRow)
 	{
@@ -33,6 +36,12 @@ public class Worksheet {
 		this.currentRow = currentRow;
 	}
 	
+	public Worksheet(Sheet sh, Object columnVal, int currentRow, int columnCount)
+	{
+		this(sh, columnVal, currentRow);
+		this.columnWidths = new int[columnCount];
+	}
+	
 	public Sheet getSh()
 	{
 		return sh;
@@ -52,6 +61,45 @@ public class Worksheet {
 		currentRow++;
 	}
 	
+	public boolean isSamplingWidths()
+	{
+		return columnWidths != null;
+	}
+	
+	public int getSampledRows()
+	{
+		return sampledRows;
+	}
+	
+	public void incSampledRows()
+	{
+		sampledRows++;
+	}
+	
+	public void updateColumnWidth(int column, int width)
+	{
+		if (columnWidths != null && column < columnWidths.length && width > columnWidths[column]) {
+			columnWidths[column] = width;
+		}
+	}
+	
+	/**
+	 * Sets sampled widths to sheet columns. Sampling stops after that.
+	 */
+	public void applyColumnWidths(int maxWidth)
+	{
+		if (columnWidths == null || sh == null) {
+			return;
+		}
+		for (int i = 0; i < columnWidths.length; i++) {
+			if (columnWidths[i] > 0) {
+				// Width is measured in 1/256 of character width. Add a couple of chars for padding.
+				sh.setColumnWidth(i, Math.min(columnWidths[i] + 2, maxWidth) * 256);
+			}
+		}
+		columnWidths = null;
+	}
+	
 	public void dispose(){
 		sh = null;
 	}
@@ -147,6 +147,12 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
             boolean newConnection = settings.isOpenNewConnections() && !getDatabaseObject().getDataSource().getContainer().getDriver().isEmbedded();
             boolean forceDataReadTransactions = Boolean.TRUE.equals(dataSource.getDataSourceFeature(DBConstants.FEATURE_LOB_REQUIRE_TRANSACTIONS));
             boolean selectiveExportFromUI = settings.isSelectedColumnsOnly() || settings.isSelectedRowsOnly();
+            if (!selectiveExportFromUI && newConnection) {
+                // Separate connection is used only by this producer and it is switched to manual commit mode below,
+                // so result set may be read with server-side cursor without buffering all rows in memory.
+                // Rows may be read in a separate thread while consumer processes previous rows.
+                readFlags |= DBSDataContainer.FLAG_STREAM_READ | DBSDataContainer.FLAG_PREFETCH_ROWS;
+            }
 
             try {
                 DBCExecutionContext context;
@@ -18,13 +18,18 @@ package org.jkiss.dbeaver.erd.model;
 
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTablePartition;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
 /**
@@ -34,6 +39,8 @@ public class DiagramObjectCollector {
 
     private static final Log log = Log.getLog(DiagramObjectCollector.class);
 
+    private static final int BULK_PREFETCH_MIN_ENTITIES = 5;
+
     private final ERDDiagram diagram;
     private final List<ERDEntity> erdEntities = new ArrayList<>();
     private boolean showViews;
@@ -137,11 +144,20 @@ public class DiagramObjectCollector {
         throws DBException
     {
         Collection<DBSEntity> tables = collectTables(monitor, roots, settings, showViews);
+        List<DBSEntity> visibleTables = new ArrayList<>(tables.size());
         for (DBSEntity table : tables) {
             if (DBUtils.isHiddenObject(table)) {
                 // Skip hidden tables
                 continue;
             }
+            visibleTables.add(table);
+        }
+        prefetchEntityMetadata(monitor, visibleTables);
+
+        for (DBSEntity table : visibleTables) {
+            if (monitor.isCanceled()) {
+                break;
+            }
             addDiagramEntity(monitor, table);
         }
 
@@ -151,6 +167,67 @@ public class DiagramObjectCollector {
         }
     }
 
+    /**
+     * Reads columns, keys and foreign keys of all entities in a few schema-wide queries.
+     * Otherwise each entity would read its metadata separately (several queries per table).
+     * Containers of different datasources are read in parallel.
+     */
+    private static void prefetchEntityMetadata(DBRProgressMonitor monitor, Collection<DBSEntity> tables)
+    {
+        Map<DBSObjectContainer, Integer> containerEntities = new LinkedHashMap<>();
+        for (DBSEntity table : tables) {
+            DBSObject parent = table.getParentObject();
+            if (parent instanceof DBSObjectContainer) {
+                containerEntities.merge((DBSObjectContainer) parent, 1, Integer::sum);
+            }
+        }
+        Map<DBPDataSource, List<DBSObjectContainer>> dataSourceContainers = new LinkedHashMap<>();
+        for (Map.Entry<DBSObjectContainer, Integer> entry : containerEntities.entrySet()) {
+            if (entry.getValue() < BULK_PREFETCH_MIN_ENTITIES) {
+                // Reading the whole container is more expensive than reading a couple of tables
+                continue;
+            }
+            DBSObjectContainer container = entry.getKey();
+            dataSourceContainers.computeIfAbsent(container.getDataSource(), ds -> new ArrayList<>()).add(container);
+        }
+        if (dataSourceContainers.isEmpty()) {
+            return;
+        }
+
+        List<DBRRunnableWithProgress> prefetchTasks = new ArrayList<>();
+        for (Map.Entry<DBPDataSource, List<DBSObjectContainer>> entry : dataSourceContainers.entrySet()) {
+            DBPDataSource dataSource = entry.getKey();
+            List<DBSObjectContainer> containers = entry.getValue();
+            prefetchTasks.add(taskMonitor -> {
+                for (DBSObjectContainer container : containers) {
+                    if (taskMonitor.isCanceled()) {
+                        break;
+                    }
+                    taskMonitor.subTask("Load '" + container.getName() + "' metadata");
+                    try {
+                        DBExecUtils.tryExecuteRecover(taskMonitor, dataSource, param -> {
+                            try {
+                                container.cacheStructure(taskMonitor, DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
+                            } catch (DBException e) {
+                                throw new InvocationTargetException(e);
+                            }
+                        });
+                    } catch (DBException e) {
+                        // Not fatal. Metadata will be read per entity.
+                        log.debug("Error caching '" + container.getName() + "' structure", e);
+                    }
+                }
+            });
+        }
+        try {
+            RuntimeUtils.runParallelTasks(monitor, "Load diagram metadata", prefetchTasks);
+        } catch (InvocationTargetException e) {
+            log.debug("Error loading diagram metadata", e.getTargetException());
+        } catch (InterruptedException e) {
+            // Canceled
+        }
+    }
+
     private void addDiagramEntity(DBRProgressMonitor monitor, DBSEntity table)
     {
         if (diagram.containsTable(table) && !diagram.getContentProvider().allowEntityDuplicates()) {
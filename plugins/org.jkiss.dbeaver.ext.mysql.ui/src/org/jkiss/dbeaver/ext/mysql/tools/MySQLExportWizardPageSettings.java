@@ -125,6 +125,8 @@ class MySQLExportWizardPageSettings extends MySQLWizardPageSettings<MySQLExportW
                 GeneralUtils.variablePattern(NativeToolUtils.VARIABLE_TIMESTAMP)));
 
         createExtraArgsInput(outputGroup);
+        createParallelProcessesInput(outputGroup);
+        createOutputCompressionInput(outputGroup);
 
         if (wizard.getSettings().getOutputFolder() != null) {
             outputFolderText.setText(wizard.getSettings().getOutputFolder().getAbsolutePath());
@@ -18,12 +18,18 @@ package org.jkiss.dbeaver.ext.mysql.model;
 
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ext.mysql.MySQLConstants;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.exec.DBCStreamingReadSupport;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -31,7 +37,7 @@ import java.util.Collections;
 /**
 * MySQL dialect
 */
-class MySQLDialect extends JDBCSQLDialect {
+class MySQLDialect extends JDBCSQLDialect implements DBCStreamingReadSupport {
 
     public static final String[] MYSQL_NON_TRANSACTIONAL_KEYWORDS = ArrayUtils.concatArrays(
         BasicSQLDialect.NON_TRANSACTIONAL_KEYWORDS,
@@ -175,4 +181,25 @@ class MySQLDialect extends JDBCSQLDialect {
         return true;
     }
 
+    @Override
+    public boolean isStreamingRequiresTransaction() {
+        return false;
+    }
+
+    @Override
+    public boolean configureStreamingRead(@NotNull DBCStatement statement, int fetchSize, boolean exclusive) throws DBCException {
+        DBPConnectionConfiguration connectionInfo = statement.getSession().getDataSource().getContainer().getActualConnectionConfiguration();
+        if (CommonUtils.toBoolean(connectionInfo.getProperty(MySQLConstants.PROP_USE_CURSOR_FETCH))) {
+            // Server-side cursor. Driver reads fetch size rows at once.
+            statement.setResultsFetchSize(fetchSize);
+            return true;
+        }
+        if (!exclusive) {
+            // Row by row streaming blocks any other query in this connection until the whole result set is read
+            return false;
+        }
+        statement.setResultsFetchSize(Integer.MIN_VALUE);
+        return true;
+    }
+
 }
@@ -116,6 +116,11 @@ public class MySQLDatabaseExportHandler extends MySQLNativeToolHandler<MySQLExpo
         return false;
     }
 
+    @Override
+    protected boolean isParallelExecutionSupported() {
+        return true;
+    }
+
     @Override
     protected boolean isLogInputStream() {
         return false;
@@ -150,10 +155,11 @@ public class MySQLDatabaseExportHandler extends MySQLNativeToolHandler<MySQLExpo
         File outFile = new File(settings.getOutputFolder(), outFileName);
 
         boolean isFiltering = settings.isRemoveDefiner();
-        Thread job = isFiltering ?
+        DumpJob job = isFiltering ?
             new DumpFilterJob(monitor, process.getInputStream(), outFile, log) :
             new DumpCopierJob(monitor, "Dump database", process.getInputStream(), outFile, log);
-        job.start();
+        job.setCompressionLevel(settings.getOutputCompressionLevel());
+        startDumpJob(process, job);
     }
 
 
@@ -172,7 +178,7 @@ public class MySQLDatabaseExportHandler extends MySQLNativeToolHandler<MySQLExpo
                 NumberFormat numberFormat = NumberFormat.getInstance();
 
                 LineNumberReader reader = new LineNumberReader(new InputStreamReader(input, GeneralUtils.DEFAULT_ENCODING));
-                try (OutputStream output = new FileOutputStream(outFile)) {
+                try (OutputStream output = openOutputStream()) {
                     BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, GeneralUtils.DEFAULT_ENCODING));
                     for (; ; ) {
                         String line = reader.readLine();
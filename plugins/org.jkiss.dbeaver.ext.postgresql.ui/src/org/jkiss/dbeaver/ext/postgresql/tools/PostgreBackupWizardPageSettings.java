@@ -153,6 +153,8 @@ class PostgreBackupWizardPageSettings extends PostgreToolWizardPageSettings<Post
         outputFileText.addModifyListener(e -> wizard.getSettings().setOutputFilePattern(outputFileText.getText()));
 
         createExtraArgsInput(outputGroup);
+        createParallelProcessesInput(outputGroup);
+        createOutputCompressionInput(outputGroup);
 
         Composite extraGroup = UIUtils.createComposite(composite, 2);
         createSecurityGroup(extraGroup);
@@ -26,6 +26,9 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPKeywordType;
 import org.jkiss.dbeaver.model.data.DBDBinaryFormatter;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.exec.DBCStreamingReadSupport;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
@@ -43,7 +46,7 @@ import java.util.List;
 /**
  * PostgreSQL dialect
  */
-public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider {
+public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider, DBCStreamingReadSupport {
 
     public static final String[] POSTGRE_NON_TRANSACTIONAL_KEYWORDS = ArrayUtils.concatArrays(
         BasicSQLDialect.NON_TRANSACTIONAL_KEYWORDS,
@@ -867,4 +870,16 @@ public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider {
             rules.add(new PostgreDollarQuoteRule(dataSource, position == RulePosition.PARTITION));
         }
     }
+
+    @Override
+    public boolean isStreamingRequiresTransaction() {
+        // Driver reads results with portal (server-side cursor) only in manual commit mode
+        return true;
+    }
+
+    @Override
+    public boolean configureStreamingRead(@NotNull DBCStatement statement, int fetchSize, boolean exclusive) throws DBCException {
+        statement.setResultsFetchSize(fetchSize);
+        return true;
+    }
 }
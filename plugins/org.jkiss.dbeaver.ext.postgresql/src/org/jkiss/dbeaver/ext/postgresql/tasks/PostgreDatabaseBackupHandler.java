@@ -58,6 +58,11 @@ public class PostgreDatabaseBackupHandler extends PostgreNativeToolHandler<Postg
         return false;
     }
 
+    @Override
+    protected boolean isParallelExecutionSupported() {
+        return true;
+    }
+
     @Override
     public boolean isVerbose() {
         return true;
@@ -149,7 +154,11 @@ public class PostgreDatabaseBackupHandler extends PostgreNativeToolHandler<Postg
 
             File outFile = new File(settings.getOutputFolder(), outFileName);
             DumpCopierJob job = new DumpCopierJob(monitor, "Export database", process.getInputStream(), outFile, log);
-            job.start();
+            if (settings.getFormat() != PostgreBackupRestoreSettings.ExportFormat.CUSTOM && CommonUtils.isEmpty(settings.getCompression())) {
+                // Custom format and dumps with --compress are compressed by pg_dump itself
+                job.setCompressionLevel(settings.getOutputCompressionLevel());
+            }
+            startDumpJob(process, job);
         }
     }
 
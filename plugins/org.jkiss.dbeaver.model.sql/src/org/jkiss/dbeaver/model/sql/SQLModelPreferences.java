@@ -24,5 +24,6 @@ public final class SQLModelPreferences {
 
     public final static String SQL_FORMAT_FORMATTER             = "sql.format.formatter";
     public static final String SQL_PROPOSAL_INSERT_TABLE_ALIAS  = "sql.proposals.insert.table.alias";
+    public static final String SQL_PROPOSAL_USE_NAME_INDEX      = "sql.proposals.name.index";
 
 }
@@ -661,14 +661,30 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                         // Search using structure assistant
                         DBSStructureAssistant structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, sc);
                         if (structureAssistant != null) {
+                            String tokenName = request.getWordDetector().removeQuotes(token);
+                            boolean caseSensitive = request.getWordDetector().isQuoted(token);
                             Collection<DBSObjectReference> references = structureAssistant.findObjectsByMask(
                                 monitor,
                                 executionContext,
                                 null,
                                 structureAssistant.getAutoCompleteObjectTypes(),
-                                request.getWordDetector().removeQuotes(token),
-                                request.getWordDetector().isQuoted(token),
+                                tokenName,
+                                caseSensitive,
                                 false, 2);
+                            if (references.isEmpty()) {
+                                List<DBSObjectReference> indexedReferences = findObjectsInIndex(
+                                    structureAssistant, null, structureAssistant.getAutoCompleteObjectTypes(), tokenName, false, caseSensitive, false, 100);
+                                if (indexedReferences != null) {
+                                    // Index searches by prefix, leave exact matches only
+                                    List<DBSObjectReference> exactReferences = new ArrayList<>();
+                                    for (DBSObjectReference reference : indexedReferences) {
+                                        if (caseSensitive ? reference.getName().equals(tokenName) : reference.getName().equalsIgnoreCase(tokenName)) {
+                                            exactReferences.add(reference);
+                                        }
+                                    }
+                                    references = exactReferences;
+                                }
+                            }
                             if (!references.isEmpty()) {
                                 childObject = references.iterator().next().resolveObject(monitor);
                             }
@@ -952,14 +968,42 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         String objectName,
         @NotNull Map<String, Object> params) throws DBException
     {
-        Collection<DBSObjectReference> references = assistant.findObjectsByMask(
+        if (objectTypes == null) {
+            objectTypes = assistant.getAutoCompleteObjectTypes();
+        }
+        String unquotedName = request.getWordDetector().removeQuotes(objectName);
+        boolean caseSensitive = request.getWordDetector().isQuoted(objectName);
+        List<DBSObjectReference> references = new ArrayList<>(assistant.findObjectsByMask(
             monitor,
             request.getContext().getExecutionContext(),
             rootSC,
-            objectTypes == null ? assistant.getAutoCompleteObjectTypes() : objectTypes,
-            makeObjectNameMask(request.getWordDetector().removeQuotes(objectName)),
-            request.getWordDetector().isQuoted(objectName),
-            request.getContext().isSearchGlobally(), 100);
+            objectTypes,
+            makeObjectNameMask(unquotedName),
+            caseSensitive,
+            request.getContext().isSearchGlobally(), 100));
+        if (references.size() < 100) {
+            // Server search scope is driver specific (search path, system schemas).
+            // Index may only add objects which server search didn't return.
+            List<DBSObjectReference> indexedReferences = findObjectsInIndex(
+                assistant,
+                rootSC,
+                objectTypes,
+                unquotedName,
+                request.getContext().isSearchInsideNames(),
+                caseSensitive,
+                request.getContext().isSearchGlobally(),
+                100);
+            if (indexedReferences != null) {
+                for (DBSObjectReference reference : indexedReferences) {
+                    if (references.size() >= 100) {
+                        break;
+                    }
+                    if (!containsReference(references, reference)) {
+                        references.add(reference);
+                    }
+                }
+            }
+        }
         for (DBSObjectReference reference : references) {
             proposals.add(
                 makeProposalsFromObject(
@@ -970,6 +1014,49 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         }
     }
 
+    private static boolean containsReference(List<DBSObjectReference> references, DBSObjectReference reference) {
+        for (DBSObjectReference ref : references) {
+            if (ref.getObjectType() == reference.getObjectType() &&
+                ref.getContainer() == reference.getContainer() &&
+                CommonUtils.equalObjects(ref.getName(), reference.getName()))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Searches objects in local name index.
+     * Index results only complement structure assistant results: server search scope may be wider.
+     * Returns null if index can't be used.
+     */
+    @Nullable
+    private List<DBSObjectReference> findObjectsInIndex(
+        DBSStructureAssistant assistant,
+        @Nullable DBSObject rootSC,
+        DBSObjectType[] objectTypes,
+        String objectName,
+        boolean searchInside,
+        boolean caseSensitive,
+        boolean globalSearch,
+        int maxResults)
+    {
+        DBCExecutionContext executionContext = request.getContext().getExecutionContext();
+        if (executionContext == null || objectName == null || objectName.contains(MATCH_ANY_PATTERN)) {
+            return null;
+        }
+        SQLCompletionNameIndex index = SQLCompletionNameIndex.getIndex(executionContext.getDataSource(), assistant);
+        if (index == null) {
+            return null;
+        }
+        DBSObject scope = rootSC instanceof DBPDataSource ? null : rootSC;
+        if (scope == null && !globalSearch) {
+            scope = DBUtils.getSelectedObject(executionContext);
+        }
+        return index.findObjects(scope, objectTypes, objectName, searchInside, caseSensitive, maxResults);
+    }
+
     private String makeObjectNameMask(String objectName) {
         if (request.getContext().isSearchInsideNames()) {
             return MATCH_ANY_PATTERN + objectName + MATCH_ANY_PATTERN;
@@ -1006,7 +1093,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                         String queryText = request.getActiveQuery().getText();
                         Set<String> aliases = new LinkedHashSet<>();
                         if (request.getActiveQuery() instanceof SQLQuery) {
-                            Statement sqlStatement = ((SQLQuery) request.getActiveQuery()).getStatement();
+                            Statement sqlStatement = ((SQLQuery) request.getActiveQuery()).getParsedStatement();
                             if (sqlStatement != null) {
                                 TablesNamesFinder namesFinder = new TablesNamesFinder() {
                                     public void visit(Table table) {
@@ -0,0 +1,522 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.*;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.struct.DirectObjectReference;
+import org.jkiss.dbeaver.model.navigator.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLModelPreferences;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.ArrayUtils;
+
+import java.util.*;
+
+/**
+ * Local index of object names used by SQL completion.
+ *
+ * Index is built in background with one structure assistant search of all auto-complete object types.
+ * Names are kept in a sorted map (prefix search) and in trigram postings (substring search).
+ * Index is kept current by data source and navigator events. It is dropped on disconnect and then rebuilt
+ * on the next completion request. Refreshed catalogs and schemas are re-indexed separately.
+ * Completion always queries the server, index only adds objects which server search didn't return.
+ */
+public class SQLCompletionNameIndex {
+
+    private static final Log log = Log.getLog(SQLCompletionNameIndex.class);
+
+    private static final int MAX_INDEXED_OBJECTS = 200000;
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private static final Map<DBPDataSourceContainer, SQLCompletionNameIndex> indexes = new IdentityHashMap<>();
+    private static final Set<DBPDataSourceRegistry> listenedRegistries = Collections.newSetFromMap(new IdentityHashMap<>());
+    private static final IndexEventListener eventListener = new IndexEventListener();
+    private static boolean navigatorListenerAdded;
+
+    private static class IndexEntry {
+        final int id;
+        final DBSObjectReference reference;
+        final String lowerName;
+        boolean removed;
+
+        IndexEntry(int id, DBSObjectReference reference) {
+            this.id = id;
+            this.reference = reference;
+            this.lowerName = reference.getName().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private static class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private final DBPDataSourceContainer container;
+    private final DBSStructureAssistant<?> assistant;
+    private final List<IndexEntry> entries = new ArrayList<>();
+    private final TreeMap<String, List<IndexEntry>> names = new TreeMap<>();
+    private final Map<String, Postings> trigrams = new HashMap<>();
+    private volatile boolean ready;
+    private volatile boolean disposed;
+
+    private SQLCompletionNameIndex(DBPDataSourceContainer container, DBSStructureAssistant<?> assistant) {
+        this.container = container;
+        this.assistant = assistant;
+    }
+
+    /**
+     * Returns name index of the data source. Starts index build if there is no index yet.
+     * Returns null if name index is disabled.
+     */
+    @Nullable
+    public static SQLCompletionNameIndex getIndex(@NotNull DBPDataSource dataSource, @NotNull DBSStructureAssistant<?> assistant) {
+        DBPDataSourceContainer container = dataSource.getContainer();
+        if (!container.getPreferenceStore().getBoolean(SQLModelPreferences.SQL_PROPOSAL_USE_NAME_INDEX)) {
+            return null;
+        }
+        SQLCompletionNameIndex index;
+        synchronized (indexes) {
+            index = indexes.get(container);
+            if (index != null && index.assistant != assistant) {
+                // Data source was reconnected
+                index.disposed = true;
+                index = null;
+            }
+            if (index == null) {
+                addListeners(container);
+                index = new SQLCompletionNameIndex(container, assistant);
+                indexes.put(container, index);
+                new IndexBuildJob(index, dataSource).schedule();
+            }
+        }
+        return index;
+    }
+
+    public boolean isReady() {
+        return ready && !disposed;
+    }
+
+    /**
+     * Finds objects by name prefix or by name part.
+     *
+     * @param scope           container of found objects (at any level). Null means any container.
+     * @param objectTypes     types of found objects
+     * @param objectName      name prefix or part
+     * @param searchInside    search name part instead of prefix
+     * @param caseSensitive   match name case
+     * @return found objects or null if index isn't ready
+     */
+    @Nullable
+    public List<DBSObjectReference> findObjects(
+        @Nullable DBSObject scope,
+        @NotNull DBSObjectType[] objectTypes,
+        @NotNull String objectName,
+        boolean searchInside,
+        boolean caseSensitive,
+        int maxResults)
+    {
+        if (!isReady()) {
+            return null;
+        }
+        String lowerName = objectName.toLowerCase(Locale.ENGLISH);
+        List<DBSObjectReference> result = new ArrayList<>();
+        synchronized (this) {
+            if (!searchInside) {
+                for (List<IndexEntry> nameEntries : names.subMap(lowerName, true, lowerName + Character.MAX_VALUE, false).values()) {
+                    for (IndexEntry entry : nameEntries) {
+                        if (result.size() >= maxResults) {
+                            return result;
+                        }
+                        if (matches(entry, scope, objectTypes, objectName, false, caseSensitive)) {
+                            result.add(entry.reference);
+                        }
+                    }
+                }
+            } else if (lowerName.length() < TRIGRAM_LENGTH) {
+                for (IndexEntry entry : entries) {
+                    if (result.size() >= maxResults) {
+                        break;
+                    }
+                    if (matches(entry, scope, objectTypes, objectName, true, caseSensitive)) {
+                        result.add(entry.reference);
+                    }
+                }
+            } else {
+                // Scan the shortest postings list of query trigrams
+                Postings candidates = null;
+                for (int i = 0; i + TRIGRAM_LENGTH <= lowerName.length(); i++) {
+                    Postings postings = trigrams.get(lowerName.substring(i, i + TRIGRAM_LENGTH));
+                    if (postings == null) {
+                        return result;
+                    }
+                    if (candidates == null || postings.size < candidates.size) {
+                        candidates = postings;
+                    }
+                }
+                for (int i = 0; candidates != null && i < candidates.size && result.size() < maxResults; i++) {
+                    IndexEntry entry = entries.get(candidates.ids[i]);
+                    if (matches(entry, scope, objectTypes, objectName, true, caseSensitive)) {
+                        result.add(entry.reference);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(IndexEntry entry, DBSObject scope, DBSObjectType[] objectTypes, String objectName, boolean searchInside, boolean caseSensitive) {
+        if (entry.removed || !ArrayUtils.contains(objectTypes, entry.reference.getObjectType())) {
+            return false;
+        }
+        String name = caseSensitive ? entry.reference.getName() : entry.lowerName;
+        String pattern = caseSensitive ? objectName : objectName.toLowerCase(Locale.ENGLISH);
+        if (searchInside ? !name.contains(pattern) : !name.startsWith(pattern)) {
+            return false;
+        }
+        return scope == null || isInScope(entry, scope);
+    }
+
+    private static boolean isInScope(IndexEntry entry, DBSObject scope) {
+        for (DBSObject parent = entry.reference.getContainer(); parent != null; parent = parent.getParentObject()) {
+            if (parent == scope) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized int getObjectCount() {
+        return entries.size();
+    }
+
+    /**
+     * Replaces all entries of the container with new references
+     */
+    private synchronized void replaceContainerEntries(DBSObject container, List<DBSObjectReference> references) {
+        for (IndexEntry entry : entries) {
+            if (!entry.removed && isInScope(entry, container)) {
+                entry.removed = true;
+            }
+        }
+        for (DBSObjectReference reference : references) {
+            addEntry(reference);
+        }
+    }
+
+    private synchronized void addEntry(DBSObjectReference reference) {
+        if (reference.getName() == null) {
+            return;
+        }
+        IndexEntry entry = new IndexEntry(entries.size(), reference);
+        List<IndexEntry> nameEntries = names.get(entry.lowerName);
+        if (nameEntries == null) {
+            nameEntries = new ArrayList<>(1);
+            names.put(entry.lowerName, nameEntries);
+        } else {
+            for (IndexEntry existing : nameEntries) {
+                if (!existing.removed && existing.reference.getContainer() == reference.getContainer() &&
+                    existing.reference.getObjectType() == reference.getObjectType())
+                {
+                    // Already indexed
+                    return;
+                }
+            }
+        }
+        nameEntries.add(entry);
+        entries.add(entry);
+        Set<String> entryTrigrams = new HashSet<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= entry.lowerName.length(); i++) {
+            String trigram = entry.lowerName.substring(i, i + TRIGRAM_LENGTH);
+            if (entryTrigrams.add(trigram)) {
+                Postings postings = trigrams.get(trigram);
+                if (postings == null) {
+                    postings = new Postings();
+                    trigrams.put(trigram, postings);
+                }
+                postings.add(entry.id);
+            }
+        }
+    }
+
+    private synchronized void removeObject(DBSObject object) {
+        if (object.getName() == null) {
+            return;
+        }
+        List<IndexEntry> nameEntries = names.get(object.getName().toLowerCase(Locale.ENGLISH));
+        if (nameEntries != null) {
+            for (IndexEntry entry : nameEntries) {
+                if (entry.reference.getContainer() == object.getParentObject()) {
+                    // Entry stays in postings, it is skipped by search
+                    entry.removed = true;
+                }
+            }
+        }
+    }
+
+    private void addObject(DBSObject object) {
+        if (object.getParentObject() == null) {
+            return;
+        }
+        for (DBSObjectType type : assistant.getAutoCompleteObjectTypes()) {
+            if (type.getTypeClass().isInstance(object)) {
+                addEntry(new DirectObjectReference(object.getParentObject(), type, object));
+                break;
+            }
+        }
+    }
+
+    private static void addListeners(DBPDataSourceContainer container) {
+        DBPDataSourceRegistry registry = container.getRegistry();
+        if (listenedRegistries.add(registry)) {
+            registry.addDataSourceListener(eventListener);
+        }
+        if (!navigatorListenerAdded) {
+            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+            if (navigatorModel != null) {
+                navigatorModel.addListener(eventListener);
+                navigatorListenerAdded = true;
+            }
+        }
+    }
+
+    @Nullable
+    private static SQLCompletionNameIndex findIndex(@Nullable DBSObject object) {
+        DBPDataSource dataSource = object == null ? null : object.getDataSource();
+        if (dataSource == null) {
+            return null;
+        }
+        synchronized (indexes) {
+            return indexes.get(dataSource.getContainer());
+        }
+    }
+
+    private static void dropIndex(DBPDataSourceContainer container) {
+        synchronized (indexes) {
+            SQLCompletionNameIndex index = indexes.remove(container);
+            if (index != null) {
+                index.disposed = true;
+            }
+        }
+    }
+
+    private static void handleObjectChange(DBSObject object, boolean added, boolean removed) {
+        if (object instanceof DBPDataSourceContainer) {
+            if (!added) {
+                // Connect, disconnect or removal
+                dropIndex((DBPDataSourceContainer) object);
+            }
+            return;
+        }
+        SQLCompletionNameIndex index = findIndex(object);
+        if (index == null) {
+            return;
+        }
+        if (object instanceof DBPDataSource && !added) {
+            // Whole data source refresh. Rebuild the whole index.
+            dropIndex(index.container);
+            return;
+        }
+        if (object instanceof DBSCatalog || object instanceof DBSSchema) {
+            if (removed) {
+                index.replaceContainerEntries(object, Collections.emptyList());
+            } else if (!index.isReady()) {
+                // Full build is in progress and may miss container changes
+                dropIndex(index.container);
+                return;
+            } else {
+                // Container refresh may change any nested objects. Re-index the container only.
+                new ContainerIndexJob(index, object.getDataSource(), object).schedule();
+            }
+        }
+        if (removed || !added) {
+            // Object may be renamed
+            index.removeObject(object);
+        }
+        if (!removed) {
+            index.addObject(object);
+        }
+    }
+
+    private static class IndexEventListener implements DBPEventListener, INavigatorListener {
+        @Override
+        public void handleDataSourceEvent(DBPEvent event) {
+            DBSObject object = event.getObject();
+            if (object == null) {
+                return;
+            }
+            switch (event.getAction()) {
+                case OBJECT_ADD:
+                    handleObjectChange(object, true, false);
+                    break;
+                case OBJECT_REMOVE:
+                    handleObjectChange(object, false, true);
+                    break;
+                case OBJECT_UPDATE:
+                    if (event.getData() != DBPEvent.REORDER) {
+                        handleObjectChange(object, false, false);
+                    }
+                    break;
+            }
+        }
+
+        @Override
+        public void nodeChanged(DBNEvent event) {
+            if (!(event.getNode() instanceof DBNDatabaseNode)) {
+                return;
+            }
+            DBSObject object = ((DBNDatabaseNode) event.getNode()).getObject();
+            if (object == null) {
+                return;
+            }
+            switch (event.getAction()) {
+                case ADD:
+                    handleObjectChange(object, true, false);
+                    break;
+                case REMOVE:
+                    handleObjectChange(object, false, true);
+                    break;
+                case UPDATE:
+                    if (event.getNodeChange() == DBNEvent.NodeChange.REFRESH || event.getNodeChange() == DBNEvent.NodeChange.STRUCT_REFRESH) {
+                        handleObjectChange(object, false, false);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static List<DBSObjectReference> findAllObjects(
+        SQLCompletionNameIndex index,
+        DBRProgressMonitor monitor,
+        DBCExecutionContext executionContext,
+        @Nullable DBSObjectContainer parent) throws DBException
+    {
+        @SuppressWarnings("unchecked")
+        DBSStructureAssistant<DBCExecutionContext> assistant = (DBSStructureAssistant<DBCExecutionContext>) index.assistant;
+        return assistant.findObjectsByMask(
+            monitor,
+            executionContext,
+            parent,
+            index.assistant.getAutoCompleteObjectTypes(),
+            "%",
+            false,
+            true,
+            MAX_INDEXED_OBJECTS);
+    }
+
+    private static class IndexBuildJob extends AbstractJob {
+        private final SQLCompletionNameIndex index;
+        private final DBPDataSource dataSource;
+
+        IndexBuildJob(SQLCompletionNameIndex index, DBPDataSource dataSource) {
+            super("Build object name index of '" + dataSource.getContainer().getName() + "'");
+            this.index = index;
+            this.dataSource = dataSource;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            DBCExecutionContext executionContext = DBUtils.getDefaultContext(dataSource, true);
+            if (executionContext == null) {
+                dropIndex(index.container);
+                return Status.OK_STATUS;
+            }
+            try {
+                List<DBSObjectReference> references = findAllObjects(index, monitor, executionContext, null);
+                if (references.size() >= MAX_INDEXED_OBJECTS) {
+                    // Incomplete index would hide objects. Completion will use server search.
+                    log.debug("Too many objects in '" + dataSource.getContainer().getName() + "'. Object name index is disabled.");
+                    return Status.OK_STATUS;
+                }
+                for (DBSObjectReference reference : references) {
+                    if (index.disposed || monitor.isCanceled()) {
+                        return Status.OK_STATUS;
+                    }
+                    index.addEntry(reference);
+                }
+                index.ready = true;
+            } catch (Throwable e) {
+                log.debug("Error building object name index of '" + dataSource.getContainer().getName() + "'", e);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static class ContainerIndexJob extends AbstractJob {
+        private final SQLCompletionNameIndex index;
+        private final DBPDataSource dataSource;
+        private final DBSObject container;
+
+        ContainerIndexJob(SQLCompletionNameIndex index, DBPDataSource dataSource, DBSObject container) {
+            super("Update object name index of '" + container.getName() + "'");
+            this.index = index;
+            this.dataSource = dataSource;
+            this.container = container;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            DBCExecutionContext executionContext = DBUtils.getDefaultContext(container, true);
+            if (executionContext == null || index.disposed) {
+                return Status.OK_STATUS;
+            }
+            try {
+                List<DBSObjectReference> references = findAllObjects(index, monitor, executionContext, (DBSObjectContainer) container);
+                if (index.disposed || monitor.isCanceled()) {
+                    return Status.OK_STATUS;
+                }
+                if (references.size() >= MAX_INDEXED_OBJECTS || index.getObjectCount() + references.size() >= MAX_INDEXED_OBJECTS) {
+                    log.debug("Too many objects in '" + dataSource.getContainer().getName() + "'. Object name index is disabled.");
+                    dropIndex(index.container);
+                    return Status.OK_STATUS;
+                }
+                index.replaceContainerEntries(container, references);
+            } catch (Throwable e) {
+                log.debug("Error updating object name index of '" + container.getName() + "'", e);
+                dropIndex(index.container);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.PrefetchingResultSet;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.model.sql.parser.SQLParserContext;
@@ -114,7 +115,7 @@ public class SQLQueryDataContainer implements DBSDataContainer, SQLQueryContaine
             firstRow,
             maxRows))
         {
-            DBExecUtils.setStatementFetchSize(dbcStatement, firstRow, maxRows, fetchSize);
+            DBExecUtils.setStatementFetchSize(dbcStatement, firstRow, maxRows, fetchSize, flags);
 
             // Execute statement
 
@@ -129,6 +130,9 @@ public class SQLQueryDataContainer implements DBSDataContainer, SQLQueryContaine
 
             if (hasResultSet) {
                 DBCResultSet resultSet = dbcStatement.openResultSet();
+                if (resultSet != null && CommonUtils.isBitSet(flags, DBSDataContainer.FLAG_PREFETCH_ROWS)) {
+                    resultSet = PrefetchingResultSet.prefetch(session, resultSet, maxRows);
+                }
                 if (resultSet != null) {
                     SQLQueryResult.ExecuteResult executeResult = curResult.addExecuteResult(true);
                     DBRProgressMonitor monitor = session.getProgressMonitor();
@@ -52,6 +52,11 @@ public final class ModelPreferences
     public static final String CONNECTION_OPEN_TIMEOUT = "connection.open.timeout"; //$NON-NLS-1$
     public static final String CONNECTION_VALIDATION_TIMEOUT = "connection.validation.timeout"; //$NON-NLS-1$
     public static final String CONNECTION_CLOSE_TIMEOUT = "connection.close.timeout"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_ENABLED = "connection.pool.enabled"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_MIN_IDLE = "connection.pool.minIdle"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_MAX_IDLE = "connection.pool.maxIdle"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_MAX_ACTIVE = "connection.pool.maxActive"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_IDLE_TIMEOUT = "connection.pool.idleTimeout"; //$NON-NLS-1$
 
     public static final String SCRIPT_STATEMENT_DELIMITER = "script.sql.delimiter"; //$NON-NLS-1$
     public static final String SCRIPT_IGNORE_NATIVE_DELIMITER = "script.sql.ignoreNativeDelimiter"; //$NON-NLS-1$
@@ -84,6 +89,10 @@ public final class ModelPreferences
 
     // ResultSet
     public static final String RESULT_SET_USE_FETCH_SIZE = "resultset.fetch.size"; //$NON-NLS-1$
+    public static final String RESULT_SET_ADAPTIVE_FETCH_SIZE = "resultset.fetch.size.adaptive"; //$NON-NLS-1$
+    public static final String RESULT_SET_ADAPTIVE_FETCH_MAX_SIZE = "resultset.fetch.size.adaptive.max"; //$NON-NLS-1$
+    // Target memory of one fetched batch of rows, in Kb
+    public static final String RESULT_SET_ADAPTIVE_FETCH_BATCH_MEMORY = "resultset.fetch.size.adaptive.memory"; //$NON-NLS-1$
     public static final String RESULT_SET_MAX_ROWS_USE_SQL = "resultset.maxrows.sql"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_PRESENTATION = "resultset.binary.representation"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_STRING_MAX_LEN = "resultset.binary.stringMaxLength"; //$NON-NLS-1$
@@ -104,6 +113,7 @@ public final class ModelPreferences
     public static final String SQL_CONTROL_COMMAND_PREFIX = "sql.command.prefix"; //$NON-NLS-1$
     public static final String SQL_VARIABLES_ENABLED = "sql.variables.enabled"; //$NON-NLS-1$
     public static final String SQL_FILTER_FORCE_SUBSELECT = "sql.query.filter.force.subselect"; //$NON-NLS-1$
+    public static final String SQL_PARSE_MAX_LENGTH = "sql.query.parse.maxLength"; //$NON-NLS-1$
 
     public final static String SQL_FORMAT_KEYWORD_CASE = "sql.format.keywordCase";
     public final static String SQL_FORMAT_EXTERNAL_CMD = "sql.format.external.cmd";
@@ -137,6 +147,8 @@ public final class ModelPreferences
     public static final String TRANSACTIONS_SHOW_NOTIFICATIONS = "transaction.show.notifications"; //$NON-NLS-1$
 
     public static final String DICTIONARY_COLUMN_DIVIDER = "resultset.dictionary.columnDivider"; //$NON-NLS-1$
+    public static final String DICTIONARY_CACHE_TTL = "resultset.dictionary.cache.ttl"; //$NON-NLS-1$
+    public static final String DICTIONARY_CACHE_MAX_SIZE = "resultset.dictionary.cache.maxSize"; //$NON-NLS-1$
 
     private static Bundle mainBundle;
     private static DBPPreferenceStore preferences;
@@ -172,6 +184,11 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_OPEN_TIMEOUT, 0);
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_VALIDATION_TIMEOUT, 10000);
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_CLOSE_TIMEOUT, 5000);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_ENABLED, false);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_MIN_IDLE, 0);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_MAX_IDLE, 4);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_MAX_ACTIVE, 20);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_IDLE_TIMEOUT, 300000);
 
         // SQL execution
         PrefUtils.setDefaultPreferenceValue(store, SCRIPT_STATEMENT_DELIMITER, SQLConstants.DEFAULT_STATEMENT_DELIMITER);
@@ -214,6 +231,9 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_PRESENTATION, DBConstants.BINARY_FORMATS[0].getId());
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_STRING_MAX_LEN, 32);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_USE_FETCH_SIZE, false);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_ADAPTIVE_FETCH_SIZE, false);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_ADAPTIVE_FETCH_MAX_SIZE, 100000);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_ADAPTIVE_FETCH_BATCH_MEMORY, 16 * 1024);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_IGNORE_COLUMN_LABEL, false);
 
         // QM
@@ -234,6 +254,7 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, SQL_CONTROL_COMMAND_PREFIX, String.valueOf(SQLConstants.DEFAULT_CONTROL_COMMAND_PREFIX));
         PrefUtils.setDefaultPreferenceValue(store, SQL_VARIABLES_ENABLED, true);
         PrefUtils.setDefaultPreferenceValue(store, SQL_FILTER_FORCE_SUBSELECT, false);
+        PrefUtils.setDefaultPreferenceValue(store, SQL_PARSE_MAX_LENGTH, 1000000);
 
         PrefUtils.setDefaultPreferenceValue(store, SQL_FORMAT_KEYWORD_CASE, "");
         PrefUtils.setDefaultPreferenceValue(store, SQL_FORMAT_LF_BEFORE_COMMA, false);
@@ -263,6 +284,9 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.TRANSACTIONS_SHOW_NOTIFICATIONS, true);
 
         PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.DICTIONARY_COLUMN_DIVIDER, " ");
+        // Seconds
+        PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.DICTIONARY_CACHE_TTL, 60);
+        PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.DICTIONARY_CACHE_MAX_SIZE, 10000);
 
         // Data formats
         DataFormatterProfile.initDefaultPreferences(store, Locale.getDefault());
@@ -19,7 +19,7 @@ package org.jkiss.dbeaver.model.data.aggregate;
 /**
  * FunctionAvg
  */
-public class FunctionAvg extends FunctionNumeric {
+public class FunctionAvg extends FunctionNumeric implements IMergeableAggregateFunction {
 
     protected double result = Double.NaN;
 
@@ -39,6 +39,14 @@ public class FunctionAvg extends FunctionNumeric {
         return false;
     }
 
+    @Override
+    public void merge(IAggregateFunction other) {
+        double otherResult = ((FunctionAvg) other).result;
+        if (!Double.isNaN(otherResult)) {
+            result = Double.isNaN(result) ? otherResult : result + otherResult;
+        }
+    }
+
     @Override
     public Object getResult(int valueCount) {
         if (Double.isNaN(result)) {
@@ -0,0 +1,83 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Approximate distinct values count.
+ * Uses HyperLogLog estimation with fixed memory footprint, standard error is about 1%.
+ */
+public class FunctionCountDistinctApprox implements IMergeableAggregateFunction {
+
+    private static final int INDEX_BITS = 14;
+    private static final int REGISTER_COUNT = 1 << INDEX_BITS;
+
+    private final byte[] registers = new byte[REGISTER_COUNT];
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        long hash = mixHash(value == null ? 0 : value.hashCode());
+        int index = (int) (hash >>> (64 - INDEX_BITS));
+        // Position of the first 1 bit in the rest of hash
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << INDEX_BITS) | (1L << (INDEX_BITS - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void merge(IAggregateFunction other) {
+        byte[] otherRegisters = ((FunctionCountDistinctApprox) other).registers;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (otherRegisters[i] > registers[i]) {
+                registers[i] = otherRegisters[i];
+            }
+        }
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+        double estimate = alpha * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeroRegisters > 0) {
+            // Small cardinality correction
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Spreads bits of hash code over 64 bits (MurmurHash3 finalizer)
+     */
+    private static long mixHash(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
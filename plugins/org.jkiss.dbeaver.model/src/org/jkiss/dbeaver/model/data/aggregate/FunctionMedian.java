@@ -18,31 +18,75 @@ package org.jkiss.dbeaver.model.data.aggregate;
 
 import org.jkiss.dbeaver.Log;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 /**
  * Median
  */
-public class FunctionMedian implements IAggregateFunction {
+public class FunctionMedian implements IMergeableAggregateFunction {
 
     private static final Log log = Log.getLog(FunctionMedian.class);
 
-    private List<Comparable> cache = new ArrayList<>();
+    // Longs with greater absolute values can't be represented by double exactly
+    private static final long MAX_EXACT_LONG = 1L << 53;
+
+    // Numbers are kept unboxed while all values have the same class and can be converted to double and back exactly
+    private double[] numbers = new double[16];
+    private int numberCount;
+    private Class<?> numberClass;
+    private List<Comparable> cache;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
         value = FunctionNumeric.getComparable(value, aggregateAsStrings);
         if (value != null) {
-            cache.add((Comparable) value);
+            if (cache == null && isUnboxedNumber(value)) {
+                if (numberCount == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, numbers.length * 2);
+                }
+                numbers[numberCount++] = ((Number) value).doubleValue();
+                numberClass = value.getClass();
+            } else {
+                switchToObjects();
+                cache.add((Comparable) value);
+            }
             return true;
         }
         return false;
     }
 
+    @Override
+    public void merge(IAggregateFunction other) {
+        FunctionMedian otherMedian = (FunctionMedian) other;
+        if (cache == null && otherMedian.cache == null &&
+            (numberClass == null || otherMedian.numberClass == null || numberClass == otherMedian.numberClass))
+        {
+            addNumbers(otherMedian.numbers, otherMedian.numberCount);
+            if (numberClass == null) {
+                numberClass = otherMedian.numberClass;
+            }
+        } else {
+            switchToObjects();
+            if (otherMedian.cache != null) {
+                cache.addAll(otherMedian.cache);
+            } else {
+                for (int i = 0; i < otherMedian.numberCount; i++) {
+                    cache.add(toNumber(otherMedian.numbers[i], otherMedian.numberClass));
+                }
+            }
+        }
+    }
+
     @Override
     public Object getResult(int valueCount) {
+        if (cache == null) {
+            return getNumbersMedian();
+        }
         try {
             Collections.sort(cache);
         } catch (Exception e) {
@@ -58,6 +102,10 @@ public class FunctionMedian implements IAggregateFunction {
             Comparable val1 = cache.get(middle - 1);
             Comparable val2 = cache.get(middle);
             if (val1 instanceof Number && val2 instanceof Number) {
+                if (isBigNumber(val1) || isBigNumber(val2)) {
+                    // Exact average. Division by 2 always has a finite decimal result.
+                    return toBigDecimal((Number) val1).add(toBigDecimal((Number) val2)).divide(BigDecimal.valueOf(2));
+                }
                 return (((Number) val1).doubleValue() + ((Number) val2).doubleValue()) / 2.0;
             }
             // Not true median - but we can't evaluate it for non-numeric values
@@ -65,4 +113,78 @@ public class FunctionMedian implements IAggregateFunction {
             return val1;
         }
     }
+
+    private Object getNumbersMedian() {
+        if (numberCount == 0) {
+            return null;
+        }
+        Arrays.sort(numbers, 0, numberCount);
+        int middle = numberCount / 2;
+        if (numberCount % 2 == 1) {
+            return toNumber(numbers[middle], numberClass);
+        } else {
+            return (numbers[middle - 1] + numbers[middle]) / 2.0;
+        }
+    }
+
+    private void addNumbers(double[] values, int count) {
+        if (numberCount + count > numbers.length) {
+            numbers = Arrays.copyOf(numbers, Math.max(numbers.length * 2, numberCount + count));
+        }
+        System.arraycopy(values, 0, numbers, numberCount, count);
+        numberCount += count;
+    }
+
+    private void switchToObjects() {
+        if (cache == null) {
+            cache = new ArrayList<>(numberCount + 16);
+            for (int i = 0; i < numberCount; i++) {
+                cache.add(toNumber(numbers[i], numberClass));
+            }
+            numbers = null;
+            numberCount = 0;
+        }
+    }
+
+    private boolean isUnboxedNumber(Object value) {
+        if (numberClass != null && value.getClass() != numberClass) {
+            return false;
+        }
+        if (value instanceof Long) {
+            long longValue = (Long) value;
+            return longValue <= MAX_EXACT_LONG && longValue >= -MAX_EXACT_LONG;
+        }
+        return value instanceof Integer || value instanceof Double || value instanceof Float ||
+            value instanceof Short || value instanceof Byte;
+    }
+
+    private static Comparable toNumber(double value, Class<?> numberClass) {
+        if (numberClass == Integer.class) {
+            return (int) value;
+        } else if (numberClass == Long.class) {
+            return (long) value;
+        } else if (numberClass == Float.class) {
+            return (float) value;
+        } else if (numberClass == Short.class) {
+            return (short) value;
+        } else if (numberClass == Byte.class) {
+            return (byte) value;
+        }
+        return value;
+    }
+
+    private static boolean isBigNumber(Object value) {
+        return value instanceof BigDecimal || value instanceof BigInteger;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(value.longValue());
+        }
+        return new BigDecimal(value.toString());
+    }
 }
@@ -19,7 +19,7 @@ package org.jkiss.dbeaver.model.data.aggregate;
 /**
  * FunctionSum
  */
-public class FunctionMin implements IAggregateFunction {
+public class FunctionMin implements IMergeableAggregateFunction {
 
     Comparable result = null;
 
@@ -35,6 +35,14 @@ public class FunctionMin implements IAggregateFunction {
         return false;
     }
 
+    @Override
+    public void merge(IAggregateFunction other) {
+        Comparable otherResult = ((FunctionMin) other).result;
+        if (otherResult != null && (result == null || AggregateUtils.compareValues(otherResult, result) < 0)) {
+            result = otherResult;
+        }
+    }
+
     @Override
     public Object getResult(int valueCount) {
         return result;
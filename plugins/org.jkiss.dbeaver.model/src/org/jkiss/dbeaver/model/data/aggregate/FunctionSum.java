@@ -19,7 +19,7 @@ package org.jkiss.dbeaver.model.data.aggregate;
 /**
  * FunctionSum
  */
-public class FunctionSum extends FunctionNumeric {
+public class FunctionSum extends FunctionNumeric implements IMergeableAggregateFunction {
 
     protected double result = Double.NaN;
 
@@ -36,6 +36,14 @@ public class FunctionSum extends FunctionNumeric {
         return false;
     }
 
+    @Override
+    public void merge(IAggregateFunction other) {
+        double otherResult = ((FunctionSum) other).result;
+        if (!Double.isNaN(otherResult)) {
+            result = Double.isNaN(result) ? otherResult : result + otherResult;
+        }
+    }
+
     @Override
     public Object getResult(int valueCount) {
         if (Double.isNaN(result)) {
@@ -0,0 +1,159 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Approximate quantiles of a stream of numbers (merging t-digest).
+ * Values are clustered in centroids, clusters near the distribution tails are kept small, so
+ * extreme quantiles stay accurate. Memory footprint depends on compression only.
+ */
+public class QuantileDigest {
+
+    private static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private final double[] buffer;
+    private int bufferSize;
+
+    // Centroids sorted by mean
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int centroidCount;
+    private double totalWeight;
+
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public QuantileDigest(double compression) {
+        this.compression = compression;
+        this.buffer = new double[(int) (compression * 5)];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        buffer[bufferSize++] = value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+        if (bufferSize == buffer.length) {
+            compress();
+        }
+    }
+
+    public void merge(QuantileDigest other) {
+        other.compress();
+        if (other.centroidCount == 0) {
+            return;
+        }
+        compress();
+        if (other.min < min) min = other.min;
+        if (other.max > max) max = other.max;
+        mergeCentroids(other.means, other.weights, other.centroidCount);
+    }
+
+    public boolean isEmpty() {
+        return centroidCount == 0 && bufferSize == 0;
+    }
+
+    /**
+     * Estimates value of the specified quantile (0..1)
+     */
+    public double quantile(double q) {
+        compress();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+        double index = q * totalWeight;
+        double firstHalf = weights[0] / 2;
+        if (index < firstHalf) {
+            return min + (means[0] - min) * index / firstHalf;
+        }
+        double cumulative = firstHalf;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (cumulative + step > index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - cumulative) / step;
+            }
+            cumulative += step;
+        }
+        int last = centroidCount - 1;
+        double lastHalf = weights[last] / 2;
+        return means[last] + (max - means[last]) * Math.min(1.0, (index - cumulative) / lastHalf);
+    }
+
+    private void compress() {
+        if (bufferSize == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferSize);
+        mergeCentroids(buffer, null, bufferSize);
+        bufferSize = 0;
+    }
+
+    /**
+     * Merges sorted centroids (or single values if addWeights is null) into the digest
+     */
+    private void mergeCentroids(double[] addMeans, double[] addWeights, int addCount) {
+        double newTotalWeight = totalWeight;
+        for (int i = 0; i < addCount; i++) {
+            newTotalWeight += addWeights == null ? 1 : addWeights[i];
+        }
+        double[] newMeans = new double[centroidCount + addCount];
+        double[] newWeights = new double[centroidCount + addCount];
+        int count = 0;
+        double cumulative = 0;
+        for (int i = 0, j = 0; i < centroidCount || j < addCount; ) {
+            double mean, weight;
+            if (j >= addCount || (i < centroidCount && means[i] <= addMeans[j])) {
+                mean = means[i];
+                weight = weights[i];
+                i++;
+            } else {
+                mean = addMeans[j];
+                weight = addWeights == null ? 1 : addWeights[j];
+                j++;
+            }
+            if (count > 0) {
+                double proposed = newWeights[count - 1] + weight;
+                double q = (cumulative + proposed / 2) / newTotalWeight;
+                if (proposed <= 4 * newTotalWeight * q * (1 - q) / compression) {
+                    newMeans[count - 1] += (mean - newMeans[count - 1]) * weight / proposed;
+                    newWeights[count - 1] = proposed;
+                    continue;
+                }
+                cumulative += newWeights[count - 1];
+            }
+            newMeans[count] = mean;
+            newWeights[count] = weight;
+            count++;
+        }
+        means = newMeans;
+        weights = newWeights;
+        centroidCount = count;
+        totalWeight = newTotalWeight;
+    }
+}
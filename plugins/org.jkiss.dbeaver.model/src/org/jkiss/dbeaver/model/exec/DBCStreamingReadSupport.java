@@ -0,0 +1,42 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Streaming read support.
+ * Implemented by SQL dialects of databases which can read result sets with server-side cursors (or row by row)
+ * instead of buffering the whole result set on the client side.
+ */
+public interface DBCStreamingReadSupport
+{
+    /**
+     * Server-side cursors of some databases exist only inside a transaction.
+     * Streaming is not used for such databases if session is in auto-commit mode.
+     */
+    boolean isStreamingRequiresTransaction();
+
+    /**
+     * Configures statement for streaming read.
+     *
+     * @param fetchSize number of rows read from the server at once
+     * @param exclusive true if no other statements are executed in this session until the result set is closed
+     * @return false if streaming can't be used for this statement. Statement is left intact then.
+     */
+    boolean configureStreamingRead(@NotNull DBCStatement statement, int fetchSize, boolean exclusive) throws DBCException;
+}
@@ -231,7 +231,11 @@ public class DBExecUtils {
     }
 
     public static void setStatementFetchSize(DBCStatement dbStat, long firstRow, long maxRows, int fetchSize) {
-        boolean useFetchSize = fetchSize > 0 || dbStat.getSession().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE);
+        DBPPreferenceStore preferenceStore = dbStat.getSession().getDataSource().getContainer().getPreferenceStore();
+        // Adaptive fetch size starts from the regular one and then is tuned by result set during fetch
+        boolean useFetchSize = fetchSize > 0 ||
+            preferenceStore.getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE) ||
+            preferenceStore.getBoolean(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_SIZE);
         if (useFetchSize) {
             if (fetchSize <= 0) {
                 fetchSize = DEFAULT_READ_FETCH_SIZE;
@@ -245,6 +249,44 @@ public class DBExecUtils {
         }
     }
 
+    /**
+     * Sets statement fetch size. Uses streaming read if {@link DBSDataContainer#FLAG_STREAM_READ} is set and
+     * data source supports it.
+     */
+    public static void setStatementFetchSize(DBCStatement dbStat, long firstRow, long maxRows, int fetchSize, long flags) {
+        if (CommonUtils.isBitSet(flags, DBSDataContainer.FLAG_STREAM_READ) && setStatementStreamingRead(dbStat, fetchSize, true)) {
+            return;
+        }
+        setStatementFetchSize(dbStat, firstRow, maxRows, fetchSize);
+    }
+
+    /**
+     * Configures statement to read results with server-side cursor (or row by row) without buffering all rows on the client.
+     *
+     * @param exclusive true if session executes no other statements until the result set is closed
+     * @return false if streaming isn't supported by data source or can't be used in current session state
+     */
+    public static boolean setStatementStreamingRead(DBCStatement dbStat, int fetchSize, boolean exclusive) {
+        DBCSession session = dbStat.getSession();
+        SQLDialect dialect = SQLUtils.getDialectFromDataSource(session.getDataSource());
+        if (!(dialect instanceof DBCStreamingReadSupport)) {
+            return false;
+        }
+        DBCStreamingReadSupport streamingSupport = (DBCStreamingReadSupport) dialect;
+        try {
+            if (streamingSupport.isStreamingRequiresTransaction()) {
+                DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+                if (txnManager == null || txnManager.isAutoCommit()) {
+                    return false;
+                }
+            }
+            return streamingSupport.configureStreamingRead(dbStat, fetchSize > 0 ? fetchSize : DEFAULT_READ_FETCH_SIZE, exclusive);
+        } catch (Exception e) {
+            log.debug("Can't enable streaming read: " + e.getMessage());
+            return false;
+        }
+    }
+
     public static void executeScript(DBRProgressMonitor monitor, DBCExecutionContext executionContext, String jobName, List<DBEPersistAction> persistActions) {
         try (DBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.UTIL, jobName)) {
             executeScript(session, persistActions.toArray(new DBEPersistAction[0]));
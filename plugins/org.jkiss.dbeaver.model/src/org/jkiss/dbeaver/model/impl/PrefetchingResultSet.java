@@ -0,0 +1,317 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result set which reads rows of the source result set in a separate thread.
+ *
+ * Reader thread decodes rows with value handlers into reusable row buffers while the consumer processes
+ * the previous batch of rows. So network waits and consumer work (formatting, writing, inserting) overlap.
+ * There are only two batches (double buffering), so memory is bounded by two batch sizes.
+ * Consumers get decoded values with {@link #getAttributeValue(int)}, which is what value handlers do for non-JDBC result sets.
+ *
+ * Only result sets of simple values may be prefetched. Values like LOBs or structures may depend on
+ * the source result set position.
+ */
+public class PrefetchingResultSet extends AbstractResultSet<DBCSession, DBCStatement> {
+
+    private static final Log log = Log.getLog(PrefetchingResultSet.class);
+
+    public static final int BATCH_SIZE = 1000;
+    private static final long POLL_TIMEOUT = 100;
+
+    private static class RowBatch {
+        final Object[][] rows;
+        int rowCount;
+        boolean last;
+
+        RowBatch(int columnCount) {
+            this.rows = new Object[BATCH_SIZE][columnCount];
+        }
+    }
+
+    private final DBCResultSet source;
+    private final DBCAttributeMetaData[] attributes;
+    private final DBDValueHandler[] valueHandlers;
+    private final long maxRows;
+
+    private final BlockingQueue<RowBatch> filledBatches = new ArrayBlockingQueue<>(2);
+    private final BlockingQueue<RowBatch> freeBatches = new ArrayBlockingQueue<>(2);
+    private final ReaderJob readerJob = new ReaderJob();
+    private volatile boolean closed;
+    private volatile Throwable readError;
+
+    private boolean started;
+    private boolean finished;
+    private RowBatch curBatch;
+    private int curRow;
+
+    private PrefetchingResultSet(DBCSession session, DBCResultSet source, DBCAttributeMetaData[] attributes, DBDValueHandler[] valueHandlers, long maxRows) {
+        super(session, source.getSourceStatement());
+        this.source = source;
+        this.attributes = attributes;
+        this.valueHandlers = valueHandlers;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Wraps result set in prefetching result set.
+     * Returns the source result set if it contains values which can't be prefetched.
+     * Source result set is closed when prefetching result set is closed.
+     *
+     * @param maxRows maximum number of rows to read, or non-positive number to read all rows
+     */
+    @NotNull
+    public static DBCResultSet prefetch(@NotNull DBCSession session, @NotNull DBCResultSet source, long maxRows) throws DBCException {
+        List<DBCAttributeMetaData> attributeList = source.getMeta().getAttributes();
+        DBCAttributeMetaData[] attributes = attributeList.toArray(new DBCAttributeMetaData[0]);
+        DBDValueHandler[] valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            switch (attributes[i].getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                case ROWID:
+                    valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+                    break;
+                default:
+                    return source;
+            }
+        }
+        if (attributes.length == 0) {
+            return source;
+        }
+        return new PrefetchingResultSet(session, source, attributes, valueHandlers, maxRows);
+    }
+
+    @Nullable
+    @Override
+    public Object getAttributeValue(int index) throws DBCException {
+        if (curBatch == null) {
+            throw new DBCException("No current row");
+        }
+        Object[] row = curBatch.rows[curRow];
+        if (index < 0 || index >= row.length) {
+            throw new DBCException("Attribute index out of range (" + index + "/" + row.length + ")");
+        }
+        return row[index];
+    }
+
+    @Nullable
+    @Override
+    public Object getAttributeValue(String name) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i].getName().equals(name)) {
+                return getAttributeValue(i);
+            }
+        }
+        throw new DBCException("Bad attribute name: " + name);
+    }
+
+    @Override
+    public boolean nextRow() throws DBCException {
+        if (curBatch != null) {
+            if (curRow + 1 < curBatch.rowCount) {
+                curRow++;
+                return true;
+            }
+            finished = curBatch.last;
+            releaseBatch(curBatch);
+            curBatch = null;
+        }
+        if (finished || closed) {
+            return finishRead();
+        }
+        if (!started) {
+            // Start reading on the first row request. Consumer may use the session in fetchStart.
+            started = true;
+            freeBatches.add(new RowBatch(attributes.length));
+            freeBatches.add(new RowBatch(attributes.length));
+            readerJob.schedule();
+        }
+        for (;;) {
+            RowBatch batch;
+            try {
+                batch = filledBatches.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                throw new DBCException("Prefetch interrupted", e);
+            }
+            if (batch == null) {
+                if (session.getProgressMonitor().isCanceled()) {
+                    return false;
+                }
+                continue;
+            }
+            if (batch.rowCount == 0) {
+                finished = true;
+                releaseBatch(batch);
+                return finishRead();
+            }
+            curBatch = batch;
+            curRow = 0;
+            return true;
+        }
+    }
+
+    @Override
+    public boolean moveTo(int position) throws DBCException {
+        throw new DBCException("Prefetching result set is forward-only");
+    }
+
+    @NotNull
+    @Override
+    public DBCResultSetMetaData getMeta() throws DBCException {
+        return source.getMeta();
+    }
+
+    @Nullable
+    @Override
+    public String getResultSetName() throws DBCException {
+        return source.getResultSetName();
+    }
+
+    /**
+     * Stops reader and closes the source result set
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (started) {
+            readerJob.cancel();
+            try {
+                readerJob.join();
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for prefetch end");
+            }
+        }
+        filledBatches.clear();
+        freeBatches.clear();
+        curBatch = null;
+        source.close();
+    }
+
+    private boolean finishRead() throws DBCException {
+        Throwable error = readError;
+        if (error != null) {
+            if (error instanceof DBCException) {
+                throw (DBCException) error;
+            }
+            throw new DBCException("Error reading result set", error);
+        }
+        return false;
+    }
+
+    private void releaseBatch(RowBatch batch) {
+        batch.rowCount = 0;
+        batch.last = false;
+        freeBatches.offer(batch);
+    }
+
+    private void readRows(DBRProgressMonitor monitor) throws DBException, InterruptedException {
+        DBRProgressMonitor sessionMonitor = session.getProgressMonitor();
+        long rowCount = 0;
+        for (;;) {
+            RowBatch batch = null;
+            while (batch == null) {
+                if (closed) {
+                    return;
+                }
+                batch = freeBatches.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            }
+            try {
+                while (batch.rowCount < BATCH_SIZE) {
+                    if (closed || monitor.isCanceled() || sessionMonitor.isCanceled() ||
+                        (maxRows > 0 && rowCount >= maxRows) || !source.nextRow())
+                    {
+                        batch.last = true;
+                        break;
+                    }
+                    Object[] row = batch.rows[batch.rowCount];
+                    for (int i = 0; i < valueHandlers.length; i++) {
+                        row[i] = valueHandlers[i].fetchValueObject(session, source, attributes[i], i);
+                    }
+                    batch.rowCount++;
+                    rowCount++;
+                }
+            } catch (Throwable e) {
+                // Error must be visible to consumer before it gets the batch
+                readError = e;
+                batch.last = true;
+                throw e;
+            } finally {
+                if (batch.last) {
+                    // Release references to values of previous reads
+                    for (int i = batch.rowCount; i < BATCH_SIZE; i++) {
+                        Arrays.fill(batch.rows[i], null);
+                    }
+                }
+                filledBatches.put(batch);
+            }
+            if (batch.last) {
+                return;
+            }
+        }
+    }
+
+    private class ReaderJob extends AbstractJob {
+        ReaderJob() {
+            super("Prefetch result set rows");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                readRows(monitor);
+            } catch (Throwable e) {
+                if (readError == null) {
+                    readError = e;
+                }
+                if (!closed && filledBatches.isEmpty()) {
+                    // Error happened outside of batch read. Wake up consumer with empty batch.
+                    RowBatch marker = freeBatches.poll();
+                    if (marker != null) {
+                        marker.last = true;
+                        filledBatches.offer(marker);
+                    }
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
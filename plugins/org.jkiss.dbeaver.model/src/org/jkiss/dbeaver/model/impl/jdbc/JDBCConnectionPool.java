@@ -0,0 +1,407 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * Pool of idle JDBC connections of isolated contexts.
+ *
+ * Closed isolated contexts return their connections here (after transaction rollback and auto-commit/isolation reset)
+ * and new isolated contexts borrow them instead of opening new physical connections.
+ * Connections whose catalog, schema or read-only state differs from the state after connection bootstrap
+ * are closed instead of pooling.
+ * Borrowed connections are validated. Connections idle for more than idle timeout are closed,
+ * but at least min idle connections are kept.
+ * Number of connections used by pooled contexts is limited by max active connections.
+ */
+public class JDBCConnectionPool {
+
+    private static final Log log = Log.getLog(JDBCConnectionPool.class);
+
+    // Max time to wait for a free connection slot
+    private static final long MAX_ACTIVE_WAIT_TIMEOUT = 30000;
+
+    /**
+     * Connection session state which isn't reset on return
+     */
+    private static class SessionState {
+        final String catalog;
+        final String schema;
+        final boolean readOnly;
+
+        SessionState(Connection connection) {
+            this.catalog = readCatalog(connection);
+            this.schema = readSchema(connection);
+            this.readOnly = readReadOnly(connection);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SessionState)) {
+                return false;
+            }
+            SessionState state = (SessionState) obj;
+            return Objects.equals(catalog, state.catalog) && Objects.equals(schema, state.schema) && readOnly == state.readOnly;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(catalog, schema, readOnly);
+        }
+
+        private static String readCatalog(Connection connection) {
+            try {
+                return connection.getCatalog();
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+
+        private static String readSchema(Connection connection) {
+            try {
+                return connection.getSchema();
+            } catch (Throwable e) {
+                // Not supported by old drivers
+                return null;
+            }
+        }
+
+        private static boolean readReadOnly(Connection connection) {
+            try {
+                return connection.isReadOnly();
+            } catch (Throwable e) {
+                return false;
+            }
+        }
+    }
+
+    private static class IdleConnection {
+        final Connection connection;
+        final long returnTime;
+
+        IdleConnection(Connection connection, long returnTime) {
+            this.connection = connection;
+            this.returnTime = returnTime;
+        }
+    }
+
+    private final JDBCDataSource dataSource;
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+    private final Map<Connection, SessionState> initialStates = new IdentityHashMap<>();
+    private int activeCount;
+    private final EvictionJob evictionJob = new EvictionJob();
+    private volatile boolean closed;
+
+    // Metrics
+    private volatile long borrowCount;
+    private volatile long hitCount;
+    private volatile long returnCount;
+    private volatile long validationFailureCount;
+    private volatile long evictionCount;
+
+    JDBCConnectionPool(@NotNull JDBCDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Checks whether pool is enabled for the data source
+     */
+    static boolean isPoolEnabled(@NotNull JDBCDataSource dataSource) {
+        return dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.CONNECTION_POOL_ENABLED);
+    }
+
+    /**
+     * Waits until number of active connections is below max active connections and reserves a slot for a new one.
+     * Slot must be released with {@link #releaseConnectionSlot()} after connection close or return.
+     */
+    void acquireConnectionSlot(@NotNull DBRProgressMonitor monitor) throws DBCException {
+        long startTime = System.currentTimeMillis();
+        synchronized (this) {
+            for (;;) {
+                int maxActive = getMaxActive();
+                if (closed || maxActive <= 0 || activeCount < maxActive) {
+                    activeCount++;
+                    return;
+                }
+                if (monitor.isCanceled()) {
+                    throw new DBCException("Wait for connection canceled");
+                }
+                long waitTime = MAX_ACTIVE_WAIT_TIMEOUT - (System.currentTimeMillis() - startTime);
+                if (waitTime <= 0) {
+                    throw new DBCException("Too many active connections of '" + dataSource.getContainer().getName() + "' (max " + maxActive + ")");
+                }
+                try {
+                    // Wake up periodically to check monitor cancel
+                    wait(Math.min(waitTime, 100));
+                } catch (InterruptedException e) {
+                    throw new DBCException("Wait for connection interrupted");
+                }
+            }
+        }
+    }
+
+    synchronized void releaseConnectionSlot() {
+        if (activeCount > 0) {
+            activeCount--;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Saves session state of a new connection (after context bootstrap).
+     * Connection is pooled on return only if its state is the same.
+     */
+    void registerConnection(@NotNull Connection connection) {
+        SessionState state = new SessionState(connection);
+        synchronized (this) {
+            initialStates.putIfAbsent(connection, state);
+        }
+    }
+
+    /**
+     * Forgets closed connection
+     */
+    synchronized void unregisterConnection(@NotNull Connection connection) {
+        initialStates.remove(connection);
+    }
+
+    /**
+     * Returns validated idle connection or null if there are no idle connections
+     */
+    @Nullable
+    Connection borrowConnection(@NotNull DBRProgressMonitor monitor) {
+        synchronized (this) {
+            borrowCount++;
+        }
+        for (;;) {
+            IdleConnection idle;
+            synchronized (this) {
+                // The most recently returned connection is the most likely alive
+                idle = idleConnections.pollLast();
+            }
+            if (idle == null || monitor.isCanceled()) {
+                return null;
+            }
+            if (JDBCUtils.isConnectionAlive(dataSource, idle.connection)) {
+                synchronized (this) {
+                    hitCount++;
+                }
+                return idle.connection;
+            }
+            synchronized (this) {
+                validationFailureCount++;
+            }
+            log.debug("Pooled connection of '" + dataSource.getContainer().getName() + "' is broken. Close it.");
+            closeConnection(idle.connection);
+        }
+    }
+
+    /**
+     * Resets connection state and puts it in pool.
+     *
+     * @return false if connection wasn't pooled. Caller must close it then.
+     */
+    boolean returnConnection(@NotNull Connection connection, boolean defaultAutoCommit, @Nullable Integer defaultTxnLevel) {
+        if (!putConnection(connection, defaultAutoCommit, defaultTxnLevel)) {
+            unregisterConnection(connection);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean putConnection(@NotNull Connection connection, boolean defaultAutoCommit, @Nullable Integer defaultTxnLevel) {
+        SessionState initialState;
+        synchronized (this) {
+            initialState = initialStates.get(connection);
+        }
+        if (closed || initialState == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (idleConnections.size() >= getMaxIdle()) {
+                return false;
+            }
+        }
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            if (connection.getAutoCommit() != defaultAutoCommit) {
+                connection.setAutoCommit(defaultAutoCommit);
+            }
+            if (defaultTxnLevel != null && connection.getTransactionIsolation() != defaultTxnLevel) {
+                connection.setTransactionIsolation(defaultTxnLevel);
+            }
+            connection.clearWarnings();
+        } catch (Throwable e) {
+            log.debug("Can't reset pooled connection state: " + e.getMessage());
+            return false;
+        }
+        if (!initialState.equals(new SessionState(connection))) {
+            // Default catalog/schema was changed. Next context may not restore it.
+            log.debug("Session state of pooled connection was changed. Close it.");
+            return false;
+        }
+        synchronized (this) {
+            if (closed || idleConnections.size() >= getMaxIdle()) {
+                return false;
+            }
+            idleConnections.addLast(new IdleConnection(connection, System.currentTimeMillis()));
+            returnCount++;
+        }
+        evictionJob.schedule(getIdleTimeout());
+        return true;
+    }
+
+    /**
+     * Closes all idle connections. Returned connections are closed after this.
+     */
+    void close() {
+        List<IdleConnection> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+        }
+        evictionJob.cancel();
+        for (IdleConnection idle : toClose) {
+            closeConnection(idle.connection);
+        }
+    }
+
+    private void closeConnection(Connection connection) {
+        unregisterConnection(connection);
+        dataSource.closeConnection(connection, "Pooled", false);
+    }
+
+    private void evictIdleConnections() {
+        long idleTimeout = getIdleTimeout();
+        long curTime = System.currentTimeMillis();
+        List<IdleConnection> toClose = new ArrayList<>();
+        boolean hasIdle;
+        synchronized (this) {
+            int minIdle = getPreferenceStore().getInt(ModelPreferences.CONNECTION_POOL_MIN_IDLE);
+            // The oldest connections are in the head
+            for (Iterator<IdleConnection> iter = idleConnections.iterator(); iter.hasNext() && idleConnections.size() > minIdle; ) {
+                IdleConnection idle = iter.next();
+                if (curTime - idle.returnTime < idleTimeout) {
+                    break;
+                }
+                iter.remove();
+                toClose.add(idle);
+                evictionCount++;
+            }
+            hasIdle = idleConnections.size() > minIdle;
+        }
+        for (IdleConnection idle : toClose) {
+            closeConnection(idle.connection);
+        }
+        if (hasIdle && !closed) {
+            evictionJob.schedule(idleTimeout);
+        }
+    }
+
+    private int getMaxIdle() {
+        return getPreferenceStore().getInt(ModelPreferences.CONNECTION_POOL_MAX_IDLE);
+    }
+
+    private int getMaxActive() {
+        return getPreferenceStore().getInt(ModelPreferences.CONNECTION_POOL_MAX_ACTIVE);
+    }
+
+    private long getIdleTimeout() {
+        return Math.max(1000, getPreferenceStore().getInt(ModelPreferences.CONNECTION_POOL_IDLE_TIMEOUT));
+    }
+
+    private DBPPreferenceStore getPreferenceStore() {
+        return dataSource.getContainer().getPreferenceStore();
+    }
+
+    public synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Number of connections used by pooled contexts
+     */
+    public synchronized int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Number of borrow attempts
+     */
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * Number of borrows served with pooled connection
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getReturnCount() {
+        return returnCount;
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "idle=" + getIdleCount() + ", active=" + getActiveCount() + ", borrows=" + borrowCount + ", hits=" + hitCount + ", returns=" + returnCount +
+            ", validation failures=" + validationFailureCount + ", evictions=" + evictionCount;
+    }
+
+    private class EvictionJob extends AbstractJob {
+        EvictionJob() {
+            super("Evict idle connections");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            evictIdleConnections();
+            return Status.OK_STATUS;
+        }
+    }
+
+}
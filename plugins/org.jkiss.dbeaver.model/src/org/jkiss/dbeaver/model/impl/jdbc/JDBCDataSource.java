@@ -85,6 +85,7 @@ public abstract class JDBCDataSource
     protected final SQLDialect sqlDialect;
     protected final JDBCFactory jdbcFactory;
     private JDBCRemoteInstance defaultRemoteInstance;
+    private final JDBCDictionaryCache dictionaryCache = new JDBCDictionaryCache(this);
 
     private int databaseMajorVersion;
     private int databaseMinorVersion;
@@ -392,6 +393,7 @@ public abstract class JDBCDataSource
             }
         }
         defaultRemoteInstance = null;
+        dictionaryCache.clear();
     }
 
     @Override
@@ -491,9 +493,18 @@ public abstract class JDBCDataSource
     @Override
     public DBSObject refreshObject(@NotNull DBRProgressMonitor monitor) throws DBException {
         this.dataSourceInfo = new JDBCDataSourceInfo(container);
+        this.dictionaryCache.clear();
         return this;
     }
 
+    /**
+     * Cache of dictionary values read from tables of this data source
+     */
+    @NotNull
+    public JDBCDictionaryCache getDictionaryCache() {
+        return dictionaryCache;
+    }
+
     protected JDBCExecutionContext createExecutionContext(JDBCRemoteInstance instance, String type) {
         return new JDBCExecutionContext(instance, type);
     }
@@ -0,0 +1,308 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+
+/**
+ * Cache of dictionary (referenced table) values of a data source.
+ *
+ * Keeps key value labels and key enumerations read from dictionary tables.
+ * Entries expire after cache TTL. Entity entries are invalidated when entity data is modified.
+ * Lookups with preceding keys are not cached.
+ */
+public class JDBCDictionaryCache {
+
+    private static class AttributeKey {
+        final DBSEntity entity;
+        final DBSEntityAttribute keyColumn;
+        final String descColumns;
+
+        AttributeKey(DBSEntity entity, DBSEntityAttribute keyColumn, String descColumns) {
+            this.entity = entity;
+            this.keyColumn = keyColumn;
+            this.descColumns = descColumns;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof AttributeKey)) {
+                return false;
+            }
+            AttributeKey key = (AttributeKey) obj;
+            return entity == key.entity && keyColumn == key.keyColumn && CommonUtils.equalObjects(descColumns, key.descColumns);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(entity) + System.identityHashCode(keyColumn) * 31 + CommonUtils.notEmpty(descColumns).hashCode();
+        }
+    }
+
+    private static class ValueKey {
+        final AttributeKey attribute;
+        final Object value;
+
+        ValueKey(AttributeKey attribute, Object value) {
+            this.attribute = attribute;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ValueKey)) {
+                return false;
+            }
+            ValueKey key = (ValueKey) obj;
+            return attribute.equals(key.attribute) && CommonUtils.equalObjects(value, key.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return attribute.hashCode() * 31 + (value == null ? 0 : value.hashCode());
+        }
+    }
+
+    private static class EnumerationKey {
+        final AttributeKey attribute;
+        final Object keyPattern;
+        final boolean sortByValue;
+        final boolean sortAsc;
+        final int maxResults;
+
+        EnumerationKey(AttributeKey attribute, Object keyPattern, boolean sortByValue, boolean sortAsc, int maxResults) {
+            this.attribute = attribute;
+            this.keyPattern = keyPattern;
+            this.sortByValue = sortByValue;
+            this.sortAsc = sortAsc;
+            this.maxResults = maxResults;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EnumerationKey)) {
+                return false;
+            }
+            EnumerationKey key = (EnumerationKey) obj;
+            return attribute.equals(key.attribute) && CommonUtils.equalObjects(keyPattern, key.keyPattern) &&
+                sortByValue == key.sortByValue && sortAsc == key.sortAsc && maxResults == key.maxResults;
+        }
+
+        @Override
+        public int hashCode() {
+            return attribute.hashCode() * 31 + (keyPattern == null ? 0 : keyPattern.hashCode()) + maxResults;
+        }
+    }
+
+    private static class CachedEntry<T> {
+        // Null for key values which were not found in dictionary
+        final T value;
+        final long loadTime;
+
+        CachedEntry(T value, long loadTime) {
+            this.value = value;
+            this.loadTime = loadTime;
+        }
+    }
+
+    private final JDBCDataSource dataSource;
+    // Access ordered maps, so the eldest entry is the least recently used one
+    private final Map<ValueKey, CachedEntry<DBDLabelValuePair>> values = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<EnumerationKey, CachedEntry<List<DBDLabelValuePair>>> enumerations = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Metrics
+    private volatile long hitCount;
+    private volatile long missCount;
+
+    JDBCDictionaryCache(@NotNull JDBCDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean isEnabled() {
+        return getTimeToLive() > 0;
+    }
+
+    /**
+     * Finds cached labels of key values.
+     *
+     * @param result        found labels
+     * @param missingValues key values which aren't cached and must be read from dictionary
+     */
+    public synchronized void getValues(
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyColumn,
+        @Nullable String descColumns,
+        @NotNull List<Object> keyValues,
+        @NotNull List<DBDLabelValuePair> result,
+        @NotNull List<Object> missingValues)
+    {
+        AttributeKey attribute = new AttributeKey(entity, keyColumn, descColumns);
+        long minLoadTime = System.currentTimeMillis() - getTimeToLive();
+        for (Object keyValue : keyValues) {
+            ValueKey key = new ValueKey(attribute, keyValue);
+            CachedEntry<DBDLabelValuePair> entry = values.get(key);
+            if (entry != null && entry.loadTime < minLoadTime) {
+                values.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                missCount++;
+                missingValues.add(keyValue);
+            } else {
+                hitCount++;
+                if (entry.value != null) {
+                    result.add(entry.value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Caches labels read from dictionary.
+     * Requested key values which weren't read are cached as missing.
+     */
+    public synchronized void putValues(
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyColumn,
+        @Nullable String descColumns,
+        @NotNull List<Object> requestedValues,
+        @NotNull List<DBDLabelValuePair> readValues)
+    {
+        AttributeKey attribute = new AttributeKey(entity, keyColumn, descColumns);
+        long curTime = System.currentTimeMillis();
+        boolean allValuesMatched = true;
+        for (DBDLabelValuePair pair : readValues) {
+            if (!requestedValues.contains(pair.getValue())) {
+                allValuesMatched = false;
+            }
+            values.put(new ValueKey(attribute, pair.getValue()), new CachedEntry<>(pair, curTime));
+        }
+        if (allValuesMatched) {
+            // Read values may differ from requested ones (e.g. formatted dates),
+            // then we can't say which requested values are missing.
+            for (Object keyValue : requestedValues) {
+                ValueKey key = new ValueKey(attribute, keyValue);
+                if (!values.containsKey(key)) {
+                    values.put(key, new CachedEntry<>(null, curTime));
+                }
+            }
+        }
+        int maxSize = getMaxSize();
+        for (Iterator<ValueKey> iter = values.keySet().iterator(); iter.hasNext() && values.size() > maxSize; ) {
+            iter.next();
+            iter.remove();
+        }
+    }
+
+    @Nullable
+    public synchronized List<DBDLabelValuePair> getEnumeration(
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyColumn,
+        @Nullable String descColumns,
+        @Nullable Object keyPattern,
+        boolean sortByValue,
+        boolean sortAsc,
+        int maxResults)
+    {
+        EnumerationKey key = new EnumerationKey(new AttributeKey(entity, keyColumn, descColumns), keyPattern, sortByValue, sortAsc, maxResults);
+        CachedEntry<List<DBDLabelValuePair>> entry = enumerations.get(key);
+        if (entry != null && entry.loadTime < System.currentTimeMillis() - getTimeToLive()) {
+            enumerations.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    public synchronized void putEnumeration(
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyColumn,
+        @Nullable String descColumns,
+        @Nullable Object keyPattern,
+        boolean sortByValue,
+        boolean sortAsc,
+        int maxResults,
+        @NotNull List<DBDLabelValuePair> enumeration)
+    {
+        EnumerationKey key = new EnumerationKey(new AttributeKey(entity, keyColumn, descColumns), keyPattern, sortByValue, sortAsc, maxResults);
+        enumerations.put(key, new CachedEntry<>(Collections.unmodifiableList(enumeration), System.currentTimeMillis()));
+        // Enumerations are much larger than values so keep less of them
+        int maxSize = Math.max(1, getMaxSize() / 100);
+        for (Iterator<EnumerationKey> iter = enumerations.keySet().iterator(); iter.hasNext() && enumerations.size() > maxSize; ) {
+            iter.next();
+            iter.remove();
+        }
+    }
+
+    /**
+     * Removes all cached values of the entity. Must be called after entity data modification.
+     */
+    public synchronized void invalidate(@NotNull DBSEntity entity) {
+        values.keySet().removeIf(key -> key.attribute.entity == entity);
+        enumerations.keySet().removeIf(key -> key.attribute.entity == entity);
+    }
+
+    public synchronized void clear() {
+        values.clear();
+        enumerations.clear();
+    }
+
+    /**
+     * Number of key values and enumerations found in cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of key values and enumerations which were read from database
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    private long getTimeToLive() {
+        return getPreferenceStore().getInt(ModelPreferences.DICTIONARY_CACHE_TTL) * 1000L;
+    }
+
+    private int getMaxSize() {
+        return Math.max(1, getPreferenceStore().getInt(ModelPreferences.DICTIONARY_CACHE_MAX_SIZE));
+    }
+
+    private DBPPreferenceStore getPreferenceStore() {
+        return dataSource.getContainer().getPreferenceStore();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "values=" + values.size() + ", enumerations=" + enumerations.size() + ", hits=" + hitCount + ", misses=" + missCount;
+    }
+
+}
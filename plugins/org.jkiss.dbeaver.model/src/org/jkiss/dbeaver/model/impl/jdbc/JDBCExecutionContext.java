@@ -58,6 +58,10 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Boolean autoCommit;
     private volatile Integer transactionIsolationLevel;
     private transient volatile boolean txnIsolationLevelReadInProgress;
+    // Isolated context which may reuse pooled connections
+    private boolean pooled;
+    // Pool which holds active connection slot of this context
+    private volatile JDBCConnectionPool activePool;
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose) {
         super(instance.getDataSource(), purpose);
@@ -73,6 +77,10 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         this.instance = instance;
     }
 
+    void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
     @NotNull
     private Connection getConnection() {
         return connection;
@@ -94,7 +102,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
 
         Object exclusiveLock = currentInstance.getExclusiveLock().acquireExclusiveLock();
         try {
-            this.connection = dataSource.openConnection(monitor, this, purpose);
+            this.connection = openConnection(monitor, currentInstance);
             if (this.connection == null) {
                 throw new DBCException("Null connection returned");
             }
@@ -138,6 +146,10 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
             } catch (DBCException e) {
                 log.warn("Error while running context bootstrap", e);
             }
+            if (activePool != null) {
+                // Remember state of the new connection. Borrowed connections are already registered.
+                activePool.registerConnection(this.connection);
+            }
 
             try {
                 // Init (or copy) context state
@@ -168,6 +180,64 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         }
     }
 
+    private Connection openConnection(@NotNull DBRProgressMonitor monitor, @NotNull JDBCRemoteInstance currentInstance) throws DBCException {
+        JDBCConnectionPool connectionPool = pooled ? currentInstance.getConnectionPool() : null;
+        if (connectionPool == null) {
+            return dataSource.openConnection(monitor, this, purpose);
+        }
+        connectionPool.acquireConnectionSlot(monitor);
+        boolean success = false;
+        try {
+            Connection pooledConnection = connectionPool.borrowConnection(monitor);
+            if (pooledConnection == null) {
+                pooledConnection = dataSource.openConnection(monitor, this, purpose);
+            }
+            success = true;
+            this.activePool = connectionPool;
+            return pooledConnection;
+        } finally {
+            if (!success) {
+                connectionPool.releaseConnectionSlot();
+            }
+        }
+    }
+
+    private void releasePoolSlot(@Nullable Connection closedConnection) {
+        JDBCConnectionPool connectionPool = this.activePool;
+        if (connectionPool != null) {
+            this.activePool = null;
+            if (closedConnection != null) {
+                connectionPool.unregisterConnection(closedConnection);
+            }
+            connectionPool.releaseConnectionSlot();
+        }
+    }
+
+    /**
+     * Returns connection to the instance connection pool instead of closing it
+     */
+    private boolean returnConnectionToPool() {
+        JDBCConnectionPool connectionPool = this.activePool;
+        if (connectionPool == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (this.connection == null ||
+                !connectionPool.returnConnection(
+                    this.connection,
+                    dataSource.getContainer().isDefaultAutoCommit(),
+                    dataSource.getContainer().getDefaultTransactionsIsolation()))
+            {
+                return false;
+            }
+            this.connection = null;
+            releasePoolSlot(null);
+        }
+        // Notify QM
+        super.closeContext();
+        return true;
+    }
+
     protected void disconnect() {
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
@@ -177,6 +247,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
                     log.debug("Connection close timeout");
                 }
             }
+            releasePoolSlot(this.connection);
             this.connection = null;
         }
         // Notify QM
@@ -241,7 +312,10 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     }
 
     private void closeContext(boolean removeContext) {
-        disconnect();
+        // Connection is not returned to pool on invalidate, it has to be reopened
+        if (!removeContext || !returnConnectionToPool()) {
+            disconnect();
+        }
 
         if (removeContext) {
             // Remove self from context list
@@ -49,6 +49,10 @@ public class JDBCRemoteInstance implements DBSInstance {
     @NotNull
     private final List<JDBCExecutionContext> allContexts = new ArrayList<>();
     private final DBPExclusiveResource exclusiveLock = new SimpleExclusiveLock();
+    @Nullable
+    private volatile JDBCConnectionPool connectionPool;
+    // Set on shutdown and reset on instance (re)initialization. Closed contexts must not return connections into a new pool.
+    private volatile boolean shuttingDown;
 
     protected JDBCRemoteInstance(@NotNull DBRProgressMonitor monitor, @NotNull JDBCDataSource dataSource, boolean initContext)
         throws DBException {
@@ -87,6 +91,7 @@ public class JDBCRemoteInstance implements DBSInstance {
 
     protected void initializeMainContext(@NotNull DBRProgressMonitor monitor) throws DBCException {
         if (executionContext == null) {
+            resetShutdown();
             this.executionContext = dataSource.createExecutionContext(this, getMainContextName());
             this.executionContext.connect(monitor, null, null, null, true);
         }
@@ -97,6 +102,7 @@ public class JDBCRemoteInstance implements DBSInstance {
         if (this.metaContext != null) {
             return this.metaContext;
         }
+        resetShutdown();
         if (!dataSource.getContainer().getDriver().isEmbedded() && dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.META_SEPARATE_CONNECTION)) {
         	// FIXME: do not sync expensive operations
             //synchronized (allContexts) {
@@ -109,6 +115,15 @@ public class JDBCRemoteInstance implements DBSInstance {
         }
     }
 
+    /**
+     * Instance is (re)initialized after shutdown. Connection pool may be created again.
+     */
+    private void resetShutdown() {
+        synchronized (this) {
+            shuttingDown = false;
+        }
+    }
+
     @NotNull
     protected String getMainContextName() {
         return JDBCExecutionContext.TYPE_MAIN;
@@ -123,6 +138,7 @@ public class JDBCRemoteInstance implements DBSInstance {
     @Override
     public DBCExecutionContext openIsolatedContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable DBCExecutionContext initFrom) throws DBException {
         JDBCExecutionContext context = dataSource.createExecutionContext(this, purpose);
+        context.setPooled(true);
         DBExecUtils.tryExecuteRecover(monitor, getDataSource(), monitor1 -> {
             try {
                 context.connect(monitor1, null, null, (JDBCExecutionContext) initFrom, true);
@@ -133,6 +149,21 @@ public class JDBCRemoteInstance implements DBSInstance {
         return context;
     }
 
+    /**
+     * Returns pool of isolated contexts connections or null if connection pooling is disabled
+     */
+    @Nullable
+    public JDBCConnectionPool getConnectionPool() {
+        if (connectionPool == null && !shuttingDown && JDBCConnectionPool.isPoolEnabled(dataSource)) {
+            synchronized (this) {
+                if (connectionPool == null && !shuttingDown) {
+                    connectionPool = new JDBCConnectionPool(dataSource);
+                }
+            }
+        }
+        return connectionPool;
+    }
+
     @NotNull
     @Override
     public JDBCExecutionContext[] getAllContexts() {
@@ -177,6 +208,9 @@ public class JDBCRemoteInstance implements DBSInstance {
      * @param keepMeta do not close meta context
      */
     public void shutdown(DBRProgressMonitor monitor, boolean keepMeta) {
+        synchronized (this) {
+            shuttingDown = true;
+        }
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         List<JDBCExecutionContext> ctxCopy;
@@ -191,6 +225,16 @@ public class JDBCRemoteInstance implements DBSInstance {
             context.close();
             monitor.worked(1);
         }
+        // Close pool after contexts because closed isolated contexts return their connections into it
+        JDBCConnectionPool pool;
+        synchronized (this) {
+            pool = this.connectionPool;
+            this.connectionPool = null;
+        }
+        if (pool != null) {
+            monitor.subTask("Close pooled connections");
+            pool.close();
+        }
     }
 
     void addContext(JDBCExecutionContext context) {
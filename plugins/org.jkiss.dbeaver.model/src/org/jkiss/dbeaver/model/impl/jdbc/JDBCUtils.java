@@ -471,7 +471,8 @@ public class JDBCUtils {
                     }
                 } else {
                     try {
-                        isValid[0] = connection.isValid(invalidateTimeout);
+                        // isValid timeout is in seconds
+                        isValid[0] = connection.isValid(Math.max(1, invalidateTimeout / 1000));
                     } catch (Throwable e) {
                         // isValid may be unsupported by driver
                         // Let's try to read table list
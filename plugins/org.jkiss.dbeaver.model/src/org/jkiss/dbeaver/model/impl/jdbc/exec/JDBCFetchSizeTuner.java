@@ -0,0 +1,162 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive fetch size of a result set.
+ *
+ * Measures average row size (by values read from the result set) and duration of fetch round trips
+ * (the next() call which reads the first row of a new batch). Fetch size grows while batches are fetched faster
+ * than target batch time and fit in target batch memory. It is reduced if batch is too slow or too big.
+ * Result sets with non-positive fetch size (driver default or row-by-row streaming) are left intact.
+ */
+class JDBCFetchSizeTuner {
+
+    private static final Log log = Log.getLog(JDBCFetchSizeTuner.class);
+
+    private static final int MIN_FETCH_SIZE = 10;
+    private static final long TARGET_BATCH_TIME = 1000;
+    // Estimated size of values which are not read as objects, strings or byte arrays (numbers, dates, etc)
+    private static final int MIN_VALUE_SIZE = 8;
+    private static final int LOB_LOCATOR_SIZE = 64;
+
+    private final ResultSet resultSet;
+    private final int maxFetchSize;
+    private final long targetBatchBytes;
+    private boolean initialized;
+    private boolean disabled;
+    // Fetch size for the next batch
+    private int fetchSize;
+    // Size of the batch which is being read now. New fetch size is applied to the next round trip only.
+    private int batchSize;
+    private long minRowBytes;
+    // Rows fetched in the current batch
+    private int batchRows;
+    private long currentRowBytes;
+    private long measuredRows;
+    private long measuredBytes;
+
+    JDBCFetchSizeTuner(ResultSet resultSet, DBPPreferenceStore preferenceStore) {
+        this.resultSet = resultSet;
+        this.maxFetchSize = Math.max(MIN_FETCH_SIZE, preferenceStore.getInt(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_MAX_SIZE));
+        this.targetBatchBytes = Math.max(1, preferenceStore.getInt(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_BATCH_MEMORY)) * 1024L;
+    }
+
+    static boolean isEnabled(DBPPreferenceStore preferenceStore) {
+        return preferenceStore.getBoolean(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_SIZE);
+    }
+
+    boolean isDisabled() {
+        return disabled;
+    }
+
+    int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Called after each fetched row
+     *
+     * @param fetchTime duration of next() call in nanoseconds
+     */
+    void rowFetched(long fetchTime) {
+        if (!initialized) {
+            initialize();
+            if (disabled) {
+                return;
+            }
+        }
+        if (batchRows > 0) {
+            measuredRows++;
+            measuredBytes += Math.max(minRowBytes, currentRowBytes);
+        }
+        currentRowBytes = 0;
+        batchRows++;
+        if (batchRows > batchSize) {
+            // This call fetched a new batch from the server
+            batchRows = 1;
+            batchSize = fetchSize;
+            adjustFetchSize(TimeUnit.NANOSECONDS.toMillis(fetchTime));
+        }
+    }
+
+    /**
+     * Called for each value read from the current row
+     */
+    void valueRead(Object value) {
+        if (value == null) {
+            currentRowBytes += 1;
+        } else if (value instanceof String) {
+            currentRowBytes += ((String) value).length() * 2L;
+        } else if (value instanceof byte[]) {
+            currentRowBytes += ((byte[]) value).length;
+        } else if (value instanceof java.sql.Blob || value instanceof java.sql.Clob) {
+            currentRowBytes += LOB_LOCATOR_SIZE;
+        } else {
+            currentRowBytes += MIN_VALUE_SIZE * 2;
+        }
+    }
+
+    private void initialize() {
+        initialized = true;
+        try {
+            fetchSize = resultSet.getFetchSize();
+            minRowBytes = (long) resultSet.getMetaData().getColumnCount() * MIN_VALUE_SIZE;
+        } catch (Throwable e) {
+            log.debug("Can't read result set fetch size: " + e.getMessage());
+            fetchSize = 0;
+        }
+        batchSize = fetchSize;
+        disabled = fetchSize <= 0;
+    }
+
+    private void adjustFetchSize(long batchTime) {
+        if (measuredRows == 0) {
+            return;
+        }
+        long avgRowBytes = Math.max(1, measuredBytes / measuredRows);
+        int memoryLimit = (int) Math.max(MIN_FETCH_SIZE, Math.min(maxFetchSize, targetBatchBytes / avgRowBytes));
+
+        int newFetchSize = fetchSize;
+        if (batchTime < TARGET_BATCH_TIME) {
+            // Round trips are cheap relatively to target batch time. Bigger batches make less round trips.
+            newFetchSize = fetchSize * 2;
+        } else if (batchTime > TARGET_BATCH_TIME * 2) {
+            newFetchSize = fetchSize / 2;
+        }
+        newFetchSize = Math.max(MIN_FETCH_SIZE, Math.min(memoryLimit, newFetchSize));
+        if (newFetchSize == fetchSize) {
+            return;
+        }
+        try {
+            resultSet.setFetchSize(newFetchSize);
+            fetchSize = newFetchSize;
+        } catch (SQLException e) {
+            log.debug("Can't change result set fetch size: " + e.getMessage());
+            disabled = true;
+        }
+    }
+
+}
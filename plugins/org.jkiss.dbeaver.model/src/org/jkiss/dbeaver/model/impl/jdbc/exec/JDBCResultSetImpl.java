@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.AbstractResultSet;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCTrace;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 
 import java.io.InputStream;
@@ -50,6 +51,8 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     private long maxRows = -1;
     private boolean fake;
     private boolean disableLogging;
+    @Nullable
+    private JDBCFetchSizeTuner fetchSizeTuner;
 
     public static JDBCResultSet makeResultSet(@NotNull JDBCSession session, @Nullable JDBCStatement statement, @NotNull ResultSet original, String description, boolean disableLogging)
         throws SQLException
@@ -64,6 +67,12 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         this.disableLogging = disableLogging;
         this.description = description;
         this.fake = statement == null;
+        if (!fake) {
+            DBPPreferenceStore preferenceStore = session.getDataSource().getContainer().getPreferenceStore();
+            if (JDBCFetchSizeTuner.isEnabled(preferenceStore)) {
+                this.fetchSizeTuner = new JDBCFetchSizeTuner(original, preferenceStore);
+            }
+        }
 
         if (!disableLogging) {
             // Notify handler
@@ -144,7 +153,11 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         checkNotEmpty();
         try {
             // JDBC uses 1-based indexes
-            return original.getObject(index + 1);
+            Object value = original.getObject(index + 1);
+            if (fetchSizeTuner != null) {
+                fetchSizeTuner.valueRead(value);
+            }
+            return value;
         }
         catch (SQLException e) {
             throw new DBCException(e, session.getExecutionContext());
@@ -269,9 +282,14 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         this.beforeFetch();
         try {
             // Fetch next row
+            JDBCFetchSizeTuner tuner = fetchSizeTuner != null && !fetchSizeTuner.isDisabled() ? fetchSizeTuner : null;
+            long fetchStartTime = tuner == null ? 0 : System.nanoTime();
             boolean fetched = original.next();
             if (fetched) {
                 rowsFetched++;
+                if (tuner != null) {
+                    tuner.rowFetched(System.nanoTime() - fetchStartTime);
+                }
             }
             if (fetched && JDBCTrace.isApiTraceEnabled()) {
                 JDBCTrace.dumpResultSetRow(this.original);
@@ -331,7 +349,11 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getString(columnIndex);
+        String value = original.getString(columnIndex);
+        if (fetchSizeTuner != null) {
+            fetchSizeTuner.valueRead(value);
+        }
+        return value;
     }
 
     private static void traceGetValue(int columnIndex, String value) {
@@ -408,7 +430,11 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getBytes(columnIndex);
+        byte[] value = original.getBytes(columnIndex);
+        if (fetchSizeTuner != null) {
+            fetchSizeTuner.valueRead(value);
+        }
+        return value;
     }
 
     @Override
@@ -624,7 +650,11 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getObject(columnIndex);
+        Object value = original.getObject(columnIndex);
+        if (fetchSizeTuner != null) {
+            fetchSizeTuner.valueRead(value);
+        }
+        return value;
     }
 
     @Override
@@ -26,7 +26,10 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
+import org.jkiss.dbeaver.model.impl.PrefetchingResultSet;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchImpl;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDictionaryCache;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.impl.struct.AbstractTable;
@@ -44,10 +47,8 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.sql.BatchUpdateException;
+import java.util.*;
 
 /**
  * JDBC abstract table implementation
@@ -62,6 +63,9 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
     private static final String DEFAULT_TABLE_ALIAS = "x";
 
+    // Maximum number of key values bound in a single multi-key DELETE
+    private static final int MAX_DELETE_KEY_PARAMETERS = 1000;
+
     private boolean persisted;
 
     protected JDBCTable(CONTAINER container, boolean persisted)
@@ -180,8 +184,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
             if (monitor.isCanceled()) {
                 return statistics;
             }
-            if (dbStat instanceof JDBCStatement && (fetchSize > 0 || maxRows > 0)) {
-                DBExecUtils.setStatementFetchSize(dbStat, firstRow, maxRows, fetchSize);
+            if (dbStat instanceof JDBCStatement && (fetchSize > 0 || maxRows > 0 || CommonUtils.isBitSet(flags, DBSDataContainer.FLAG_STREAM_READ))) {
+                DBExecUtils.setStatementFetchSize(dbStat, firstRow, maxRows, fetchSize, flags);
             }
 
             long startTime = System.currentTimeMillis();
@@ -189,6 +193,9 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
             statistics.setExecuteTime(System.currentTimeMillis() - startTime);
             if (executeResult) {
                 DBCResultSet dbResult = dbStat.openResultSet();
+                if (dbResult != null && CommonUtils.isBitSet(flags, DBSDataContainer.FLAG_PREFETCH_ROWS)) {
+                    dbResult = PrefetchingResultSet.prefetch(session, dbResult, hasLimits ? maxRows : -1);
+                }
                 if (dbResult != null && !monitor.isCanceled()) {
                     try {
                         dataReceiver.fetchStart(session, dbResult, firstRow, maxRows);
@@ -304,6 +311,16 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
             private boolean allNulls;
 
+            @NotNull
+            @Override
+            public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+                try {
+                    return super.execute(session, options);
+                } finally {
+                    invalidateDictionaryCache();
+                }
+            }
+
             protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
                 paramIndex++;
                 DBSAttributeBase attribute = attributes[paramIndex];
@@ -402,7 +419,17 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         DBSAttributeBase[] attributes = ArrayUtils.concatArrays(updateAttributes, keyAttributes);
 
-        return new ExecuteBatchImpl(attributes, keysReceiver, false) {
+        return new ExecuteBatchImpl(attributes, keysReceiver, true) {
+            @NotNull
+            @Override
+            public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+                try {
+                    return super.execute(session, options);
+                } finally {
+                    invalidateDictionaryCache();
+                }
+            }
+
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
@@ -479,7 +506,24 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     {
         readRequiredMeta(session.getProgressMonitor());
 
-        return new ExecuteBatchImpl(keyAttributes, null, false) {
+        return new ExecuteBatchImpl(keyAttributes, null, true) {
+            @NotNull
+            @Override
+            public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+                try {
+                    if (values.size() > 1 && isMultiKeyDeleteSupported(session, keyAttributes, values)) {
+                        try {
+                            return deleteMultipleKeys(session, keyAttributes, values, source, options);
+                        } finally {
+                            values.clear();
+                        }
+                    }
+                    return super.execute(session, options);
+                } finally {
+                    invalidateDictionaryCache();
+                }
+            }
+
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
@@ -527,6 +571,113 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         };
     }
 
+    /**
+     * Multiple keys can be collapsed in a single IN/OR predicate if they are bound as plain parameters.
+     * Rows with NULL keys are deleted one by one (with IS NULL criteria).
+     */
+    private boolean isMultiKeyDeleteSupported(@NotNull DBCSession session, @NotNull DBSAttributeBase[] keyAttributes, @NotNull List<Object[]> keyValues) {
+        if (keyAttributes.length == 0) {
+            return false;
+        }
+        for (DBSAttributeBase attribute : keyAttributes) {
+            if (getAttributeValueHandler(session, attribute) instanceof DBDValueBinder) {
+                return false;
+            }
+        }
+        for (Object[] row : keyValues) {
+            for (Object value : row) {
+                if (DBUtils.isNullValue(value)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes rows with DELETE ... WHERE key IN (...) (or OR'ed key criteria for composite keys).
+     * If some statement fails then BatchUpdateException with counts of already deleted rows is thrown.
+     */
+    @NotNull
+    private DBCStatistics deleteMultipleKeys(@NotNull DBCSession session, @NotNull DBSAttributeBase[] keyAttributes, @NotNull List<Object[]> keyValues, @NotNull DBCExecutionSource source, Map<String, Object> options)
+        throws DBCException
+    {
+        SQLDialect dialect = session.getDataSource().getSQLDialect();
+        String tableAlias = dialect.supportsAliasInUpdate() ? DEFAULT_TABLE_ALIAS : null;
+        String tableName = DBUtils.getEntityScriptName(JDBCTable.this, options);
+        DBDValueHandler[] handlers = new DBDValueHandler[keyAttributes.length];
+        for (int i = 0; i < keyAttributes.length; i++) {
+            handlers[i] = getAttributeValueHandler(session, keyAttributes[i]);
+        }
+        int rowsPerStatement = Math.max(1, MAX_DELETE_KEY_PARAMETERS / keyAttributes.length);
+
+        DBCStatistics statistics = new DBCStatistics();
+        for (int startRow = 0; startRow < keyValues.size(); startRow += rowsPerStatement) {
+            int endRow = Math.min(keyValues.size(), startRow + rowsPerStatement);
+            StringBuilder query = new StringBuilder();
+            query.append("DELETE FROM ").append(tableName);
+            if (tableAlias != null) {
+                query.append(' ').append(tableAlias);
+            }
+            query.append("\n\tWHERE "); //$NON-NLS-1$
+            if (keyAttributes.length == 1) {
+                appendAttributeName(tableAlias, dialect, query, keyAttributes[0]);
+                query.append(" IN ("); //$NON-NLS-1$
+                for (int i = startRow; i < endRow; i++) {
+                    if (i > startRow) query.append(","); //$NON-NLS-1$
+                    query.append(dialect.getTypeCastClause(keyAttributes[0], "?")); //$NON-NLS-1$
+                }
+                query.append(")"); //$NON-NLS-1$
+            } else {
+                for (int i = startRow; i < endRow; i++) {
+                    if (i > startRow) query.append(" OR "); //$NON-NLS-1$
+                    query.append("("); //$NON-NLS-1$
+                    for (int k = 0; k < keyAttributes.length; k++) {
+                        if (k > 0) query.append(" AND "); //$NON-NLS-1$
+                        appendAttributeCriteria(tableAlias, dialect, query, keyAttributes[k], keyValues.get(i)[k]);
+                    }
+                    query.append(")"); //$NON-NLS-1$
+                }
+            }
+
+            try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.toString(), false, false, false)) {
+                dbStat.setStatementSource(source);
+                statistics.setQueryText(dbStat.getQueryString());
+                statistics.addStatementsCount();
+                int paramIndex = 0;
+                for (int i = startRow; i < endRow; i++) {
+                    Object[] rowValues = keyValues.get(i);
+                    for (int k = 0; k < keyAttributes.length; k++) {
+                        handlers[k].bindValueObject(session, dbStat, keyAttributes[k], paramIndex++, rowValues[k]);
+                    }
+                }
+                long startTime = System.currentTimeMillis();
+                dbStat.executeStatement();
+                statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+                long rowCount = dbStat.getUpdateRowCount();
+                if (rowCount > 0) {
+                    statistics.addRowsUpdated(rowCount);
+                }
+            } catch (DBCException e) {
+                if (startRow == 0) {
+                    throw e;
+                }
+                // Rows of previous statements were deleted already
+                int[] updateCounts = new int[startRow];
+                Arrays.fill(updateCounts, java.sql.Statement.SUCCESS_NO_INFO);
+                throw new DBCException(new BatchUpdateException(e.getMessage(), updateCounts, e), session.getDataSource());
+            }
+        }
+        return statistics;
+    }
+
+    private static DBDValueHandler getAttributeValueHandler(@NotNull DBCSession session, @NotNull DBSAttributeBase attribute) {
+        if (attribute instanceof DBDAttributeBinding) {
+            return ((DBDAttributeBinding) attribute).getValueHandler();
+        }
+        return DBUtils.findValueHandler(session, attribute);
+    }
+
     ////////////////////////////////////////////////////////////////////
     // Dictionary
 
@@ -561,15 +712,34 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         int maxResults)
         throws DBException
     {
-        // Use default one
-        return readKeyEnumeration(
-            monitor,
-            keyColumn,
-            keyPattern,
-            preceedingKeys,
-            sortByValue,
-            sortAsc,
-            maxResults);
+        JDBCDictionaryCache dictionaryCache = getDictionaryCache(preceedingKeys);
+        if (dictionaryCache == null) {
+            // Use default one
+            return readKeyEnumeration(
+                monitor,
+                keyColumn,
+                keyPattern,
+                preceedingKeys,
+                sortByValue,
+                sortAsc,
+                maxResults);
+        }
+        String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
+        List<DBDLabelValuePair> enumeration = dictionaryCache.getEnumeration(this, keyColumn, descColumns, keyPattern, sortByValue, sortAsc, maxResults);
+        if (enumeration == null) {
+            enumeration = readKeyEnumeration(
+                monitor,
+                keyColumn,
+                keyPattern,
+                null,
+                sortByValue,
+                sortAsc,
+                maxResults);
+            if (!monitor.isCanceled()) {
+                dictionaryCache.putEnumeration(this, keyColumn, descColumns, keyPattern, sortByValue, sortAsc, maxResults, enumeration);
+            }
+        }
+        return enumeration;
     }
 
     @NotNull
@@ -581,13 +751,64 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         @Nullable List<DBDAttributeValue> preceedingKeys,
         boolean sortByValue,
         boolean sortAsc) throws DBException
+    {
+        String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
+
+        JDBCDictionaryCache dictionaryCache = getDictionaryCache(preceedingKeys);
+        if (dictionaryCache == null) {
+            return readDictionaryValues(monitor, keyColumn, descColumns, keyValues, preceedingKeys, sortByValue, sortAsc);
+        }
+        // Read only values which are not cached. All of them are read with a single IN query.
+        List<DBDLabelValuePair> result = new ArrayList<>();
+        List<Object> missingValues = new ArrayList<>();
+        dictionaryCache.getValues(this, keyColumn, descColumns, keyValues, result, missingValues);
+        if (!missingValues.isEmpty()) {
+            List<DBDLabelValuePair> readValues = readDictionaryValues(monitor, keyColumn, descColumns, missingValues, null, sortByValue, sortAsc);
+            if (!monitor.isCanceled()) {
+                dictionaryCache.putValues(this, keyColumn, descColumns, missingValues, readValues);
+            }
+            if (result.isEmpty()) {
+                return readValues;
+            }
+            result.addAll(readValues);
+        }
+        Comparator<DBDLabelValuePair> comparator = sortByValue ?
+            (o1, o2) -> DBUtils.compareDataValues(o1.getValue(), o2.getValue()) :
+            (o1, o2) -> CommonUtils.notEmpty(o1.getLabel()).compareTo(CommonUtils.notEmpty(o2.getLabel()));
+        result.sort(sortAsc ? comparator : comparator.reversed());
+        return result;
+    }
+
+    @Nullable
+    private JDBCDictionaryCache getDictionaryCache(@Nullable List<DBDAttributeValue> preceedingKeys) {
+        if (!CommonUtils.isEmpty(preceedingKeys) || !(getDataSource() instanceof JDBCDataSource)) {
+            return null;
+        }
+        JDBCDictionaryCache dictionaryCache = ((JDBCDataSource) getDataSource()).getDictionaryCache();
+        return dictionaryCache.isEnabled() ? dictionaryCache : null;
+    }
+
+    private void invalidateDictionaryCache() {
+        if (getDataSource() instanceof JDBCDataSource) {
+            ((JDBCDataSource) getDataSource()).getDictionaryCache().invalidate(this);
+        }
+    }
+
+    @NotNull
+    private List<DBDLabelValuePair> readDictionaryValues(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSEntityAttribute keyColumn,
+        @Nullable String descColumns,
+        @NotNull List<Object> keyValues,
+        @Nullable List<DBDAttributeValue> preceedingKeys,
+        boolean sortByValue,
+        boolean sortAsc) throws DBException
     {
         DBDValueHandler keyValueHandler = DBUtils.findValueHandler(keyColumn.getDataSource(), keyColumn);
 
         StringBuilder query = new StringBuilder();
         query.append("SELECT ").append(DBUtils.getQuotedIdentifier(keyColumn));
 
-        String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
         if (descColumns != null) {
             query.append(", ").append(descColumns);
         }
@@ -850,6 +1071,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                 false, false, false)) {
                 dbStat.setStatementSource(source);
                 dbStat.executeStatement();
+            } finally {
+                invalidateDictionaryCache();
             }
             statistics.addStatementsCount();
             statistics.addExecuteTime();
@@ -887,6 +1110,15 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     }
 
     private void appendAttributeCriteria(@Nullable String tableAlias, SQLDialect dialect, StringBuilder query, DBSAttributeBase attribute, Object value) {
+        appendAttributeName(tableAlias, dialect, query, attribute);
+        if (DBUtils.isNullValue(value)) {
+            query.append(" IS NULL"); //$NON-NLS-1$
+        } else {
+            query.append("=").append(dialect.getTypeCastClause(attribute, "?")); //$NON-NLS-1$
+        }
+    }
+
+    private void appendAttributeName(@Nullable String tableAlias, SQLDialect dialect, StringBuilder query, DBSAttributeBase attribute) {
         DBDPseudoAttribute pseudoAttribute = null;
         if (DBUtils.isPseudoAttribute(attribute)) {
             if (attribute instanceof DBDAttributeBindingMeta) {
@@ -907,11 +1139,6 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
             }
             query.append(getAttributeName(attribute));
         }
-        if (DBUtils.isNullValue(value)) {
-            query.append(" IS NULL"); //$NON-NLS-1$
-        } else {
-            query.append("=").append(dialect.getTypeCastClause(attribute, "?")); //$NON-NLS-1$
-        }
     }
 
     /**
@@ -70,7 +70,10 @@ public class SQLQuery implements SQLScriptElement {
     private boolean parsed = false;
     @NotNull
     private SQLQueryType type;
+    // Shared statement from parse cache. Must not be modified.
     private Statement statement;
+    // Private statement copy returned to callers
+    private Statement ownStatement;
     private SingleTableMeta singleTableMeta;
     private List<SQLSelectItem> selectItems;
     private String queryTitle;
@@ -126,7 +129,7 @@ public class SQLQuery implements SQLScriptElement {
                 this.parseError = new DBException("Empty query");
                 return;
             }
-            statement = SQLSemanticProcessor.parseQuery(dataSource == null ? null : dataSource.getSQLDialect(), text);
+            statement = SQLSemanticProcessor.getParsedQuery(getDialect(), text);
             if (statement instanceof Select) {
                 type = SQLQueryType.SELECT;
                 // Detect single source table (no joins, no group by, no sub-selects)
@@ -268,12 +271,38 @@ public class SQLQuery implements SQLScriptElement {
         return queryTitle;
     }
 
+    /**
+     * Returns parsed statement. Statement belongs to this query and may be modified by caller.
+     * Use {@link #getParsedStatement()} if statement is only read.
+     */
     @Nullable
     public Statement getStatement() {
+        parseQuery();
+        if (statement != null && ownStatement == null) {
+            try {
+                ownStatement = SQLSemanticProcessor.parseQuery(getDialect(), text);
+            } catch (Throwable e) {
+                // Shouldn't happen - the same text was parsed successfully already
+                parseError = e;
+            }
+        }
+        return ownStatement;
+    }
+
+    /**
+     * Returns parsed statement shared with other queries with the same text. It must not be modified.
+     */
+    @Nullable
+    public Statement getParsedStatement() {
         parseQuery();
         return statement;
     }
 
+    @Nullable
+    private SQLDialect getDialect() {
+        return dataSource == null ? null : dataSource.getSQLDialect();
+    }
+
     public Throwable getParseError() {
         return parseError;
     }
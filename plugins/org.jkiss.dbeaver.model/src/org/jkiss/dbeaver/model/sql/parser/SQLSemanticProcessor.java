@@ -51,7 +51,11 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Semantic SQL processor
@@ -62,18 +66,59 @@ public class SQLSemanticProcessor {
 
     private static final String NESTED_QUERY_AlIAS = "z_q";
 
+    private static final int PARSE_CACHE_MAX_SIZE = 1000;
+    // Total length of cached query texts
+    private static final long PARSE_CACHE_MAX_TEXT_LENGTH = 10000000;
 
+    private static class ParseCacheKey {
+        final boolean squareBrackets;
+        final String text;
+
+        ParseCacheKey(boolean squareBrackets, String text) {
+            this.squareBrackets = squareBrackets;
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ParseCacheKey)) {
+                return false;
+            }
+            ParseCacheKey key = (ParseCacheKey) obj;
+            return squareBrackets == key.squareBrackets && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode() + (squareBrackets ? 1 : 0);
+        }
+    }
+
+    private static class ParseResult {
+        final Statement statement;
+        final DBCException error;
+
+        ParseResult(Statement statement, DBCException error) {
+            this.statement = statement;
+            this.error = error;
+        }
+    }
+
+    // Access ordered, so the eldest entry is the least recently used one
+    private static final Map<ParseCacheKey, ParseResult> parseCache = new LinkedHashMap<>(64, 0.75f, true);
+    private static long parseCacheTextLength;
+    private static final AtomicLong parseCacheHitCount = new AtomicLong();
+    private static final AtomicLong parseCacheMissCount = new AtomicLong();
+
+    /**
+     * Parses query. Returned statement belongs to the caller and may be modified.
+     */
     public static Statement parseQuery(@Nullable SQLDialect dialect, @NotNull String sql) throws DBCException {
+        checkQueryLength(sql);
         CCJSqlParser parser = new CCJSqlParser(new StringProvider(sql));
         try {
-            if (dialect != null) {
-                // Enable square brackets
-                for (String[] qs : ArrayUtils.safeArray(dialect.getIdentifierQuoteStrings())) {
-                    if (qs.length == 2 && "[".equals(qs[0]) && "]".equals(qs[1])) {
-                        parser.withSquareBracketQuotation(true);
-                        break;
-                    }
-                }
+            if (isSquareBracketQuotation(dialect)) {
+                parser.withSquareBracketQuotation(true);
             }
             return parser.Statement();
         } catch (Exception e) {
@@ -81,10 +126,90 @@ public class SQLSemanticProcessor {
         }
     }
 
+    /**
+     * Returns parsed query from the shared parse cache. Parse errors are cached as well.
+     * Returned statement is shared between all callers and must not be modified.
+     * Use {@link #parseQuery(SQLDialect, String)} to get statement which may be modified.
+     */
+    @NotNull
+    public static Statement getParsedQuery(@Nullable SQLDialect dialect, @NotNull String sql) throws DBCException {
+        checkQueryLength(sql);
+        ParseCacheKey key = new ParseCacheKey(isSquareBracketQuotation(dialect), sql.trim());
+        ParseResult result;
+        synchronized (parseCache) {
+            result = parseCache.get(key);
+        }
+        if (result != null) {
+            parseCacheHitCount.incrementAndGet();
+        } else {
+            parseCacheMissCount.incrementAndGet();
+            try {
+                result = new ParseResult(parseQuery(dialect, key.text), null);
+            } catch (DBCException e) {
+                result = new ParseResult(null, e);
+            }
+            synchronized (parseCache) {
+                if (parseCache.put(key, result) == null) {
+                    parseCacheTextLength += key.text.length();
+                }
+                for (Iterator<ParseCacheKey> iter = parseCache.keySet().iterator();
+                     iter.hasNext() && (parseCache.size() > PARSE_CACHE_MAX_SIZE || parseCacheTextLength > PARSE_CACHE_MAX_TEXT_LENGTH); )
+                {
+                    parseCacheTextLength -= iter.next().text.length();
+                    iter.remove();
+                }
+            }
+        }
+        if (result.error != null) {
+            throw new DBCException(result.error.getMessage(), result.error.getCause());
+        }
+        return result.statement;
+    }
+
+    public static void clearParseCache() {
+        synchronized (parseCache) {
+            parseCache.clear();
+            parseCacheTextLength = 0;
+        }
+    }
+
+    /**
+     * Number of queries found in parse cache
+     */
+    public static long getParseCacheHitCount() {
+        return parseCacheHitCount.get();
+    }
+
+    /**
+     * Number of queries which were parsed because they weren't found in parse cache
+     */
+    public static long getParseCacheMissCount() {
+        return parseCacheMissCount.get();
+    }
+
+    private static void checkQueryLength(@NotNull String sql) throws DBCException {
+        // Parsing of huge scripts takes too long and blocks the editor
+        int maxLength = ModelPreferences.getPreferences().getInt(ModelPreferences.SQL_PARSE_MAX_LENGTH);
+        if (maxLength > 0 && sql.length() > maxLength) {
+            throw new DBCException("SQL query is too long for parsing (" + sql.length() + " > " + maxLength + ")");
+        }
+    }
+
+    private static boolean isSquareBracketQuotation(@Nullable SQLDialect dialect) {
+        if (dialect != null) {
+            for (String[] qs : ArrayUtils.safeArray(dialect.getIdentifierQuoteStrings())) {
+                if (qs.length == 2 && "[".equals(qs[0]) && "]".equals(qs[1])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public static boolean isSelectQuery(SQLDialect dialect, String query)
     {
         try {
-            Statement statement = parseQuery(dialect, query);
+            Statement statement = getParsedQuery(dialect, query);
             return
                 statement instanceof Select &&
                 ((Select) statement).getSelectBody() instanceof PlainSelect &&
@@ -44,6 +44,8 @@ public interface DBSDataContainer extends DBSObject {
     long FLAG_USE_SELECTED_ROWS     = 1 << 2;
     long FLAG_USE_SELECTED_COLUMNS  = 1 << 3;
     long FLAG_FETCH_SEGMENT         = 1 << 4;
+    long FLAG_STREAM_READ           = 1 << 5;
+    long FLAG_PREFETCH_ROWS         = 1 << 6;
     long FLAG_REFRESH               = 1 << 8;
 
     @Nullable
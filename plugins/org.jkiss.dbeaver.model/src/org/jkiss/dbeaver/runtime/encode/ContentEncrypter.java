@@ -25,6 +25,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -64,18 +65,27 @@ public class ContentEncrypter {
     }
 
     public String decrypt(byte[] contents) throws InvalidAlgorithmParameterException, InvalidKeyException, IOException {
-        try (InputStream byteStream = new ByteArrayInputStream(contents)) {
-            byte[] fileIv = new byte[16];
-            byteStream.read(fileIv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(fileIv));
+        try (InputStream cipherIn = decrypt(new ByteArrayInputStream(contents))) {
+            ByteArrayOutputStream resultBuffer = new ByteArrayOutputStream();
+            IOUtils.copyStream(cipherIn, resultBuffer);
+            return new String(resultBuffer.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
 
-            try (CipherInputStream cipherIn = new CipherInputStream(byteStream, cipher)) {
-                ByteArrayOutputStream resultBuffer = new ByteArrayOutputStream();
-                IOUtils.copyStream(cipherIn, resultBuffer);
-                return new String(resultBuffer.toByteArray(), StandardCharsets.UTF_8);
+    /**
+     * Returns stream which decrypts contents on read. Closing it closes the source stream.
+     */
+    public InputStream decrypt(InputStream contents) throws InvalidAlgorithmParameterException, InvalidKeyException, IOException {
+        byte[] fileIv = new byte[16];
+        for (int offset = 0; offset < fileIv.length; ) {
+            int count = contents.read(fileIv, offset, fileIv.length - offset);
+            if (count < 0) {
+                throw new EOFException("Encrypted content is too short");
             }
-
+            offset += count;
         }
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(fileIv));
+        return new CipherInputStream(contents, cipher);
     }
 
 }
\ No newline at end of file
@@ -18,34 +18,109 @@ package org.jkiss.dbeaver.runtime.jobs;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.IJobChangeEvent;
-import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
-import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
-import org.jkiss.dbeaver.model.app.DBPPlatform;
-import org.jkiss.dbeaver.model.app.DBPProject;
-import org.jkiss.dbeaver.model.app.DBPWorkspace;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.app.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * KeepAliveListenerJob
+ * KeepAliveListenerJob.
+ *
+ * Keeps connected data sources in a queue ordered by the next check time, so each run handles only due checks.
+ * Data sources are added to the queue on connect events of data source registries. Already loaded registries are scanned once.
+ * Each check runs in its own job, so a hung server doesn't delay checks of other connections.
  */
-public class KeepAliveListenerJob extends AbstractJob
+public class KeepAliveListenerJob extends AbstractJob implements DBPRegistryListener, DBPEventListener
 {
     private static final int MONITOR_INTERVAL = 3000; // once per 3 seconds
     private static final long SYSTEM_SUSPEND_INTERVAL = 30000; // 30 seconds of inactivity - most likely a system suspend
 
     private static final Log log = Log.getLog(KeepAliveListenerJob.class);
 
+    private static final Map<String, ConnectionStatistics> connectionStatistics = new ConcurrentHashMap<>();
+
+    /**
+     * Keep-alive metrics of a connection
+     */
+    public static class ConnectionStatistics {
+        private volatile long checkCount;
+        private volatile long failureCount;
+        private volatile long reconnectCount;
+        private volatile long lastLatency;
+        private volatile long totalLatency;
+        private volatile long lastCheckTime;
+
+        synchronized void addCheck(long latency, boolean success) {
+            checkCount++;
+            if (!success) {
+                failureCount++;
+            }
+            lastLatency = latency;
+            totalLatency += latency;
+            lastCheckTime = System.currentTimeMillis();
+        }
+
+        synchronized void addReconnect() {
+            reconnectCount++;
+        }
+
+        public long getCheckCount() {
+            return checkCount;
+        }
+
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        public long getReconnectCount() {
+            return reconnectCount;
+        }
+
+        public long getLastLatency() {
+            return lastLatency;
+        }
+
+        public synchronized long getAverageLatency() {
+            return checkCount == 0 ? 0 : totalLatency / checkCount;
+        }
+
+        public long getLastCheckTime() {
+            return lastCheckTime;
+        }
+
+        @Override
+        public String toString() {
+            return "checks=" + checkCount + ", failures=" + failureCount + ", reconnects=" + reconnectCount +
+                ", latency=" + lastLatency + "ms, avg latency=" + getAverageLatency() + "ms";
+        }
+    }
+
+    private static class ScheduledCheck {
+        final DBPDataSourceContainer dataSourceContainer;
+        long nextCheckTime;
+        volatile boolean inProgress;
+
+        ScheduledCheck(DBPDataSourceContainer dataSourceContainer, long nextCheckTime) {
+            this.dataSourceContainer = dataSourceContainer;
+            this.nextCheckTime = nextCheckTime;
+        }
+    }
+
     private final DBPPlatform platform;
-    private Map<String, Long> checkCache = new HashMap<>();
-    private final Set<String> pingCache = new HashSet<>();
+    private final PriorityQueue<ScheduledCheck> checkQueue = new PriorityQueue<>(Comparator.comparingLong(c -> c.nextCheckTime));
+    private final Map<DBPDataSourceContainer, ScheduledCheck> scheduledChecks = new IdentityHashMap<>();
+    private final Set<DBPDataSourceRegistry> registries = Collections.newSetFromMap(new IdentityHashMap<>());
     private long lastPingTime = -1;
+    private boolean registriesScanned;
 
     public KeepAliveListenerJob(DBPPlatform platform)
     {
@@ -55,24 +130,110 @@ public class KeepAliveListenerJob extends AbstractJob
         this.platform = platform;
     }
 
+    /**
+     * Returns keep-alive metrics of a data source or null if it was never checked
+     */
+    @Nullable
+    public static ConnectionStatistics getConnectionStatistics(@NotNull DBPDataSourceContainer dataSourceContainer) {
+        return connectionStatistics.get(dataSourceContainer.getId());
+    }
+
+    /**
+     * Stops listening for data source events of all registries
+     */
+    public void dispose() {
+        List<DBPDataSourceRegistry> registryList;
+        synchronized (registries) {
+            registryList = new ArrayList<>(registries);
+        }
+        for (DBPDataSourceRegistry registry : registryList) {
+            handleRegistryUnload(registry);
+        }
+    }
+
+    @Override
+    public void handleRegistryLoad(DBPDataSourceRegistry registry) {
+        synchronized (registries) {
+            if (!registries.add(registry)) {
+                return;
+            }
+        }
+        registry.addDataSourceListener(this);
+        for (DBPDataSourceContainer ds : registry.getDataSources()) {
+            addCheck(ds);
+        }
+    }
+
+    @Override
+    public void handleRegistryUnload(DBPDataSourceRegistry registry) {
+        synchronized (registries) {
+            if (!registries.remove(registry)) {
+                return;
+            }
+        }
+        registry.removeDataSourceListener(this);
+        for (DBPDataSourceContainer ds : registry.getDataSources()) {
+            removeCheck(ds);
+        }
+    }
+
+    @Override
+    public void handleDataSourceEvent(DBPEvent event) {
+        if (!(event.getObject() instanceof DBPDataSourceContainer)) {
+            return;
+        }
+        DBPDataSourceContainer ds = (DBPDataSourceContainer) event.getObject();
+        if (event.getAction() == DBPEvent.Action.OBJECT_REMOVE) {
+            removeCheck(ds);
+        } else if (event.getAction() == DBPEvent.Action.OBJECT_UPDATE) {
+            if (ds.isConnected()) {
+                addCheck(ds);
+            } else {
+                removeCheck(ds);
+            }
+        }
+    }
+
     @Override
     protected IStatus run(DBRProgressMonitor monitor)
     {
         if (platform.isShuttingDown()) {
             return Status.OK_STATUS;
         }
-        if (lastPingTime > 0 && System.currentTimeMillis() - lastPingTime > SYSTEM_SUSPEND_INTERVAL) {
+        long curTime = System.currentTimeMillis();
+        if (lastPingTime > 0 && curTime - lastPingTime > SYSTEM_SUSPEND_INTERVAL) {
             log.debug("System suspend detected! Reinitialize all remote connections.");
         }
-        lastPingTime = System.currentTimeMillis();
+        lastPingTime = curTime;
 
-        final DBPWorkspace workspace = platform.getWorkspace();
-        for (DBPProject project : workspace.getProjects()) {
-            if (project.isOpen() && project.isRegistryLoaded()) {
-                DBPDataSourceRegistry dataSourceRegistry = project.getDataSourceRegistry();
-                for (DBPDataSourceContainer ds : dataSourceRegistry.getDataSources()) {
-                    checkDataSourceAlive(ds);
+        if (!registriesScanned) {
+            // Registries loaded before the monitor start
+            registriesScanned = true;
+            for (DBPProject project : platform.getWorkspace().getProjects()) {
+                if (project.isOpen() && project.isRegistryLoaded()) {
+                    handleRegistryLoad(project.getDataSourceRegistry());
+                }
+            }
+        }
+
+        synchronized (checkQueue) {
+            while (!checkQueue.isEmpty() && checkQueue.peek().nextCheckTime <= curTime) {
+                ScheduledCheck check = checkQueue.poll();
+                int keepAliveInterval = getKeepAliveInterval(check.dataSourceContainer);
+                if (keepAliveInterval <= 0) {
+                    // Disconnected or keep-alive was turned off
+                    scheduledChecks.remove(check.dataSourceContainer);
+                    if (!check.dataSourceContainer.isConnected()) {
+                        connectionStatistics.remove(check.dataSourceContainer.getId());
+                    }
+                    continue;
                 }
+                if (!check.inProgress) {
+                    // Ping is still in progress otherwise. Hanged? Anyway - just skip it
+                    startCheck(check);
+                }
+                check.nextCheckTime = curTime + keepAliveInterval * 1000L;
+                checkQueue.add(check);
             }
         }
         if (!platform.isShuttingDown()) {
@@ -81,61 +242,61 @@ public class KeepAliveListenerJob extends AbstractJob
         return Status.OK_STATUS;
     }
 
-    private void checkDataSourceAlive(final DBPDataSourceContainer dataSourceDescriptor) {
-        if (!dataSourceDescriptor.isConnected()) {
-            return;
-        }
-        final int keepAliveInterval = dataSourceDescriptor.getConnectionConfiguration().getKeepAliveInterval();
+    private void addCheck(DBPDataSourceContainer ds) {
+        int keepAliveInterval = getKeepAliveInterval(ds);
         if (keepAliveInterval <= 0) {
             return;
         }
-        final String dsId = dataSourceDescriptor.getId();
-        synchronized (this) {
-            if (pingCache.contains(dsId)) {
-                // Ping is still in progress. Hanged?
-                // Anyway - just skip it
+        synchronized (checkQueue) {
+            if (scheduledChecks.containsKey(ds)) {
                 return;
             }
+            final Date connectTime = ds.getConnectTime();
+            long lastCheckTime = connectTime == null ? System.currentTimeMillis() : connectTime.getTime();
+            ScheduledCheck check = new ScheduledCheck(ds, lastCheckTime + keepAliveInterval * 1000L);
+            scheduledChecks.put(ds, check);
+            checkQueue.add(check);
         }
-        final DBPDataSource dataSource = dataSourceDescriptor.getDataSource();
-        if (dataSource == null) {
-            return;
-        }
-        Long lastCheckTime;
-        synchronized (this) {
-            lastCheckTime = checkCache.get(dsId);
-        }
-        if (lastCheckTime == null) {
-            final Date connectTime = dataSourceDescriptor.getConnectTime();
-            if (connectTime != null) {
-                lastCheckTime = connectTime.getTime();
+    }
+
+    private void removeCheck(DBPDataSourceContainer ds) {
+        synchronized (checkQueue) {
+            ScheduledCheck check = scheduledChecks.remove(ds);
+            if (check != null) {
+                checkQueue.remove(check);
             }
         }
-        if (lastCheckTime == null) {
-            log.debug("Can't determine last check time for " + dsId);
+        connectionStatistics.remove(ds.getId());
+    }
+
+    private void startCheck(final ScheduledCheck check) {
+        final DBPDataSource dataSource = check.dataSourceContainer.getDataSource();
+        if (dataSource == null) {
             return;
         }
-        long curTime = System.currentTimeMillis();
-        if ((curTime - lastCheckTime) / 1000 > keepAliveInterval) {
-            final KeepAlivePingJob pingJob = new KeepAlivePingJob(dataSource);
-            pingJob.addJobChangeListener(new JobChangeAdapter() {
-                @Override
-                public void done(IJobChangeEvent event) {
-                    synchronized (KeepAliveListenerJob.this) {
-                        checkCache.put(dsId, System.currentTimeMillis());
-                        pingCache.remove(dsId);
-                    }
-                }
-            });
-            synchronized (this) {
-                pingCache.add(dsId);
-            }
-            pingJob.schedule();
+        ConnectionStatistics statistics = connectionStatistics.computeIfAbsent(
+            check.dataSourceContainer.getId(),
+            id -> new ConnectionStatistics());
+        check.inProgress = true;
+        final KeepAlivePingJob pingJob = new KeepAlivePingJob(dataSource, statistics, () -> check.inProgress = false);
+        pingJob.schedule();
+    }
+
+    private static int getKeepAliveInterval(DBPDataSourceContainer dataSourceContainer) {
+        if (!dataSourceContainer.isConnected()) {
+            return 0;
         }
+        return dataSourceContainer.getConnectionConfiguration().getKeepAliveInterval();
     }
 
     public void scheduleMonitor() {
-        schedule(MONITOR_INTERVAL);
+        long delay = MONITOR_INTERVAL;
+        synchronized (checkQueue) {
+            if (!checkQueue.isEmpty()) {
+                delay = Math.max(0, Math.min(delay, checkQueue.peek().nextCheckTime - System.currentTimeMillis()));
+            }
+        }
+        schedule(delay);
     }
 
-}
\ No newline at end of file
+}
@@ -24,52 +24,88 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * KeepAlivePingJob
+ * KeepAlivePingJob.
+ * Checks all contexts of the data source in parallel. Data source is invalidated once if any check fails.
  */
 class KeepAlivePingJob extends AbstractJob {
     private static final Log log = Log.getLog(KeepAlivePingJob.class);
 
     private final DBPDataSource dataSource;
+    private final KeepAliveListenerJob.ConnectionStatistics statistics;
+    private final Runnable onFinish;
 
-    KeepAlivePingJob(DBPDataSource dataSource) {
+    KeepAlivePingJob(DBPDataSource dataSource, KeepAliveListenerJob.ConnectionStatistics statistics, Runnable onFinish) {
         super("Connection ping (" + dataSource.getContainer().getName() + ")");
         setUser(false);
         setSystem(true);
         this.dataSource = dataSource;
+        this.statistics = statistics;
+        this.onFinish = onFinish;
     }
 
     @Override
     protected IStatus run(DBRProgressMonitor monitor) {
-        for (final DBSInstance instance : dataSource.getAvailableInstances()) {
-            for (final DBCExecutionContext context : instance.getAllContexts()) {
-                try {
-                    context.checkContextAlive(monitor);
-                } catch (Exception e) {
-                    log.debug("Context [" + dataSource.getName() + "::" + context.getContextName() + "] check failed: " + e.getMessage());
-                    // Invalidate. Do not log errors (as it can spam tons of logs)
-                    if (e instanceof DBException) {
-                        final List<InvalidateJob.ContextInvalidateResult> results = InvalidateJob.invalidateDataSource(
-                            monitor,
-                            dataSource,
-                            false,
-                            false,
-                            () -> DBWorkbench.getPlatformUI().openConnectionEditor(dataSource.getContainer()));
-                        if (isSuccess(results)) {
-                            log.debug("Connection invalidated: " + results);
-                        }
+        try {
+            final AtomicBoolean invalidateRequired = new AtomicBoolean(false);
+            List<DBRRunnableWithProgress> checks = new ArrayList<>();
+            for (final DBSInstance instance : dataSource.getAvailableInstances()) {
+                for (final DBCExecutionContext context : instance.getAllContexts()) {
+                    checks.add(checkMonitor -> checkContext(checkMonitor, context, invalidateRequired));
+                }
+            }
+            try {
+                RuntimeUtils.runParallelTasks(monitor, getName(), checks);
+            } catch (Exception e) {
+                log.debug("Error checking contexts of [" + dataSource.getName() + "]: " + e.getMessage());
+            }
+            if (invalidateRequired.get() && !monitor.isCanceled()) {
+                // Invalidate. Do not log errors (as it can spam tons of logs)
+                final List<InvalidateJob.ContextInvalidateResult> results = InvalidateJob.invalidateDataSource(
+                    monitor,
+                    dataSource,
+                    false,
+                    false,
+                    () -> DBWorkbench.getPlatformUI().openConnectionEditor(dataSource.getContainer()));
+                for (InvalidateJob.ContextInvalidateResult result : results) {
+                    if (result.result == DBCExecutionContext.InvalidateResult.RECONNECTED || result.result == DBCExecutionContext.InvalidateResult.CONNECTED) {
+                        statistics.addReconnect();
+                        break;
                     }
                 }
+                if (isSuccess(results)) {
+                    log.debug("Connection invalidated: " + results + " (" + statistics + ")");
+                }
             }
+        } finally {
+            onFinish.run();
         }
         return Status.OK_STATUS;
     }
 
+    private void checkContext(DBRProgressMonitor monitor, DBCExecutionContext context, AtomicBoolean invalidateRequired) {
+        long startTime = System.currentTimeMillis();
+        try {
+            context.checkContextAlive(monitor);
+            statistics.addCheck(System.currentTimeMillis() - startTime, true);
+        } catch (Exception e) {
+            statistics.addCheck(System.currentTimeMillis() - startTime, false);
+            log.debug("Context [" + dataSource.getName() + "::" + context.getContextName() + "] check failed: " + e.getMessage());
+            if (e instanceof DBException) {
+                invalidateRequired.set(true);
+            }
+        }
+    }
+
     private boolean isSuccess(List<InvalidateJob.ContextInvalidateResult> results) {
         for (InvalidateJob.ContextInvalidateResult result : results) {
             switch (result.result) {
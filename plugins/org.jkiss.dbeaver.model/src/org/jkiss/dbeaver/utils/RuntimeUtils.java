@@ -17,7 +17,9 @@
 package org.jkiss.dbeaver.utils;
 
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
@@ -27,6 +29,7 @@ import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.SystemJob;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
@@ -38,8 +41,10 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * RuntimeUtils
@@ -237,6 +242,111 @@ public class RuntimeUtils {
         return monitoringTask.finished;
     }
 
+    /**
+     * Runs each task in its own job and waits until all of them finish.
+     * Jobs are canceled when the caller's monitor is canceled. The first task error is rethrown.
+     * Canceled jobs are always finished when this method returns.
+     */
+    public static void runParallelTasks(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull String taskName,
+        @NotNull Collection<? extends DBRRunnableWithProgress> tasks)
+        throws InvocationTargetException, InterruptedException
+    {
+        runParallelTasks(monitor, taskName, tasks, tasks.size());
+    }
+
+    /**
+     * Same as {@link #runParallelTasks(DBRProgressMonitor, String, Collection)} but runs at most
+     * {@code maxParallel} tasks at once. The rest wait in queue.
+     */
+    public static void runParallelTasks(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull String taskName,
+        @NotNull Collection<? extends DBRRunnableWithProgress> tasks,
+        int maxParallel)
+        throws InvocationTargetException, InterruptedException
+    {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        if (tasks.size() == 1 || maxParallel <= 1) {
+            for (DBRRunnableWithProgress task : tasks) {
+                if (monitor.isCanceled()) {
+                    throw new InterruptedException();
+                }
+                task.run(monitor);
+            }
+            return;
+        }
+        Deque<DBRRunnableWithProgress> queue = new ArrayDeque<>(tasks);
+        Set<Job> activeJobs = new HashSet<>();
+        BlockingQueue<Job> finishedJobs = new LinkedBlockingQueue<>();
+        JobChangeAdapter finishListener = new JobChangeAdapter() {
+            @Override
+            public void done(IJobChangeEvent event) {
+                finishedJobs.add(event.getJob());
+            }
+        };
+        try {
+            while (!queue.isEmpty() || !activeJobs.isEmpty()) {
+                while (!queue.isEmpty() && activeJobs.size() < maxParallel) {
+                    Job job = new SystemJob(taskName, queue.poll());
+                    job.addJobChangeListener(finishListener);
+                    activeJobs.add(job);
+                    job.schedule();
+                }
+                if (monitor.isCanceled()) {
+                    throw new InterruptedException();
+                }
+                // Wake up periodically to check the caller's monitor
+                Job job = finishedJobs.poll(100, TimeUnit.MILLISECONDS);
+                if (job != null) {
+                    activeJobs.remove(job);
+                    // Stop on the first error
+                    checkJobResult(job.getResult());
+                }
+            }
+        } catch (InvocationTargetException | InterruptedException e) {
+            queue.clear();
+            for (Job job : activeJobs) {
+                job.cancel();
+            }
+            // Running tasks may still use caller's resources. Wait for them.
+            joinJobs(activeJobs);
+            throw e;
+        }
+    }
+
+    private static void joinJobs(Collection<Job> jobs) {
+        boolean interrupted = false;
+        for (Job job : jobs) {
+            for (;;) {
+                try {
+                    job.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void checkJobResult(@Nullable IStatus result) throws InvocationTargetException, InterruptedException {
+        if (result == null) {
+            return;
+        }
+        if (result.getException() != null) {
+            throw new InvocationTargetException(result.getException());
+        }
+        if (result.getSeverity() == IStatus.CANCEL) {
+            throw new InterruptedException();
+        }
+    }
+
     public static String executeProcess(String binPath, String ... args) throws DBException {
         try {
             String[] cmdBin = {binPath};
@@ -0,0 +1,93 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FunctionCountDistinctApproxTest {
+
+    // About 4 standard errors of 16K registers HyperLogLog
+    private static final double RELATIVE_ERROR = 0.035;
+
+    @Test
+    public void testEmpty() {
+        Assert.assertEquals(0L, new FunctionCountDistinctApprox().getResult(0));
+    }
+
+    @Test
+    public void testSmallCardinality() {
+        FunctionCountDistinctApprox function = new FunctionCountDistinctApprox();
+        for (int i = 0; i < 100; i++) {
+            function.accumulate(i, false);
+        }
+        Assert.assertEquals(100, (long) function.getResult(100), 2);
+    }
+
+    @Test
+    public void testDuplicatesNotCounted() {
+        FunctionCountDistinctApprox function = new FunctionCountDistinctApprox();
+        for (int repeat = 0; repeat < 10; repeat++) {
+            for (int i = 0; i < 1000; i++) {
+                function.accumulate("value" + i, false);
+            }
+        }
+        assertEstimate(1000, function);
+    }
+
+    @Test
+    public void testLargeCardinalityErrorBounds() {
+        FunctionCountDistinctApprox function = new FunctionCountDistinctApprox();
+        for (int i = 0; i < 1000000; i++) {
+            function.accumulate((long) i, false);
+        }
+        assertEstimate(1000000, function);
+    }
+
+    @Test
+    public void testMergeEqualsSingleAccumulation() {
+        FunctionCountDistinctApprox all = new FunctionCountDistinctApprox();
+        FunctionCountDistinctApprox part1 = new FunctionCountDistinctApprox();
+        FunctionCountDistinctApprox part2 = new FunctionCountDistinctApprox();
+        for (int i = 0; i < 200000; i++) {
+            all.accumulate(i, false);
+            (i % 2 == 0 ? part1 : part2).accumulate(i, false);
+        }
+        part1.merge(part2);
+        Assert.assertEquals(all.getResult(0), part1.getResult(0));
+        assertEstimate(200000, part1);
+    }
+
+    @Test
+    public void testMergeOfOverlappingParts() {
+        // Parts share half of the values, merged estimate is the union cardinality
+        FunctionCountDistinctApprox part1 = new FunctionCountDistinctApprox();
+        FunctionCountDistinctApprox part2 = new FunctionCountDistinctApprox();
+        for (int i = 0; i < 100000; i++) {
+            part1.accumulate(i, false);
+            part2.accumulate(i + 50000, false);
+        }
+        part1.merge(part2);
+        assertEstimate(150000, part1);
+    }
+
+    private static void assertEstimate(long expected, FunctionCountDistinctApprox function) {
+        long estimate = (Long) function.getResult(0);
+        Assert.assertEquals(expected, estimate, expected * RELATIVE_ERROR);
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class QuantileDigestTest {
+
+    private static final int VALUE_COUNT = 100000;
+    // Allowed quantile error as a fraction of values range
+    private static final double RANK_ERROR = 0.01;
+
+    private static final double[] QUANTILES = { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99 };
+
+    @Test
+    public void testEmptyDigest() {
+        QuantileDigest digest = new QuantileDigest();
+        Assert.assertTrue(digest.isEmpty());
+        Assert.assertTrue(Double.isNaN(digest.quantile(0.5)));
+    }
+
+    @Test
+    public void testSingleValue() {
+        QuantileDigest digest = new QuantileDigest();
+        digest.add(42);
+        Assert.assertFalse(digest.isEmpty());
+        Assert.assertEquals(42, digest.quantile(0), 0);
+        Assert.assertEquals(42, digest.quantile(0.5), 0);
+        Assert.assertEquals(42, digest.quantile(1), 0);
+    }
+
+    @Test
+    public void testNaNIgnored() {
+        QuantileDigest digest = new QuantileDigest();
+        digest.add(Double.NaN);
+        Assert.assertTrue(digest.isEmpty());
+    }
+
+    @Test
+    public void testExtremeQuantilesAreExact() {
+        QuantileDigest digest = new QuantileDigest();
+        for (double value : makeShuffledValues()) {
+            digest.add(value);
+        }
+        Assert.assertEquals(0, digest.quantile(0), 0);
+        Assert.assertEquals(VALUE_COUNT - 1, digest.quantile(1), 0);
+    }
+
+    @Test
+    public void testQuantileErrorBounds() {
+        QuantileDigest digest = new QuantileDigest();
+        for (double value : makeShuffledValues()) {
+            digest.add(value);
+        }
+        assertQuantiles(digest);
+    }
+
+    @Test
+    public void testMergedQuantileErrorBounds() {
+        List<Double> values = makeShuffledValues();
+        QuantileDigest[] parts = new QuantileDigest[4];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new QuantileDigest();
+        }
+        for (int i = 0; i < values.size(); i++) {
+            parts[i % parts.length].add(values.get(i));
+        }
+        QuantileDigest merged = new QuantileDigest();
+        for (QuantileDigest part : parts) {
+            merged.merge(part);
+        }
+        assertQuantiles(merged);
+        Assert.assertEquals(0, merged.quantile(0), 0);
+        Assert.assertEquals(VALUE_COUNT - 1, merged.quantile(1), 0);
+    }
+
+    @Test
+    public void testMergeOfDisjointRanges() {
+        // Lower and upper halves of the values are accumulated separately
+        QuantileDigest lower = new QuantileDigest();
+        QuantileDigest upper = new QuantileDigest();
+        for (double value : makeShuffledValues()) {
+            (value < VALUE_COUNT / 2 ? lower : upper).add(value);
+        }
+        upper.merge(lower);
+        assertQuantiles(upper);
+    }
+
+    @Test
+    public void testMergeOfEmptyDigest() {
+        QuantileDigest digest = new QuantileDigest();
+        digest.add(1);
+        digest.add(2);
+        digest.add(3);
+        digest.merge(new QuantileDigest());
+        Assert.assertEquals(2, digest.quantile(0.5), 0);
+
+        QuantileDigest empty = new QuantileDigest();
+        empty.merge(digest);
+        Assert.assertEquals(2, empty.quantile(0.5), 0);
+        Assert.assertEquals(1, empty.quantile(0), 0);
+        Assert.assertEquals(3, empty.quantile(1), 0);
+    }
+
+    private static void assertQuantiles(QuantileDigest digest) {
+        for (double q : QUANTILES) {
+            double expected = q * (VALUE_COUNT - 1);
+            Assert.assertEquals("Quantile " + q, expected, digest.quantile(q), RANK_ERROR * VALUE_COUNT);
+        }
+    }
+
+    private static List<Double> makeShuffledValues() {
+        List<Double> values = new ArrayList<>(VALUE_COUNT);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values.add((double) i);
+        }
+        Collections.shuffle(values, new Random(1));
+        return values;
+    }
+
+}
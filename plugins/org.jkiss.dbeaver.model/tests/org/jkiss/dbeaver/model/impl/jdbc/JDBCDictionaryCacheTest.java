@@ -0,0 +1,218 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JDBCDictionaryCacheTest {
+
+    @Mock
+    private JDBCDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer container;
+    @Mock
+    private DBPPreferenceStore preferenceStore;
+    @Mock
+    private DBSEntity entity;
+    @Mock
+    private DBSEntity otherEntity;
+    @Mock
+    private DBSEntityAttribute keyColumn;
+
+    private JDBCDictionaryCache cache;
+
+    @Before
+    public void setUp() {
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(container.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.when(preferenceStore.getInt(ModelPreferences.DICTIONARY_CACHE_TTL)).thenReturn(60);
+        Mockito.when(preferenceStore.getInt(ModelPreferences.DICTIONARY_CACHE_MAX_SIZE)).thenReturn(1000);
+        cache = new JDBCDictionaryCache(dataSource);
+    }
+
+    @Test
+    public void testValuesHitAndMiss() {
+        List<Object> missing = getValues(entity, "name", 1, 2);
+        Assert.assertEquals(Arrays.<Object>asList(1, 2), missing);
+        Assert.assertEquals(2, cache.getMissCount());
+
+        cache.putValues(entity, keyColumn, "name", Arrays.<Object>asList(1, 2), Arrays.asList(pair("one", 1), pair("two", 2)));
+
+        List<DBDLabelValuePair> result = new ArrayList<>();
+        missing = new ArrayList<>();
+        cache.getValues(entity, keyColumn, "name", Arrays.<Object>asList(2, 3), result, missing);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals("two", result.get(0).getLabel());
+        Assert.assertEquals(Collections.<Object>singletonList(3), missing);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testDescriptionColumnsAreSeparateKeys() {
+        cache.putValues(entity, keyColumn, "name", Collections.<Object>singletonList(1), Collections.singletonList(pair("one", 1)));
+
+        Assert.assertTrue(getValues(entity, "name", 1).isEmpty());
+        Assert.assertEquals(Collections.<Object>singletonList(1), getValues(entity, "title", 1));
+        Assert.assertEquals(Collections.<Object>singletonList(1), getValues(entity, null, 1));
+    }
+
+    @Test
+    public void testMissingValuesCached() {
+        // Value 2 isn't in the dictionary
+        cache.putValues(entity, keyColumn, "name", Arrays.<Object>asList(1, 2), Collections.singletonList(pair("one", 1)));
+
+        List<DBDLabelValuePair> result = new ArrayList<>();
+        List<Object> missing = new ArrayList<>();
+        cache.getValues(entity, keyColumn, "name", Collections.<Object>singletonList(2), result, missing);
+        Assert.assertTrue(result.isEmpty());
+        Assert.assertTrue(missing.isEmpty());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testMissingValuesNotCachedIfReadValuesDiffer() {
+        // Dictionary returned the key in a different form, so requested value 1 can't be marked as missing
+        cache.putValues(entity, keyColumn, "name", Arrays.<Object>asList(1, 2), Collections.singletonList(pair("one", "1")));
+
+        Assert.assertEquals(Arrays.<Object>asList(1, 2), getValues(entity, "name", 1, 2));
+        Assert.assertTrue(getValues(entity, "name", "1").isEmpty());
+    }
+
+    @Test
+    public void testDisabledIfTimeToLiveIsZero() {
+        Assert.assertTrue(cache.isEnabled());
+        Mockito.when(preferenceStore.getInt(ModelPreferences.DICTIONARY_CACHE_TTL)).thenReturn(0);
+        Assert.assertFalse(cache.isEnabled());
+    }
+
+    @Test
+    public void testExpiredEntriesReloaded() throws Exception {
+        cache.putValues(entity, keyColumn, "name", Collections.<Object>singletonList(1), Collections.singletonList(pair("one", 1)));
+        cache.putEnumeration(entity, keyColumn, "name", null, false, true, 100, Collections.singletonList(pair("one", 1)));
+        Assert.assertTrue(getValues(entity, "name", 1).isEmpty());
+
+        // All entries loaded before now are expired
+        Mockito.when(preferenceStore.getInt(ModelPreferences.DICTIONARY_CACHE_TTL)).thenReturn(0);
+        Thread.sleep(10);
+        Assert.assertEquals(Collections.<Object>singletonList(1), getValues(entity, "name", 1));
+        Assert.assertNull(cache.getEnumeration(entity, keyColumn, "name", null, false, true, 100));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedValuesEvicted() {
+        Mockito.when(preferenceStore.getInt(ModelPreferences.DICTIONARY_CACHE_MAX_SIZE)).thenReturn(2);
+        cache.putValues(entity, keyColumn, "name", Arrays.<Object>asList(1, 2), Arrays.asList(pair("one", 1), pair("two", 2)));
+        // Touch value 1, so value 2 becomes the eldest one
+        Assert.assertTrue(getValues(entity, "name", 1).isEmpty());
+
+        cache.putValues(entity, keyColumn, "name", Collections.<Object>singletonList(3), Collections.singletonList(pair("three", 3)));
+        Assert.assertTrue(getValues(entity, "name", 1, 3).isEmpty());
+        Assert.assertEquals(Collections.<Object>singletonList(2), getValues(entity, "name", 2));
+    }
+
+    @Test
+    public void testInvalidateEntity() {
+        cache.putValues(entity, keyColumn, "name", Collections.<Object>singletonList(1), Collections.singletonList(pair("one", 1)));
+        cache.putValues(otherEntity, keyColumn, "name", Collections.<Object>singletonList(1), Collections.singletonList(pair("first", 1)));
+        cache.putEnumeration(entity, keyColumn, "name", null, false, true, 100, Collections.singletonList(pair("one", 1)));
+
+        cache.invalidate(entity);
+        Assert.assertEquals(Collections.<Object>singletonList(1), getValues(entity, "name", 1));
+        Assert.assertNull(cache.getEnumeration(entity, keyColumn, "name", null, false, true, 100));
+        Assert.assertTrue(getValues(otherEntity, "name", 1).isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        cache.putValues(entity, keyColumn, "name", Collections.<Object>singletonList(1), Collections.singletonList(pair("one", 1)));
+        cache.clear();
+        Assert.assertEquals(Collections.<Object>singletonList(1), getValues(entity, "name", 1));
+    }
+
+    @Test
+    public void testEnumerationCache() {
+        List<DBDLabelValuePair> enumeration = Arrays.asList(pair("one", 1), pair("two", 2));
+        Assert.assertNull(cache.getEnumeration(entity, keyColumn, "name", "o", false, true, 100));
+        cache.putEnumeration(entity, keyColumn, "name", "o", false, true, 100, enumeration);
+
+        List<DBDLabelValuePair> cached = cache.getEnumeration(entity, keyColumn, "name", "o", false, true, 100);
+        Assert.assertEquals(enumeration, cached);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        try {
+            cached.add(pair("three", 3));
+            Assert.fail("Cached enumeration must be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        // Any other search parameters is a different enumeration
+        Assert.assertNull(cache.getEnumeration(entity, keyColumn, "name", "t", false, true, 100));
+        Assert.assertNull(cache.getEnumeration(entity, keyColumn, "name", "o", true, true, 100));
+        Assert.assertNull(cache.getEnumeration(entity, keyColumn, "name", "o", false, false, 100));
+        Assert.assertNull(cache.getEnumeration(entity, keyColumn, "name", "o", false, true, 200));
+    }
+
+    @Test
+    public void testEnumerationsEvicted() {
+        // Enumerations cache is a hundredth of values cache
+        Mockito.when(preferenceStore.getInt(ModelPreferences.DICTIONARY_CACHE_MAX_SIZE)).thenReturn(200);
+        List<DBDLabelValuePair> enumeration = Collections.singletonList(pair("one", 1));
+        cache.putEnumeration(entity, keyColumn, "name", "a", false, true, 100, enumeration);
+        cache.putEnumeration(entity, keyColumn, "name", "b", false, true, 100, enumeration);
+        Assert.assertNotNull(cache.getEnumeration(entity, keyColumn, "name", "a", false, true, 100));
+
+        cache.putEnumeration(entity, keyColumn, "name", "c", false, true, 100, enumeration);
+        Assert.assertNotNull(cache.getEnumeration(entity, keyColumn, "name", "a", false, true, 100));
+        Assert.assertNull(cache.getEnumeration(entity, keyColumn, "name", "b", false, true, 100));
+        Assert.assertNotNull(cache.getEnumeration(entity, keyColumn, "name", "c", false, true, 100));
+    }
+
+    /**
+     * Returns key values which weren't found in cache
+     */
+    private List<Object> getValues(DBSEntity entity, String descColumns, Object ... keyValues) {
+        List<DBDLabelValuePair> result = new ArrayList<>();
+        List<Object> missing = new ArrayList<>();
+        cache.getValues(entity, keyColumn, descColumns, Arrays.asList(keyValues), result, missing);
+        return missing;
+    }
+
+    private static DBDLabelValuePair pair(String label, Object value) {
+        return new DBDLabelValuePair(label, value);
+    }
+
+}
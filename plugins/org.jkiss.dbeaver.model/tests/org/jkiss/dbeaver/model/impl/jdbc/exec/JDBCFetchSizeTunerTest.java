@@ -0,0 +1,155 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JDBCFetchSizeTunerTest {
+
+    private static final long FAST_FETCH = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW_FETCH = TimeUnit.MILLISECONDS.toNanos(5000);
+
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private ResultSetMetaData metaData;
+    @Mock
+    private DBPPreferenceStore preferenceStore;
+
+    @Before
+    public void setUp() throws Exception {
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(metaData.getColumnCount()).thenReturn(2);
+        Mockito.when(resultSet.getFetchSize()).thenReturn(100);
+        Mockito.when(preferenceStore.getInt(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_MAX_SIZE)).thenReturn(100000);
+        Mockito.when(preferenceStore.getInt(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_BATCH_MEMORY)).thenReturn(16 * 1024);
+    }
+
+    @Test
+    public void testFetchSizeGrowsForFastBatches() throws Exception {
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, preferenceStore);
+        fetchRows(tuner, 101, FAST_FETCH, 10);
+
+        Mockito.verify(resultSet).setFetchSize(200);
+        Assert.assertEquals(200, tuner.getFetchSize());
+    }
+
+    @Test
+    public void testNewFetchSizeAppliedToNextBatchOnly() throws Exception {
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, preferenceStore);
+        // The second batch was requested with the old fetch size
+        fetchRows(tuner, 200, FAST_FETCH, 10);
+        Mockito.verify(resultSet).setFetchSize(200);
+        Mockito.verify(resultSet, Mockito.never()).setFetchSize(400);
+
+        // The first row of the third batch
+        fetchRows(tuner, 1, FAST_FETCH, 10);
+        Mockito.verify(resultSet).setFetchSize(400);
+
+        // The third batch has 200 rows
+        fetchRows(tuner, 199, FAST_FETCH, 10);
+        Mockito.verify(resultSet, Mockito.never()).setFetchSize(800);
+        fetchRows(tuner, 1, FAST_FETCH, 10);
+        Mockito.verify(resultSet).setFetchSize(800);
+    }
+
+    @Test
+    public void testFetchSizeLimitedByBatchMemory() throws Exception {
+        // 1Mb per batch, rows are about 20Kb each
+        Mockito.when(preferenceStore.getInt(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_BATCH_MEMORY)).thenReturn(1024);
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, preferenceStore);
+        fetchRows(tuner, 101, FAST_FETCH, 10000);
+
+        Assert.assertEquals(52, tuner.getFetchSize());
+        Mockito.verify(resultSet).setFetchSize(52);
+    }
+
+    @Test
+    public void testFetchSizeLimitedByMaxSize() throws Exception {
+        Mockito.when(preferenceStore.getInt(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_MAX_SIZE)).thenReturn(150);
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, preferenceStore);
+        fetchRows(tuner, 101, FAST_FETCH, 10);
+
+        Assert.assertEquals(150, tuner.getFetchSize());
+    }
+
+    @Test
+    public void testFetchSizeReducedForSlowBatches() throws Exception {
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, preferenceStore);
+        fetchRows(tuner, 101, SLOW_FETCH, 10);
+
+        Mockito.verify(resultSet).setFetchSize(50);
+        Assert.assertEquals(50, tuner.getFetchSize());
+    }
+
+    @Test
+    public void testMinFetchSize() throws Exception {
+        Mockito.when(resultSet.getFetchSize()).thenReturn(10);
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, preferenceStore);
+        fetchRows(tuner, 100, SLOW_FETCH, 10);
+
+        Assert.assertEquals(10, tuner.getFetchSize());
+        Mockito.verify(resultSet, Mockito.never()).setFetchSize(Mockito.anyInt());
+    }
+
+    @Test
+    public void testDriverDefaultFetchSizeNotTuned() throws Exception {
+        Mockito.when(resultSet.getFetchSize()).thenReturn(0);
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, preferenceStore);
+        fetchRows(tuner, 1000, FAST_FETCH, 10);
+
+        Assert.assertTrue(tuner.isDisabled());
+        Mockito.verify(resultSet, Mockito.never()).setFetchSize(Mockito.anyInt());
+    }
+
+    @Test
+    public void testDisabledIfFetchSizeChangeFails() throws Exception {
+        Mockito.doThrow(new SQLException("Not supported")).when(resultSet).setFetchSize(Mockito.anyInt());
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, preferenceStore);
+        fetchRows(tuner, 101, FAST_FETCH, 10);
+
+        Assert.assertTrue(tuner.isDisabled());
+        Assert.assertEquals(100, tuner.getFetchSize());
+    }
+
+    /**
+     * Fetches rows of two string values. The first row of each batch takes fetchTime.
+     */
+    private static void fetchRows(JDBCFetchSizeTuner tuner, int rowCount, long fetchTime, int valueLength) {
+        String value = new String(new char[valueLength]);
+        for (int i = 0; i < rowCount && !tuner.isDisabled(); i++) {
+            tuner.rowFetched(fetchTime);
+            tuner.valueRead(value);
+            tuner.valueRead(null);
+        }
+    }
+
+}
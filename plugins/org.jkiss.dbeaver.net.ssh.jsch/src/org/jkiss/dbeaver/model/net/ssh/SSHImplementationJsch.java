@@ -38,72 +38,38 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
 
     private static final Log log = Log.getLog(SSHImplementationJsch.class);
 
+    // Tunnels to the same host share one session, each tunnel is a separate port forward
+    private static final SSHSessionPool<Session> sessionPool = new SSHSessionPool<>();
+
     private transient JSch jsch;
     private transient volatile Session session;
+    private transient String sessionKey;
+    private transient SessionFactory sessionFactory;
+    private transient String forwardLocalHost;
+    private transient int forwardLocalPort;
 
     @Override
     protected synchronized void setupTunnel(DBRProgressMonitor monitor, DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout, String sshLocalHost, int sshLocalPort, String sshRemoteHost, int sshRemotePort) throws DBException, IOException {
-        try {
-            if (jsch == null) {
-                jsch = new JSch();
-                JSch.setLogger(new LoggerProxy());
-            }
-
-            String autoTypeString = CommonUtils.toString(configuration.getProperty(SSHConstants.PROP_AUTH_TYPE));
-            AuthType authType = CommonUtils.isEmpty(autoTypeString) ?
-                (privKeyFile == null ? AuthType.PASSWORD : AuthType.PUBLIC_KEY) :
-                CommonUtils.valueOf(AuthType.class, autoTypeString, AuthType.PASSWORD);
-
-            if (authType == AuthType.PUBLIC_KEY) {
-                if (!CommonUtils.isEmpty(configuration.getPassword())) {
-                    jsch.addIdentity(privKeyFile.getAbsolutePath(), configuration.getPassword());
-                } else {
-                    jsch.addIdentity(privKeyFile.getAbsolutePath());
-                }
-            } else if (authType == AuthType.AGENT) {
-                log.debug("Creating identityRepository");
-                IdentityRepository identityRepository = new DBeaverIdentityRepository(this, getAgentData());
-                jsch.setIdentityRepository(identityRepository);
-            }
-
-            log.debug("Instantiate SSH tunnel");
-            session = jsch.getSession(configuration.getUserName(), sshHost, sshPortNum);
-            session.setConfig("StrictHostKeyChecking", "no");
+        if (jsch == null) {
+            jsch = new JSch();
+            JSch.setLogger(new LoggerProxy());
+        }
 
-            if (authType == AuthType.PASSWORD) {
-                session.setConfig("PreferredAuthentications", "password,keyboard-interactive");
+        sessionKey = SSHSessionPool.makeSessionKey(configuration, sshHost, sshPortNum, privKeyFile);
+        sessionFactory = new SessionFactory(configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout);
+        session = sessionPool.acquireSession(sessionKey, sessionFactory);
+        try {
+            log.debug("Forward local port " + sshLocalPort + " to " + sshRemoteHost + ":" + sshRemotePort);
+            if (CommonUtils.isEmpty(sshLocalHost)) {
+                session.setPortForwardingL(sshLocalPort, sshRemoteHost, sshRemotePort);
             } else {
-                session.setConfig("PreferredAuthentications", "publickey,keyboard-interactive,password");
-            }
-            session.setConfig("ConnectTimeout", String.valueOf(connectTimeout));
-
-            // Use Eclipse standard prompter
-            UserInfo userInfo = null;
-            JSCHUserInfoPromptProvider promptProvider = GeneralUtils.adapt(this, JSCHUserInfoPromptProvider.class);
-            if (promptProvider != null) {
-                userInfo = promptProvider.createUserInfoPrompt(configuration, session);
-            }
-            if (userInfo == null) {
-                userInfo = new UIUserInfo(configuration);
-            }
-            session.setUserInfo(userInfo);
-
-            if (aliveInterval != 0) {
-                session.setServerAliveInterval(aliveInterval);
-            }
-            log.debug("Connect to tunnel host");
-            session.connect(connectTimeout);
-            try {
-                if (CommonUtils.isEmpty(sshLocalHost)) {
-                    session.setPortForwardingL(sshLocalPort, sshRemoteHost, sshRemotePort);
-                } else {
-                    session.setPortForwardingL(sshLocalHost, sshLocalPort, sshRemoteHost, sshRemotePort);
-                }
-            } catch (JSchException e) {
-                closeTunnel(monitor);
-                throw e;
+                session.setPortForwardingL(sshLocalHost, sshLocalPort, sshRemoteHost, sshRemotePort);
             }
+            forwardLocalHost = sshLocalHost;
+            forwardLocalPort = sshLocalPort;
         } catch (JSchException e) {
+            sessionPool.releaseSession(sessionKey, session, sessionFactory);
+            session = null;
             throw new DBException("Cannot establish tunnel", e);
         }
     }
@@ -111,15 +77,19 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
     @Override
     public synchronized void closeTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
         if (session != null) {
-            RuntimeUtils.runTask(monitor1 -> {
-                if (session != null) {
-                    try {
-                        session.disconnect();
-                    } catch (Exception e) {
-                        throw new InvocationTargetException(e);
+            if (forwardLocalPort != 0) {
+                try {
+                    if (CommonUtils.isEmpty(forwardLocalHost)) {
+                        session.delPortForwardingL(forwardLocalPort);
+                    } else {
+                        session.delPortForwardingL(forwardLocalHost, forwardLocalPort);
                     }
+                } catch (Exception e) {
+                    log.debug("Error removing port forward: " + e.getMessage());
                 }
-            }, "Close SSH session", 1000);
+                forwardLocalPort = 0;
+            }
+            sessionPool.releaseSession(sessionKey, session, sessionFactory);
             session = null;
         }
     }
@@ -137,17 +107,95 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
     @Override
     public void invalidateTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
         // Do not test - just reopen the tunnel. Otherwise it may take too much time.
-        boolean isAlive = false;//session != null && session.isConnected();
-        if (isAlive) {
+        // Shared session is reused if it is still connected, otherwise it is re-established.
+        closeTunnel(monitor);
+        initTunnel(monitor, DBWorkbench.getPlatform(), savedConfiguration, savedConnectionInfo);
+    }
+
+    private class SessionFactory implements SSHSessionPool.SessionFactory<Session> {
+        private final DBWHandlerConfiguration configuration;
+        private final String sshHost;
+        private final int aliveInterval;
+        private final int sshPortNum;
+        private final File privKeyFile;
+        private final int connectTimeout;
+
+        SessionFactory(DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout) {
+            this.configuration = configuration;
+            this.sshHost = sshHost;
+            this.aliveInterval = aliveInterval;
+            this.sshPortNum = sshPortNum;
+            this.privKeyFile = privKeyFile;
+            this.connectTimeout = connectTimeout;
+        }
+
+        @Override
+        public Session openSession() throws DBException {
             try {
-                session.sendKeepAliveMsg();
-            } catch (Exception e) {
-                isAlive = false;
+                String autoTypeString = CommonUtils.toString(configuration.getProperty(SSHConstants.PROP_AUTH_TYPE));
+                AuthType authType = CommonUtils.isEmpty(autoTypeString) ?
+                    (privKeyFile == null ? AuthType.PASSWORD : AuthType.PUBLIC_KEY) :
+                    CommonUtils.valueOf(AuthType.class, autoTypeString, AuthType.PASSWORD);
+
+                if (authType == AuthType.PUBLIC_KEY) {
+                    if (!CommonUtils.isEmpty(configuration.getPassword())) {
+                        jsch.addIdentity(privKeyFile.getAbsolutePath(), configuration.getPassword());
+                    } else {
+                        jsch.addIdentity(privKeyFile.getAbsolutePath());
+                    }
+                } else if (authType == AuthType.AGENT) {
+                    log.debug("Creating identityRepository");
+                    IdentityRepository identityRepository = new DBeaverIdentityRepository(SSHImplementationJsch.this, getAgentData());
+                    jsch.setIdentityRepository(identityRepository);
+                }
+
+                log.debug("Instantiate SSH tunnel");
+                Session newSession = jsch.getSession(configuration.getUserName(), sshHost, sshPortNum);
+                newSession.setConfig("StrictHostKeyChecking", "no");
+
+                if (authType == AuthType.PASSWORD) {
+                    newSession.setConfig("PreferredAuthentications", "password,keyboard-interactive");
+                } else {
+                    newSession.setConfig("PreferredAuthentications", "publickey,keyboard-interactive,password");
+                }
+                newSession.setConfig("ConnectTimeout", String.valueOf(connectTimeout));
+
+                // Use Eclipse standard prompter
+                UserInfo userInfo = null;
+                JSCHUserInfoPromptProvider promptProvider = GeneralUtils.adapt(SSHImplementationJsch.this, JSCHUserInfoPromptProvider.class);
+                if (promptProvider != null) {
+                    userInfo = promptProvider.createUserInfoPrompt(configuration, newSession);
+                }
+                if (userInfo == null) {
+                    userInfo = new UIUserInfo(configuration);
+                }
+                newSession.setUserInfo(userInfo);
+
+                if (aliveInterval != 0) {
+                    newSession.setServerAliveInterval(aliveInterval);
+                }
+                log.debug("Connect to tunnel host");
+                newSession.connect(connectTimeout);
+                return newSession;
+            } catch (JSchException e) {
+                throw new DBException("Cannot establish tunnel", e);
             }
         }
-        if (!isAlive) {
-            closeTunnel(monitor);
-            initTunnel(monitor, DBWorkbench.getPlatform(), savedConfiguration, savedConnectionInfo);
+
+        @Override
+        public boolean isSessionAlive(Session session) {
+            return session.isConnected();
+        }
+
+        @Override
+        public void closeSession(Session session) {
+            RuntimeUtils.runTask(monitor1 -> {
+                try {
+                    session.disconnect();
+                } catch (Exception e) {
+                    throw new InvocationTargetException(e);
+                }
+            }, "Close SSH session", 1000);
         }
     }
 
@@ -47,65 +47,30 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
 
     private static final Log log = Log.getLog(SSHImplementationSshj.class);
 
+    // Tunnels to the same host share one client connection, each tunnel is a separate port forwarder
+    private static final SSHSessionPool<SSHClient> sessionPool = new SSHSessionPool<>();
+
     private transient SSHClient sshClient;
+    private transient String sessionKey;
+    private transient SessionFactory sessionFactory;
     private transient LocalPortListener portListener;
 
     @Override
     protected void setupTunnel(DBRProgressMonitor monitor, DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout, String sshLocalHost, int sshLocalPort, String sshRemoteHost, int sshRemotePort) throws DBException, IOException {
+        sessionKey = SSHSessionPool.makeSessionKey(configuration, sshHost, sshPortNum, privKeyFile);
+        sessionFactory = new SessionFactory(configuration, sshHost, sshPortNum, privKeyFile);
+        sshClient = sessionPool.acquireSession(sessionKey, sessionFactory);
         try {
-            String autoTypeString = CommonUtils.toString(configuration.getProperty(SSHConstants.PROP_AUTH_TYPE));
-            AuthType authType = CommonUtils.isEmpty(autoTypeString) ?
-                (privKeyFile == null ? AuthType.PASSWORD : AuthType.PUBLIC_KEY) :
-                CommonUtils.valueOf(AuthType.class, autoTypeString, AuthType.PASSWORD);
-
-            Config clientConfig = new DefaultConfig();
-            clientConfig.setLoggerFactory(LoggerFactory.DEFAULT);
-            sshClient = new SSHClient(clientConfig);
-            // TODO: make real host verifier
-            sshClient.addHostKeyVerifier(new PromiscuousVerifier());
-
-            String sshUser = configuration.getUserName();
-            String sshPassword = configuration.getPassword();
-
-            try {
-                sshClient.loadKnownHosts();
-            } catch (IOException e) {
-                log.debug("Error loading known hosts: " + e.getMessage());
-            }
-
-            
-            sshClient.connect(sshHost, sshPortNum);
-
-            if (authType==SSHConstants.AuthType.PUBLIC_KEY) {
-                if (privKeyFile != null) {
-                    if (!CommonUtils.isEmpty(sshPassword)) {
-                        KeyProvider keyProvider = sshClient.loadKeys(privKeyFile.getAbsolutePath(), sshPassword.toCharArray());
-                        sshClient.authPublickey(sshUser, keyProvider);
-                    } else {
-                        sshClient.authPublickey(sshUser, privKeyFile.getAbsolutePath());
-                    }
-                }
-            } else if (authType == SSHConstants.AuthType.PASSWORD) {
-                if (sshPassword!=null) {
-                    sshClient.authPassword(sshUser, sshPassword);
-                }
-            } else if (authType == SSHConstants.AuthType.AGENT) {
-                List<SSHAgentIdentity> identities = getAgentData();
-                List<AuthMethod> authMethods = new ArrayList<>();
-                for (SSHAgentIdentity identity : identities) {
-                    authMethods.add(new DBeaverAuthAgent(this, identity));
-                }
-                sshClient.auth(sshUser, authMethods);
-            }
-
             log.debug("Instantiate SSH tunnel");
 
             final LocalPortForwarder.Parameters params
                 = new LocalPortForwarder.Parameters(sshLocalHost, sshLocalPort, sshRemoteHost, sshRemotePort);
-            portListener = new LocalPortListener(params);
+            portListener = new LocalPortListener(sshClient, params);
             portListener.start();
             RuntimeUtils.pause(100);
         } catch (Exception e) {
+            sessionPool.releaseSession(sessionKey, sshClient, sessionFactory);
+            sshClient = null;
             throw new DBException("Cannot establish tunnel", e);
         }
     }
@@ -116,13 +81,7 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
             portListener.stopServer();
         }
         if (sshClient != null) {
-            RuntimeUtils.runTask(monitor1 -> {
-                try {
-                    sshClient.disconnect();
-                } catch (Exception e) {
-                    throw new InvocationTargetException(e);
-                }
-            }, "Close SSH client", 1000);
+            sessionPool.releaseSession(sessionKey, sshClient, sessionFactory);
             sshClient = null;
         }
     }
@@ -140,25 +99,101 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
     @Override
     public void invalidateTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
         // Do not test - just reopen the tunnel. Otherwise it may take too much time.
-        boolean isAlive = false;//sshClient != null && sshClient.isConnected();
-        if (isAlive) {
+        // Shared client is reused if it is still connected, otherwise it is re-established.
+        closeTunnel(monitor);
+        initTunnel(monitor, null, savedConfiguration, savedConnectionInfo);
+    }
+
+    private class SessionFactory implements SSHSessionPool.SessionFactory<SSHClient> {
+        private final DBWHandlerConfiguration configuration;
+        private final String sshHost;
+        private final int sshPortNum;
+        private final File privKeyFile;
+
+        SessionFactory(DBWHandlerConfiguration configuration, String sshHost, int sshPortNum, File privKeyFile) {
+            this.configuration = configuration;
+            this.sshHost = sshHost;
+            this.sshPortNum = sshPortNum;
+            this.privKeyFile = privKeyFile;
+        }
+
+        @Override
+        public SSHClient openSession() throws DBException {
+            String autoTypeString = CommonUtils.toString(configuration.getProperty(SSHConstants.PROP_AUTH_TYPE));
+            AuthType authType = CommonUtils.isEmpty(autoTypeString) ?
+                (privKeyFile == null ? AuthType.PASSWORD : AuthType.PUBLIC_KEY) :
+                CommonUtils.valueOf(AuthType.class, autoTypeString, AuthType.PASSWORD);
+
+            Config clientConfig = new DefaultConfig();
+            clientConfig.setLoggerFactory(LoggerFactory.DEFAULT);
+            SSHClient client = new SSHClient(clientConfig);
             try {
-                sshClient.isConnected();
+                // TODO: make real host verifier
+                client.addHostKeyVerifier(new PromiscuousVerifier());
+
+                String sshUser = configuration.getUserName();
+                String sshPassword = configuration.getPassword();
+
+                try {
+                    client.loadKnownHosts();
+                } catch (IOException e) {
+                    log.debug("Error loading known hosts: " + e.getMessage());
+                }
+
+                client.connect(sshHost, sshPortNum);
+
+                if (authType == SSHConstants.AuthType.PUBLIC_KEY) {
+                    if (privKeyFile != null) {
+                        if (!CommonUtils.isEmpty(sshPassword)) {
+                            KeyProvider keyProvider = client.loadKeys(privKeyFile.getAbsolutePath(), sshPassword.toCharArray());
+                            client.authPublickey(sshUser, keyProvider);
+                        } else {
+                            client.authPublickey(sshUser, privKeyFile.getAbsolutePath());
+                        }
+                    }
+                } else if (authType == SSHConstants.AuthType.PASSWORD) {
+                    if (sshPassword != null) {
+                        client.authPassword(sshUser, sshPassword);
+                    }
+                } else if (authType == SSHConstants.AuthType.AGENT) {
+                    List<SSHAgentIdentity> identities = getAgentData();
+                    List<AuthMethod> authMethods = new ArrayList<>();
+                    for (SSHAgentIdentity identity : identities) {
+                        authMethods.add(new DBeaverAuthAgent(SSHImplementationSshj.this, identity));
+                    }
+                    client.auth(sshUser, authMethods);
+                }
+                return client;
             } catch (Exception e) {
-                isAlive = false;
+                closeSession(client);
+                throw new DBException("Cannot establish tunnel", e);
             }
         }
-        if (!isAlive) {
-            closeTunnel(monitor);
-            initTunnel(monitor, null, savedConfiguration, savedConnectionInfo);
+
+        @Override
+        public boolean isSessionAlive(SSHClient client) {
+            return client.isConnected() && client.isAuthenticated();
+        }
+
+        @Override
+        public void closeSession(SSHClient client) {
+            RuntimeUtils.runTask(monitor1 -> {
+                try {
+                    client.disconnect();
+                } catch (Exception e) {
+                    throw new InvocationTargetException(e);
+                }
+            }, "Close SSH client", 1000);
         }
     }
 
-    private class LocalPortListener extends Thread {
+    private static class LocalPortListener extends Thread {
+        private final SSHClient sshClient;
         private LocalPortForwarder.Parameters params;
         private LocalPortForwarder portForwarder;
 
-        LocalPortListener(LocalPortForwarder.Parameters params) {
+        LocalPortListener(SSHClient sshClient, LocalPortForwarder.Parameters params) {
+            this.sshClient = sshClient;
             this.params = params;
         }
 
@@ -0,0 +1,169 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.SecurityUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Reference counted pool of authenticated SSH sessions.
+ * Tunnels to the same SSH host with the same credentials share one session, each tunnel adds its own port forward.
+ * Session is closed when the last tunnel releases it.
+ */
+public class SSHSessionPool<SESSION> {
+
+    private static final Log log = Log.getLog(SSHSessionPool.class);
+
+    /**
+     * Opens, checks and closes sessions of particular SSH implementation
+     */
+    public interface SessionFactory<SESSION> {
+
+        SESSION openSession() throws DBException, IOException;
+
+        boolean isSessionAlive(SESSION session);
+
+        void closeSession(SESSION session);
+    }
+
+    private static class PooledSession<SESSION> {
+        // Number of tunnels which use this host. Stays the same when broken session is replaced by a new one.
+        int refCount;
+        SESSION session;
+        // Number of tunnels which use each session. Broken session is kept here until all its tunnels release it.
+        final Map<SESSION, Integer> sessionRefs = new IdentityHashMap<>();
+
+        /**
+         * Returns true if the session is not used by other tunnels
+         */
+        boolean releaseSession(SESSION released) {
+            Integer count = sessionRefs.get(released);
+            if (count == null || count <= 1) {
+                sessionRefs.remove(released);
+                return true;
+            }
+            sessionRefs.put(released, count - 1);
+            return false;
+        }
+    }
+
+    private final Map<String, PooledSession<SESSION>> sessions = new HashMap<>();
+
+    /**
+     * Returns existing alive session for the key or opens a new one.
+     * Sessions to different hosts are opened concurrently.
+     * Each acquire must be paired with {@link #releaseSession}.
+     */
+    @NotNull
+    public SESSION acquireSession(@NotNull String key, @NotNull SessionFactory<SESSION> factory) throws DBException, IOException {
+        PooledSession<SESSION> pooled;
+        synchronized (this) {
+            pooled = sessions.get(key);
+            if (pooled == null) {
+                pooled = new PooledSession<>();
+                sessions.put(key, pooled);
+            }
+            pooled.refCount++;
+        }
+        boolean success = false;
+        try {
+            synchronized (pooled) {
+                if (pooled.session != null && !factory.isSessionAlive(pooled.session)) {
+                    // Broken session is closed when tunnels which use it release it
+                    log.debug("Shared SSH session '" + getHostName(key) + "' is broken. Reopen.");
+                    pooled.session = null;
+                }
+                if (pooled.session == null) {
+                    pooled.session = factory.openSession();
+                } else {
+                    log.debug("Reuse shared SSH session '" + getHostName(key) + "'");
+                }
+                pooled.sessionRefs.merge(pooled.session, 1, Integer::sum);
+                success = true;
+                return pooled.session;
+            }
+        } finally {
+            if (!success) {
+                releaseReference(key, pooled);
+            }
+        }
+    }
+
+    /**
+     * Releases session. Session is closed if it is not used anymore.
+     */
+    public void releaseSession(@NotNull String key, @NotNull SESSION session, @NotNull SessionFactory<SESSION> factory) {
+        PooledSession<SESSION> pooled;
+        synchronized (this) {
+            pooled = sessions.get(key);
+        }
+        if (pooled == null) {
+            factory.closeSession(session);
+            return;
+        }
+        synchronized (pooled) {
+            boolean lastReference = releaseReference(key, pooled);
+            if (pooled.releaseSession(session) && pooled.session != session) {
+                // Session was replaced because it was broken and other tunnels don't use it
+                factory.closeSession(session);
+            }
+            if (lastReference && pooled.session != null) {
+                // Close current session, it may be a replacement opened for another (already released) tunnel
+                factory.closeSession(pooled.session);
+                pooled.session = null;
+            }
+        }
+    }
+
+    private synchronized boolean releaseReference(String key, PooledSession<SESSION> pooled) {
+        pooled.refCount--;
+        if (pooled.refCount <= 0 && sessions.get(key) == pooled) {
+            sessions.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Makes pool key of SSH session. Sessions with different credentials are never shared.
+     */
+    @NotNull
+    public static String makeSessionKey(@NotNull DBWHandlerConfiguration configuration, @NotNull String sshHost, int sshPort, File privKeyFile) {
+        String authType = configuration.getStringProperty(SSHConstants.PROP_AUTH_TYPE);
+        String userName = CommonUtils.notEmpty(configuration.getUserName());
+        return userName + "@" + sshHost + ":" + sshPort +
+            "/" + CommonUtils.notEmpty(authType) +
+            "/" + (privKeyFile == null ? "" : privKeyFile.getAbsolutePath()) +
+            "/" + SecurityUtils.makeDigest(userName, configuration.getPassword());
+    }
+
+    private static String getHostName(String key) {
+        int divPos = key.indexOf('/');
+        return divPos == -1 ? key : key.substring(0, divPos);
+    }
+
+}
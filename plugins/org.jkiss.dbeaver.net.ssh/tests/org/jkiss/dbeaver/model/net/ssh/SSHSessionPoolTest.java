@@ -0,0 +1,170 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.dbeaver.DBException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SSHSessionPoolTest {
+
+    private static class FakeSession {
+        boolean alive = true;
+        int closeCount;
+    }
+
+    private static class FakeSessionFactory implements SSHSessionPool.SessionFactory<FakeSession> {
+        final List<FakeSession> openedSessions = new ArrayList<>();
+        boolean failOpen;
+
+        @Override
+        public FakeSession openSession() throws DBException {
+            if (failOpen) {
+                throw new DBException("Connection refused");
+            }
+            FakeSession session = new FakeSession();
+            openedSessions.add(session);
+            return session;
+        }
+
+        @Override
+        public boolean isSessionAlive(FakeSession session) {
+            return session.alive;
+        }
+
+        @Override
+        public void closeSession(FakeSession session) {
+            session.closeCount++;
+            session.alive = false;
+        }
+    }
+
+    private SSHSessionPool<FakeSession> pool;
+    private FakeSessionFactory factory;
+
+    @Before
+    public void setUp() {
+        pool = new SSHSessionPool<>();
+        factory = new FakeSessionFactory();
+    }
+
+    @Test
+    public void testSessionSharedUntilLastRelease() throws Exception {
+        FakeSession session1 = pool.acquireSession("host1", factory);
+        FakeSession session2 = pool.acquireSession("host1", factory);
+        Assert.assertSame(session1, session2);
+        Assert.assertEquals(1, factory.openedSessions.size());
+
+        pool.releaseSession("host1", session1, factory);
+        Assert.assertEquals(0, session1.closeCount);
+
+        pool.releaseSession("host1", session2, factory);
+        Assert.assertEquals(1, session1.closeCount);
+    }
+
+    @Test
+    public void testSessionsOfDifferentKeysNotShared() throws Exception {
+        FakeSession session1 = pool.acquireSession("host1", factory);
+        FakeSession session2 = pool.acquireSession("host2", factory);
+        Assert.assertNotSame(session1, session2);
+
+        pool.releaseSession("host1", session1, factory);
+        Assert.assertEquals(1, session1.closeCount);
+        Assert.assertEquals(0, session2.closeCount);
+        pool.releaseSession("host2", session2, factory);
+        Assert.assertEquals(1, session2.closeCount);
+    }
+
+    @Test
+    public void testSessionReopenedAfterLastRelease() throws Exception {
+        FakeSession session1 = pool.acquireSession("host1", factory);
+        pool.releaseSession("host1", session1, factory);
+
+        FakeSession session2 = pool.acquireSession("host1", factory);
+        Assert.assertNotSame(session1, session2);
+        Assert.assertTrue(session2.alive);
+        pool.releaseSession("host1", session2, factory);
+        Assert.assertEquals(1, session1.closeCount);
+        Assert.assertEquals(1, session2.closeCount);
+    }
+
+    @Test
+    public void testBrokenSessionReplaced() throws Exception {
+        FakeSession broken = pool.acquireSession("host1", factory);
+        broken.alive = false;
+
+        FakeSession replacement = pool.acquireSession("host1", factory);
+        Assert.assertNotSame(broken, replacement);
+        // Broken session is still used by the first tunnel
+        Assert.assertEquals(0, broken.closeCount);
+
+        pool.releaseSession("host1", broken, factory);
+        Assert.assertEquals(1, broken.closeCount);
+        Assert.assertEquals(0, replacement.closeCount);
+
+        pool.releaseSession("host1", replacement, factory);
+        Assert.assertEquals(1, broken.closeCount);
+        Assert.assertEquals(1, replacement.closeCount);
+    }
+
+    @Test
+    public void testReplacementClosedByLastReleaseOfBrokenSession() throws Exception {
+        FakeSession broken1 = pool.acquireSession("host1", factory);
+        FakeSession broken2 = pool.acquireSession("host1", factory);
+        broken1.alive = false;
+
+        // Replacement is opened for the tunnel which is released right away
+        FakeSession replacement = pool.acquireSession("host1", factory);
+        pool.releaseSession("host1", replacement, factory);
+        Assert.assertEquals(0, replacement.closeCount);
+
+        pool.releaseSession("host1", broken1, factory);
+        pool.releaseSession("host1", broken2, factory);
+        Assert.assertEquals(1, broken1.closeCount);
+        Assert.assertEquals(1, replacement.closeCount);
+    }
+
+    @Test
+    public void testFailedOpenReleasesReference() throws Exception {
+        factory.failOpen = true;
+        try {
+            pool.acquireSession("host1", factory);
+            Assert.fail("Session open error expected");
+        } catch (DBException e) {
+            // expected
+        }
+        factory.failOpen = false;
+
+        FakeSession session = pool.acquireSession("host1", factory);
+        pool.releaseSession("host1", session, factory);
+        // The failed acquire doesn't hold a reference
+        Assert.assertEquals(1, session.closeCount);
+    }
+
+    @Test
+    public void testReleaseOfUnknownSessionClosesIt() throws IOException, DBException {
+        FakeSession session = factory.openSession();
+        pool.releaseSession("host1", session, factory);
+        Assert.assertEquals(1, session.closeCount);
+    }
+
+}
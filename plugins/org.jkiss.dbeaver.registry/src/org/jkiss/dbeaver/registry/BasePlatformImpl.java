@@ -65,6 +65,7 @@ public abstract class BasePlatformImpl implements DBPPlatform, DBPPlatformLangua
     private OSDescriptor localSystem;
 
     private DBNModel navigatorModel;
+    private KeepAliveListenerJob keepAliveJob;
 
     private final List<IPluginService> activatedServices = new ArrayList<>();
 
@@ -104,7 +105,9 @@ public abstract class BasePlatformImpl implements DBPPlatform, DBPPlatformLangua
         }
 
         // Keep-alive job
-        new KeepAliveListenerJob(this).scheduleMonitor();
+        this.keepAliveJob = new KeepAliveListenerJob(this);
+        DataSourceProviderRegistry.getInstance().addDataSourceRegistryListener(keepAliveJob);
+        keepAliveJob.scheduleMonitor();
     }
 
     public synchronized void dispose() {
@@ -118,6 +121,11 @@ public abstract class BasePlatformImpl implements DBPPlatform, DBPPlatformLangua
         }
         activatedServices.clear();
 
+        if (this.keepAliveJob != null) {
+            DataSourceProviderRegistry.getInstance().removeDataSourceRegistryListener(keepAliveJob);
+            keepAliveJob.dispose();
+        }
+
         // Dispose navigator model first
         // It is a part of UI
         if (this.navigatorModel != null) {
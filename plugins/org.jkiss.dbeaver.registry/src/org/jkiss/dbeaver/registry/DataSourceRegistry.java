@@ -75,6 +75,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
     private final List<DBWNetworkProfile> networkProfiles = new ArrayList<>();
     private final Map<String, DBAAuthProfile> authProfiles = new LinkedHashMap<>();
     private volatile boolean saveInProgress = false;
+    private volatile boolean saveScheduled = false;
 
     private final DBVModel.ModelChangeListener modelChangeListener = new DBVModel.ModelChangeListener();
     private volatile ConfigSaver configSaver;
@@ -113,6 +114,17 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
     @Override
     public void dispose() {
         removeDataSourceListener(modelChangeListener);
+        // Pending changes are saved right away, config saver won't run after dispose
+        if (configSaver != null) {
+            configSaver.cancel();
+        }
+        // Also waits for the save which is already running
+        synchronized (this) {
+            if (saveScheduled) {
+                saveScheduled = false;
+                saveDataSources();
+            }
+        }
         DataSourceProviderRegistry.getInstance().fireRegistryChange(this, false);
         synchronized (dataSourceListeners) {
             if (!this.dataSourceListeners.isEmpty()) {
@@ -488,7 +500,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         final DataSourceDescriptor descriptor = (DataSourceDescriptor) dataSource;
         addDataSourceToList(descriptor);
         if (!descriptor.isDetached()) {
-            this.saveDataSources();
+            this.flushConfig();
         }
         notifyDataSourceListeners(new DBPEvent(DBPEvent.Action.OBJECT_ADD, descriptor, true));
     }
@@ -505,7 +517,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
             this.dataSources.remove(descriptor.getId());
         }
         if (!descriptor.isDetached()) {
-            this.saveDataSources();
+            this.flushConfig();
         }
         try {
             this.fireDataSourceEvent(DBPEvent.Action.OBJECT_REMOVE, dataSource);
@@ -522,7 +534,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
             addDataSource(dataSource);
         } else {
             if (!((DataSourceDescriptor) dataSource).isDetached()) {
-                this.saveDataSources();
+                this.flushConfig();
             }
             this.fireDataSourceEvent(DBPEvent.Action.OBJECT_UPDATE, dataSource);
         }
@@ -530,16 +542,19 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
 
     @Override
     public void flushConfig() {
-        // Use async config saver to avoid too frequent configuration re-save during some massive configuration update
+        // Use async config saver to avoid too frequent configuration re-save during some massive configuration update.
+        // Re-scheduling of a waiting job just postpones it, so series of changes are saved once.
         if (configSaver == null) {
             configSaver = new ConfigSaver();
         }
+        saveScheduled = true;
         configSaver.schedule(100);
     }
 
     @Override
     public void refreshConfig() {
-        if (!saveInProgress) {
+        if (!saveInProgress && !saveScheduled) {
+            // Do not reload config while our own changes are not saved yet
             this.loadDataSources(true);
         }
     }
@@ -917,6 +932,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         protected IStatus run(DBRProgressMonitor monitor) {
             synchronized (DataSourceRegistry.this) {
                 //log.debug("Save column config " + System.currentTimeMillis());
+                saveScheduled = false;
                 saveDataSources();
             }
             return Status.OK_STATUS;
@@ -18,7 +18,10 @@ package org.jkiss.dbeaver.registry;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -57,7 +60,11 @@ import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
 
 import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
 
 class DataSourceSerializerModern implements DataSourceSerializer
@@ -84,6 +91,8 @@ class DataSourceSerializerModern implements DataSourceSerializer
         .serializeNulls()
         .create();
 
+    private static final Type JSON_OBJECT_TYPE = new TypeToken<Map<String, Object>>(){}.getType();
+
     private boolean passwordReadCanceled = false;
     private boolean passwordWriteCanceled = false;
 
@@ -94,6 +103,25 @@ class DataSourceSerializerModern implements DataSourceSerializer
     //  2 level: map of secured properties
     private Map<String, Map<String, Map<String, String>>> secureProperties = new LinkedHashMap<>();
 
+    private interface JsonObjectHandler {
+        void handleObject(String name, Map<String, Object> object) throws IOException;
+    }
+
+    /**
+     * Connection links which are resolved after the whole config is read
+     */
+    private static class ParseContext {
+        final DBPDataSourceConfigurationStorage configurationStorage;
+        final DataSourceRegistry.ParseResults parseResults;
+        final Map<DataSourceDescriptor, String> connectionTypes = new LinkedHashMap<>();
+        final Map<DataSourceDescriptor, String> virtualModels = new LinkedHashMap<>();
+
+        ParseContext(DBPDataSourceConfigurationStorage configurationStorage, DataSourceRegistry.ParseResults parseResults) {
+            this.configurationStorage = configurationStorage;
+            this.parseResults = parseResults;
+        }
+    }
+
     DataSourceSerializerModern(DataSourceRegistry registry) {
         this.registry = registry;
     }
@@ -296,8 +324,34 @@ class DataSourceSerializerModern implements DataSourceSerializer
         }
     }
 
+    /**
+     * Opens config file reader. Encrypted file is decrypted while it is read.
+     */
+    private Reader openConfigFile(IFile file, boolean decrypt) throws IOException {
+        InputStream contents;
+        try {
+            contents = file.getContents();
+        } catch (CoreException e) {
+            throw new IOException("Error reading configuration file " + file.getName(), e);
+        }
+        if (decrypt) {
+            ContentEncrypter encrypter = new ContentEncrypter(registry.getProject().getSecureStorage().getLocalSecretKey());
+            try {
+                contents = encrypter.decrypt(contents);
+            } catch (Exception e) {
+                IOUtils.close(contents);
+                throw new IOException("Error decrypting encrypted file", e);
+            }
+        }
+        return new BufferedReader(new InputStreamReader(contents, StandardCharsets.UTF_8));
+    }
+
     private void saveConfigFile(IProgressMonitor monitor, IFile configFile, String contents, boolean teamPrivate, boolean encrypt) {
         try {
+            if (configFile.exists() && isConfigFileContentSame(configFile, contents, encrypt)) {
+                // Nothing has changed - do not touch the file (and do not trigger resource change listeners)
+                return;
+            }
             byte[] binaryContents;
             if (encrypt) {
                 // Serialize and encrypt
@@ -314,6 +368,9 @@ class DataSourceSerializerModern implements DataSourceSerializer
                 int updateFlags = IResource.FORCE | IResource.HIDDEN;
                 if (teamPrivate) updateFlags |= IResource.TEAM_PRIVATE;
                 configFile.create(ifs, updateFlags, monitor);
+            } else if (configFile.getLocation() != null) {
+                writeConfigFileAtomically(configFile.getLocation().toFile(), binaryContents);
+                configFile.refreshLocal(IResource.DEPTH_ZERO, monitor);
             } else {
                 configFile.setContents(ifs, true, false, monitor);
             }
@@ -322,6 +379,41 @@ class DataSourceSerializerModern implements DataSourceSerializer
         }
     }
 
+    private boolean isConfigFileContentSame(IFile configFile, String contents, boolean encrypted) {
+        try {
+            // Encrypted content is different each time, so compare decrypted text
+            return contents.equals(loadConfigFile(configFile, encrypted));
+        } catch (Exception e) {
+            log.debug("Error reading current configuration file " + configFile.getName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes contents in temporary file and then moves it over the target file.
+     * Thus config file is never left partially written if the application crashes during save.
+     */
+    private static void writeConfigFileAtomically(File targetFile, byte[] binaryContents) throws IOException {
+        Path targetPath = targetFile.toPath();
+        Path tempPath = Files.createTempFile(targetPath.getParent(), "." + targetFile.getName(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(binaryContents);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
     private void saveSecureCredentialsFile(IProgressMonitor monitor, IFolder parent, DBPDataSourceConfigurationStorage origin) {
         IFile credFile = parent.getFile(DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_PREFIX + origin.getConfigurationFileSuffix() + DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_EXT);
         try {
@@ -345,12 +437,13 @@ class DataSourceSerializerModern implements DataSourceSerializer
         if (mdFolder.exists()) {
             IFile credFile = mdFolder.getFile(DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_PREFIX + configurationStorage.getConfigurationFileSuffix() + DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_EXT);
             if (credFile.exists()) {
-                try {
-                    String credJson = loadConfigFile(credFile, true);
+                try (Reader credReader = openConfigFile(credFile, true)) {
                     Map<String, Map<String, Map<String, String>>> res = CONFIG_GSON.fromJson(
-                        credJson,
+                        credReader,
                         new TypeToken<Map<String, Map<String, Map<String, String>>>>(){}.getType());
-                    secureProperties.putAll(res);
+                    if (res != null) {
+                        secureProperties.putAll(res);
+                    }
                 } catch (Exception e) {
                     log.error("Error decrypting secure credentials", e);
                 }
@@ -358,290 +451,338 @@ class DataSourceSerializerModern implements DataSourceSerializer
         }
 
         boolean decryptProject = CommonUtils.toBoolean(registry.getProject().getProjectProperty(DBPProject.PROP_SECURE_PROJECT));
-        String configJson = loadConfigFile(configFile, decryptProject);
-        {
-            Map<String, Object> jsonMap = JSONUtils.parseMap(CONFIG_GSON, new StringReader(configJson));
-
-            // Folders
-            for (Map.Entry<String, Map<String, Object>> folderMap : JSONUtils.getNestedObjects(jsonMap, "folders")) {
-                String name = folderMap.getKey();
-                String description = JSONUtils.getObjectProperty(folderMap.getValue(), RegistryConstants.ATTR_DESCRIPTION);
-                String parentFolder = JSONUtils.getObjectProperty(folderMap.getValue(), RegistryConstants.ATTR_PARENT);
-                DataSourceFolder parent = parentFolder == null ? null : registry.findFolderByPath(parentFolder, true);
-                DataSourceFolder folder = parent == null ? registry.findFolderByPath(name, true) : parent.getChild(name);
-                if (folder == null) {
-                    folder = new DataSourceFolder(registry, parent, name, description);
-                    registry.addDataSourceFolder(folder);
-                } else {
-                    folder.setDescription(description);
-                }
+        ParseContext parseContext = new ParseContext(configurationStorage, parseResults);
+        Map<String, DBVModel> modelMap = new LinkedHashMap<>();
+        // Config is read section by section, each object is deserialized and applied right away
+        try (JsonReader json = CONFIG_GSON.newJsonReader(openConfigFile(configFile, decryptProject))) {
+            if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                return;
             }
-
-            // Connection types
-            for (Map.Entry<String, Map<String, Object>> ctMap : JSONUtils.getNestedObjects(jsonMap, "connection-types")) {
-                String id = ctMap.getKey();
-                Map<String, Object> ctConfig = ctMap.getValue();
-                String name = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_NAME);
-                String description = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_DESCRIPTION);
-                String color = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_COLOR);
-                Boolean autoCommit = JSONUtils.getObjectProperty(ctConfig, "auto-commit");
-                Boolean confirmExecute = JSONUtils.getObjectProperty(ctConfig, "confirm-execute");
-                Boolean confirmDataChange = JSONUtils.getObjectProperty(ctConfig, "confirm-data-change");
-                DBPConnectionType ct = DBWorkbench.getPlatform().getDataSourceProviderRegistry().getConnectionType(id, null);
-                if (ct == null) {
-                    ct = new DBPConnectionType(id, name, color, description, CommonUtils.toBoolean(autoCommit), CommonUtils.toBoolean(confirmExecute), CommonUtils.toBoolean(confirmDataChange));
-                    DBWorkbench.getPlatform().getDataSourceProviderRegistry().addConnectionType(ct);
+            json.beginObject();
+            while (json.hasNext()) {
+                String section = json.nextName();
+                switch (section) {
+                    case "folders":
+                        readNestedObjects(json, this::parseFolder);
+                        break;
+                    case "connection-types":
+                        readNestedObjects(json, this::parseConnectionType);
+                        break;
+                    case "virtual-models":
+                        readNestedObjects(json, (id, vmObject) -> modelMap.put(id, new DBVModel(id, vmObject)));
+                        break;
+                    case "network-profiles":
+                        readNestedObjects(json, this::parseNetworkProfile);
+                        break;
+                    case "auth-profiles":
+                        readNestedObjects(json, this::parseAuthProfile);
+                        break;
+                    case "connections":
+                        readNestedObjects(json, (id, conObject) -> parseDataSource(parseContext, id, conObject));
+                        break;
+                    case "saved-filters":
+                        if (json.peek() != JsonToken.BEGIN_ARRAY) {
+                            json.skipValue();
+                            break;
+                        }
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            if (json.peek() == JsonToken.BEGIN_OBJECT) {
+                                DBSObjectFilter filter = readObjectFiler(CONFIG_GSON.fromJson(json, JSON_OBJECT_TYPE));
+                                registry.addSavedFilter(filter);
+                            } else {
+                                json.skipValue();
+                            }
+                        }
+                        json.endArray();
+                        break;
+                    default:
+                        // Drivers
+                        // TODO: add drivers deserialization
+                        json.skipValue();
+                        break;
                 }
-                deserializeModifyPermissions(ctConfig, ct);
             }
+            json.endObject();
+        } catch (EOFException e) {
+            // Empty config file
+            log.debug("Empty datasources configuration " + configFile.getName());
+        } catch (JsonParseException e) {
+            throw new IOException("Error parsing datasources configuration", e);
+        }
 
-            // Drivers
-            // TODO: add drivers deserialization
-
-            // Virtual models
-            Map<String, DBVModel> modelMap = new LinkedHashMap<>();
-            for (Map.Entry<String, Map<String, Object>> vmMap : JSONUtils.getNestedObjects(jsonMap, "virtual-models")) {
-                String id = vmMap.getKey();
-                DBVModel model = new DBVModel(id, vmMap.getValue());
-                modelMap.put(id, model);
+        for (Map.Entry<DataSourceDescriptor, String> ctEntry : parseContext.connectionTypes.entrySet()) {
+            ctEntry.getKey().getConnectionConfiguration().setConnectionType(
+                DataSourceProviderRegistry.getInstance().getConnectionType(ctEntry.getValue(), DBPConnectionType.DEFAULT_TYPE));
+        }
+        for (Map.Entry<DataSourceDescriptor, String> vmEntry : parseContext.virtualModels.entrySet()) {
+            DBVModel dbvModel = modelMap.get(vmEntry.getValue());
+            if (dbvModel != null) {
+                vmEntry.getKey().setVirtualModel(dbvModel);
             }
+        }
+    }
 
-            // Network profiles
-            for (Map.Entry<String, Map<String, Object>> vmMap : JSONUtils.getNestedObjects(jsonMap, "network-profiles")) {
-                String profileId = vmMap.getKey();
-                Map<String, Object> profileMap = vmMap.getValue();
-                DBWNetworkProfile profile = new DBWNetworkProfile();
-                profile.setProfileName(profileId);
-                profile.setProfileName(profileId);
-                profile.setProperties(JSONUtils.deserializeStringMap(profileMap, "properties"));
-
-                for (Map.Entry<String, Map<String, Object>> handlerMap : JSONUtils.getNestedObjects(profileMap, "handlers")) {
-                    DBWHandlerConfiguration configuration = parseNetworkHandlerConfig(null, profile, handlerMap);
-                    if (configuration != null) {
-                        profile.updateConfiguration(configuration);
-                    }
-                }
-
-                registry.updateNetworkProfile(profile);
-            }
+    private void parseFolder(String name, Map<String, Object> folderObject) {
+        String description = JSONUtils.getObjectProperty(folderObject, RegistryConstants.ATTR_DESCRIPTION);
+        String parentFolder = JSONUtils.getObjectProperty(folderObject, RegistryConstants.ATTR_PARENT);
+        DataSourceFolder parent = parentFolder == null ? null : registry.findFolderByPath(parentFolder, true);
+        DataSourceFolder folder = parent == null ? registry.findFolderByPath(name, true) : parent.getChild(name);
+        if (folder == null) {
+            folder = new DataSourceFolder(registry, parent, name, description);
+            registry.addDataSourceFolder(folder);
+        } else {
+            folder.setDescription(description);
+        }
+    }
 
-            // Auth profiles
-            for (Map.Entry<String, Map<String, Object>> vmMap : JSONUtils.getNestedObjects(jsonMap, "auth-profiles")) {
-                String profileId = vmMap.getKey();
-                Map<String, Object> profileMap = vmMap.getValue();
-                DBAAuthProfile profile = new DBAAuthProfile();
-                profile.setProfileId(profileId);
-                profile.setProfileName(JSONUtils.getString(profileMap, RegistryConstants.ATTR_NAME));
-                profile.setAuthModelId(JSONUtils.getString(profileMap, RegistryConstants.ATTR_AUTH_MODEL));
-                profile.setSavePassword(JSONUtils.getBoolean(profileMap, RegistryConstants.ATTR_SAVE_PASSWORD));
-
-                SecureCredentials authCreds = readSecuredCredentials(null, profile, null);
-                profile.setUserName(authCreds.getUserName());
-                profile.setUserPassword(authCreds.getUserPassword());
-                profile.setProperties(authCreds.getProperties());
-
-                registry.updateAuthProfile(profile);
-            }
+    private void parseConnectionType(String id, Map<String, Object> ctConfig) {
+        String name = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_NAME);
+        String description = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_DESCRIPTION);
+        String color = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_COLOR);
+        Boolean autoCommit = JSONUtils.getObjectProperty(ctConfig, "auto-commit");
+        Boolean confirmExecute = JSONUtils.getObjectProperty(ctConfig, "confirm-execute");
+        Boolean confirmDataChange = JSONUtils.getObjectProperty(ctConfig, "confirm-data-change");
+        DBPConnectionType ct = DBWorkbench.getPlatform().getDataSourceProviderRegistry().getConnectionType(id, null);
+        if (ct == null) {
+            ct = new DBPConnectionType(id, name, color, description, CommonUtils.toBoolean(autoCommit), CommonUtils.toBoolean(confirmExecute), CommonUtils.toBoolean(confirmDataChange));
+            DBWorkbench.getPlatform().getDataSourceProviderRegistry().addConnectionType(ct);
+        }
+        deserializeModifyPermissions(ctConfig, ct);
+    }
 
-            // Connections
-            for (Map.Entry<String, Map<String, Object>> conMap : JSONUtils.getNestedObjects(jsonMap, "connections")) {
-                Map<String, Object> conObject = conMap.getValue();
+    private void parseNetworkProfile(String profileId, Map<String, Object> profileMap) {
+        DBWNetworkProfile profile = new DBWNetworkProfile();
+        profile.setProfileName(profileId);
+        profile.setProfileName(profileId);
+        profile.setProperties(JSONUtils.deserializeStringMap(profileMap, "properties"));
 
-                // Primary settings
-                String id = conMap.getKey();
-                String dsProviderID = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_PROVIDER));
-                if (CommonUtils.isEmpty(dsProviderID)) {
-                    log.warn("Empty datasource provider for datasource '" + id + "'");
-                    continue;
-                }
-                DataSourceProviderDescriptor provider = DataSourceProviderRegistry.getInstance().getDataSourceProvider(
-                    dsProviderID);
-                if (provider == null) {
-                    log.warn("Can't find datasource provider " + dsProviderID + " for datasource '" + id + "'");
-                    provider = (DataSourceProviderDescriptor) DataSourceProviderRegistry.getInstance().makeFakeProvider(dsProviderID);
-                }
-                String driverId = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_DRIVER));
-                DriverDescriptor driver = provider.getDriver(driverId);
-                if (driver == null) {
-                    log.warn("Can't find driver " + driverId + " in datasource provider " + provider.getId() + " for datasource '" + id + "'. Create new driver");
-                    driver = provider.createDriver(driverId);
-                    driver.setName(driverId);
-                    driver.setDescription("Missing driver " + driverId);
-                    driver.setDriverClassName("java.sql.Driver");
-                    driver.setTemporary(true);
-                    provider.addDriver(driver);
-                }
+        for (Map.Entry<String, Map<String, Object>> handlerMap : JSONUtils.getNestedObjects(profileMap, "handlers")) {
+            DBWHandlerConfiguration configuration = parseNetworkHandlerConfig(null, profile, handlerMap);
+            if (configuration != null) {
+                profile.updateConfiguration(configuration);
+            }
+        }
 
-                DataSourceDescriptor dataSource = registry.getDataSource(id);
-                boolean newDataSource = (dataSource == null);
-                if (newDataSource) {
-                    dataSource = new DataSourceDescriptor(
-                        registry,
-                        configurationStorage,
-                        id,
-                        driver,
-                        new DBPConnectionConfiguration());
-                } else {
-                    // Clean settings - they have to be loaded later by parser
-                    dataSource.getConnectionConfiguration().setProperties(Collections.emptyMap());
-                    dataSource.getConnectionConfiguration().setHandlers(Collections.emptyList());
-                    dataSource.clearFilters();
-                }
-                dataSource.setName(JSONUtils.getString(conObject, RegistryConstants.ATTR_NAME));
-                dataSource.setDescription(JSONUtils.getString(conObject, RegistryConstants.TAG_DESCRIPTION));
-                dataSource.setSavePassword(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_SAVE_PASSWORD));
-                dataSource.setTemplate(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_TEMPLATE));
-
-                DataSourceNavigatorSettings navSettings = dataSource.getNavigatorSettings();
-                navSettings.setShowSystemObjects(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_SYSTEM_OBJECTS));
-                navSettings.setShowUtilityObjects(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_UTIL_OBJECTS));
-                navSettings.setShowOnlyEntities(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_ONLY_ENTITIES));
-                navSettings.setHideFolders(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_FOLDERS));
-                navSettings.setHideSchemas(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_SCHEMAS));
-                navSettings.setHideVirtualModel(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_VIRTUAL));
-                navSettings.setMergeEntities(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_MERGE_ENTITIES));
-
-                dataSource.setConnectionReadOnly(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_READ_ONLY));
-                final String folderPath = JSONUtils.getString(conObject, RegistryConstants.ATTR_FOLDER);
-                if (folderPath != null) {
-                    dataSource.setFolder(registry.findFolderByPath(folderPath, true));
-                }
-                dataSource.setLockPasswordHash(CommonUtils.toString(conObject.get(RegistryConstants.ATTR_LOCK_PASSWORD)));
+        registry.updateNetworkProfile(profile);
+    }
 
-                // Connection settings
-                {
-                    Map<String, Object> cfgObject = JSONUtils.getObject(conObject, "configuration");
-                    DBPConnectionConfiguration config = dataSource.getConnectionConfiguration();
-                    config.setHostName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOST));
-                    config.setHostPort(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PORT));
-                    config.setServerName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_SERVER));
-                    config.setDatabaseName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_DATABASE));
-                    config.setUrl(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_URL));
-                    if (!passwordReadCanceled) {
-                        final SecureCredentials creds = readSecuredCredentials(dataSource, null, null);
-                        config.setUserName(creds.getUserName());
-                        if (dataSource.isSavePassword()) {
-                            config.setUserPassword(creds.getUserPassword());
-                        }
-                    }
-                    {
-                        // Still try to read credentials directly from configuration (#6564)
-                        String userName = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_USER);
-                        if (!CommonUtils.isEmpty(userName)) config.setUserName(userName);
-                        String userPassword = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PASSWORD);
-                        if (!CommonUtils.isEmpty(userPassword)) config.setUserPassword(userPassword);
-                    }
+    private void parseAuthProfile(String profileId, Map<String, Object> profileMap) {
+        DBAAuthProfile profile = new DBAAuthProfile();
+        profile.setProfileId(profileId);
+        profile.setProfileName(JSONUtils.getString(profileMap, RegistryConstants.ATTR_NAME));
+        profile.setAuthModelId(JSONUtils.getString(profileMap, RegistryConstants.ATTR_AUTH_MODEL));
+        profile.setSavePassword(JSONUtils.getBoolean(profileMap, RegistryConstants.ATTR_SAVE_PASSWORD));
 
-                    config.setClientHomeId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOME));
-                    config.setConfigProfileName(JSONUtils.getString(cfgObject, "config-profile"));
-                    config.setConnectionType(
-                        DataSourceProviderRegistry.getInstance().getConnectionType(
-                            JSONUtils.getString(cfgObject, RegistryConstants.ATTR_TYPE), DBPConnectionType.DEFAULT_TYPE));
-                    String colorValue = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_COLOR);
-                    if (!CommonUtils.isEmpty(colorValue)) {
-                        config.setConnectionColor(colorValue);
-                    }
-                    int keepAlive = JSONUtils.getInteger(cfgObject, RegistryConstants.ATTR_KEEP_ALIVE);
-                    if (keepAlive > 0) {
-                        config.setKeepAliveInterval(keepAlive);
-                    }
-                    config.setProperties(JSONUtils.deserializeStringMap(cfgObject, RegistryConstants.TAG_PROPERTIES));
-                    config.setProviderProperties(JSONUtils.deserializeStringMap(cfgObject, RegistryConstants.TAG_PROVIDER_PROPERTIES));
-                    config.setAuthModelId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_AUTH_MODEL));
-                    config.setAuthProperties(JSONUtils.deserializeStringMapOrNull(cfgObject, "auth-properties"));
-
-                    // Events
-                    for (Map.Entry<String, Map<String, Object>> eventObject : JSONUtils.getNestedObjects(cfgObject, RegistryConstants.TAG_EVENTS)) {
-                        DBPConnectionEventType eventType = CommonUtils.valueOf(DBPConnectionEventType.class, eventObject.getKey(), DBPConnectionEventType.BEFORE_CONNECT);
-                        Map<String, Object> eventCfg = eventObject.getValue();
-                        DBRShellCommand command = new DBRShellCommand("");
-                        command.setEnabled(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_ENABLED));
-                        command.setShowProcessPanel(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_SHOW_PANEL));
-                        command.setWaitProcessFinish(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_WAIT_PROCESS));
-                        if (command.isWaitProcessFinish()) {
-                            command.setWaitProcessTimeoutMs(JSONUtils.getInteger(eventCfg, RegistryConstants.ATTR_WAIT_PROCESS_TIMEOUT));
-                        }
-                        command.setTerminateAtDisconnect(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_TERMINATE_AT_DISCONNECT));
-                        command.setPauseAfterExecute(JSONUtils.getInteger(eventCfg, RegistryConstants.ATTR_PAUSE_AFTER_EXECUTE));
-                        command.setWorkingDirectory(JSONUtils.getString(eventCfg, RegistryConstants.ATTR_WORKING_DIRECTORY));
-                        command.setCommand(JSONUtils.getString(eventCfg, RegistryConstants.ATTR_COMMAND));
+        SecureCredentials authCreds = readSecuredCredentials(null, profile, null);
+        profile.setUserName(authCreds.getUserName());
+        profile.setUserPassword(authCreds.getUserPassword());
+        profile.setProperties(authCreds.getProperties());
 
-                        config.setEvent(eventType, command);
-                    }
+        registry.updateAuthProfile(profile);
+    }
 
-                    // Handlers
-                    for (Map.Entry<String, Map<String, Object>> handlerObject : JSONUtils.getNestedObjects(cfgObject, RegistryConstants.TAG_HANDLERS)) {
-                        DBWHandlerConfiguration configuration = parseNetworkHandlerConfig(dataSource, null, handlerObject);
-                        if (configuration != null) {
-                            dataSource.getConnectionConfiguration().updateHandler(configuration);
-                        }
-                    }
+    private void parseDataSource(ParseContext parseContext, String id, Map<String, Object> conObject) {
+        // Primary settings
+        String dsProviderID = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_PROVIDER));
+        if (CommonUtils.isEmpty(dsProviderID)) {
+            log.warn("Empty datasource provider for datasource '" + id + "'");
+            return;
+        }
+        DataSourceProviderDescriptor provider = DataSourceProviderRegistry.getInstance().getDataSourceProvider(
+            dsProviderID);
+        if (provider == null) {
+            log.warn("Can't find datasource provider " + dsProviderID + " for datasource '" + id + "'");
+            provider = (DataSourceProviderDescriptor) DataSourceProviderRegistry.getInstance().makeFakeProvider(dsProviderID);
+        }
+        String driverId = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_DRIVER));
+        DriverDescriptor driver = provider.getDriver(driverId);
+        if (driver == null) {
+            log.warn("Can't find driver " + driverId + " in datasource provider " + provider.getId() + " for datasource '" + id + "'. Create new driver");
+            driver = provider.createDriver(driverId);
+            driver.setName(driverId);
+            driver.setDescription("Missing driver " + driverId);
+            driver.setDriverClassName("java.sql.Driver");
+            driver.setTemporary(true);
+            provider.addDriver(driver);
+        }
 
-                    // Bootstrap
-                    Map<String, Object> bootstrapCfg = JSONUtils.getObject(cfgObject, RegistryConstants.TAG_BOOTSTRAP);
-                    DBPConnectionBootstrap bootstrap = config.getBootstrap();
-                    if (bootstrapCfg.containsKey(RegistryConstants.ATTR_AUTOCOMMIT)) {
-                        bootstrap.setDefaultAutoCommit(JSONUtils.getBoolean(bootstrapCfg, RegistryConstants.ATTR_AUTOCOMMIT));
-                    }
-                    if (bootstrapCfg.containsKey(RegistryConstants.ATTR_TXN_ISOLATION)) {
-                        bootstrap.setDefaultTransactionIsolation(JSONUtils.getInteger(bootstrapCfg, RegistryConstants.ATTR_TXN_ISOLATION));
-                    }
-                    bootstrap.setDefaultCatalogName(JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_CATALOG));
-                    bootstrap.setDefaultSchemaName(JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_SCHEMA));
-                    String defObjectName = JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_OBJECT);
-                    if (!CommonUtils.isEmpty(defObjectName) && CommonUtils.isEmpty(bootstrap.getDefaultSchemaName())) {
-                        bootstrap.setDefaultSchemaName(JSONUtils.getString(bootstrapCfg, defObjectName));
-                    }
+        DataSourceDescriptor dataSource = registry.getDataSource(id);
+        boolean newDataSource = (dataSource == null);
+        if (newDataSource) {
+            dataSource = new DataSourceDescriptor(
+                registry,
+                parseContext.configurationStorage,
+                id,
+                driver,
+                new DBPConnectionConfiguration());
+        } else {
+            // Clean settings - they have to be loaded later by parser
+            dataSource.getConnectionConfiguration().setProperties(Collections.emptyMap());
+            dataSource.getConnectionConfiguration().setHandlers(Collections.emptyList());
+            dataSource.clearFilters();
+        }
+        dataSource.setName(JSONUtils.getString(conObject, RegistryConstants.ATTR_NAME));
+        dataSource.setDescription(JSONUtils.getString(conObject, RegistryConstants.TAG_DESCRIPTION));
+        dataSource.setSavePassword(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_SAVE_PASSWORD));
+        dataSource.setTemplate(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_TEMPLATE));
 
-                    if (bootstrapCfg.containsKey(RegistryConstants.ATTR_IGNORE_ERRORS)) {
-                        bootstrap.setIgnoreErrors(JSONUtils.getBoolean(bootstrapCfg, RegistryConstants.ATTR_IGNORE_ERRORS));
-                    }
-                    bootstrap.setInitQueries(JSONUtils.deserializeStringList(bootstrapCfg, RegistryConstants.TAG_QUERY));
-                }
+        DataSourceNavigatorSettings navSettings = dataSource.getNavigatorSettings();
+        navSettings.setShowSystemObjects(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_SYSTEM_OBJECTS));
+        navSettings.setShowUtilityObjects(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_UTIL_OBJECTS));
+        navSettings.setShowOnlyEntities(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_ONLY_ENTITIES));
+        navSettings.setHideFolders(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_FOLDERS));
+        navSettings.setHideSchemas(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_SCHEMAS));
+        navSettings.setHideVirtualModel(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_VIRTUAL));
+        navSettings.setMergeEntities(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_MERGE_ENTITIES));
+
+        dataSource.setConnectionReadOnly(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_READ_ONLY));
+        final String folderPath = JSONUtils.getString(conObject, RegistryConstants.ATTR_FOLDER);
+        if (folderPath != null) {
+            dataSource.setFolder(registry.findFolderByPath(folderPath, true));
+        }
+        dataSource.setLockPasswordHash(CommonUtils.toString(conObject.get(RegistryConstants.ATTR_LOCK_PASSWORD)));
 
-                // Permissions
-                {
-                    deserializeModifyPermissions(conObject, dataSource);
+        // Connection settings
+        {
+            Map<String, Object> cfgObject = JSONUtils.getObject(conObject, "configuration");
+            DBPConnectionConfiguration config = dataSource.getConnectionConfiguration();
+            config.setHostName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOST));
+            config.setHostPort(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PORT));
+            config.setServerName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_SERVER));
+            config.setDatabaseName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_DATABASE));
+            config.setUrl(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_URL));
+            if (!passwordReadCanceled) {
+                final SecureCredentials creds = readSecuredCredentials(dataSource, null, null);
+                config.setUserName(creds.getUserName());
+                if (dataSource.isSavePassword()) {
+                    config.setUserPassword(creds.getUserPassword());
                 }
+            }
+            {
+                // Still try to read credentials directly from configuration (#6564)
+                String userName = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_USER);
+                if (!CommonUtils.isEmpty(userName)) config.setUserName(userName);
+                String userPassword = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PASSWORD);
+                if (!CommonUtils.isEmpty(userPassword)) config.setUserPassword(userPassword);
+            }
 
-                // Filters
-                for (Map<String, Object> filterCfg : JSONUtils.getObjectList(conObject, RegistryConstants.TAG_FILTERS)) {
-                    String typeName = JSONUtils.getString(filterCfg, RegistryConstants.ATTR_TYPE);
-                    String objectID = JSONUtils.getString(filterCfg, RegistryConstants.ATTR_ID);
-                    if (!CommonUtils.isEmpty(typeName)) {
-                        DBSObjectFilter filter = readObjectFiler(filterCfg);
-                        dataSource.updateObjectFilter(typeName, objectID, filter);
-                    }
+            config.setClientHomeId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOME));
+            config.setConfigProfileName(JSONUtils.getString(cfgObject, "config-profile"));
+            // Connection types are stored after connections, they are linked when the whole config is read
+            parseContext.connectionTypes.put(dataSource, JSONUtils.getString(cfgObject, RegistryConstants.ATTR_TYPE));
+            String colorValue = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_COLOR);
+            if (!CommonUtils.isEmpty(colorValue)) {
+                config.setConnectionColor(colorValue);
+            }
+            int keepAlive = JSONUtils.getInteger(cfgObject, RegistryConstants.ATTR_KEEP_ALIVE);
+            if (keepAlive > 0) {
+                config.setKeepAliveInterval(keepAlive);
+            }
+            config.setProperties(JSONUtils.deserializeStringMap(cfgObject, RegistryConstants.TAG_PROPERTIES));
+            config.setProviderProperties(JSONUtils.deserializeStringMap(cfgObject, RegistryConstants.TAG_PROVIDER_PROPERTIES));
+            config.setAuthModelId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_AUTH_MODEL));
+            config.setAuthProperties(JSONUtils.deserializeStringMapOrNull(cfgObject, "auth-properties"));
+
+            // Events
+            for (Map.Entry<String, Map<String, Object>> eventObject : JSONUtils.getNestedObjects(cfgObject, RegistryConstants.TAG_EVENTS)) {
+                DBPConnectionEventType eventType = CommonUtils.valueOf(DBPConnectionEventType.class, eventObject.getKey(), DBPConnectionEventType.BEFORE_CONNECT);
+                Map<String, Object> eventCfg = eventObject.getValue();
+                DBRShellCommand command = new DBRShellCommand("");
+                command.setEnabled(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_ENABLED));
+                command.setShowProcessPanel(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_SHOW_PANEL));
+                command.setWaitProcessFinish(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_WAIT_PROCESS));
+                if (command.isWaitProcessFinish()) {
+                    command.setWaitProcessTimeoutMs(JSONUtils.getInteger(eventCfg, RegistryConstants.ATTR_WAIT_PROCESS_TIMEOUT));
                 }
+                command.setTerminateAtDisconnect(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_TERMINATE_AT_DISCONNECT));
+                command.setPauseAfterExecute(JSONUtils.getInteger(eventCfg, RegistryConstants.ATTR_PAUSE_AFTER_EXECUTE));
+                command.setWorkingDirectory(JSONUtils.getString(eventCfg, RegistryConstants.ATTR_WORKING_DIRECTORY));
+                command.setCommand(JSONUtils.getString(eventCfg, RegistryConstants.ATTR_COMMAND));
 
-                // Preferences
-                dataSource.getPreferenceStore().getProperties().putAll(
-                    JSONUtils.deserializeStringMap(conObject, RegistryConstants.TAG_CUSTOM_PROPERTIES)
-                );
+                config.setEvent(eventType, command);
+            }
 
-                // Virtual model
-                String vmID = CommonUtils.toString(conObject.get("virtual-model-id"), id);
-                DBVModel dbvModel = modelMap.get(vmID);
-                if (dbvModel != null) {
-                    dataSource.setVirtualModel(dbvModel);
+            // Handlers
+            for (Map.Entry<String, Map<String, Object>> handlerObject : JSONUtils.getNestedObjects(cfgObject, RegistryConstants.TAG_HANDLERS)) {
+                DBWHandlerConfiguration configuration = parseNetworkHandlerConfig(dataSource, null, handlerObject);
+                if (configuration != null) {
+                    dataSource.getConnectionConfiguration().updateHandler(configuration);
                 }
+            }
 
-                // Add to the list
-                if (newDataSource) {
-                    registry.addDataSourceToList(dataSource);
-                    parseResults.addedDataSources.add(dataSource);
-                } else {
-                    parseResults.updatedDataSources.add(dataSource);
-                }
+            // Bootstrap
+            Map<String, Object> bootstrapCfg = JSONUtils.getObject(cfgObject, RegistryConstants.TAG_BOOTSTRAP);
+            DBPConnectionBootstrap bootstrap = config.getBootstrap();
+            if (bootstrapCfg.containsKey(RegistryConstants.ATTR_AUTOCOMMIT)) {
+                bootstrap.setDefaultAutoCommit(JSONUtils.getBoolean(bootstrapCfg, RegistryConstants.ATTR_AUTOCOMMIT));
             }
+            if (bootstrapCfg.containsKey(RegistryConstants.ATTR_TXN_ISOLATION)) {
+                bootstrap.setDefaultTransactionIsolation(JSONUtils.getInteger(bootstrapCfg, RegistryConstants.ATTR_TXN_ISOLATION));
+            }
+            bootstrap.setDefaultCatalogName(JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_CATALOG));
+            bootstrap.setDefaultSchemaName(JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_SCHEMA));
+            String defObjectName = JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_OBJECT);
+            if (!CommonUtils.isEmpty(defObjectName) && CommonUtils.isEmpty(bootstrap.getDefaultSchemaName())) {
+                bootstrap.setDefaultSchemaName(JSONUtils.getString(bootstrapCfg, defObjectName));
+            }
+
+            if (bootstrapCfg.containsKey(RegistryConstants.ATTR_IGNORE_ERRORS)) {
+                bootstrap.setIgnoreErrors(JSONUtils.getBoolean(bootstrapCfg, RegistryConstants.ATTR_IGNORE_ERRORS));
+            }
+            bootstrap.setInitQueries(JSONUtils.deserializeStringList(bootstrapCfg, RegistryConstants.TAG_QUERY));
+        }
+
+        // Permissions
+        {
+            deserializeModifyPermissions(conObject, dataSource);
+        }
 
-            // Saved filters
-            for (Map<String, Object> ctMap : JSONUtils.getObjectList(jsonMap, "saved-filters")) {
-                DBSObjectFilter filter = readObjectFiler(ctMap);
-                registry.addSavedFilter(filter);
+        // Filters
+        for (Map<String, Object> filterCfg : JSONUtils.getObjectList(conObject, RegistryConstants.TAG_FILTERS)) {
+            String typeName = JSONUtils.getString(filterCfg, RegistryConstants.ATTR_TYPE);
+            String objectID = JSONUtils.getString(filterCfg, RegistryConstants.ATTR_ID);
+            if (!CommonUtils.isEmpty(typeName)) {
+                DBSObjectFilter filter = readObjectFiler(filterCfg);
+                dataSource.updateObjectFilter(typeName, objectID, filter);
             }
         }
 
+        // Preferences
+        dataSource.getPreferenceStore().getProperties().putAll(
+            JSONUtils.deserializeStringMap(conObject, RegistryConstants.TAG_CUSTOM_PROPERTIES)
+        );
+
+        // Virtual model
+        parseContext.virtualModels.put(dataSource, CommonUtils.toString(conObject.get("virtual-model-id"), id));
+
+        // Add to the list
+        if (newDataSource) {
+            registry.addDataSourceToList(dataSource);
+            parseContext.parseResults.addedDataSources.add(dataSource);
+        } else {
+            parseContext.parseResults.updatedDataSources.add(dataSource);
+        }
+    }
+
+    /**
+     * Reads object entries one by one. Only the current entry is kept in memory.
+     */
+    private static void readNestedObjects(JsonReader json, JsonObjectHandler handler) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return;
+        }
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonToken.BEGIN_OBJECT) {
+                handler.handleObject(name, CONFIG_GSON.fromJson(json, JSON_OBJECT_TYPE));
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
     }
 
     private void deserializeModifyPermissions(Map<String, Object> conObject, DBPDataSourcePermissionOwner permissionOwner) {
@@ -4,20 +4,19 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.connection.DBPDriver;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.List;
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -27,12 +26,50 @@ public class DriverClassFindJob implements DBRRunnableWithProgress {
 
     public static final String OBJECT_CLASS_NAME = "java/lang/Object";
     public static final String CLASS_FILE_EXT = ".class";
-    private List<String> driverClassNames = new ArrayList<>();
+
+    private static final String CACHE_FOLDER = "driver-classes";
+    private static final int MIN_ENTRIES_PER_TASK = 1000;
+
+    // Library checksums by file path. Checksum is recomputed only if library size or modification time changes.
+    private static final Map<String, LibraryChecksum> libraryChecksums = new ConcurrentHashMap<>();
+
+    private final List<String> driverClassNames = Collections.synchronizedList(new ArrayList<>());
 
     private final DriverDescriptor driver;
     private final String interfaceName;
     private final boolean isInterface;
 
+    /**
+     * Class header: access flags, super class and interfaces
+     */
+    private static class ClassInfo {
+        final int access;
+        final String superName;
+        final String[] interfaces;
+
+        ClassInfo(ClassReader cr) {
+            this.access = cr.getAccess();
+            this.superName = cr.getSuperName();
+            this.interfaces = cr.getInterfaces();
+        }
+    }
+
+    private static class LibraryChecksum {
+        final long length;
+        final long lastModified;
+        final String checksum;
+
+        LibraryChecksum(long length, long lastModified, String checksum) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        boolean matches(File libFile) {
+            return libFile.length() == length && libFile.lastModified() == lastModified;
+        }
+    }
+
     public DriverClassFindJob(DBPDriver driver, String interfaceName, boolean isInterface) {
         this.driver = (DriverDescriptor) driver;
         this.interfaceName = interfaceName.replace(".", "/");
@@ -49,102 +86,197 @@ public class DriverClassFindJob implements DBRRunnableWithProgress {
     }
 
     private void findDriverClasses(DBRProgressMonitor monitor) {
-        java.util.List<File> libFiles = driver.getAllLibraryFiles();
-        java.util.List<URL> libURLs = new ArrayList<>();
-        for (File libFile : libFiles) {
+        List<DBRRunnableWithProgress> tasks = new ArrayList<>();
+        for (File libFile : driver.getAllLibraryFiles()) {
             if (libFile != null && libFile.exists() && !libFile.isDirectory()) {
-                try {
-                    libURLs.add(libFile.toURI().toURL());
-                } catch (MalformedURLException e) {
-                    log.debug(e);
-                }
+                tasks.add(libMonitor -> findDriverClasses(libMonitor, libFile));
             }
         }
-        ClassLoader findCL = new URLClassLoader(libURLs.toArray(new URL[0]));
+        try {
+            RuntimeUtils.runParallelTasks(monitor, "Find driver classes", tasks);
+        } catch (InvocationTargetException e) {
+            log.debug(e.getTargetException());
+        } catch (InterruptedException e) {
+            // Canceled
+        }
+        Collections.sort(driverClassNames);
+    }
 
-        for (File libFile : libFiles) {
+    private void findDriverClasses(DBRProgressMonitor monitor, File libFile) throws InvocationTargetException, InterruptedException {
+        String cacheKey = (isInterface ? "interface:" : "class:") + interfaceName;
+        File cacheFile = getCacheFile(libFile);
+        Properties cache = loadCache(cacheFile);
+        String cachedNames = cache.getProperty(cacheKey);
+        if (cachedNames != null) {
+            if (!cachedNames.isEmpty()) {
+                driverClassNames.addAll(Arrays.asList(cachedNames.split(",")));
+            }
+            return;
+        }
+
+        List<String> foundNames = new ArrayList<>();
+        try (JarFile currentFile = new JarFile(libFile, false)) {
+            Map<String, ClassInfo> hierarchy = readClassHierarchy(monitor, currentFile);
             if (monitor.isCanceled()) {
-                break;
+                return;
             }
-            if (!libFile.isDirectory()) {
-                findDriverClasses(monitor, findCL, libFile);
+            Map<String, Boolean> matchCache = new HashMap<>();
+            for (Map.Entry<String, ClassInfo> entry : hierarchy.entrySet()) {
+                String name = entry.getKey();
+                int access = entry.getValue().access;
+                if (name.contains("$") || (access & Opcodes.ACC_PUBLIC) == 0 || (access & Opcodes.ACC_ABSTRACT) != 0) {
+                    continue;
+                }
+                if (implementsInterface(hierarchy, matchCache, name)) {
+                    foundNames.add(name.replace('/', '.'));
+                }
             }
+        } catch (IOException e) {
+            log.debug(e);
+            return;
         }
-    }
+        Collections.sort(foundNames);
+        driverClassNames.addAll(foundNames);
 
-    private void findDriverClasses(DBRProgressMonitor monitor, ClassLoader findCL, File libFile) {
-        try {
-            JarFile currentFile = new JarFile(libFile, false);
-            monitor.beginTask(libFile.getName(), currentFile.size());
+        if (cacheFile != null) {
+            cache.setProperty(cacheKey, String.join(",", foundNames));
+            saveCache(cacheFile, cache);
+        }
+    }
 
-            for (Enumeration<?> e = currentFile.entries(); e.hasMoreElements(); ) {
-                {
-                    if (monitor.isCanceled()) {
+    /**
+     * Reads headers of all classes in the jar. Big jars are parsed by several threads.
+     */
+    private Map<String, ClassInfo> readClassHierarchy(DBRProgressMonitor monitor, JarFile currentFile)
+        throws InvocationTargetException, InterruptedException
+    {
+        List<JarEntry> classEntries = new ArrayList<>();
+        for (Enumeration<JarEntry> e = currentFile.entries(); e.hasMoreElements(); ) {
+            JarEntry current = e.nextElement();
+            if (current.getName().endsWith(CLASS_FILE_EXT)) {
+                classEntries.add(current);
+            }
+        }
+        Map<String, ClassInfo> hierarchy = new ConcurrentHashMap<>(classEntries.size());
+        int taskCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), classEntries.size() / MIN_ENTRIES_PER_TASK));
+        int entriesPerTask = (classEntries.size() + taskCount - 1) / taskCount;
+        List<DBRRunnableWithProgress> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < classEntries.size(); i += entriesPerTask) {
+            List<JarEntry> taskEntries = classEntries.subList(i, Math.min(i + entriesPerTask, classEntries.size()));
+            tasks.add(taskMonitor -> {
+                taskMonitor.beginTask(currentFile.getName(), taskEntries.size());
+                for (JarEntry entry : taskEntries) {
+                    if (taskMonitor.isCanceled()) {
                         break;
                     }
-                    JarEntry current = (JarEntry) e.nextElement();
-                    String fileName = current.getName();
-                    if (fileName.endsWith(CLASS_FILE_EXT) && !fileName.contains("$")) { //$NON-NLS-1$ //$NON-NLS-2$
-                        String className = fileName.replaceAll("/", ".").replace(CLASS_FILE_EXT, ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-                        monitor.subTask(className);
-                        try {
-                            if (implementsInterface(currentFile, current, 0)) {
-                                driverClassNames.add(className);
-                            }
-                        } catch (Throwable e1) {
-                            // do nothing
-                        }
-                        monitor.worked(1);
+                    try (InputStream classStream = currentFile.getInputStream(entry)) {
+                        ClassReader cr = new ClassReader(classStream);
+                        hierarchy.put(cr.getClassName(), new ClassInfo(cr));
+                    } catch (Throwable e) {
+                        // do nothing
                     }
+                    taskMonitor.worked(1);
                 }
-            }
-            monitor.done();
-        } catch (IOException e) {
-            log.debug(e);
+                taskMonitor.done();
+            });
         }
+        RuntimeUtils.runParallelTasks(monitor, currentFile.getName(), tasks);
+        return hierarchy;
     }
 
-    private boolean implementsInterface(JarFile currentFile, JarEntry current, int depth) throws IOException {
-        try (InputStream classStream = currentFile.getInputStream(current)) {
-            ClassReader cr = new ClassReader(classStream);
-            int access = cr.getAccess();
-            if (depth == 0 && ((access & Opcodes.ACC_PUBLIC) == 0 || (access & Opcodes.ACC_ABSTRACT) != 0)) {
-                return false;
-            }
-            final String superName = cr.getSuperName();
+    private boolean implementsInterface(Map<String, ClassInfo> hierarchy, Map<String, Boolean> matchCache, String className) {
+        Boolean cached = matchCache.get(className);
+        if (cached != null) {
+            return cached;
+        }
+        // Protects from cycles in broken class files
+        matchCache.put(className, Boolean.FALSE);
+        boolean result = false;
+        ClassInfo info = hierarchy.get(className);
+        if (info != null) {
+            String superName = info.superName;
             if (isInterface) {
-                String[] interfaces = cr.getInterfaces();
-                if (ArrayUtils.contains(interfaces, interfaceName)) {
-                    return true;
-                } else if (!CommonUtils.isEmpty(superName) && !superName.equals(OBJECT_CLASS_NAME)) {
-                    // Check recursively
-                    JarEntry jarEntry = currentFile.getJarEntry(superName + CLASS_FILE_EXT);
-                    if (jarEntry != null) {
-                        return implementsInterface(currentFile, jarEntry, depth + 1);
-                    }
-                }
-                for (String intName : interfaces) {
-                    JarEntry jarEntry = currentFile.getJarEntry(intName + CLASS_FILE_EXT);
-                    if (jarEntry != null) {
-                        if (implementsInterface(currentFile, jarEntry, depth + 1)) {
-                            return true;
+                if (ArrayUtils.contains(info.interfaces, interfaceName)) {
+                    result = true;
+                } else if (!CommonUtils.isEmpty(superName) && !superName.equals(OBJECT_CLASS_NAME) &&
+                    implementsInterface(hierarchy, matchCache, superName)) {
+                    result = true;
+                } else {
+                    for (String intName : info.interfaces) {
+                        if (implementsInterface(hierarchy, matchCache, intName)) {
+                            result = true;
+                            break;
                         }
                     }
                 }
             } else if (superName != null) {
-                // Superclass
-                if (interfaceName.equals(superName)) {
-                    return true;
-                }
-                JarEntry jarEntry = currentFile.getJarEntry(superName + CLASS_FILE_EXT);
-                if (jarEntry != null) {
-                    if (implementsInterface(currentFile, jarEntry, depth + 1)) {
-                        return true;
-                    }
+                result = interfaceName.equals(superName) || implementsInterface(hierarchy, matchCache, superName);
+            }
+        }
+        matchCache.put(className, result);
+        return result;
+    }
+
+    /**
+     * Found classes are cached by jar checksum, so the same driver version is never scanned twice
+     */
+    private static File getCacheFile(File libFile) {
+        String libPath = libFile.getAbsolutePath();
+        LibraryChecksum checksum = libraryChecksums.computeIfAbsent(libPath, path -> readChecksum(libFile));
+        if (checksum != null && !checksum.matches(libFile)) {
+            // Library was replaced
+            libraryChecksums.remove(libPath, checksum);
+            checksum = libraryChecksums.computeIfAbsent(libPath, path -> readChecksum(libFile));
+        }
+        if (checksum == null) {
+            return null;
+        }
+        File cacheFolder = new File(DBWorkbench.getPlatform().getWorkspace().getMetadataFolder(), CACHE_FOLDER);
+        return new File(cacheFolder, checksum.checksum + ".properties");
+    }
+
+    private static LibraryChecksum readChecksum(File libFile) {
+        // Read before the content, so changes made during the read are detected next time
+        long length = libFile.length();
+        long lastModified = libFile.lastModified();
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            try (InputStream is = new FileInputStream(libFile)) {
+                byte[] buffer = new byte[64 * 1024];
+                for (int count; (count = is.read(buffer)) > 0; ) {
+                    md5.update(buffer, 0, count);
                 }
             }
+            return new LibraryChecksum(length, lastModified, CommonUtils.toHexString(md5.digest()));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.debug("Can't evaluate driver library checksum", e);
+            return null;
+        }
+    }
+
+    private static Properties loadCache(File cacheFile) {
+        Properties cache = new Properties();
+        if (cacheFile != null && cacheFile.exists()) {
+            try (InputStream is = new FileInputStream(cacheFile)) {
+                cache.load(is);
+            } catch (IOException e) {
+                log.debug("Error reading driver classes cache", e);
+            }
+        }
+        return cache;
+    }
+
+    private static synchronized void saveCache(File cacheFile, Properties cache) {
+        File cacheFolder = cacheFile.getParentFile();
+        if (!cacheFolder.exists() && !cacheFolder.mkdirs()) {
+            log.debug("Can't create driver classes cache folder " + cacheFolder.getAbsolutePath());
+            return;
+        }
+        try (OutputStream os = new FileOutputStream(cacheFile)) {
+            cache.store(os, null);
+        } catch (IOException e) {
+            log.debug("Error writing driver classes cache", e);
         }
-        return false;
     }
 
 }
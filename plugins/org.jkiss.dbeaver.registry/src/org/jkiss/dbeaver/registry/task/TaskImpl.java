@@ -16,8 +16,6 @@
  */
 package org.jkiss.dbeaver.registry.task;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
@@ -28,15 +26,14 @@ import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTTaskEvent;
 import org.jkiss.dbeaver.model.task.DBTTaskRun;
 import org.jkiss.dbeaver.model.task.DBTTaskType;
-import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.*;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * TaskImpl
@@ -45,14 +42,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2, DBPObjectWithDescript
 
     private static final Log log = Log.getLog(TaskImpl.class);
 
-    private static final String META_FILE_NAME = "meta.json";
-
-    private static final int MAX_RUNS_IN_STATS = 100;
     private static final TaskRunImpl VOID_RUN = new TaskRunImpl();
-    private static final Gson gson = new GsonBuilder()
-        .setLenient()
-        .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
-        .create();
 
     private final DBPProject project;
     private final String id;
@@ -63,10 +53,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2, DBPObjectWithDescript
     private DBTTaskType type;
     private Map<String, Object> properties;
     private TaskRunImpl lastRun;
-
-    private static class RunStatistics {
-        private List<TaskRunImpl> runs = new ArrayList<>();
-    }
+    private final TaskRunHistory runHistory = new TaskRunHistory(this);
 
     public TaskImpl(@NotNull DBPProject project, @NotNull DBTTaskType type, @NotNull String id, @NotNull String label, @Nullable String description, @NotNull Date createTime, @Nullable Date updateTime) {
         this.project = project;
@@ -146,10 +133,8 @@ public class TaskImpl implements DBTTask, DBPNamedObject2, DBPObjectWithDescript
     @Override
     public DBTTaskRun getLastRun() {
         if (lastRun == null) {
-            synchronized (this) {
-                List<TaskRunImpl> runs = loadRunStatistics().runs;
-                lastRun = runs.isEmpty() ? VOID_RUN : runs.get(runs.size() - 1);
-            }
+            TaskRunImpl run = runHistory.getLastRun();
+            lastRun = run == null ? VOID_RUN : run;
         }
         return lastRun == VOID_RUN ? null : lastRun;
     }
@@ -157,7 +142,8 @@ public class TaskImpl implements DBTTask, DBPNamedObject2, DBPObjectWithDescript
     @NotNull
     @Override
     public DBTTaskRun[] getRunStatistics() {
-        return loadRunStatistics().runs.toArray(new DBTTaskRun[0]);
+        List<TaskRunImpl> runs = runHistory.getRuns();
+        return runs.toArray(new DBTTaskRun[0]);
     }
 
     @NotNull
@@ -173,9 +159,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2, DBPObjectWithDescript
         if (runLog.exists() && !runLog.delete()) {
             log.error("Can't delete log file '" + runLog.getAbsolutePath() + "'");
         }
-        RunStatistics runStatistics = loadRunStatistics();
-        runStatistics.runs.remove(taskRun);
-        flushRunStatistics(runStatistics);
+        runHistory.removeRun(taskRun);
         if (CommonUtils.equalObjects(lastRun, taskRun)) {
             lastRun = null;
         }
@@ -195,8 +179,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2, DBPObjectWithDescript
                 log.error("Can't delete logs folder '" + statsFolder.getAbsolutePath() + "'");
             }
         }
-        RunStatistics runStatistics = new RunStatistics();
-        flushRunStatistics(runStatistics);
+        runHistory.clear();
         lastRun = null;
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
@@ -225,55 +208,14 @@ public class TaskImpl implements DBTTask, DBPNamedObject2, DBPObjectWithDescript
         return taskStatsFolder;
     }
 
-    private RunStatistics loadRunStatistics() {
-        File metaFile = new File(getTaskStatsFolder(false), META_FILE_NAME);
-        if (!metaFile.exists()) {
-            return new RunStatistics();
-        }
-        try (FileReader reader = new FileReader(metaFile)) {
-            return gson.fromJson(reader, RunStatistics.class);
-        } catch (IOException e) {
-            log.error("Error reading task run statistics", e);
-            return new RunStatistics();
-        }
-    }
-
-    private void flushRunStatistics(RunStatistics stats) {
-        File metaFile = new File(getTaskStatsFolder(true), META_FILE_NAME);
-        try (FileWriter writer = new FileWriter(metaFile)) {
-            String metaContent = gson.toJson(stats);
-            writer.write(metaContent);
-        } catch (IOException e) {
-            log.error("Error writing task run statistics", e);
-        }
-    }
-
     void addNewRun(TaskRunImpl taskRun) {
-        synchronized (this) {
-            lastRun = taskRun;
-            RunStatistics stats = loadRunStatistics();
-            stats.runs.add(taskRun);
-            while (stats.runs.size() > MAX_RUNS_IN_STATS) {
-                stats.runs.remove(0);
-            }
-            flushRunStatistics(stats);
-        }
+        lastRun = taskRun;
+        runHistory.addRun(taskRun);
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
     void updateRun(TaskRunImpl taskRun) {
-        synchronized (this) {
-            RunStatistics stats = loadRunStatistics();
-            List<TaskRunImpl> runs = stats.runs;
-            for (int i = 0; i < runs.size(); i++) {
-                TaskRunImpl run = runs.get(i);
-                if (CommonUtils.equalObjects(run.getId(), taskRun.getId())) {
-                    runs.set(i, taskRun);
-                    break;
-                }
-            }
-            flushRunStatistics(stats);
-        }
+        runHistory.updateRun(taskRun);
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
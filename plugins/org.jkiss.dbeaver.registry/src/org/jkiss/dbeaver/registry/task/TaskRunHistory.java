@@ -0,0 +1,312 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.task.DBTTaskRun;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Task run history.
+ *
+ * Runs are stored in append-only segment files. Each record (new run, run update or run removal) is a single json line,
+ * so recording a run doesn't read or rewrite previous records. When segment reaches max records count a new segment is started.
+ * When there are too many segments they are compacted: the last state of each not removed run is written into a new segment
+ * and the old segments are deleted. So no runs are lost, only their intermediate records.
+ * The most recent runs are kept in memory. They are read from the tail segments on the first access.
+ * Legacy meta.json is migrated on the first access and then kept unchanged (it is still read by older versions).
+ */
+class TaskRunHistory {
+
+    private static final Log log = Log.getLog(TaskRunHistory.class);
+
+    // Legacy statistics file which was rewritten on each run
+    private static final String META_FILE_NAME = "meta.json";
+
+    private static final String SEGMENT_FILE_PREFIX = "history_";
+    private static final String SEGMENT_FILE_EXT = ".jsonl";
+
+    private static final int MAX_RUNS_IN_STATS = 100;
+    private static final int MAX_SEGMENT_RECORDS = 1000;
+    private static final int MAX_SEGMENTS = 10;
+
+    private static final Gson gson = new GsonBuilder()
+        .setLenient()
+        .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
+        .create();
+
+    private static class RunRecord {
+        private TaskRunImpl run;
+        private String removed;
+    }
+
+    private static class LegacyRunStatistics {
+        private List<TaskRunImpl> runs = new ArrayList<>();
+    }
+
+    private final TaskImpl task;
+    // Recent runs by id, in run order
+    private LinkedHashMap<String, TaskRunImpl> recentRuns;
+    private long segmentNumber;
+    private int segmentRecords;
+
+    TaskRunHistory(TaskImpl task) {
+        this.task = task;
+    }
+
+    synchronized List<TaskRunImpl> getRuns() {
+        return new ArrayList<>(getRecentRuns().values());
+    }
+
+    @Nullable
+    synchronized TaskRunImpl getLastRun() {
+        TaskRunImpl lastRun = null;
+        for (TaskRunImpl run : getRecentRuns().values()) {
+            lastRun = run;
+        }
+        return lastRun;
+    }
+
+    synchronized void addRun(TaskRunImpl taskRun) {
+        Map<String, TaskRunImpl> runs = getRecentRuns();
+        runs.put(taskRun.getId(), taskRun);
+        if (runs.size() > MAX_RUNS_IN_STATS) {
+            Iterator<TaskRunImpl> iterator = runs.values().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+        RunRecord record = new RunRecord();
+        record.run = taskRun;
+        appendRecord(record);
+    }
+
+    synchronized void updateRun(TaskRunImpl taskRun) {
+        Map<String, TaskRunImpl> runs = getRecentRuns();
+        if (!runs.containsKey(taskRun.getId())) {
+            // Run was removed. Its record would resurrect it.
+            return;
+        }
+        runs.put(taskRun.getId(), taskRun);
+        RunRecord record = new RunRecord();
+        record.run = taskRun;
+        appendRecord(record);
+    }
+
+    synchronized void removeRun(DBTTaskRun taskRun) {
+        getRecentRuns().remove(taskRun.getId());
+        RunRecord record = new RunRecord();
+        record.removed = taskRun.getId();
+        appendRecord(record);
+    }
+
+    /**
+     * Resets in-memory state. Files are removed by the caller.
+     */
+    synchronized void clear() {
+        recentRuns = new LinkedHashMap<>();
+        segmentNumber = 0;
+        segmentRecords = 0;
+    }
+
+    private LinkedHashMap<String, TaskRunImpl> getRecentRuns() {
+        if (recentRuns == null) {
+            recentRuns = loadRecentRuns();
+        }
+        return recentRuns;
+    }
+
+    private void appendRecord(RunRecord record) {
+        File statsFolder = task.getTaskStatsFolder(true);
+        if (segmentNumber == 0 || segmentRecords >= MAX_SEGMENT_RECORDS) {
+            if (listSegments(statsFolder).size() >= MAX_SEGMENTS) {
+                compactSegments(statsFolder);
+            }
+            if (segmentNumber == 0 || segmentRecords >= MAX_SEGMENT_RECORDS) {
+                segmentNumber++;
+                segmentRecords = 0;
+            }
+        }
+        File segmentFile = new File(statsFolder, getSegmentFileName(segmentNumber));
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(segmentFile, true), StandardCharsets.UTF_8)) {
+            writer.write(gson.toJson(record));
+            writer.write('\n');
+            segmentRecords++;
+        } catch (IOException e) {
+            log.error("Error writing task run history", e);
+        }
+    }
+
+    private LinkedHashMap<String, TaskRunImpl> loadRecentRuns() {
+        File statsFolder = task.getTaskStatsFolder(false);
+        List<Long> segments = listSegments(statsFolder);
+        if (segments.isEmpty()) {
+            segmentNumber = 0;
+            segmentRecords = 0;
+            return migrateLegacyStatistics(statsFolder);
+        }
+        segmentNumber = segments.get(segments.size() - 1);
+
+        // Read segments from the newest one. The latest record of each run wins.
+        Set<String> processedIds = new HashSet<>();
+        List<TaskRunImpl> runs = new ArrayList<>();
+        for (int i = segments.size() - 1; i >= 0 && runs.size() < MAX_RUNS_IN_STATS; i--) {
+            List<RunRecord> records = readSegment(new File(statsFolder, getSegmentFileName(segments.get(i))));
+            if (i == segments.size() - 1) {
+                segmentRecords = records.size();
+            }
+            for (int k = records.size() - 1; k >= 0 && runs.size() < MAX_RUNS_IN_STATS; k--) {
+                RunRecord record = records.get(k);
+                if (record.removed != null) {
+                    processedIds.add(record.removed);
+                } else if (record.run != null && processedIds.add(record.run.getId())) {
+                    runs.add(record.run);
+                }
+            }
+        }
+        // Runs are collected in order of their last records, restore run order
+        Collections.reverse(runs);
+        runs.sort(Comparator.comparing(TaskRunImpl::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+        LinkedHashMap<String, TaskRunImpl> result = new LinkedHashMap<>();
+        for (TaskRunImpl run : runs) {
+            result.put(run.getId(), run);
+        }
+        return result;
+    }
+
+    private List<RunRecord> readSegment(File segmentFile) {
+        List<RunRecord> records = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(segmentFile), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (CommonUtils.isEmptyTrimmed(line)) {
+                    continue;
+                }
+                try {
+                    RunRecord record = gson.fromJson(line, RunRecord.class);
+                    if (record != null) {
+                        records.add(record);
+                    }
+                } catch (JsonParseException e) {
+                    // Record may be broken if the application was terminated during write
+                    log.debug("Skip broken task run record in '" + segmentFile.getAbsolutePath() + "'", e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading task run history", e);
+        }
+        return records;
+    }
+
+    private LinkedHashMap<String, TaskRunImpl> migrateLegacyStatistics(File statsFolder) {
+        LinkedHashMap<String, TaskRunImpl> result = new LinkedHashMap<>();
+        File metaFile = new File(statsFolder, META_FILE_NAME);
+        if (!metaFile.exists()) {
+            return result;
+        }
+        LegacyRunStatistics statistics = null;
+        try (Reader reader = new InputStreamReader(new FileInputStream(metaFile), StandardCharsets.UTF_8)) {
+            statistics = gson.fromJson(reader, LegacyRunStatistics.class);
+        } catch (IOException | JsonParseException e) {
+            log.error("Error reading task run statistics", e);
+        }
+        if (statistics != null && statistics.runs != null) {
+            for (TaskRunImpl run : statistics.runs) {
+                result.put(run.getId(), run);
+                RunRecord record = new RunRecord();
+                record.run = run;
+                appendRecord(record);
+            }
+        }
+        // Legacy file is not deleted. Segments exist now so it won't be migrated again.
+        return result;
+    }
+
+    /**
+     * Writes the last state of all not removed runs into a new segment and deletes all previous segments
+     */
+    private void compactSegments(File statsFolder) {
+        List<Long> segments = listSegments(statsFolder);
+        if (segments.isEmpty()) {
+            return;
+        }
+        // Replay all segments from the oldest one
+        LinkedHashMap<String, TaskRunImpl> liveRuns = new LinkedHashMap<>();
+        for (Long segment : segments) {
+            for (RunRecord record : readSegment(new File(statsFolder, getSegmentFileName(segment)))) {
+                if (record.removed != null) {
+                    liveRuns.remove(record.removed);
+                } else if (record.run != null) {
+                    liveRuns.put(record.run.getId(), record.run);
+                }
+            }
+        }
+        long compactSegment = segments.get(segments.size() - 1) + 1;
+        File compactFile = new File(statsFolder, getSegmentFileName(compactSegment));
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(compactFile), StandardCharsets.UTF_8)) {
+            for (TaskRunImpl run : liveRuns.values()) {
+                RunRecord record = new RunRecord();
+                record.run = run;
+                writer.write(gson.toJson(record));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            // Keep old segments
+            log.error("Error compacting task run history", e);
+            if (!compactFile.delete()) {
+                log.debug("Can't delete task run history segment '" + compactFile.getAbsolutePath() + "'");
+            }
+            return;
+        }
+        segmentNumber = compactSegment;
+        segmentRecords = liveRuns.size();
+        for (Long segment : segments) {
+            File segmentFile = new File(statsFolder, getSegmentFileName(segment));
+            if (!segmentFile.delete()) {
+                log.debug("Can't delete task run history segment '" + segmentFile.getAbsolutePath() + "'");
+            }
+        }
+    }
+
+    private static List<Long> listSegments(File statsFolder) {
+        List<Long> segments = new ArrayList<>();
+        for (File file : ArrayUtils.safeArray(statsFolder.listFiles())) {
+            String fileName = file.getName();
+            if (fileName.startsWith(SEGMENT_FILE_PREFIX) && fileName.endsWith(SEGMENT_FILE_EXT)) {
+                long number = CommonUtils.toLong(fileName.substring(SEGMENT_FILE_PREFIX.length(), fileName.length() - SEGMENT_FILE_EXT.length()), -1);
+                if (number > 0) {
+                    segments.add(number);
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static String getSegmentFileName(long number) {
+        return SEGMENT_FILE_PREFIX + String.format("%06d", number) + SEGMENT_FILE_EXT;
+    }
+
+}
@@ -20,10 +20,9 @@ package org.jkiss.dbeaver.tasks.ui.nativetool;
 
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
-import org.eclipse.swt.widgets.Composite;
-import org.eclipse.swt.widgets.Table;
-import org.eclipse.swt.widgets.TableItem;
-import org.eclipse.swt.widgets.Text;
+import org.eclipse.swt.widgets.*;
+import org.jkiss.dbeaver.tasks.nativetool.AbstractImportExportSettings;
+import org.jkiss.dbeaver.tasks.ui.nativetool.internal.TaskNativeUIMessages;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.contentassist.ContentAssistUtils;
 import org.jkiss.dbeaver.ui.contentassist.SmartTextContentAdapter;
@@ -35,6 +34,8 @@ public abstract class AbstractNativeToolWizardPage<WIZARD extends AbstractNative
     protected final WIZARD wizard;
 
     protected Text extraCommandArgsText;
+    protected Spinner parallelProcessesSpinner;
+    protected Spinner compressionLevelSpinner;
 
     protected AbstractNativeToolWizardPage(WIZARD wizard, String pageName)
     {
@@ -64,10 +65,38 @@ public abstract class AbstractNativeToolWizardPage<WIZARD extends AbstractNative
 
     }
 
+    protected void createParallelProcessesInput(Composite outputGroup) {
+        parallelProcessesSpinner = UIUtils.createLabelSpinner(
+            outputGroup,
+            TaskNativeUIMessages.tools_wizard_page_settings_label_parallel_processes,
+            TaskNativeUIMessages.tools_wizard_page_settings_label_parallel_processes_tip,
+            wizard.getSettings().getMaxParallelProcesses(), 1, 32);
+        parallelProcessesSpinner.addModifyListener(e -> wizard.getSettings().setMaxParallelProcesses(parallelProcessesSpinner.getSelection()));
+    }
+
+    protected void createOutputCompressionInput(Composite outputGroup) {
+        if (!(wizard.getSettings() instanceof AbstractImportExportSettings)) {
+            return;
+        }
+        AbstractImportExportSettings<?> settings = (AbstractImportExportSettings<?>) wizard.getSettings();
+        compressionLevelSpinner = UIUtils.createLabelSpinner(
+            outputGroup,
+            TaskNativeUIMessages.tools_wizard_page_settings_label_compression_level,
+            TaskNativeUIMessages.tools_wizard_page_settings_label_compression_level_tip,
+            settings.getOutputCompressionLevel(), 0, AbstractImportExportSettings.MAX_COMPRESSION_LEVEL);
+        compressionLevelSpinner.addModifyListener(e -> settings.setOutputCompressionLevel(compressionLevelSpinner.getSelection()));
+    }
+
     public void saveState() {
         if (extraCommandArgsText != null) {
             wizard.getSettings().setExtraCommandArgs(extraCommandArgsText.getText());
         }
+        if (parallelProcessesSpinner != null) {
+            wizard.getSettings().setMaxParallelProcesses(parallelProcessesSpinner.getSelection());
+        }
+        if (compressionLevelSpinner != null && wizard.getSettings() instanceof AbstractImportExportSettings) {
+            ((AbstractImportExportSettings<?>) wizard.getSettings()).setOutputCompressionLevel(compressionLevelSpinner.getSelection());
+        }
     }
 
     protected void updateState() {
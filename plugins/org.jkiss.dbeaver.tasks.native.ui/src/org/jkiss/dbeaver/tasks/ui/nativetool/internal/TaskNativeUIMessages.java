@@ -35,6 +35,10 @@ public class TaskNativeUIMessages extends NLS {
 	public static String tools_wizard_page_log_task_progress;
 	public static String tools_wizard_page_log_task_progress_log;
 	public static String tools_wizard_page_log_task_started_at;
+	public static String tools_wizard_page_settings_label_parallel_processes;
+	public static String tools_wizard_page_settings_label_parallel_processes_tip;
+	public static String tools_wizard_page_settings_label_compression_level;
+	public static String tools_wizard_page_settings_label_compression_level_tip;
 
     static {
 		// initialize resource bundle
@@ -28,8 +28,12 @@ import java.io.File;
 
 public abstract class AbstractImportExportSettings<BASE_OBJECT extends DBSObject> extends AbstractNativeToolSettings<BASE_OBJECT> {
 
+    public static final String PROP_NAME_COMPRESSION_LEVEL = "export.compressionLevel";
+    public static final int MAX_COMPRESSION_LEVEL = 9;
+
     private File outputFolder = new File(RuntimeUtils.getUserHomeDir().getAbsolutePath());
     private String outputFilePattern;
+    private int outputCompressionLevel;
 
     public File getOutputFolder() {
         return outputFolder;
@@ -47,6 +51,17 @@ public abstract class AbstractImportExportSettings<BASE_OBJECT extends DBSObject
         this.outputFilePattern = outputFilePattern;
     }
 
+    /**
+     * GZip compression level of dump files written by the tool handler (1-9). 0 means no compression.
+     */
+    public int getOutputCompressionLevel() {
+        return outputCompressionLevel;
+    }
+
+    public void setOutputCompressionLevel(int outputCompressionLevel) {
+        this.outputCompressionLevel = Math.max(0, Math.min(MAX_COMPRESSION_LEVEL, outputCompressionLevel));
+    }
+
     public void fillExportObjectsFromInput() {
 
     }
@@ -59,6 +74,9 @@ public abstract class AbstractImportExportSettings<BASE_OBJECT extends DBSObject
             this.outputFilePattern = "dump-${database}-${timestamp}.sql";
         }
         outputFolder = new File(CommonUtils.toString(store.getString("export.outputFolder"), outputFolder.getAbsolutePath()));
+        if (store.contains(PROP_NAME_COMPRESSION_LEVEL)) {
+            setOutputCompressionLevel(store.getInt(PROP_NAME_COMPRESSION_LEVEL));
+        }
     }
 
     @Override
@@ -66,6 +84,7 @@ public abstract class AbstractImportExportSettings<BASE_OBJECT extends DBSObject
         super.saveSettings(runnableContext, preferenceStore);
         preferenceStore.setValue("export.outputFilePattern", this.outputFilePattern);
         preferenceStore.setValue("export.outputFolder", this.outputFolder.getAbsolutePath());
+        preferenceStore.setValue(PROP_NAME_COMPRESSION_LEVEL, this.outputCompressionLevel);
     }
 
 }
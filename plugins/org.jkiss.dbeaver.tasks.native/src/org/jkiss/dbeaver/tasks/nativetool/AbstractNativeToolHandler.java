@@ -11,6 +11,7 @@ import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTTaskExecutionListener;
@@ -18,15 +19,27 @@ import org.jkiss.dbeaver.model.task.DBTTaskHandler;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.ProgressStreamReader;
 import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.IOUtils;
 
 import java.io.*;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.text.NumberFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeToolSettings<BASE_OBJECT>, BASE_OBJECT extends DBSObject, PROCESS_ARG> implements DBTTaskHandler {
 
+    // Jobs which write output of running processes
+    private final Map<Process, List<DumpJob>> processDumpJobs = new ConcurrentHashMap<>();
+
     @Override
     public void executeTask(
         @NotNull DBRRunnableContext runnableContext,
@@ -79,6 +92,14 @@ public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeT
         return true;
     }
 
+    /**
+     * Processes for different objects are independent and may run at the same time
+     * (see {@link AbstractNativeToolSettings#getMaxParallelProcesses()}).
+     */
+    protected boolean isParallelExecutionSupported() {
+        return false;
+    }
+
     private void validateClientHome(DBRProgressMonitor monitor, SETTINGS settings) throws DBCException {
         DBPDataSourceContainer dataSourceContainer = settings.getDataSourceContainer();
         if (isNativeClientHomeRequired()) {
@@ -142,6 +163,37 @@ public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeT
         return true;
     }
 
+    /**
+     * Starts dump job which reads process output. Process is finished only after its dump jobs are finished.
+     */
+    protected void startDumpJob(Process process, DumpJob job) {
+        processDumpJobs.computeIfAbsent(process, p -> Collections.synchronizedList(new ArrayList<>())).add(job);
+        job.start();
+    }
+
+    /**
+     * Waits until dump jobs of the process write all output. Rethrows dump error.
+     */
+    private void finishDumpJobs(Process process) throws IOException, InterruptedException {
+        List<DumpJob> jobs = processDumpJobs.remove(process);
+        if (jobs == null) {
+            return;
+        }
+        IOException error = null;
+        for (DumpJob job : jobs) {
+            try {
+                job.waitForFinish();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
     protected void startProcessHandler(DBRProgressMonitor monitor, DBTTask task, SETTINGS settings, PROCESS_ARG arg, ProcessBuilder processBuilder, Process process, Log log) throws IOException {
         LogReaderJob logReaderJob = new LogReaderJob(
             task,
@@ -166,26 +218,38 @@ public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeT
             setupProcessParameters(settings, arg, processBuilder);
             Process process = processBuilder.start();
 
-            startProcessHandler(monitor, task, settings, arg, processBuilder, process, log);
-
-            monitor.subTask("Executing");
-            Thread.sleep(100);
+            long startTime = System.currentTimeMillis();
+            try {
+                startProcessHandler(monitor, task, settings, arg, processBuilder, process, log);
 
-            for (; ; ) {
+                monitor.subTask("Executing");
                 Thread.sleep(100);
-                if (monitor.isCanceled()) {
-                    process.destroy();
-                }
-                try {
-                    final int exitCode = process.exitValue();
-                    validateErrorCode(exitCode);
-                } catch (IllegalThreadStateException e) {
-                    // Still running
-                    continue;
+
+                for (; ; ) {
+                    Thread.sleep(100);
+                    if (monitor.isCanceled()) {
+                        process.destroy();
+                    }
+                    try {
+                        final int exitCode = process.exitValue();
+                        validateErrorCode(exitCode);
+                    } catch (IllegalThreadStateException e) {
+                        // Still running
+                        continue;
+                    }
+                    break;
                 }
-                break;
+            } finally {
+                // Process output may still be being written
+                finishDumpJobs(process);
             }
             //process.waitFor();
+            PrintStream logWriter = settings.getLogWriter();
+            if (logWriter != null) {
+                logWriter.println("Process " + execPath.getName() + " (" + arg + ") finished in " +
+                    RuntimeUtils.formatExecutionTime(System.currentTimeMillis() - startTime));
+                logWriter.flush();
+            }
         } catch (IOException e) {
             log.error("IO error: " + e.getMessage());
             throw e;
@@ -236,10 +300,16 @@ public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeT
 
         boolean isSuccess = true;
         try {
-            for (PROCESS_ARG arg : getRunInfo(settings)) {
-                if (monitor.isCanceled()) break;
-                if (!executeProcess(monitor, task, settings, arg, log)) {
-                    isSuccess = false;
+            Collection<PROCESS_ARG> runInfo = getRunInfo(settings);
+            int maxParallel = isParallelExecutionSupported() ? Math.min(settings.getMaxParallelProcesses(), runInfo.size()) : 1;
+            if (maxParallel > 1) {
+                isSuccess = executeProcessesInParallel(monitor, task, settings, runInfo, maxParallel, log);
+            } else {
+                for (PROCESS_ARG arg : runInfo) {
+                    if (monitor.isCanceled()) break;
+                    if (!executeProcess(monitor, task, settings, arg, log)) {
+                        isSuccess = false;
+                    }
                 }
             }
             DBPDataSourceContainer dataSourceContainer = settings.getDataSourceContainer();
@@ -255,6 +325,9 @@ public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeT
             }
         } catch (InterruptedException e) {
             throw e;
+        } catch (InvocationTargetException e) {
+            log.error(e.getTargetException());
+            throw new DBException("Error executing process", e.getTargetException());
         } catch (Exception e) {
             log.error(e);
             throw new DBException("Error executing process", e);
@@ -274,11 +347,43 @@ public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeT
         return isSuccess;
     }
 
+    private boolean executeProcessesInParallel(DBRProgressMonitor monitor, DBTTask task, SETTINGS settings, Collection<PROCESS_ARG> runInfo, int maxParallel, Log log)
+        throws InvocationTargetException, InterruptedException
+    {
+        AtomicBoolean isSuccess = new AtomicBoolean(true);
+        List<DBRRunnableWithProgress> processTasks = new ArrayList<>(runInfo.size());
+        for (PROCESS_ARG arg : runInfo) {
+            processTasks.add(processMonitor -> {
+                // Process output goes to the task log
+                Log.setLogWriter(settings.getLogWriter());
+                try {
+                    if (!executeProcess(processMonitor, task, settings, arg, log)) {
+                        isSuccess.set(false);
+                    }
+                } catch (IOException e) {
+                    throw new InvocationTargetException(e);
+                } finally {
+                    Log.setLogWriter(null);
+                }
+            });
+        }
+        monitor.subTask("Run " + runInfo.size() + " processes (" + maxParallel + " in parallel)");
+        RuntimeUtils.runParallelTasks(monitor, task.getName(), processTasks, maxParallel);
+        return isSuccess.get();
+    }
+
     public static abstract class DumpJob extends Thread {
+        protected static final int COPY_BUFFER_SIZE = 1024 * 1024;
+
         protected DBRProgressMonitor monitor;
         protected InputStream input;
         protected File outFile;
         protected Log log;
+        // Task log of the thread which started the dump
+        private final PrintStream logWriter;
+        private int compressionLevel;
+        private long bytesWritten;
+        private volatile IOException error;
 
         protected DumpJob(String name, DBRProgressMonitor monitor, InputStream stream, File outFile, Log log) {
             super(name);
@@ -286,14 +391,84 @@ public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeT
             this.input = stream;
             this.outFile = outFile;
             this.log = log;
+            this.logWriter = Log.getLogWriter();
+        }
+
+        /**
+         * Sets GZip compression level (1-9) of the output file. 0 disables compression.
+         */
+        public void setCompressionLevel(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+        }
+
+        public boolean isCompressOutput() {
+            return compressionLevel > 0;
+        }
+
+        protected void addBytesWritten(long count) {
+            bytesWritten += count;
+        }
+
+        /**
+         * Opens output file stream. Output is compressed in-process if compression is enabled.
+         * Bytes written to the file (after compression) are counted.
+         */
+        protected OutputStream openOutputStream() throws IOException {
+            if (isCompressOutput() && !outFile.getName().endsWith(NativeToolUtils.GZIP_FILE_EXTENSION)) {
+                outFile = new File(outFile.getParentFile(), outFile.getName() + NativeToolUtils.GZIP_FILE_EXTENSION);
+            }
+            OutputStream fileOutput = new FilterOutputStream(new FileOutputStream(outFile)) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    addBytesWritten(1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    addBytesWritten(len);
+                }
+            };
+            if (!isCompressOutput()) {
+                return fileOutput;
+            }
+            final int level = Math.min(compressionLevel, Deflater.BEST_COMPRESSION);
+            return new GZIPOutputStream(fileOutput, COPY_BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        /**
+         * Waits until all output is written
+         *
+         * @throws IOException if dump failed
+         */
+        public void waitForFinish() throws IOException, InterruptedException {
+            join();
+            if (error != null) {
+                throw error;
+            }
         }
 
         @Override
         public final void run() {
+            long startTime = System.currentTimeMillis();
             try {
                 runDump();
+                if (logWriter != null) {
+                    long workTime = Math.max(System.currentTimeMillis() - startTime, 1);
+                    NumberFormat numberFormat = NumberFormat.getInstance();
+                    logWriter.println(getName() + ": " + numberFormat.format(bytesWritten) + " bytes written to " + outFile.getName() +
+                        " in " + RuntimeUtils.formatExecutionTime(workTime) +
+                        " (" + numberFormat.format(bytesWritten * 1000 / workTime / 1024) + " Kb/s)");
+                    logWriter.flush();
+                }
             } catch (IOException e) {
-                log.error(e);
+                // Reported by the process handler
+                error = e;
             }
         }
 
@@ -309,31 +484,66 @@ public abstract class AbstractNativeToolHandler<SETTINGS extends AbstractNativeT
         @Override
         public void runDump() throws IOException {
             monitor.beginTask(getName(), 100);
+            try {
+                if (isCompressOutput()) {
+                    copyCompressed();
+                } else {
+                    copyDirect();
+                }
+            } finally {
+                monitor.done();
+            }
+        }
+
+        private void copyCompressed() throws IOException {
             long totalBytesDumped = 0;
             long prevStatusUpdateTime = 0;
-            byte[] buffer = new byte[10000];
-            try {
-                NumberFormat numberFormat = NumberFormat.getInstance();
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            NumberFormat numberFormat = NumberFormat.getInstance();
 
-                try (OutputStream output = new FileOutputStream(outFile)) {
-                    for (; ; ) {
-                        int count = input.read(buffer);
-                        if (count <= 0) {
-                            break;
-                        }
-                        totalBytesDumped += count;
-                        long currentTime = System.currentTimeMillis();
-                        if (currentTime - prevStatusUpdateTime > 300) {
-                            monitor.subTask(numberFormat.format(totalBytesDumped) + " bytes");
-                            prevStatusUpdateTime = currentTime;
-                        }
-                        output.write(buffer, 0, count);
+            try (OutputStream output = openOutputStream()) {
+                for (; ; ) {
+                    int count = input.read(buffer);
+                    if (count <= 0) {
+                        break;
+                    }
+                    totalBytesDumped += count;
+                    long currentTime = System.currentTimeMillis();
+                    if (currentTime - prevStatusUpdateTime > 300) {
+                        monitor.subTask(numberFormat.format(totalBytesDumped) + " bytes");
+                        prevStatusUpdateTime = currentTime;
+                    }
+                    output.write(buffer, 0, count);
+                }
+                output.flush();
+            }
+        }
+
+        /**
+         * Moves process output to the file channel without intermediate heap buffers
+         */
+        private void copyDirect() throws IOException {
+            long totalBytesDumped = 0;
+            long prevStatusUpdateTime = 0;
+            NumberFormat numberFormat = NumberFormat.getInstance();
+
+            try (FileChannel output = FileChannel.open(outFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ReadableByteChannel inputChannel = Channels.newChannel(input);
+                for (; ; ) {
+                    // Channel transfer reads until the requested count or end of stream
+                    long count = output.transferFrom(inputChannel, totalBytesDumped, COPY_BUFFER_SIZE);
+                    totalBytesDumped += count;
+                    long currentTime = System.currentTimeMillis();
+                    if (currentTime - prevStatusUpdateTime > 300) {
+                        monitor.subTask(numberFormat.format(totalBytesDumped) + " bytes");
+                        prevStatusUpdateTime = currentTime;
+                    }
+                    if (count < COPY_BUFFER_SIZE) {
+                        break;
                     }
-                    output.flush();
                 }
-            } finally {
-                monitor.done();
             }
+            addBytesWritten(totalBytesDumped);
         }
     }
 
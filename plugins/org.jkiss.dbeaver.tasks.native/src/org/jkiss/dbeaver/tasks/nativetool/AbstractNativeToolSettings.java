@@ -42,6 +42,8 @@ public abstract class AbstractNativeToolSettings<BASE_OBJECT extends DBSObject>
 
     private static final Log log = Log.getLog(AbstractNativeToolSettings.class);
 
+    public static final String PROP_NAME_PARALLEL_PROCESSES = "tool.parallelProcesses";
+
     private final String PROP_NAME_EXTRA_ARGS = "tools.wizard." + getClass().getSimpleName() + ".extraArgs";
 
     private DBPNativeClientLocation clientHome;
@@ -52,6 +54,7 @@ public abstract class AbstractNativeToolSettings<BASE_OBJECT extends DBSObject>
     private String toolUserName;
     private String toolUserPassword;
     private String extraCommandArgs;
+    private int maxParallelProcesses = 1;
 
     private DBPDataSourceContainer dataSourceContainer;
     private final List<BASE_OBJECT> databaseObjects = new ArrayList<>();
@@ -129,6 +132,17 @@ public abstract class AbstractNativeToolSettings<BASE_OBJECT extends DBSObject>
         this.extraCommandArgs = extraCommandArgs;
     }
 
+    /**
+     * Maximum number of tool processes which may run at the same time (if supported by the tool)
+     */
+    public int getMaxParallelProcesses() {
+        return maxParallelProcesses;
+    }
+
+    public void setMaxParallelProcesses(int maxParallelProcesses) {
+        this.maxParallelProcesses = Math.max(1, maxParallelProcesses);
+    }
+
     public void addExtraCommandArgs(List<String> cmd) {
         if (!CommonUtils.isEmptyTrimmed(extraCommandArgs)) {
             Collections.addAll(cmd, extraCommandArgs.split(" "));
@@ -198,6 +212,9 @@ public abstract class AbstractNativeToolSettings<BASE_OBJECT extends DBSObject>
         clientHomeName = preferenceStore.getString("clientHomeName");
         toolUserName  = preferenceStore.getString("tool.user");
         toolUserPassword = preferenceStore.getString("tool.password");
+        if (preferenceStore.contains(PROP_NAME_PARALLEL_PROCESSES)) {
+            setMaxParallelProcesses(preferenceStore.getInt(PROP_NAME_PARALLEL_PROCESSES));
+        }
 
         try {
             final SecuredPasswordEncrypter encrypter = new SecuredPasswordEncrypter();
@@ -229,6 +246,7 @@ public abstract class AbstractNativeToolSettings<BASE_OBJECT extends DBSObject>
         if (clientHomeName != null) {
             preferenceStore.setValue("clientHomeName", clientHomeName);
         }
+        preferenceStore.setValue(PROP_NAME_PARALLEL_PROCESSES, maxParallelProcesses);
 
         try {
             final SecuredPasswordEncrypter encrypter = new SecuredPasswordEncrypter();
@@ -10,6 +10,8 @@ public abstract class NativeToolUtils {
     public static final String VARIABLE_DATE = "date";
     public static final String VARIABLE_TIMESTAMP = "timestamp";
 
+    public static final String GZIP_FILE_EXTENSION = ".gz";
+
     public static boolean isSecureString(AbstractNativeToolSettings settings, String string) {
         String userPassword = settings.getDataSourceContainer().getActualConnectionConfiguration().getUserPassword();
         String toolUserPassword = settings.getToolUserPassword();
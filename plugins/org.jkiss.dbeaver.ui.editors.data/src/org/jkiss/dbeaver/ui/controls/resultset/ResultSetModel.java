@@ -57,6 +57,8 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Rows which don't match local filter
+    private List<ResultSetRow> hiddenRows = new ArrayList<>();
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -695,6 +697,7 @@ public class ResultSetModel {
         }
         if (reset) {
             updateRowColors(true, curRows);
+            updateRowColors(true, hiddenRows);
         }
     }
 
@@ -783,9 +786,10 @@ public class ResultSetModel {
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            hiddenRows.clear();
         }
         int rowCount = rows.size();
-        int firstRowNum = curRows.size();
+        int firstRowNum = curRows.size() + hiddenRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
             newRows.add(
@@ -799,6 +803,7 @@ public class ResultSetModel {
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.hiddenRows = new ArrayList<>();
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -823,7 +828,7 @@ public class ResultSetModel {
 
     @NotNull
     ResultSetRow addNewRow(int rowNum, @NotNull Object[] data) {
-        ResultSetRow newRow = new ResultSetRow(curRows.size(), data);
+        ResultSetRow newRow = new ResultSetRow(curRows.size() + hiddenRows.size(), data);
         newRow.setVisualNumber(rowNum);
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
@@ -880,10 +885,16 @@ public class ResultSetModel {
                 row.setRowNumber(row.getRowNumber() + delta);
             }
         }
+        for (ResultSetRow row : hiddenRows) {
+            if (row.getRowNumber() >= relative.getRowNumber()) {
+                row.setRowNumber(row.getRowNumber() + delta);
+            }
+        }
     }
 
     void releaseAllData() {
-        final List<ResultSetRow> oldRows = curRows;
+        final List<ResultSetRow> oldRows = new ArrayList<>(curRows);
+        oldRows.addAll(hiddenRows);
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
@@ -1013,34 +1024,44 @@ public class ResultSetModel {
         this.dataFilter.setAnyConstraint(filter.isAnyConstraint());
     }
 
-    public void resetOrdering() {
-        final boolean hasOrdering = dataFilter.hasOrdering();
+    /**
+     * Checks that all conditions of the filter can be evaluated over fetched rows
+     */
+    boolean isLocalFilterSupported(@NotNull DBDDataFilter filter) {
+        return new ResultSetRowFilter(this).isFilterSupported(filter);
+    }
 
-        // First sort in original order to reset multi-column orderings
-        curRows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
+    /**
+     * Filters fetched rows with current data filter conditions and reorders them.
+     * Rows which don't match filter are hidden but kept in model, so filter may be changed or reset without data re-read.
+     */
+    void applyLocalFilter() {
+        if (!hiddenRows.isEmpty()) {
+            curRows.addAll(hiddenRows);
+            hiddenRows.clear();
+        }
+        if (dataFilter.hasConditions()) {
+            BitSet matches = new ResultSetRowFilter(this).filterRows(curRows, dataFilter);
+            List<ResultSetRow> visibleRows = new ArrayList<>(matches.cardinality());
+            for (int i = 0; i < curRows.size(); i++) {
+                if (matches.get(i)) {
+                    visibleRows.add(curRows.get(i));
+                } else {
+                    hiddenRows.add(curRows.get(i));
+                }
+            }
+            curRows = visibleRows;
+        }
+        resetOrdering();
+    }
 
-        if (hasOrdering) {
+    public void resetOrdering() {
+        if (dataFilter.hasOrdering()) {
             // Sort locally
-            final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
-                int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(binding, row1);
-                    Object cell2 = getCellValue(binding, row2);
-                    result = DBUtils.compareDataValues(cell1, cell2);
-                    if (co.isOrderDescending()) {
-                        result = -result;
-                    }
-                    if (result != 0) {
-                        break;
-                    }
-                }
-                return result;
-            });
+            new ResultSetRowSorter(this).sortRows(curRows, dataFilter.getOrderConstraints());
+        } else {
+            // Restore original order
+            curRows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
         }
         for (int i = 0; i < curRows.size(); i++) {
             curRows.get(i).setVisualNumber(i);
@@ -40,9 +40,11 @@ import org.jkiss.dbeaver.ui.UIConfirmation;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.internal.ResultSetMessages;
 import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.sql.BatchUpdateException;
 import java.util.*;
 
 /**
@@ -52,6 +54,11 @@ class ResultSetPersister {
 
     private static final Log log = Log.getLog(ResultSetPersister.class);
 
+    // Maximum number of rows saved in a single batch
+    private static final int MAX_BATCH_SIZE = 1000;
+    // Maximum number of rows refreshed by a single query
+    private static final int MAX_REFRESH_CHUNK_SIZE = 200;
+
     /**
      * Data update listener
      */
@@ -694,6 +701,7 @@ class ResultSetPersister {
         private Throwable executeStatements(DBCSession session) {
             Map<String, Object> options = new LinkedHashMap<>();
             options.put(DBPScriptObject.OPTION_FULLY_QUALIFIED_NAMES, settings.isUseFullyQualifiedNames());
+            options.put(DBSDataManipulator.OPTION_DISABLE_BATCHES, !session.getDataSource().getInfo().supportsBatchUpdates());
 
             DBRProgressMonitor monitor = session.getProgressMonitor();
             DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
@@ -718,98 +726,14 @@ class ResultSetPersister {
                 }
             }
             try {
-                for (DataStatementInfo statement : ResultSetPersister.this.deleteStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.deleteData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                deleteStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                Throwable error = executeStatements(session, ResultSetPersister.this.deleteStatements, deleteStats, options);
+                if (error == null) {
+                    error = executeStatements(session, ResultSetPersister.this.insertStatements, insertStats, options);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.insertStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.insertData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            statement.needKeys() ? new KeyDataReceiver(statement) : null,
-                            new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                insertStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                if (error == null) {
+                    error = executeStatements(session, ResultSetPersister.this.updateStatements, updateStats, options);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.updateStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.updateData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.updateAttributes),
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            null,
-                            new ExecutionSource(dataContainer))) {
-                            // Make single array of values
-                            Object[] attributes = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
-                            for (int i = 0; i < statement.updateAttributes.size(); i++) {
-                                attributes[i] = statement.updateAttributes.get(i).getValue();
-                            }
-                            for (int i = 0; i < statement.keyAttributes.size(); i++) {
-                                attributes[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
-                            }
-                            // Execute
-                            batch.add(attributes);
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                updateStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
-                }
-
-                return null;
+                return error;
             } finally {
                 if (!generateScript && txnManager != null && this.savepoint != null) {
                     try {
@@ -822,12 +746,83 @@ class ResultSetPersister {
             }
         }
 
+        /**
+         * Executes statements grouped in batches. Each batch contains consecutive statements of the same shape.
+         */
+        @Nullable
+        private Throwable executeStatements(DBCSession session, List<DataStatementInfo> statements, DBCStatistics statistics, Map<String, Object> options) {
+            DBRProgressMonitor monitor = session.getProgressMonitor();
+            boolean useBatches = Boolean.FALSE.equals(options.get(DBSDataManipulator.OPTION_DISABLE_BATCHES));
+            for (List<DataStatementInfo> group : groupStatements(statements, useBatches)) {
+                if (monitor.isCanceled()) break;
+                DataStatementInfo firstStatement = group.get(0);
+                try {
+                    DBSDataManipulator dataContainer = getDataManipulator(firstStatement.entity);
+                    try (DBSDataManipulator.ExecuteBatch batch = openBatch(session, dataContainer, firstStatement)) {
+                        for (DataStatementInfo statement : group) {
+                            batch.add(statement.getBatchValues());
+                        }
+                        if (generateScript) {
+                            batch.generatePersistActions(session, script, options);
+                        } else {
+                            DBCStatistics bs = batch.execute(session, options);
+                            // Notify rsv container about statement execute
+                            this.notifyContainer(bs);
+
+                            statistics.accumulate(bs);
+                        }
+                    }
+                    for (DataStatementInfo statement : group) {
+                        processStatementChanges(statement);
+                    }
+                } catch (DBException e) {
+                    processStatementError(group, e, session);
+                    return e;
+                }
+                monitor.worked(group.size());
+            }
+            return null;
+        }
+
+        @NotNull
+        private DBSDataManipulator.ExecuteBatch openBatch(DBCSession session, DBSDataManipulator dataContainer, DataStatementInfo statement) throws DBCException {
+            if (statement.type == DBSManipulationType.DELETE) {
+                return dataContainer.deleteData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    new ExecutionSource(dataContainer));
+            } else if (statement.type == DBSManipulationType.INSERT) {
+                return dataContainer.insertData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    statement.needKeys() ? new KeyDataReceiver(statement) : null,
+                    new ExecutionSource(dataContainer));
+            } else {
+                return dataContainer.updateData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.updateAttributes),
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    null,
+                    new ExecutionSource(dataContainer));
+            }
+        }
+
         private void processStatementChanges(DataStatementInfo statement) {
             statement.executed = true;
         }
 
-        private void processStatementError(DataStatementInfo statement, DBCSession session) {
-            statement.executed = false;
+        private void processStatementError(List<DataStatementInfo> group, DBException error, DBCSession session) {
+            // Batch may fail after some of its rows were saved. Batch update counts say which ones.
+            int[] updateCounts = null;
+            for (Throwable ex = error; ex != null; ex = ex.getCause()) {
+                if (ex instanceof BatchUpdateException) {
+                    updateCounts = ((BatchUpdateException) ex).getUpdateCounts();
+                    break;
+                }
+            }
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).executed = updateCounts != null && i < updateCounts.length && updateCounts[i] != java.sql.Statement.EXECUTE_FAILED;
+            }
             if (!generateScript) {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
                 if (txnManager != null) {
@@ -917,6 +912,23 @@ class ResultSetPersister {
         }
     }
 
+    /**
+     * Splits statements into groups of consecutive statements with the same shape.
+     * Statements order doesn't change (e.g. cascade deletes must precede parent row delete).
+     */
+    private static List<List<DataStatementInfo>> groupStatements(List<DataStatementInfo> statements, boolean useBatches) {
+        List<List<DataStatementInfo>> groups = new ArrayList<>();
+        List<DataStatementInfo> curGroup = null;
+        for (DataStatementInfo statement : statements) {
+            if (curGroup == null || !useBatches || curGroup.size() >= MAX_BATCH_SIZE || !curGroup.get(0).hasSameShape(statement)) {
+                curGroup = new ArrayList<>();
+                groups.add(curGroup);
+            }
+            curGroup.add(statement);
+        }
+        return groups;
+    }
+
     /**
      * Data statement
      */
@@ -946,11 +958,54 @@ class ResultSetPersister {
             }
             return false;
         }
+
+        /**
+         * Statements of the same shape produce the same query text and may be executed in one batch.
+         * Statements which read generated keys are never batched.
+         */
+        boolean hasSameShape(DataStatementInfo statement) {
+            return type == statement.type &&
+                entity == statement.entity &&
+                !needKeys() && !statement.needKeys() &&
+                hasSameShape(keyAttributes, statement.keyAttributes) &&
+                hasSameShape(updateAttributes, statement.updateAttributes);
+        }
+
+        private static boolean hasSameShape(List<DBDAttributeValue> values1, List<DBDAttributeValue> values2) {
+            if (values1.size() != values2.size()) {
+                return false;
+            }
+            for (int i = 0; i < values1.size(); i++) {
+                DBDAttributeValue value1 = values1.get(i);
+                DBDAttributeValue value2 = values2.get(i);
+                // NULL values change query text (IS NULL criteria, skipped insert columns)
+                if (value1.getAttribute() != value2.getAttribute() ||
+                    DBUtils.isNullValue(value1.getValue()) != DBUtils.isNullValue(value2.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Object[] getBatchValues() {
+            if (type != DBSManipulationType.UPDATE) {
+                return DBDAttributeValue.getValues(keyAttributes);
+            }
+            // Make single array of values
+            Object[] values = new Object[updateAttributes.size() + keyAttributes.size()];
+            for (int i = 0; i < updateAttributes.size(); i++) {
+                values[i] = updateAttributes.get(i).getValue();
+            }
+            for (int i = 0; i < keyAttributes.size(); i++) {
+                values[updateAttributes.size() + i] = keyAttributes.get(i).getValue();
+            }
+            return values;
+        }
     }
 
     class RowDataReceiver implements DBDDataReceiver {
         private final DBDAttributeBinding[] curAttributes;
-        private Object[] rowValues;
+        private final List<Object[]> rows = new ArrayList<>();
 
         RowDataReceiver(DBDAttributeBinding[] curAttributes) {
             this.curAttributes = curAttributes;
@@ -980,13 +1035,14 @@ class ResultSetPersister {
                 }
             }
 
-            rowValues = new Object[curAttributes.length];
+            Object[] rowValues = new Object[curAttributes.length];
             for (int i = 0; i < curAttributes.length; i++) {
                 final DBDAttributeBinding attr = curAttributes[i];
                 DBDValueHandler valueHandler = attr.getValueHandler();
                 Object attrValue = valueHandler.fetchValueObject(session, resultSet, attr, i);
                 rowValues[i] = attrValue;
             }
+            rows.add(rowValues);
 
         }
 
@@ -1005,6 +1061,7 @@ class ResultSetPersister {
         private DBSDataContainer dataContainer;
         private DBDRowIdentifier rowIdentifier;
         private List<ResultSetRow> rows;
+        private Object[][] rowKeys;
 
         RowRefreshJob(DBCExecutionContext context, DBSDataContainer dataContainer, DBDRowIdentifier rowIdentifier, List<ResultSetRow> rows) {
             super("Refresh rows", context);
@@ -1018,6 +1075,7 @@ class ResultSetPersister {
             monitor.beginTask("Refresh updated rows", 1);
             try {
                 final Object[][] refreshValues = new Object[rows.size()][];
+                rowKeys = new Object[rows.size()][];
 
                 final DBDAttributeBinding[] curAttributes = viewer.getModel().getAttributes();
                 final AbstractExecutionSource executionSource = new AbstractExecutionSource(dataContainer, getExecutionContext(), this);
@@ -1025,31 +1083,42 @@ class ResultSetPersister {
                 if (idAttributes.isEmpty()) {
                     return Status.OK_STATUS;
                 }
+                // Positions of key attributes in fetched rows. Null if some key attribute is nested.
+                int[] keyIndexes = new int[idAttributes.size()];
+                for (int i = 0; i < idAttributes.size(); i++) {
+                    keyIndexes[i] = ArrayUtils.indexOf(curAttributes, idAttributes.get(i));
+                    if (keyIndexes[i] < 0) {
+                        keyIndexes = null;
+                        break;
+                    }
+                }
                 try (DBCSession session = getExecutionContext().openSession(monitor, DBCExecutionPurpose.UTIL, "Refresh row(s) after insert/update")) {
+                    List<Integer> chunk = new ArrayList<>();
                     for (int i = 0; i < rows.size(); i++) {
-                        ResultSetRow row = rows.get(i);
-                        List<DBDAttributeConstraint> constraints = new ArrayList<>();
-                        boolean hasKey = true;
-                        for (DBDAttributeBinding keyAttr : idAttributes) {
-                            final Object keyValue = viewer.getModel().getCellValue(keyAttr, row);
-                            if (DBUtils.isNullValue(keyValue)) {
-                                hasKey = false;
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                        Object[] keyValues = new Object[idAttributes.size()];
+                        for (int k = 0; k < idAttributes.size(); k++) {
+                            keyValues[k] = viewer.getModel().getCellValue(idAttributes.get(k), rows.get(i));
+                            if (DBUtils.isNullValue(keyValues[k])) {
+                                // No key value for this row
+                                keyValues = null;
                                 break;
                             }
-                            final DBDAttributeConstraint constraint = new DBDAttributeConstraint(keyAttr);
-                            constraint.setOperator(DBCLogicalOperator.EQUALS);
-                            constraint.setValue(keyValue);
-                            constraints.add(constraint);
                         }
-                        if (!hasKey) {
-                            // No key value for this row
+                        if (keyValues == null) {
                             continue;
                         }
-                        DBDDataFilter filter = new DBDDataFilter(constraints);
-
-                        RowDataReceiver dataReceiver = new RowDataReceiver(curAttributes);
-                        final DBCStatistics stats = dataContainer.readData(executionSource, session, dataReceiver, filter, 0, 0, DBSDataContainer.FLAG_NONE, 0);
-                        refreshValues[i] = dataReceiver.rowValues;
+                        rowKeys[i] = keyValues;
+                        chunk.add(i);
+                        if (keyIndexes == null || chunk.size() >= MAX_REFRESH_CHUNK_SIZE) {
+                            refreshRows(session, executionSource, curAttributes, keyIndexes, chunk, refreshValues);
+                            chunk.clear();
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        refreshRows(session, executionSource, curAttributes, keyIndexes, chunk, refreshValues);
                     }
                 }
 
@@ -1086,6 +1155,125 @@ class ResultSetPersister {
             }
             return Status.OK_STATUS;
         }
+
+        /**
+         * Reads rows of the chunk and maps them to model rows by key values.
+         * Rows with the same leading key values are read with a single query.
+         */
+        private void refreshRows(DBCSession session, DBCExecutionSource executionSource, DBDAttributeBinding[] curAttributes, @Nullable int[] keyIndexes, List<Integer> chunk, Object[][] refreshValues)
+            throws DBCException
+        {
+            if (keyIndexes == null) {
+                for (int rowIndex : chunk) {
+                    refreshValues[rowIndex] = readRow(session, executionSource, curAttributes, rowKeys[rowIndex]);
+                }
+                return;
+            }
+            Map<RowKey, List<Integer>> keyGroups = new LinkedHashMap<>();
+            for (int rowIndex : chunk) {
+                Object[] keyValues = rowKeys[rowIndex];
+                RowKey leadingKey = new RowKey(Arrays.copyOf(keyValues, keyValues.length - 1));
+                keyGroups.computeIfAbsent(leadingKey, k -> new ArrayList<>()).add(rowIndex);
+            }
+            for (List<Integer> group : keyGroups.values()) {
+                if (group.size() == 1) {
+                    refreshValues[group.get(0)] = readRow(session, executionSource, curAttributes, rowKeys[group.get(0)]);
+                } else {
+                    refreshKeyGroup(session, executionSource, curAttributes, keyIndexes, group, refreshValues);
+                }
+            }
+        }
+
+        private void refreshKeyGroup(DBCSession session, DBCExecutionSource executionSource, DBDAttributeBinding[] curAttributes, int[] keyIndexes, List<Integer> group, Object[][] refreshValues)
+            throws DBCException
+        {
+            RowDataReceiver dataReceiver = new RowDataReceiver(curAttributes);
+            dataContainer.readData(executionSource, session, dataReceiver, makeKeysFilter(group), 0, 0, DBSDataContainer.FLAG_NONE, 0);
+
+            Map<RowKey, Object[]> fetchedRows = new HashMap<>();
+            for (Object[] rowValues : dataReceiver.rows) {
+                Object[] keyValues = new Object[keyIndexes.length];
+                for (int k = 0; k < keyIndexes.length; k++) {
+                    keyValues[k] = rowValues[keyIndexes[k]];
+                }
+                fetchedRows.put(new RowKey(keyValues), rowValues);
+            }
+            for (int rowIndex : group) {
+                Object[] rowValues = fetchedRows.get(new RowKey(rowKeys[rowIndex]));
+                if (rowValues == null) {
+                    // Key value in model may differ from the value fetched from database
+                    // (e.g. because of value type or padding). Read such row separately.
+                    rowValues = readRow(session, executionSource, curAttributes, rowKeys[rowIndex]);
+                }
+                refreshValues[rowIndex] = rowValues;
+            }
+        }
+
+        @Nullable
+        private Object[] readRow(DBCSession session, DBCExecutionSource executionSource, DBDAttributeBinding[] curAttributes, Object[] keyValues)
+            throws DBCException
+        {
+            List<DBDAttributeBinding> idAttributes = rowIdentifier.getAttributes();
+            List<DBDAttributeConstraint> constraints = new ArrayList<>();
+            for (int k = 0; k < idAttributes.size(); k++) {
+                final DBDAttributeConstraint constraint = new DBDAttributeConstraint(idAttributes.get(k));
+                constraint.setOperator(DBCLogicalOperator.EQUALS);
+                constraint.setValue(keyValues[k]);
+                constraints.add(constraint);
+            }
+            DBDDataFilter filter = new DBDDataFilter(constraints);
+
+            RowDataReceiver dataReceiver = new RowDataReceiver(curAttributes);
+            dataContainer.readData(executionSource, session, dataReceiver, filter, 0, 0, DBSDataContainer.FLAG_NONE, 0);
+            return dataReceiver.rows.isEmpty() ? null : dataReceiver.rows.get(dataReceiver.rows.size() - 1);
+        }
+
+        /**
+         * Rows of the group have the same leading key values. They are filtered with equality on leading key attributes
+         * and IN predicate on the last key attribute. Values are bound as parameters, like in the single row refresh.
+         */
+        private DBDDataFilter makeKeysFilter(List<Integer> group) {
+            List<DBDAttributeBinding> idAttributes = rowIdentifier.getAttributes();
+            int lastKey = idAttributes.size() - 1;
+            List<DBDAttributeConstraint> constraints = new ArrayList<>();
+            Object[] leadingValues = rowKeys[group.get(0)];
+            for (int k = 0; k < lastKey; k++) {
+                final DBDAttributeConstraint constraint = new DBDAttributeConstraint(idAttributes.get(k));
+                constraint.setOperator(DBCLogicalOperator.EQUALS);
+                constraint.setValue(leadingValues[k]);
+                constraints.add(constraint);
+            }
+            Object[] lastValues = new Object[group.size()];
+            for (int i = 0; i < group.size(); i++) {
+                lastValues[i] = rowKeys[group.get(i)][lastKey];
+            }
+            final DBDAttributeConstraint constraint = new DBDAttributeConstraint(idAttributes.get(lastKey));
+            constraint.setOperator(DBCLogicalOperator.IN);
+            constraint.setValue(lastValues);
+            constraints.add(constraint);
+            return new DBDDataFilter(constraints);
+        }
+    }
+
+    /**
+     * Row key values. Array values (e.g. binary keys) are compared by content.
+     */
+    private static class RowKey {
+        private final Object[] values;
+
+        RowKey(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof RowKey && Arrays.deepEquals(values, ((RowKey) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.deepHashCode(values);
+        }
     }
 
 }
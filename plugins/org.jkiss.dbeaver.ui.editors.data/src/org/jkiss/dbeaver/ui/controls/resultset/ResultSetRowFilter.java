@@ -0,0 +1,305 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Local (client side) rows filter.
+ *
+ * Evaluates simple attribute conditions (see {@link #isFilterSupported(DBDDataFilter)}) over fetched rows.
+ * Attribute values are extracted in column vectors once per filter, each condition produces a bitmap of matched rows.
+ * Conditions follow SQL semantics: NULL values never match comparison, IN or ILIKE conditions.
+ * Comparison and IN conditions are evaluated for numeric attributes only: string, date and other values comparison
+ * depends on the server collation and types conversion, so only server can evaluate them.
+ */
+class ResultSetRowFilter {
+
+    private static class ColumnVector {
+        final Object[] values;
+        final BitSet nulls;
+        // Not null if all not null values are numbers
+        double[] numbers;
+
+        ColumnVector(int rowCount) {
+            this.values = new Object[rowCount];
+            this.nulls = new BitSet(rowCount);
+        }
+    }
+
+    private final ResultSetModel model;
+
+    ResultSetRowFilter(@NotNull ResultSetModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Checks that all filter conditions can be evaluated locally.
+     * Custom criteria, where clause and custom order are SQL expressions, only server can evaluate them.
+     */
+    boolean isFilterSupported(@NotNull DBDDataFilter filter) {
+        if (!CommonUtils.isEmpty(filter.getWhere()) || !CommonUtils.isEmpty(filter.getOrder())) {
+            return false;
+        }
+        for (DBDAttributeConstraint constraint : filter.getConstraints()) {
+            if (!CommonUtils.isEmpty(constraint.getCriteria())) {
+                return false;
+            }
+            DBCLogicalOperator operator = constraint.getOperator();
+            if (operator == null) {
+                continue;
+            }
+            DBDAttributeBinding binding = model.getAttributeBinding(constraint.getAttribute());
+            if (binding == null || !isConditionSupported(binding, operator, constraint.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates filter conditions.
+     *
+     * @return bitmap of rows (by index in the list) which match filter
+     */
+    @NotNull
+    BitSet filterRows(@NotNull List<ResultSetRow> rows, @NotNull DBDDataFilter filter) {
+        int rowCount = rows.size();
+        Map<DBDAttributeBinding, ColumnVector> columns = new HashMap<>();
+        BitSet result = null;
+        for (DBDAttributeConstraint constraint : filter.getConstraints()) {
+            if (constraint.getOperator() == null) {
+                continue;
+            }
+            final DBDAttributeBinding binding = model.getAttributeBinding(constraint.getAttribute());
+            if (binding == null) {
+                continue;
+            }
+            ColumnVector column = columns.computeIfAbsent(binding, b -> readColumn(b, rows));
+            BitSet matches = evaluate(column, constraint);
+            if (result == null) {
+                result = matches;
+            } else if (filter.isAnyConstraint()) {
+                result.or(matches);
+            } else {
+                result.and(matches);
+            }
+        }
+        if (result == null) {
+            result = new BitSet(rowCount);
+            result.set(0, rowCount);
+        }
+        return result;
+    }
+
+    private ColumnVector readColumn(DBDAttributeBinding binding, List<ResultSetRow> rows) {
+        int rowCount = rows.size();
+        ColumnVector column = new ColumnVector(rowCount);
+        boolean allNumbers = true;
+        for (int i = 0; i < rowCount; i++) {
+            Object value = model.getCellValue(binding, rows.get(i));
+            if (DBUtils.isNullValue(value)) {
+                column.nulls.set(i);
+            } else {
+                column.values[i] = value;
+                if (!(value instanceof Number)) {
+                    allNumbers = false;
+                }
+            }
+        }
+        if (allNumbers) {
+            column.numbers = new double[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                if (column.values[i] != null) {
+                    column.numbers[i] = ((Number) column.values[i]).doubleValue();
+                }
+            }
+        }
+        return column;
+    }
+
+    private static BitSet evaluate(ColumnVector column, DBDAttributeConstraint constraint) {
+        final DBCLogicalOperator operator = constraint.getOperator();
+        final Object value = constraint.getValue();
+        final boolean reverse = constraint.isReverseOperator();
+        final int rowCount = column.values.length;
+        BitSet matches = new BitSet(rowCount);
+
+        if (operator.getArgumentCount() == 0 || (operator.getArgumentCount() > 0 && DBUtils.isNullValue(value))) {
+            // IS [NOT] NULL
+            matches.or(column.nulls);
+            if ((operator == DBCLogicalOperator.IS_NOT_NULL) != reverse) {
+                matches.flip(0, rowCount);
+            }
+            return matches;
+        }
+
+        Object[] arguments = null;
+        if (operator == DBCLogicalOperator.IN) {
+            arguments = getArguments(value);
+            boolean hasNull = false;
+            List<Object> notNullArguments = new ArrayList<>(arguments.length);
+            for (Object argument : arguments) {
+                if (DBUtils.isNullValue(argument)) {
+                    hasNull = true;
+                } else {
+                    notNullArguments.add(argument);
+                }
+            }
+            if (hasNull && !reverse) {
+                matches.or(column.nulls);
+            }
+            arguments = notNullArguments.toArray();
+        }
+
+        IntPredicate predicate = makePredicate(column, operator, value, arguments);
+        for (int i = column.nulls.nextClearBit(0); i < rowCount; i = column.nulls.nextClearBit(i + 1)) {
+            if (predicate.test(i) != reverse) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    private static IntPredicate makePredicate(ColumnVector column, DBCLogicalOperator operator, Object value, Object[] arguments) {
+        final Object[] values = column.values;
+        final double[] numbers = column.numbers;
+        switch (operator) {
+            case IN: {
+                if (numbers != null && isAllNumbers(arguments)) {
+                    final double[] numArguments = new double[arguments.length];
+                    for (int i = 0; i < arguments.length; i++) {
+                        numArguments[i] = normalizeNumber(((Number) arguments[i]).doubleValue());
+                    }
+                    Arrays.sort(numArguments);
+                    return row -> Arrays.binarySearch(numArguments, normalizeNumber(numbers[row])) >= 0;
+                }
+                return row -> {
+                    for (Object argument : arguments) {
+                        if (DBUtils.compareDataValues(values[row], argument) == 0) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+            }
+            case ILIKE: {
+                final Pattern pattern = Pattern.compile(
+                    SQLUtils.makeLikePattern(value.toString()), Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+                return row -> pattern.matcher(values[row].toString()).matches();
+            }
+            default: {
+                if (numbers != null && value instanceof Number) {
+                    final double numValue = ((Number) value).doubleValue();
+                    return row -> checkCompareResult(operator, Double.compare(normalizeNumber(numbers[row]), normalizeNumber(numValue)));
+                }
+                return row -> checkCompareResult(operator, DBUtils.compareDataValues(values[row], value));
+            }
+        }
+    }
+
+    private static boolean checkCompareResult(DBCLogicalOperator operator, int result) {
+        switch (operator) {
+            case EQUALS:
+                return result == 0;
+            case NOT_EQUALS:
+                return result != 0;
+            case GREATER:
+                return result > 0;
+            case GREATER_EQUALS:
+                return result >= 0;
+            case LESS:
+                return result < 0;
+            case LESS_EQUALS:
+                return result <= 0;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isConditionSupported(DBDAttributeBinding binding, DBCLogicalOperator operator, Object value) {
+        switch (operator) {
+            case IS_NULL:
+            case IS_NOT_NULL:
+            case ILIKE:
+                // LIKE is case sensitive or not depending on the server collation, so only server can evaluate it
+                return true;
+            case EQUALS:
+            case NOT_EQUALS:
+            case GREATER:
+            case GREATER_EQUALS:
+            case LESS:
+            case LESS_EQUALS:
+                return DBUtils.isNullValue(value) ||
+                    (binding.getDataKind() == DBPDataKind.NUMERIC && value instanceof Number);
+            case IN:
+                if (binding.getDataKind() != DBPDataKind.NUMERIC) {
+                    return false;
+                }
+                for (Object argument : getArguments(value)) {
+                    if (!DBUtils.isNullValue(argument) && !(argument instanceof Number)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Object[] getArguments(Object value) {
+        if (value instanceof Object[]) {
+            return (Object[]) value;
+        } else if (value != null && value.getClass().isArray()) {
+            Object[] arguments = new Object[Array.getLength(value)];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = Array.get(value, i);
+            }
+            return arguments;
+        } else {
+            return new Object[] { value };
+        }
+    }
+
+    private static boolean isAllNumbers(Object[] values) {
+        for (Object value : values) {
+            if (!(value instanceof Number)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Double.compare distinguishes 0.0 and -0.0 while SQL doesn't
+    private static double normalizeNumber(double value) {
+        return value == 0.0 ? 0.0 : value;
+    }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Local (client side) rows sorter.
+ *
+ * Sort keys are extracted from rows once before sort. Numeric columns are compared as doubles,
+ * columns with values of the same comparable type are compared directly,
+ * other columns are compared with {@link DBUtils#compareDataValues(Object, Object)}.
+ * NULLs are greater than any other value. Rows with equal keys keep original rows order.
+ */
+class ResultSetRowSorter {
+
+    // Smaller row sets are sorted in the current thread
+    private static final int PARALLEL_SORT_THRESHOLD = 50000;
+
+    private abstract static class SortKey {
+        final boolean descending;
+        final boolean[] nulls;
+
+        SortKey(boolean descending, int rowCount) {
+            this.descending = descending;
+            this.nulls = new boolean[rowCount];
+        }
+
+        int compare(int row1, int row2) {
+            int result;
+            if (nulls[row1]) {
+                result = nulls[row2] ? 0 : 1;
+            } else if (nulls[row2]) {
+                result = -1;
+            } else {
+                result = compareValues(row1, row2);
+            }
+            return descending ? -result : result;
+        }
+
+        abstract int compareValues(int row1, int row2);
+    }
+
+    private static class NumberSortKey extends SortKey {
+        final double[] values;
+
+        NumberSortKey(boolean descending, int rowCount) {
+            super(descending, rowCount);
+            values = new double[rowCount];
+        }
+
+        @Override
+        int compareValues(int row1, int row2) {
+            double value1 = values[row1], value2 = values[row2];
+            return value1 < value2 ? -1 : (value1 > value2 ? 1 : 0);
+        }
+    }
+
+    private static class ComparableSortKey extends SortKey {
+        final Comparable[] values;
+
+        ComparableSortKey(boolean descending, int rowCount) {
+            super(descending, rowCount);
+            values = new Comparable[rowCount];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        int compareValues(int row1, int row2) {
+            return values[row1].compareTo(values[row2]);
+        }
+    }
+
+    private static class ObjectSortKey extends SortKey {
+        final Object[] values;
+
+        ObjectSortKey(boolean descending, int rowCount) {
+            super(descending, rowCount);
+            values = new Object[rowCount];
+        }
+
+        @Override
+        int compareValues(int row1, int row2) {
+            return DBUtils.compareDataValues(values[row1], values[row2]);
+        }
+    }
+
+    private final ResultSetModel model;
+
+    ResultSetRowSorter(@NotNull ResultSetModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Sorts rows according to order constraints.
+     * Rows without ordering (or with equal sort keys) are sorted by row number.
+     */
+    void sortRows(@NotNull List<ResultSetRow> rows, @NotNull List<DBDAttributeConstraint> orderConstraints) {
+        int rowCount = rows.size();
+        ResultSetRow[] rowArray = rows.toArray(new ResultSetRow[0]);
+
+        // Resolve bindings and extract sort keys once
+        List<SortKey> sortKeys = new ArrayList<>(orderConstraints.size());
+        for (DBDAttributeConstraint co : orderConstraints) {
+            final DBDAttributeBinding binding = model.getAttributeBinding(co.getAttribute());
+            if (binding == null) {
+                continue;
+            }
+            Object[] values = new Object[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                values[i] = model.getCellValue(binding, rowArray[i]);
+            }
+            sortKeys.add(makeSortKey(values, co.isOrderDescending()));
+        }
+        final SortKey[] keys = sortKeys.toArray(new SortKey[0]);
+        final int[] rowNumbers = new int[rowCount];
+        Integer[] indexes = new Integer[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rowNumbers[i] = rowArray[i].getRowNumber();
+            indexes[i] = i;
+        }
+
+        Comparator<Integer> comparator = (index1, index2) -> {
+            int row1 = index1, row2 = index2;
+            for (SortKey key : keys) {
+                int result = key.compare(row1, row2);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Integer.compare(rowNumbers[row1], rowNumbers[row2]);
+        };
+        if (rowCount >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(indexes, comparator);
+        } else {
+            Arrays.sort(indexes, comparator);
+        }
+
+        for (int i = 0; i < rowCount; i++) {
+            rows.set(i, rowArray[indexes[i]]);
+        }
+    }
+
+    private static SortKey makeSortKey(Object[] values, boolean descending) {
+        int rowCount = values.length;
+        boolean allNumbers = true;
+        Class<?> comparableClass = null;
+        boolean sameComparable = true;
+        for (Object value : values) {
+            if (DBUtils.isNullValue(value)) {
+                continue;
+            }
+            if (!(value instanceof Number)) {
+                allNumbers = false;
+            }
+            if (sameComparable) {
+                if (!(value instanceof Comparable) || (comparableClass != null && value.getClass() != comparableClass)) {
+                    sameComparable = false;
+                } else {
+                    comparableClass = value.getClass();
+                }
+            }
+            if (!allNumbers && !sameComparable) {
+                break;
+            }
+        }
+
+        SortKey sortKey;
+        if (allNumbers) {
+            NumberSortKey numberKey = new NumberSortKey(descending, rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                if (!DBUtils.isNullValue(values[i])) {
+                    numberKey.values[i] = ((Number) values[i]).doubleValue();
+                }
+            }
+            sortKey = numberKey;
+        } else if (sameComparable) {
+            ComparableSortKey comparableKey = new ComparableSortKey(descending, rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                if (!DBUtils.isNullValue(values[i])) {
+                    comparableKey.values[i] = (Comparable) values[i];
+                }
+            }
+            sortKey = comparableKey;
+        } else {
+            ObjectSortKey objectKey = new ObjectSortKey(descending, rowCount);
+            System.arraycopy(values, 0, objectKey.values, 0, rowCount);
+            sortKey = objectKey;
+        }
+        for (int i = 0; i < rowCount; i++) {
+            sortKey.nulls[i] = DBUtils.isNullValue(values[i]);
+        }
+        return sortKey;
+    }
+
+}
@@ -194,6 +194,8 @@ public class ResultSetViewer extends Viewer
     // Current row/col number
     @Nullable
     private ResultSetRow curRow;
+    // Current rows were read with server side filter conditions
+    private boolean dataFilteredOnServer;
     // Mode
     private boolean recordMode;
 
@@ -2035,6 +2037,33 @@ public class ResultSetViewer extends Viewer
         this.updateFiltersText();
     }
 
+    /**
+     * Filter may be evaluated over fetched rows if all rows were fetched without server side conditions
+     * and all new filter conditions are simple attribute conditions.
+     */
+    private boolean isLocalFilterApplicable(@NotNull DBDDataFilter filter)
+    {
+        return getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_FILTER_LOCAL) &&
+            getDataContainer() != null &&
+            model.hasData() &&
+            !isHasMoreData() &&
+            !dataFilteredOnServer &&
+            model.isLocalFilterSupported(filter);
+    }
+
+    private void filterLocally(@NotNull DBDDataFilter filter)
+    {
+        this.rejectChanges();
+        boolean visibilityChanged = !model.getDataFilter().equalVisibility(filter);
+        model.updateDataFilter(filter, true);
+        model.applyLocalFilter();
+        curRow = model.getRowCount() == 0 ? null : model.getRow(0);
+        setNewState(getDataContainer(), model.getDataFilter());
+        redrawData(visibilityChanged, true);
+        updateFiltersText();
+        updateStatusMessage();
+    }
+
 
     ///////////////////////////////////////
     // Data & metadata
@@ -3384,6 +3413,10 @@ public class ResultSetViewer extends Viewer
         if (!checkForChanges()) {
             return;
         }
+        if (isLocalFilterApplicable(filter)) {
+            filterLocally(filter);
+            return;
+        }
 
         DBSDataContainer dataContainer = getDataContainer();
         if (dataContainer != null) {
@@ -4474,6 +4507,9 @@ public class ResultSetViewer extends Viewer
                     if (saveHistory && error == null) {
                         setNewState(dataContainer, useDataFilter);
                     }
+                    if (!scroll && error == null) {
+                        dataFilteredOnServer = useDataFilter != null && useDataFilter.hasConditions();
+                    }
 
                     final boolean metadataChanged = !scroll && model.isMetadataChanged();
                     if (error != null) {
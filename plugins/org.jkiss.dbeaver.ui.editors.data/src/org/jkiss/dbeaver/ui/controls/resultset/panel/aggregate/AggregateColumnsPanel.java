@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.ui.controls.resultset.panel.aggregate;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
@@ -33,13 +35,19 @@ import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.data.aggregate.IMergeableAggregateFunction;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.dbeaver.ui.UIIcon;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.*;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 
+import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.util.List;
@@ -61,6 +69,8 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
 
+    private static final int AGGREGATE_CHUNK_SIZE = 100000;
+
     private IResultSetPresentation presentation;
     private Tree aggregateTable;
 
@@ -71,6 +81,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private IDialogSettings panelSettings;
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
+    private AbstractJob aggregateJob;
 
     public AggregateColumnsPanel() {
     }
@@ -212,6 +223,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private void aggregateSelection(IResultSetSelection selection) {
         ResultSetModel model = presentation.getController().getModel();
+        List<AggregateGroup> groups = new ArrayList<>();
         if (groupByColumns) {
             Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
             for (Object element : selection.toList()) {
@@ -226,7 +238,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                 TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
                 attrItem.setText(entry.getKey().getName());
                 attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
+                groups.add(createAggregateGroup(attrItem, entry.getValue()));
                 attrItem.setExpanded(true);
             }
         } else {
@@ -237,14 +249,14 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                 Object cellValue = model.getCellValue(attr, row);
                 allValues.add(cellValue);
             }
-            aggregateValues(null, allValues);
+            groups.add(createAggregateGroup(null, allValues));
         }
+        scheduleAggregation(groups);
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
+    private AggregateGroup createAggregateGroup(TreeItem parentItem, List<Object> values) {
+        AggregateGroup group = new AggregateGroup(values);
+        for (AggregateFunctionDescriptor funcDesc : enabledFunctions) {
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
                 new TreeItem(parentItem, SWT.NONE);
@@ -254,43 +266,113 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             if (icon != null) {
                 funcItem.setImage(0, DBeaverIcons.getImage(icon));
             }
-            try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
-            } catch (DBException e) {
-                log.error(e);
-            }
+            group.functions.add(funcDesc);
+            group.functionItems.add(funcItem);
         }
+        return group;
+    }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
+    /**
+     * Evaluates functions in background. Previous evaluation (if any) is canceled.
+     */
+    private void scheduleAggregation(List<AggregateGroup> groups) {
+        if (aggregateJob != null) {
+            aggregateJob.cancel();
+        }
+        final boolean asStrings = aggregateAsStrings;
+        AbstractJob job = new AbstractJob("Aggregate values") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                try {
+                    for (AggregateGroup group : groups) {
+                        if (monitor.isCanceled()) {
+                            return Status.CANCEL_STATUS;
+                        }
+                        group.results = aggregateValues(monitor, group, asStrings);
+                    }
+                } catch (InterruptedException e) {
+                    return Status.CANCEL_STATUS;
+                } catch (InvocationTargetException e) {
+                    log.error("Error aggregating values", e.getTargetException());
+                    return Status.OK_STATUS;
                 }
+                UIUtils.asyncExec(() -> {
+                    if (aggregateJob == this && !aggregateTable.isDisposed()) {
+                        showResults(groups);
+                    }
+                });
+                return Status.OK_STATUS;
+            }
+        };
+        job.setSystem(true);
+        aggregateJob = job;
+        job.schedule();
+    }
+
+    /**
+     * Evaluates functions over a group of values. Big groups are split in chunks which are evaluated in parallel
+     * and then merged (if all functions support merge).
+     */
+    private static Object[] aggregateValues(DBRProgressMonitor monitor, AggregateGroup group, boolean asStrings)
+        throws InvocationTargetException, InterruptedException
+    {
+        List<Object> values = group.values;
+        int chunkCount = (values.size() + AGGREGATE_CHUNK_SIZE - 1) / AGGREGATE_CHUNK_SIZE;
+        AggregateChunk result = new AggregateChunk(group);
+        if (chunkCount <= 1 || !result.isMergeable()) {
+            result.accumulate(values, 0, values.size(), asStrings);
+        } else {
+            AggregateChunk[] chunks = new AggregateChunk[chunkCount];
+            List<DBRRunnableWithProgress> tasks = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                AggregateChunk chunk = i == 0 ? result : new AggregateChunk(group);
+                chunks[i] = chunk;
+                int fromIndex = i * AGGREGATE_CHUNK_SIZE;
+                int toIndex = Math.min(fromIndex + AGGREGATE_CHUNK_SIZE, values.size());
+                tasks.add(chunkMonitor -> chunk.accumulate(values, fromIndex, toIndex, asStrings));
+            }
+            RuntimeUtils.runParallelTasks(monitor, "Aggregate values", tasks, Runtime.getRuntime().availableProcessors());
+            // Merge in chunks order - some functions depend on values order
+            for (int i = 1; i < chunkCount; i++) {
+                result.merge(chunks[i]);
             }
         }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
+
+        Object[] results = new Object[result.funcs.length];
+        for (int i = 0; i < results.length; i++) {
+            if (result.funcs[i] != null && result.funcCount[i] > 0) {
+                results[i] = result.funcs[i].getResult(result.funcCount[i]);
             }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
-            if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
-                String strValue;
-                if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
-                    strValue = DOUBLE_FORMAT.format(result);
-                } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
-                    strValue = INTEGER_FORMAT.format(result);
-                } else {
-                    strValue = result.toString();
-                }
-                if (strValue != null) {
-                    treeItem.setText(1, strValue);
+        }
+        return results;
+    }
+
+    private void showResults(List<AggregateGroup> groups) {
+        aggregateTable.setRedraw(false);
+        try {
+            for (AggregateGroup group : groups) {
+                for (int i = 0; i < group.results.length; i++) {
+                    Object result = group.results[i];
+                    TreeItem treeItem = group.functionItems.get(i);
+                    if (result == null || treeItem.isDisposed()) {
+                        continue;
+                    }
+                    String strValue;
+                    if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
+                        strValue = DOUBLE_FORMAT.format(result);
+                    } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
+                        strValue = INTEGER_FORMAT.format(result);
+                    } else {
+                        strValue = result.toString();
+                    }
+                    if (strValue != null) {
+                        treeItem.setText(1, strValue);
+                    }
                 }
             }
+            UIUtils.packColumns(aggregateTable, false, null);
+        } finally {
+            aggregateTable.setRedraw(true);
         }
     }
 
@@ -466,4 +548,64 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    private static class AggregateGroup {
+        final List<Object> values;
+        final List<AggregateFunctionDescriptor> functions = new ArrayList<>();
+        final List<TreeItem> functionItems = new ArrayList<>();
+        Object[] results;
+
+        AggregateGroup(List<Object> values) {
+            this.values = values;
+        }
+    }
+
+    /**
+     * Function instances evaluated over a chunk of values
+     */
+    private static class AggregateChunk {
+        final IAggregateFunction[] funcs;
+        final int[] funcCount;
+
+        AggregateChunk(AggregateGroup group) {
+            funcs = new IAggregateFunction[group.functions.size()];
+            funcCount = new int[funcs.length];
+            for (int i = 0; i < funcs.length; i++) {
+                try {
+                    funcs[i] = group.functions.get(i).createFunction();
+                } catch (DBException e) {
+                    log.error(e);
+                }
+            }
+        }
+
+        boolean isMergeable() {
+            for (IAggregateFunction func : funcs) {
+                if (func != null && !(func instanceof IMergeableAggregateFunction)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void accumulate(List<Object> values, int fromIndex, int toIndex, boolean asStrings) {
+            for (int index = fromIndex; index < toIndex; index++) {
+                Object element = values.get(index);
+                for (int i = 0; i < funcs.length; i++) {
+                    if (funcs[i] != null && funcs[i].accumulate(element, asStrings)) {
+                        funcCount[i]++;
+                    }
+                }
+            }
+        }
+
+        void merge(AggregateChunk chunk) {
+            for (int i = 0; i < funcs.length; i++) {
+                if (funcs[i] != null && chunk.funcs[i] != null) {
+                    ((IMergeableAggregateFunction) funcs[i]).merge(chunk.funcs[i]);
+                    funcCount[i] += chunk.funcCount[i];
+                }
+            }
+        }
+    }
+
 }
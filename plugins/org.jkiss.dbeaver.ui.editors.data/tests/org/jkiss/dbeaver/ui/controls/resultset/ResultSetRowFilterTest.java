@@ -0,0 +1,229 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ResultSetRowFilterTest {
+
+    private static final int NUMBER_COLUMN = 0;
+    private static final int STRING_COLUMN = 1;
+
+    @Mock
+    private ResultSetModel model;
+
+    private ResultSetRowFilter rowFilter;
+    private DBSAttributeBase numberAttribute;
+    private DBSAttributeBase stringAttribute;
+    private List<ResultSetRow> rows;
+
+    @Before
+    public void setUp() {
+        rowFilter = new ResultSetRowFilter(model);
+        numberAttribute = makeAttribute(NUMBER_COLUMN, DBPDataKind.NUMERIC);
+        stringAttribute = makeAttribute(STRING_COLUMN, DBPDataKind.STRING);
+        rows = makeRows(new Object[][] {
+            { 1, "one" },
+            { null, null },
+            { 2L, "Two" },
+            { new BigDecimal("3.0"), "three" },
+            { -0.0d, "zero" },
+            { null, "none" },
+        });
+    }
+
+    @Test
+    public void testNullsNeverMatchComparison() {
+        Assert.assertEquals(bits(0), filter(numberAttribute, DBCLogicalOperator.EQUALS, 1, false));
+        Assert.assertEquals(bits(0, 2, 3), filter(numberAttribute, DBCLogicalOperator.NOT_EQUALS, 0, false));
+        Assert.assertEquals(bits(2, 3), filter(numberAttribute, DBCLogicalOperator.GREATER, 1, false));
+        Assert.assertEquals(bits(0, 4), filter(numberAttribute, DBCLogicalOperator.LESS_EQUALS, 1, false));
+        // NOT (value = 1) doesn't match NULLs either
+        Assert.assertEquals(bits(2, 3, 4), filter(numberAttribute, DBCLogicalOperator.EQUALS, 1, true));
+    }
+
+    @Test
+    public void testComparisonWithNullIsNullCheck() {
+        Assert.assertEquals(bits(1, 5), filter(numberAttribute, DBCLogicalOperator.EQUALS, null, false));
+        Assert.assertEquals(bits(0, 2, 3, 4), filter(numberAttribute, DBCLogicalOperator.EQUALS, null, true));
+        Assert.assertEquals(bits(1), filter(stringAttribute, DBCLogicalOperator.IS_NULL, null, false));
+        Assert.assertEquals(bits(0, 2, 3, 4, 5), filter(stringAttribute, DBCLogicalOperator.IS_NOT_NULL, null, false));
+        Assert.assertEquals(bits(1), filter(stringAttribute, DBCLogicalOperator.IS_NOT_NULL, null, true));
+    }
+
+    @Test
+    public void testNumbersOfDifferentTypesComparedByValue() {
+        Assert.assertEquals(bits(3), filter(numberAttribute, DBCLogicalOperator.EQUALS, 3L, false));
+        Assert.assertEquals(bits(2), filter(numberAttribute, DBCLogicalOperator.EQUALS, new BigDecimal("2.00"), false));
+        // Negative zero is zero
+        Assert.assertEquals(bits(4), filter(numberAttribute, DBCLogicalOperator.EQUALS, 0, false));
+        Assert.assertEquals(bits(4), filter(numberAttribute, DBCLogicalOperator.IN, new Object[] { 0.0d }, false));
+    }
+
+    @Test
+    public void testInDoesNotMatchNulls() {
+        Assert.assertEquals(bits(0, 3), filter(numberAttribute, DBCLogicalOperator.IN, new Object[] { 1, 3 }, false));
+        Assert.assertEquals(bits(0, 3), filter(numberAttribute, DBCLogicalOperator.IN, new int[] { 1, 3 }, false));
+        Assert.assertEquals(bits(2), filter(numberAttribute, DBCLogicalOperator.IN, 2, false));
+    }
+
+    @Test
+    public void testInWithNullArgumentMatchesNulls() {
+        // Same as server condition "IS NULL OR value IN (...)"
+        Assert.assertEquals(bits(0, 1, 5), filter(numberAttribute, DBCLogicalOperator.IN, new Object[] { 1, null }, false));
+        Assert.assertEquals(bits(1, 5), filter(numberAttribute, DBCLogicalOperator.IN, new Object[] { null }, false));
+    }
+
+    @Test
+    public void testNotInNeverMatchesNulls() {
+        Assert.assertEquals(bits(2, 4), filter(numberAttribute, DBCLogicalOperator.IN, new Object[] { 1, 3 }, true));
+        Assert.assertEquals(bits(2, 3, 4), filter(numberAttribute, DBCLogicalOperator.IN, new Object[] { 1, null }, true));
+        Assert.assertEquals(bits(0, 2, 3, 4), filter(numberAttribute, DBCLogicalOperator.IN, new Object[] { null }, true));
+    }
+
+    @Test
+    public void testILikeIgnoresCaseAndNulls() {
+        Assert.assertEquals(bits(2, 3), filter(stringAttribute, DBCLogicalOperator.ILIKE, "t%", false));
+        Assert.assertEquals(bits(0, 4, 5), filter(stringAttribute, DBCLogicalOperator.ILIKE, "t%", true));
+    }
+
+    @Test
+    public void testAllAndAnyConstraints() {
+        DBDAttributeConstraint numberConstraint = makeConstraint(numberAttribute, DBCLogicalOperator.GREATER_EQUALS, 2, false);
+        DBDAttributeConstraint stringConstraint = makeConstraint(stringAttribute, DBCLogicalOperator.IS_NULL, null, false);
+        DBDDataFilter filter = new DBDDataFilter(Arrays.asList(numberConstraint, stringConstraint));
+        Assert.assertEquals(bits(), rowFilter.filterRows(rows, filter));
+
+        filter.setAnyConstraint(true);
+        Assert.assertEquals(bits(1, 2, 3), rowFilter.filterRows(rows, filter));
+    }
+
+    @Test
+    public void testEmptyFilterMatchesAllRows() {
+        DBDAttributeConstraint constraint = makeConstraint(numberAttribute, null, null, false);
+        Assert.assertEquals(bits(0, 1, 2, 3, 4, 5), rowFilter.filterRows(rows, new DBDDataFilter(Arrays.asList(constraint))));
+    }
+
+    @Test
+    public void testNumericConditionsSupported() {
+        Assert.assertTrue(isSupported(numberAttribute, DBCLogicalOperator.EQUALS, 1));
+        Assert.assertTrue(isSupported(numberAttribute, DBCLogicalOperator.LESS, new BigDecimal("1.5")));
+        Assert.assertTrue(isSupported(numberAttribute, DBCLogicalOperator.IN, new Object[] { 1, 2L, null }));
+        Assert.assertTrue(isSupported(numberAttribute, DBCLogicalOperator.IS_NULL, null));
+        // String argument must be converted by server
+        Assert.assertFalse(isSupported(numberAttribute, DBCLogicalOperator.EQUALS, "1"));
+        Assert.assertFalse(isSupported(numberAttribute, DBCLogicalOperator.IN, new Object[] { 1, "2" }));
+    }
+
+    @Test
+    public void testNonNumericConditionsEvaluatedByServer() {
+        Assert.assertFalse(isSupported(stringAttribute, DBCLogicalOperator.EQUALS, "one"));
+        Assert.assertFalse(isSupported(stringAttribute, DBCLogicalOperator.GREATER, "one"));
+        Assert.assertFalse(isSupported(stringAttribute, DBCLogicalOperator.IN, new Object[] { "one", "two" }));
+        Assert.assertFalse(isSupported(stringAttribute, DBCLogicalOperator.IN, new Object[] { 1 }));
+        Assert.assertFalse(isSupported(stringAttribute, DBCLogicalOperator.LIKE, "o%"));
+        // NULL checks and ILIKE don't depend on collation
+        Assert.assertTrue(isSupported(stringAttribute, DBCLogicalOperator.EQUALS, null));
+        Assert.assertTrue(isSupported(stringAttribute, DBCLogicalOperator.IS_NOT_NULL, null));
+        Assert.assertTrue(isSupported(stringAttribute, DBCLogicalOperator.ILIKE, "o%"));
+    }
+
+    @Test
+    public void testSqlFiltersEvaluatedByServer() {
+        DBDDataFilter filter = new DBDDataFilter(new ArrayList<>(Arrays.asList(
+            makeConstraint(numberAttribute, DBCLogicalOperator.EQUALS, 1, false))));
+        Assert.assertTrue(rowFilter.isFilterSupported(filter));
+
+        filter.setWhere("id > 1");
+        Assert.assertFalse(rowFilter.isFilterSupported(filter));
+        filter.setWhere(null);
+        filter.setOrder("id");
+        Assert.assertFalse(rowFilter.isFilterSupported(filter));
+        filter.setOrder(null);
+
+        DBDAttributeConstraint criteria = makeConstraint(stringAttribute, null, null, false);
+        criteria.setCriteria("like 'o%'");
+        filter.getConstraints().add(criteria);
+        Assert.assertFalse(rowFilter.isFilterSupported(filter));
+    }
+
+    private BitSet filter(DBSAttributeBase attribute, DBCLogicalOperator operator, Object value, boolean reverse) {
+        DBDAttributeConstraint constraint = makeConstraint(attribute, operator, value, reverse);
+        DBDDataFilter filter = new DBDDataFilter(Arrays.asList(constraint));
+        Assert.assertTrue(operator + " must be evaluated locally", rowFilter.isFilterSupported(filter));
+        return rowFilter.filterRows(rows, filter);
+    }
+
+    private boolean isSupported(DBSAttributeBase attribute, DBCLogicalOperator operator, Object value) {
+        DBDAttributeConstraint constraint = makeConstraint(attribute, operator, value, false);
+        return rowFilter.isFilterSupported(new DBDDataFilter(Arrays.asList(constraint)));
+    }
+
+    private DBSAttributeBase makeAttribute(int column, DBPDataKind dataKind) {
+        DBSAttributeBase attribute = Mockito.mock(DBSAttributeBase.class);
+        DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(binding.getDataKind()).thenReturn(dataKind);
+        Mockito.when(model.getAttributeBinding(attribute)).thenReturn(binding);
+        Mockito.when(model.getCellValue(Mockito.eq(binding), Mockito.any(ResultSetRow.class))).thenAnswer(
+            invocation -> ((ResultSetRow) invocation.getArguments()[1]).getValues()[column]);
+        return attribute;
+    }
+
+    private static DBDAttributeConstraint makeConstraint(DBSAttributeBase attribute, DBCLogicalOperator operator, Object value, boolean reverse) {
+        DBDAttributeConstraint constraint = new DBDAttributeConstraint(attribute, 0);
+        constraint.setOperator(operator);
+        constraint.setValue(value);
+        constraint.setReverseOperator(reverse);
+        return constraint;
+    }
+
+    private static List<ResultSetRow> makeRows(Object[][] values) {
+        List<ResultSetRow> rows = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            rows.add(new ResultSetRow(i, values[i]));
+        }
+        return rows;
+    }
+
+    private static BitSet bits(int ... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+
+}
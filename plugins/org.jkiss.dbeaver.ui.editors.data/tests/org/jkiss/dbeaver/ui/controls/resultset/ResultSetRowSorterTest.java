@@ -0,0 +1,171 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ResultSetRowSorterTest {
+
+    @Mock
+    private ResultSetModel model;
+
+    private ResultSetRowSorter sorter;
+
+    @Before
+    public void setUp() {
+        sorter = new ResultSetRowSorter(model);
+    }
+
+    @Test
+    public void testNullsLastInAscendingOrder() {
+        List<ResultSetRow> rows = makeRows(new Object[][] { { 3 }, { null }, { 1 }, { 2 } });
+        sorter.sortRows(rows, Collections.singletonList(makeOrder(0, false)));
+        Assert.assertEquals(Arrays.asList(2, 3, 0, 1), getRowNumbers(rows));
+    }
+
+    @Test
+    public void testNullsFirstInDescendingOrder() {
+        List<ResultSetRow> rows = makeRows(new Object[][] { { "b" }, { null }, { "a" }, { "c" } });
+        sorter.sortRows(rows, Collections.singletonList(makeOrder(0, true)));
+        Assert.assertEquals(Arrays.asList(1, 3, 0, 2), getRowNumbers(rows));
+    }
+
+    @Test
+    public void testNullValueObjectsSortedAsNulls() {
+        DBDValue nullValue = Mockito.mock(DBDValue.class);
+        Mockito.when(nullValue.isNull()).thenReturn(true);
+        List<ResultSetRow> rows = makeRows(new Object[][] { { nullValue }, { 2 }, { null }, { 1 } });
+        sorter.sortRows(rows, Collections.singletonList(makeOrder(0, false)));
+        Assert.assertEquals(Arrays.asList(3, 1, 0, 2), getRowNumbers(rows));
+    }
+
+    @Test
+    public void testEqualKeysKeepRowNumberOrder() {
+        List<ResultSetRow> rows = makeRows(new Object[][] { { "a" }, { "b" }, { "a" }, { null }, { "b" }, { null }, { "a" } });
+        Collections.reverse(rows);
+        sorter.sortRows(rows, Collections.singletonList(makeOrder(0, false)));
+        Assert.assertEquals(Arrays.asList(0, 2, 6, 1, 4, 3, 5), getRowNumbers(rows));
+
+        // Equal rows aren't reversed by descending order
+        sorter.sortRows(rows, Collections.singletonList(makeOrder(0, true)));
+        Assert.assertEquals(Arrays.asList(3, 5, 1, 4, 0, 2, 6), getRowNumbers(rows));
+    }
+
+    @Test
+    public void testSecondKeyResolvesTies() {
+        List<ResultSetRow> rows = makeRows(new Object[][] {
+            { "a", 2 }, { "b", 1 }, { "a", null }, { "a", 1 }, { "b", 2 } });
+        sorter.sortRows(rows, Arrays.asList(makeOrder(0, false), makeOrder(1, true)));
+        Assert.assertEquals(Arrays.asList(2, 0, 3, 4, 1), getRowNumbers(rows));
+    }
+
+    @Test
+    public void testNumbersOfDifferentTypesComparedByValue() {
+        List<ResultSetRow> rows = makeRows(new Object[][] {
+            { 10L }, { new BigDecimal("2.5") }, { 3 }, { -1.5d }, { (short) 2 } });
+        sorter.sortRows(rows, Collections.singletonList(makeOrder(0, false)));
+        Assert.assertEquals(Arrays.asList(3, 4, 1, 2, 0), getRowNumbers(rows));
+    }
+
+    @Test
+    public void testValuesOfDifferentTypesComparedAsStrings() {
+        List<ResultSetRow> rows = makeRows(new Object[][] { { "b" }, { new StringBuilder("c") }, { null }, { "a" } });
+        sorter.sortRows(rows, Collections.singletonList(makeOrder(0, false)));
+        Assert.assertEquals(Arrays.asList(3, 0, 1, 2), getRowNumbers(rows));
+    }
+
+    @Test
+    public void testUnknownAttributeIgnored() {
+        List<ResultSetRow> rows = makeRows(new Object[][] { { 2 }, { 1 }, { 3 } });
+        Collections.reverse(rows);
+        DBDAttributeConstraint unknown = new DBDAttributeConstraint(Mockito.mock(DBSAttributeBase.class), 0);
+        sorter.sortRows(rows, Collections.singletonList(unknown));
+        Assert.assertEquals(Arrays.asList(0, 1, 2), getRowNumbers(rows));
+    }
+
+    @Test
+    public void testParallelSortIsStable() {
+        // Large enough for parallel sort
+        int rowCount = 60000;
+        Object[][] values = new Object[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = new Object[] { i % 7 == 0 ? null : i % 10 };
+        }
+        List<ResultSetRow> rows = makeRows(values);
+        Collections.shuffle(rows, new Random(1));
+        sorter.sortRows(rows, Collections.singletonList(makeOrder(0, false)));
+
+        for (int i = 1; i < rowCount; i++) {
+            ResultSetRow prev = rows.get(i - 1), row = rows.get(i);
+            Object prevKey = prev.getValues()[0], key = row.getValues()[0];
+            if (prevKey == null) {
+                Assert.assertNull("NULLs must go last", key);
+                Assert.assertTrue(prev.getRowNumber() < row.getRowNumber());
+            } else if (key != null) {
+                int result = Integer.compare((Integer) prevKey, (Integer) key);
+                Assert.assertTrue(result < 0 || (result == 0 && prev.getRowNumber() < row.getRowNumber()));
+            }
+        }
+    }
+
+    private DBDAttributeConstraint makeOrder(int column, boolean descending) {
+        DBSAttributeBase attribute = Mockito.mock(DBSAttributeBase.class);
+        DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(model.getAttributeBinding(attribute)).thenReturn(binding);
+        Mockito.when(model.getCellValue(Mockito.eq(binding), Mockito.any(ResultSetRow.class))).thenAnswer(
+            invocation -> ((ResultSetRow) invocation.getArguments()[1]).getValues()[column]);
+
+        DBDAttributeConstraint constraint = new DBDAttributeConstraint(attribute, column);
+        constraint.setOrderDescending(descending);
+        return constraint;
+    }
+
+    private static List<ResultSetRow> makeRows(Object[][] values) {
+        List<ResultSetRow> rows = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            rows.add(new ResultSetRow(i, values[i]));
+        }
+        return rows;
+    }
+
+    private static List<Integer> getRowNumbers(List<ResultSetRow> rows) {
+        List<Integer> rowNumbers = new ArrayList<>(rows.size());
+        for (ResultSetRow row : rows) {
+            rowNumbers.add(row.getRowNumber());
+        }
+        return rowNumbers;
+    }
+
+}
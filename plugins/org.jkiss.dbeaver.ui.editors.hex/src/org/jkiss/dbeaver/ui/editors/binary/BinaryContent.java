@@ -24,7 +24,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
-import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.*;
 
@@ -124,8 +123,6 @@ public class BinaryContent {
     }
 
 
-    private static final long mappedFileBufferLength = 2048 * 1024;  // for mapped file I/O
-
     private ActionHistory actions = null;  // undo/redo actions history
     private ActionHistory actionsTemp = null;
     private boolean dirty = false;
@@ -392,7 +389,8 @@ public class BinaryContent {
     {
         int dstInitialPosition = dst.position();
         if (sourceRange.data instanceof ByteBuffer) {
-            ByteBuffer src = (ByteBuffer) sourceRange.data;
+            // Duplicate has its own position and limit
+            ByteBuffer src = ((ByteBuffer) sourceRange.data).duplicate();
             src.limit((int) (sourceRange.dataOffset + sourceRange.length));
             src.position((int) (sourceRange.dataOffset + overlapBytes));
             if (src.remaining() > dst.remaining() || src.remaining() > maxCopyLength) {
@@ -485,7 +483,8 @@ public class BinaryContent {
 
 
     /**
-     * Reads a sequence of bytes from this content into the given buffer, starting at the given position
+     * Reads a sequence of bytes from this content into the given buffer, starting at the given position.
+     * Doesn't change content state (file reads are positional), so search threads may read content concurrently.
      *
      * @param dst      where to write the read result to
      * @param position starting read point
@@ -501,10 +500,12 @@ public class BinaryContent {
             positionShift = (int) Math.min(changeList.size(), position - changesPosition);
 
         long positionSoFar = position - positionShift;
-        initSubtreeTraversing(positionSoFar, dst.remaining());
+        // Local iterator instead of initSubtreeTraversing(), which changes shared traversal state
+        Iterator<Range> rangeIterator = ranges.tailSet(new Range(positionSoFar, 1L)).iterator();
+        long exclusiveEnd = Math.min(positionSoFar + dst.remaining(), length());
 
         Range partialRange;
-        while (tailTree.hasNext() && (partialRange = tailTree.next()).position < exclusiveEnd) {
+        while (rangeIterator.hasNext() && (partialRange = rangeIterator.next()).position < exclusiveEnd) {
             fillWithRange(dst, partialRange, positionSoFar - partialRange.position,
                           positionSoFar + positionShift, rangesModified);
             positionSoFar = partialRange.exclusiveEnd();
@@ -538,7 +539,8 @@ public class BinaryContent {
 
 
     /**
-     * Reads a sequence of bytes from this content into the given file
+     * Reads a sequence of bytes from this content into the given file.
+     * File backed ranges are transferred channel to channel, the file is synced to disk once at the end.
      *
      * @param start  first byte in sequence
      * @param length number of bytes to read
@@ -553,37 +555,39 @@ public class BinaryContent {
             actions.endAction();
         commitChanges();
 
-        RandomAccessFile dst = new RandomAccessFile(destinationFile, "rws");
+        RandomAccessFile dst = new RandomAccessFile(destinationFile, "rw");
         try {
             dst.setLength(length);
             FileChannel channel = dst.getChannel();
 
-            ByteBuffer buffer = null;
-            for (long position = 0L; position < length; position += mappedFileBufferLength) {
-                int partLength = (int) Math.min(mappedFileBufferLength, length - position);
-                boolean bufferFromMap = true;
-                try {
-                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, partLength);
-                }
-                catch (IOException e) {
-                    // gcj 4.3.0 channel maps work differently than sun's:
-                    // gcj won't accept two calls to channel.map with a different position, sun does
-                    // gcj will happily accept maps of size bigger than available memory, sun won't
-                    // to access past the 2Gb barrier there is no choice but use plain ByteBuffers in gcj
-                    bufferFromMap = false;
-                    if (buffer == null)
-                        buffer = ByteBuffer.allocateDirect((int) mappedFileBufferLength);
-                    buffer.position(0);
-                    buffer.limit(partLength);
-                }
-                get(buffer, start + position);
-                if (bufferFromMap) {
-                    ((MappedByteBuffer) buffer).force();
-                    buffer = null;
-                } else {
-                    buffer.position(0);
-                    buffer.limit(partLength);
-                    channel.write(buffer, position);
+            long end = start + length;
+            for (Range range : ranges.tailSet(new Range(start, 1L))) {
+                if (range.position >= end) break;
+
+                long overlapBytes = Math.max(0L, start - range.position);
+                long copyLength = Math.min(range.length - overlapBytes, end - range.position - overlapBytes);
+                long dstPosition = range.position + overlapBytes - start;
+                if (copyLength <= 0L) continue;
+
+                if (range.data instanceof ByteBuffer) {
+                    ByteBuffer src = ((ByteBuffer) range.data).duplicate();
+                    src.limit((int) (range.dataOffset + overlapBytes + copyLength));
+                    src.position((int) (range.dataOffset + overlapBytes));
+                    while (src.hasRemaining()) {
+                        dstPosition += channel.write(src, dstPosition);
+                    }
+                } else if (range.data instanceof RandomAccessFile) {
+                    FileChannel src = ((RandomAccessFile) range.data).getChannel();
+                    long srcPosition = range.dataOffset + overlapBytes;
+                    channel.position(dstPosition);
+                    while (copyLength > 0L) {
+                        long transferred = src.transferTo(srcPosition, copyLength, channel);
+                        if (transferred <= 0L) {
+                            throw new IOException("Unexpected end of file at " + srcPosition);
+                        }
+                        srcPosition += transferred;
+                        copyLength -= transferred;
+                    }
                 }
             }
             channel.force(true);
@@ -0,0 +1,365 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Finds all occurrences of several hex and text literals in one pass over the content.
+ * Content is split in segments which are scanned in parallel. Each segment is read together with
+ * the first bytes of the next one, so matches crossing segment borders are found exactly once.
+ * Text literals are searched as ascii (when the literal falls within ascii char limits) and
+ * as big and little endian unicode, like {@link BinaryTextFinder} does.
+ */
+public class BinaryMultiPatternFinder {
+
+    public static final int SEGMENT_SIZE = 1024 * 1024;
+
+    /**
+     * Receives match counts while the search is running. Called from search threads.
+     */
+    public interface MatchListener {
+        void matchCountsChanged(long[] matchCounts);
+    }
+
+    /**
+     * Byte sequence of a pattern. Text patterns have several variants (encodings).
+     */
+    private static class Variant {
+        final int patternIndex;
+        final byte[] bytes;
+        final boolean ignoreCase;
+
+        Variant(int patternIndex, byte[] bytes, boolean ignoreCase)
+        {
+            this.patternIndex = patternIndex;
+            this.bytes = ignoreCase ? foldCase(bytes) : bytes;
+            this.ignoreCase = ignoreCase;
+        }
+    }
+
+    private final BinaryContent content;
+    private final List<Variant> variants = new ArrayList<>();
+    private int patternCount = 0;
+    private int maxVariantLength = 0;
+    private int maxMatchPositions = 1000;
+    private MatchListener matchListener;
+
+    private AtomicLongArray matchCounts;
+    private List<List<Long>> matchPositions;
+    private final AtomicLong scannedBytes = new AtomicLong();
+    private volatile boolean stopSearching = false;
+
+    public BinaryMultiPatternFinder(BinaryContent content)
+    {
+        this.content = content;
+    }
+
+    /**
+     * Adds a raw sequence of bytes to find
+     *
+     * @return pattern index
+     */
+    public int addHexPattern(byte[] sequence)
+    {
+        int index = patternCount++;
+        addVariant(new Variant(index, trimSequence(sequence), false));
+        return index;
+    }
+
+    /**
+     * Adds a char sequence to find. Ascii letters are matched ignoring case if caseSensitive is false.
+     *
+     * @return pattern index
+     */
+    public int addTextPattern(CharSequence literal, boolean caseSensitive)
+    {
+        int index = patternCount++;
+        String text = literal.toString();
+        boolean isAsciiCompatible = true;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 255) {
+                isAsciiCompatible = false;
+                break;
+            }
+        }
+        if (isAsciiCompatible) {
+            addVariant(new Variant(index, trimSequence(text.getBytes(StandardCharsets.ISO_8859_1)), !caseSensitive));
+        }
+        addVariant(new Variant(index, trimSequence(text.getBytes(StandardCharsets.UTF_16LE)), !caseSensitive));
+        addVariant(new Variant(index, trimSequence(text.getBytes(StandardCharsets.UTF_16BE)), !caseSensitive));
+        return index;
+    }
+
+    /**
+     * Sets maximum number of match positions kept for each pattern. Matches are counted anyway.
+     * Segments are scanned in parallel, so kept positions are not necessarily the first ones.
+     */
+    public void setMaxMatchPositions(int maxMatchPositions)
+    {
+        this.maxMatchPositions = maxMatchPositions;
+    }
+
+    public void setMatchListener(MatchListener matchListener)
+    {
+        this.matchListener = matchListener;
+    }
+
+    /**
+     * Searches all patterns in the [start, end) range of the content.
+     *
+     * @param maxParallel maximum number of search threads
+     */
+    public void search(DBRProgressMonitor monitor, long start, long end, int maxParallel)
+        throws InvocationTargetException, InterruptedException
+    {
+        end = Math.min(end, content.length());
+        matchCounts = new AtomicLongArray(patternCount);
+        matchPositions = new ArrayList<>(patternCount);
+        for (int i = 0; i < patternCount; i++) {
+            matchPositions.add(new ArrayList<>());
+        }
+        scannedBytes.set(0);
+        stopSearching = false;
+        if (variants.isEmpty() || start >= end) {
+            return;
+        }
+
+        Variant[][] firstByteIndex = buildFirstByteIndex();
+        long segmentCount = (end - start + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        int workerCount = (int) Math.max(1, Math.min(maxParallel, segmentCount));
+        AtomicLong nextSegment = new AtomicLong();
+
+        List<DBRRunnableWithProgress> workers = new ArrayList<>(workerCount);
+        final long searchEnd = end;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(workerMonitor -> {
+                try {
+                    scanSegments(workerMonitor, firstByteIndex, nextSegment, start, searchEnd);
+                } catch (IOException e) {
+                    throw new InvocationTargetException(e);
+                }
+            });
+        }
+        RuntimeUtils.runParallelTasks(monitor, "Search binary content", workers, workerCount);
+
+        for (List<Long> positions : matchPositions) {
+            Collections.sort(positions);
+        }
+    }
+
+    public long getMatchCount(int patternIndex)
+    {
+        return matchCounts == null ? 0L : matchCounts.get(patternIndex);
+    }
+
+    /**
+     * Get sorted positions of found matches, limited by max match positions
+     */
+    public List<Long> getMatchPositions(int patternIndex)
+    {
+        return matchPositions == null ? Collections.emptyList() : matchPositions.get(patternIndex);
+    }
+
+    /**
+     * Get number of bytes already scanned by the current search
+     */
+    public long getScannedBytes()
+    {
+        return scannedBytes.get();
+    }
+
+    /**
+     * Stop searching. Long running searches can be stopped from another thread.
+     */
+    public void stopSearching()
+    {
+        stopSearching = true;
+    }
+
+    private void scanSegments(DBRProgressMonitor monitor, Variant[][] firstByteIndex, AtomicLong nextSegment, long start, long end)
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_SIZE + maxVariantLength - 1);
+        byte[] bytes = buffer.array();
+        long[] lastMatchPositions = new long[patternCount];
+        long[] segmentCounts = new long[patternCount];
+
+        for (;;) {
+            long segmentStart = start + nextSegment.getAndIncrement() * SEGMENT_SIZE;
+            if (segmentStart >= end || stopSearching || monitor.isCanceled()) {
+                break;
+            }
+            int segmentLength = (int) Math.min(SEGMENT_SIZE, end - segmentStart);
+            // Read the head of the next segment too, for matches which cross the border
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - segmentStart));
+            int readLength = content.get(buffer, segmentStart);
+
+            Arrays.fill(lastMatchPositions, -1L);
+            Arrays.fill(segmentCounts, 0L);
+            List<Long> foundPositions = new ArrayList<>();
+            for (int i = 0; i < segmentLength && i < readLength; i++) {
+                Variant[] candidates = firstByteIndex[bytes[i] & 0xff];
+                if (candidates == null) {
+                    continue;
+                }
+                for (Variant variant : candidates) {
+                    if (lastMatchPositions[variant.patternIndex] == i || !matches(bytes, i, readLength, variant)) {
+                        continue;
+                    }
+                    lastMatchPositions[variant.patternIndex] = i;
+                    segmentCounts[variant.patternIndex]++;
+                    foundPositions.add(segmentStart + i);
+                    foundPositions.add((long) variant.patternIndex);
+                }
+            }
+            scannedBytes.addAndGet(segmentLength);
+            if (!foundPositions.isEmpty()) {
+                addMatches(segmentCounts, foundPositions);
+            }
+        }
+    }
+
+    private void addMatches(long[] segmentCounts, List<Long> foundPositions)
+    {
+        for (int i = 0; i < segmentCounts.length; i++) {
+            if (segmentCounts[i] > 0) {
+                matchCounts.addAndGet(i, segmentCounts[i]);
+            }
+        }
+        synchronized (matchPositions) {
+            for (int i = 0; i < foundPositions.size(); i += 2) {
+                List<Long> positions = matchPositions.get(foundPositions.get(i + 1).intValue());
+                if (positions.size() < maxMatchPositions) {
+                    positions.add(foundPositions.get(i));
+                }
+            }
+        }
+        MatchListener listener = this.matchListener;
+        if (listener != null) {
+            long[] counts = new long[patternCount];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = matchCounts.get(i);
+            }
+            listener.matchCountsChanged(counts);
+        }
+    }
+
+    private static boolean matches(byte[] bytes, int offset, int limit, Variant variant)
+    {
+        byte[] sequence = variant.bytes;
+        if (offset + sequence.length > limit) {
+            return false;
+        }
+        for (int j = 1; j < sequence.length; j++) {
+            byte existing = bytes[offset + j];
+            if (existing != sequence[j] && (!variant.ignoreCase || foldCase(existing) != sequence[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Variant[][] buildFirstByteIndex()
+    {
+        List<List<Variant>> index = new ArrayList<>(256);
+        for (int i = 0; i < 256; i++) {
+            index.add(null);
+        }
+        for (Variant variant : variants) {
+            addToIndex(index, variant.bytes[0], variant);
+            if (variant.ignoreCase) {
+                byte upper = toUpperCase(variant.bytes[0]);
+                if (upper != variant.bytes[0]) {
+                    addToIndex(index, upper, variant);
+                }
+            }
+        }
+        Variant[][] result = new Variant[256][];
+        for (int i = 0; i < 256; i++) {
+            List<Variant> list = index.get(i);
+            if (list != null) {
+                result[i] = list.toArray(new Variant[0]);
+            }
+        }
+        return result;
+    }
+
+    private static void addToIndex(List<List<Variant>> index, byte firstByte, Variant variant)
+    {
+        List<Variant> list = index.get(firstByte & 0xff);
+        if (list == null) {
+            list = new ArrayList<>();
+            index.set(firstByte & 0xff, list);
+        }
+        list.add(variant);
+    }
+
+    private void addVariant(Variant variant)
+    {
+        if (variant.bytes.length == 0) {
+            return;
+        }
+        variants.add(variant);
+        maxVariantLength = Math.max(maxVariantLength, variant.bytes.length);
+    }
+
+    private static byte[] trimSequence(byte[] sequence)
+    {
+        if (sequence.length <= BinaryTextFinder.MAX_SEQUENCE_SIZE) {
+            return sequence;
+        }
+        byte[] result = new byte[BinaryTextFinder.MAX_SEQUENCE_SIZE];
+        System.arraycopy(sequence, 0, result, 0, result.length);
+        return result;
+    }
+
+    private static byte[] foldCase(byte[] sequence)
+    {
+        byte[] result = new byte[sequence.length];
+        for (int i = 0; i < sequence.length; i++) {
+            result[i] = foldCase(sequence[i]);
+        }
+        return result;
+    }
+
+    private static byte foldCase(byte value)
+    {
+        return value >= 'A' && value <= 'Z' ? (byte) (value + 32) : value;
+    }
+
+    private static byte toUpperCase(byte value)
+    {
+        return value >= 'a' && value <= 'z' ? (byte) (value - 32) : value;
+    }
+}
@@ -28,12 +28,14 @@ import org.eclipse.swt.widgets.*;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.themes.ITheme;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.editors.binary.pref.HexPreferencesPage;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
@@ -110,6 +112,7 @@ public class HexEditControl extends Composite {
     private BinaryContent content = null;
     private long endPosition = 0L;
     private BinaryTextFinder finder = null;
+    private volatile BinaryMultiPatternFinder countFinder = null;
     private boolean isInserting = true;
     private KeyListener keyAdapter = new ControlKeyAdapter();
     private int lastFocusedTextArea;  // 1 or 2;
@@ -1162,6 +1165,51 @@ public class HexEditControl extends Composite {
     }
 
 
+    /**
+     * Counts all occurrences of the literal in the content. Content segments are scanned in parallel.
+     *
+     * @param findString    the literal to find
+     * @param isHexString   consider the literal as an hex string
+     * @param ignoreCase    match upper case with lower case characters
+     * @param listener      receives match count while the search is running
+     * @return number of matches
+     */
+    public long countMatches(String findString, boolean isHexString, boolean ignoreCase,
+                             BinaryMultiPatternFinder.MatchListener listener)
+        throws IOException
+    {
+        BinaryMultiPatternFinder patternFinder = new BinaryMultiPatternFinder(content);
+        int patternIndex = isHexString ?
+            patternFinder.addHexPattern(hexStringToByte(findString)) :
+            patternFinder.addTextPattern(findString, !ignoreCase);
+        // Only count
+        patternFinder.setMaxMatchPositions(0);
+        patternFinder.setMatchListener(listener);
+        countFinder = patternFinder;
+        final Throwable[] error = new Throwable[1];
+        try {
+            HexManager.blockUntilFinished(() -> {
+                try {
+                    patternFinder.search(new VoidProgressMonitor(), 0L, content.length(),
+                                         Runtime.getRuntime().availableProcessors());
+                } catch (InvocationTargetException e) {
+                    error[0] = e.getTargetException();
+                } catch (InterruptedException e) {
+                    // Stopped
+                }
+            });
+        } finally {
+            countFinder = null;
+        }
+        if (error[0] instanceof IOException) {
+            throw (IOException) error[0];
+        } else if (error[0] != null) {
+            throw new IOException(error[0]);
+        }
+        return patternFinder.getMatchCount(patternIndex);
+    }
+
+
     /**
      * Get caret position in file, which can be out of view
      *
@@ -1945,7 +1993,7 @@ public class HexEditControl extends Composite {
 
 
     /**
-     * Stop findAndSelect() or replaceAll() calls. Long running searches can be stopped from another
+     * Stop findAndSelect(), countMatches() or replaceAll() calls. Long running searches can be stopped from another
      * thread.
      */
     public void stopSearching()
@@ -1954,6 +2002,10 @@ public class HexEditControl extends Composite {
         if (finder != null) {
             finder.stopSearching();
         }
+        BinaryMultiPatternFinder patternFinder = countFinder;
+        if (patternFinder != null) {
+            patternFinder.stopSearching();
+        }
     }
 
 
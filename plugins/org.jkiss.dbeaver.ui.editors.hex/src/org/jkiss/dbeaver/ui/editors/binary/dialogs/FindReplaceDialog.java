@@ -52,6 +52,7 @@ public class FindReplaceDialog extends Dialog {
     private static final String textBackward = BinaryEditorMessages.dialog_find_replace_backward;
     private static final String textCancel = BinaryEditorMessages.dialog_find_replace_cancel;
     private static final String textClose = BinaryEditorMessages.dialog_find_replace_close;
+    private static final String textCount = BinaryEditorMessages.dialog_find_replace_count;
     private static final String textDirection = BinaryEditorMessages.dialog_find_replace_direction;
     private static final String textError = BinaryEditorMessages.dialog_find_replace_error_;
     private static final String textFind = BinaryEditorMessages.dialog_find_replace_find;
@@ -62,6 +63,7 @@ public class FindReplaceDialog extends Dialog {
     private static final String textHex = "Hex"; //$NON-NLS-1$
     private static final String textIgnoreCase = BinaryEditorMessages.dialog_find_replace_ignore_case;
     private static final String textLiteralNotFound = BinaryEditorMessages.dialog_find_replace_literal_not_found;
+    private static final String textMatches = BinaryEditorMessages.dialog_find_replace_matches;
     private static final String textNewFind = BinaryEditorMessages.dialog_find_replace_new_find;
     private static final String textReplace = BinaryEditorMessages.dialog_find_replace_replace;
     private static final String textReplaceAll = BinaryEditorMessages.dialog_find_replace_replace_all;
@@ -110,6 +112,7 @@ public class FindReplaceDialog extends Dialog {
     private Button replaceFindButton = null;
     private Button replaceButton = null;
     private Button replaceAllButton = null;
+    private Button countButton = null;
     private Label feedbackLabel = null;
     private Composite progressComposite = null;
     private ProgressBar progressBar = null;
@@ -439,6 +442,17 @@ public class FindReplaceDialog extends Dialog {
                 doReplaceAll();
             }
         });
+        countButton = new Button(findReplaceButtonsComposite, SWT.NONE);
+        countButton.setLayoutData(new GridData(SWT.FILL, SWT.BEGINNING, true, false));
+        countButton.setText(textCount);
+        countButton.addSelectionListener(defaultSelectionAdapter);
+        countButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e)
+            {
+                doCount();
+            }
+        });
         sShell.setDefaultButton(findButton);
     }
 
@@ -669,6 +683,31 @@ public class FindReplaceDialog extends Dialog {
     }
 
 
+    private void doCount()
+    {
+        prepareToRun();
+        progressCancelButton.setText(textStop);
+        String message = textLiteralNotFound;
+        String literal = findGroup.textCombo.getText();
+        if (editControl != null && literal.length() > 0) {
+            Display display = sShell.getDisplay();
+            try {
+                long matches = editControl.countMatches(literal, findGroup.hexRadioButton.getSelection(),
+                                                        checkBox.getSelection(), matchCounts -> display.asyncExec(() -> {
+                        if (searching && !feedbackLabel.isDisposed()) {
+                            feedbackLabel.setText(matchCounts[0] + textMatches);
+                        }
+                    }));
+                message = matches + textMatches;
+            }
+            catch (IOException e) {
+                message = textError + e;
+            }
+        }
+        endOfRun(message);
+    }
+
+
     private void enableDisableControls()
     {
         findGroup.setEnabled(!searching);
@@ -684,6 +723,7 @@ public class FindReplaceDialog extends Dialog {
         replaceFindButton.setEnabled(!searching);
         replaceButton.setEnabled(!searching);
         replaceAllButton.setEnabled(!searching);
+        countButton.setEnabled(!searching);
 
         closeButton.setEnabled(!searching);
 //		getParent().setEnabled(enableButtons);
@@ -694,6 +734,7 @@ public class FindReplaceDialog extends Dialog {
         boolean somethingToFind = findGroup.textCombo.getText().length() > 0;
         findButton.setEnabled(somethingToFind);
         replaceAllButton.setEnabled(somethingToFind);
+        countButton.setEnabled(somethingToFind);
         long selectionLength = 0L;
         if (editControl != null) {
             selectionLength = editControl.getSelection()[1] - editControl.getSelection()[0];
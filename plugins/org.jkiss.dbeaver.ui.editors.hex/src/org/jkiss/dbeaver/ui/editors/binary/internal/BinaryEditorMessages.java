@@ -25,6 +25,7 @@ public class BinaryEditorMessages extends NLS {
 	public static String dialog_find_replace_backward;
 	public static String dialog_find_replace_cancel;
 	public static String dialog_find_replace_close;
+	public static String dialog_find_replace_count;
 	public static String dialog_find_replace_direction;
 	public static String dialog_find_replace_error_;
 	public static String dialog_find_replace_find;
@@ -39,6 +40,7 @@ public class BinaryEditorMessages extends NLS {
 	public static String dialog_find_replace_found_literal;
 	public static String dialog_find_replace_ignore_case;
 	public static String dialog_find_replace_literal_not_found;
+	public static String dialog_find_replace_matches;
 	public static String dialog_find_replace_new_find;
 	public static String dialog_find_replace_replace;
 	public static String dialog_find_replace_replace_all;
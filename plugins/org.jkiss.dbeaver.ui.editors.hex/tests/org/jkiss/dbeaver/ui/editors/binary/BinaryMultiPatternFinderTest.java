@@ -0,0 +1,216 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class BinaryMultiPatternFinderTest {
+
+    private static final int SEGMENT_SIZE = BinaryMultiPatternFinder.SEGMENT_SIZE;
+
+    private File contentFile;
+    private BinaryContent content;
+
+    @After
+    public void tearDown() {
+        if (content != null) {
+            content.dispose();
+        }
+        if (contentFile != null && !contentFile.delete()) {
+            contentFile.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testMatchAcrossSegmentBorder() throws Exception {
+        byte[] data = new byte[SEGMENT_SIZE * 2 + 100];
+        byte[] pattern = { 1, 2, 3, 4 };
+        putBytes(data, SEGMENT_SIZE - 2, pattern);
+        putBytes(data, SEGMENT_SIZE * 2 - 3, pattern);
+
+        BinaryMultiPatternFinder finder = createFinder(data);
+        int index = finder.addHexPattern(pattern);
+        search(finder, data.length);
+
+        Assert.assertEquals(2, finder.getMatchCount(index));
+        Assert.assertEquals(Arrays.asList((long) SEGMENT_SIZE - 2, (long) SEGMENT_SIZE * 2 - 3), finder.getMatchPositions(index));
+    }
+
+    @Test
+    public void testOverlappingMatchesAcrossSegmentBorder() throws Exception {
+        byte[] data = new byte[SEGMENT_SIZE * 2];
+        // Five bytes sequence contains three overlapping matches, the border splits it in the middle
+        putBytes(data, SEGMENT_SIZE - 2, new byte[] { 7, 7, 7, 7, 7 });
+
+        BinaryMultiPatternFinder finder = createFinder(data);
+        int index = finder.addHexPattern(new byte[] { 7, 7, 7 });
+        search(finder, data.length);
+
+        Assert.assertEquals(3, finder.getMatchCount(index));
+        Assert.assertEquals(
+            Arrays.asList((long) SEGMENT_SIZE - 2, (long) SEGMENT_SIZE - 1, (long) SEGMENT_SIZE),
+            finder.getMatchPositions(index));
+    }
+
+    @Test
+    public void testPatternsOverlappingEachOther() throws Exception {
+        byte[] data = new byte[SEGMENT_SIZE + 10];
+        putBytes(data, SEGMENT_SIZE - 1, new byte[] { 1, 2, 3, 4 });
+
+        BinaryMultiPatternFinder finder = createFinder(data);
+        int first = finder.addHexPattern(new byte[] { 1, 2, 3 });
+        int second = finder.addHexPattern(new byte[] { 2, 3, 4 });
+        int whole = finder.addHexPattern(new byte[] { 1, 2, 3, 4 });
+        search(finder, data.length);
+
+        Assert.assertEquals(Arrays.asList((long) SEGMENT_SIZE - 1), finder.getMatchPositions(first));
+        Assert.assertEquals(Arrays.asList((long) SEGMENT_SIZE), finder.getMatchPositions(second));
+        Assert.assertEquals(Arrays.asList((long) SEGMENT_SIZE - 1), finder.getMatchPositions(whole));
+    }
+
+    @Test
+    public void testMatchAtContentEnd() throws Exception {
+        byte[] data = new byte[SEGMENT_SIZE + 3];
+        putBytes(data, data.length - 3, new byte[] { 5, 6, 7 });
+
+        BinaryMultiPatternFinder finder = createFinder(data);
+        int complete = finder.addHexPattern(new byte[] { 5, 6, 7 });
+        int truncated = finder.addHexPattern(new byte[] { 6, 7, 8 });
+        search(finder, data.length);
+
+        Assert.assertEquals(1, finder.getMatchCount(complete));
+        Assert.assertEquals(0, finder.getMatchCount(truncated));
+    }
+
+    @Test
+    public void testSearchRangeEnd() throws Exception {
+        byte[] data = new byte[SEGMENT_SIZE + 100];
+        putBytes(data, SEGMENT_SIZE - 2, new byte[] { 1, 2, 3, 4 });
+
+        BinaryMultiPatternFinder finder = createFinder(data);
+        int index = finder.addHexPattern(new byte[] { 1, 2, 3, 4 });
+        // Match doesn't fit in the range
+        finder.search(new VoidProgressMonitor(), 0, SEGMENT_SIZE + 1, 4);
+
+        Assert.assertEquals(0, finder.getMatchCount(index));
+    }
+
+    @Test
+    public void testTextPatternIgnoreCase() throws Exception {
+        byte[] data = new byte[SEGMENT_SIZE + 100];
+        putBytes(data, 10, "Hello".getBytes(StandardCharsets.ISO_8859_1));
+        putBytes(data, SEGMENT_SIZE - 2, "hELLO".getBytes(StandardCharsets.ISO_8859_1));
+        // Not ascii last char, so the little endian variant doesn't match one byte later
+        putBytes(data, SEGMENT_SIZE + 20, "hello\u4e16".getBytes(StandardCharsets.UTF_16BE));
+
+        BinaryMultiPatternFinder finder = createFinder(data);
+        int ignoreCase = finder.addTextPattern("HELLO", false);
+        int caseSensitive = finder.addTextPattern("Hello", true);
+        search(finder, data.length);
+
+        Assert.assertEquals(
+            Arrays.asList(10L, (long) SEGMENT_SIZE - 2, (long) SEGMENT_SIZE + 20),
+            finder.getMatchPositions(ignoreCase));
+        Assert.assertEquals(Arrays.asList(10L), finder.getMatchPositions(caseSensitive));
+    }
+
+    @Test
+    public void testSameResultsAsSequentialScan() throws Exception {
+        // Small alphabet produces a lot of overlapping matches
+        Random random = new Random(1);
+        byte[] data = new byte[SEGMENT_SIZE * 3 + 123];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(3);
+        }
+        byte[][] patterns = {
+            { 0, 1, 2, 0, 1 },
+            { 1, 1, 1, 1 },
+            { 2, 0, 2 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 },
+        };
+
+        BinaryMultiPatternFinder finder = createFinder(data);
+        finder.setMaxMatchPositions(Integer.MAX_VALUE);
+        for (byte[] pattern : patterns) {
+            finder.addHexPattern(pattern);
+        }
+        search(finder, data.length);
+
+        for (int i = 0; i < patterns.length; i++) {
+            List<Long> expected = findSequentially(data, patterns[i]);
+            Assert.assertEquals(expected.size(), finder.getMatchCount(i));
+            Assert.assertEquals(expected, finder.getMatchPositions(i));
+        }
+        Assert.assertEquals(data.length, finder.getScannedBytes());
+    }
+
+    @Test
+    public void testMaxMatchPositions() throws Exception {
+        byte[] data = new byte[SEGMENT_SIZE * 2];
+        Arrays.fill(data, (byte) 1);
+
+        BinaryMultiPatternFinder finder = createFinder(data);
+        finder.setMaxMatchPositions(10);
+        int index = finder.addHexPattern(new byte[] { 1, 1 });
+        search(finder, data.length);
+
+        // All matches are counted, only some positions are kept
+        Assert.assertEquals(data.length - 1, finder.getMatchCount(index));
+        Assert.assertEquals(10, finder.getMatchPositions(index).size());
+    }
+
+    private BinaryMultiPatternFinder createFinder(byte[] data) throws IOException {
+        contentFile = File.createTempFile("binary-search-test", ".bin");
+        try (OutputStream out = new FileOutputStream(contentFile)) {
+            out.write(data);
+        }
+        content = new BinaryContent(contentFile);
+        return new BinaryMultiPatternFinder(content);
+    }
+
+    private static void search(BinaryMultiPatternFinder finder, long length) throws Exception {
+        finder.search(new VoidProgressMonitor(), 0, length, 4);
+    }
+
+    private static void putBytes(byte[] data, int offset, byte[] bytes) {
+        System.arraycopy(bytes, 0, data, offset, bytes.length);
+    }
+
+    private static List<Long> findSequentially(byte[] data, byte[] pattern) {
+        List<Long> positions = new ArrayList<>();
+        for (int i = 0; i + pattern.length <= data.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(data, i, i + pattern.length), pattern)) {
+                positions.add((long) i);
+            }
+        }
+        return positions;
+    }
+
+}
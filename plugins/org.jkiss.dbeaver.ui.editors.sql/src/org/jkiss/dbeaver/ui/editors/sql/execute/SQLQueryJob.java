@@ -487,7 +487,10 @@ public class SQLQueryJob extends DataSourceJob
             sqlQuery,
             rsOffset,
             rsMaxRows);
-        DBExecUtils.setStatementFetchSize(dbcStatement, rsOffset, rsMaxRows, fetchSize);
+        if (rsMaxRows > 0 || !DBExecUtils.setStatementStreamingRead(dbcStatement, fetchSize, false)) {
+            // Streaming is used only when all rows are fetched. Session mode is never changed here.
+            DBExecUtils.setStatementFetchSize(dbcStatement, rsOffset, rsMaxRows, fetchSize);
+        }
         curStatement = dbcStatement;
 
         int statementTimeout = getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.STATEMENT_TIMEOUT);
@@ -23,4 +23,9 @@ public class SearchMetadataConstants {
     public static final int MATCH_INDEX_STARTS_WITH = 0;
     public static final int MATCH_INDEX_CONTAINS = 1;
     public static final int MATCH_INDEX_LIKE = 2;
+
+    // Max number of metadata searches running at once
+    public static final int MAX_CONCURRENT_SEARCHES = 8;
+    // Max number of metadata contexts used by the search of one database instance
+    public static final int MAX_INSTANCE_CONTEXTS = 4;
 }
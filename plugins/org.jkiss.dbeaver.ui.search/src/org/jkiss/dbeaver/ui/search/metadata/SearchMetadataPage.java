@@ -56,6 +56,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
 
     private static final String PROP_MASK = "search.metadata.mask"; //$NON-NLS-1$
     private static final String PROP_CASE_SENSITIVE = "search.metadata.case-sensitive"; //$NON-NLS-1$
+    private static final String PROP_CONCURRENT_SEARCH = "search.metadata.concurrent"; //$NON-NLS-1$
     private static final String PROP_MAX_RESULT = "search.metadata.max-results"; //$NON-NLS-1$
     private static final String PROP_MATCH_INDEX = "search.metadata.match-index"; //$NON-NLS-1$
     private static final String PROP_HISTORY = "search.metadata.history"; //$NON-NLS-1$
@@ -68,6 +69,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
 
     private String nameMask;
     private boolean caseSensitive;
+    private boolean concurrentSearch;
     private int maxResults;
     private int matchTypeIndex;
     private Set<DBSObjectType> checkedTypes = new HashSet<>();
@@ -230,6 +232,16 @@ public class SearchMetadataPage extends AbstractSearchPage {
                 });
                 caseCheckbox.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
 
+                final Button concurrentCheckbox = UIUtils.createLabelCheckbox(settingsGroup, UISearchMessages.dialog_search_objects_concurrent_search, concurrentSearch);
+                concurrentCheckbox.addSelectionListener(new SelectionAdapter() {
+                    @Override
+                    public void widgetSelected(SelectionEvent e)
+                    {
+                        concurrentSearch = concurrentCheckbox.getSelection();
+                    }
+                });
+                concurrentCheckbox.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
             }
 
             Label otLabel = UIUtils.createControlLabel(settingsGroup, UISearchMessages.dialog_search_objects_group_object_types);
@@ -406,6 +418,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
         params.setObjectTypes(objectTypes);
         params.setObjectNameMask(objectNameMask);
         params.setCaseSensitive(caseSensitive);
+        params.setConcurrentSearch(concurrentSearch);
         params.setMaxResults(maxResults);
         return SearchMetadataQuery.createQuery(dataSource, params);
 
@@ -416,6 +429,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
     {
         nameMask = store.getString(PROP_MASK);
         caseSensitive = store.getBoolean(PROP_CASE_SENSITIVE);
+        concurrentSearch = store.getBoolean(PROP_CONCURRENT_SEARCH);
         maxResults = store.getInt(PROP_MAX_RESULT);
         matchTypeIndex = store.getInt(PROP_MATCH_INDEX);
         for (int i = 0; ;i++) {
@@ -442,6 +456,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
     {
         store.setValue(PROP_MASK, nameMask);
         store.setValue(PROP_CASE_SENSITIVE, caseSensitive);
+        store.setValue(PROP_CONCURRENT_SEARCH, concurrentSearch);
         store.setValue(PROP_MAX_RESULT, maxResults);
         store.setValue(PROP_MATCH_INDEX, matchTypeIndex);
         saveTreeState(store, PROP_SOURCES, dataSourceTree);
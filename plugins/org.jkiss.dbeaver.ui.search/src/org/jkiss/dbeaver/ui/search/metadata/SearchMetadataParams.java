@@ -32,6 +32,7 @@ public class SearchMetadataParams {
     private boolean caseSensitive;
     private int maxResults;
     private int matchType;
+    private boolean concurrentSearch;
 
     public SearchMetadataParams()
     {
@@ -96,4 +97,17 @@ public class SearchMetadataParams {
     {
         this.matchType = matchType;
     }
+
+    /**
+     * Search each catalog/schema in a separate task
+     */
+    public boolean isConcurrentSearch()
+    {
+        return concurrentSearch;
+    }
+
+    public void setConcurrentSearch(boolean concurrentSearch)
+    {
+        this.concurrentSearch = concurrentSearch;
+    }
 }
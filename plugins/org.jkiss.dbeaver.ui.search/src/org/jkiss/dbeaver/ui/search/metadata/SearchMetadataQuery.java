@@ -25,28 +25,63 @@ import org.eclipse.search.ui.ISearchResult;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
 import org.jkiss.dbeaver.model.navigator.DBNNode;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.model.struct.DBSObject;
-import org.jkiss.dbeaver.model.struct.DBSObjectReference;
-import org.jkiss.dbeaver.model.struct.DBSObjectType;
-import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.search.AbstractSearchResult;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class SearchMetadataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchMetadataQuery.class);
 
+    private static class SearchTask {
+        final DBSObjectContainer container;
+        final DBSObjectType objectType;
+
+        SearchTask(DBSObjectContainer container, DBSObjectType objectType) {
+            this.container = container;
+            this.objectType = objectType;
+        }
+    }
+
+    /**
+     * Found nodes shared by all search workers. The same object may be found by several searches.
+     */
+    private static class SearchState {
+        final int maxResults;
+        final Set<DBNNode> foundNodes = new HashSet<>();
+
+        SearchState(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        synchronized boolean addNode(DBNNode node) {
+            return !isLimitReached() && foundNodes.add(node);
+        }
+
+        synchronized boolean isLimitReached() {
+            return maxResults > 0 && foundNodes.size() >= maxResults;
+        }
+
+        synchronized int getRemainingResults() {
+            return maxResults > 0 ? maxResults - foundNodes.size() : maxResults;
+        }
+    }
+
     private final DBSStructureAssistant structureAssistant;
     private final DBCExecutionContext executionContext;
     private final SearchMetadataParams params;
@@ -105,40 +140,167 @@ public class SearchMetadataQuery implements ISearchQuery {
                 }
             }
 
-            int totalObjects = 0;
-            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
             DBRProgressMonitor localMonitor = RuntimeUtils.makeMonitor(monitor);
-            Collection<DBSObjectReference> objects = structureAssistant.findObjectsByMask(
-                localMonitor,
-                executionContext,
-                params.getParentObject(),
-                objectTypes.toArray(new DBSObjectType[0]),
-                objectNameMask,
-                params.isCaseSensitive(),
-                true, params.getMaxResults());
-            for (DBSObjectReference reference : objects) {
-                if (monitor.isCanceled()) {
+            SearchState state = new SearchState(params.getMaxResults());
+            List<DBSObjectContainer> containers = params.isConcurrentSearch() ?
+                getSearchContainers(localMonitor) : Collections.emptyList();
+            if (containers.size() > 1) {
+                searchConcurrently(localMonitor, containers, objectTypes, objectNameMask, state);
+            } else {
+                Collection<DBSObjectReference> objects = structureAssistant.findObjectsByMask(
+                    localMonitor,
+                    executionContext,
+                    params.getParentObject(),
+                    objectTypes.toArray(new DBSObjectType[0]),
+                    objectNameMask,
+                    params.isCaseSensitive(),
+                    true, params.getMaxResults());
+                addFoundObjects(localMonitor, objects, state);
+            }
+            int totalObjects = state.foundNodes.size();
+            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
+
+            return Status.OK_STATUS;
+        } catch (DBException e) {
+            log.debug(e);
+            return GeneralUtils.makeExceptionStatus(e);
+        }
+    }
+
+    /**
+     * Catalogs or schemas of the search parent (or of the data source if there is no parent).
+     * Containers of not connected instances are skipped.
+     */
+    private List<DBSObjectContainer> getSearchContainers(DBRProgressMonitor monitor) throws DBException {
+        DBSObject parentObject = params.getParentObject();
+        DBSObjectContainer parentContainer;
+        if (parentObject == null) {
+            parentContainer = DBUtils.getAdapter(DBSObjectContainer.class, executionContext.getDataSource());
+        } else {
+            parentContainer = DBUtils.getAdapter(DBSObjectContainer.class, parentObject);
+        }
+        if (parentContainer == null) {
+            return Collections.emptyList();
+        }
+        Collection<? extends DBSObject> children = parentContainer.getChildren(monitor);
+        if (children == null) {
+            return Collections.emptyList();
+        }
+        List<DBSObjectContainer> containers = new ArrayList<>();
+        for (DBSObject child : children) {
+            if ((child instanceof DBSCatalog || child instanceof DBSSchema) && DBUtils.getDefaultContext(child, true) != null) {
+                containers.add((DBSObjectContainer) child);
+            }
+        }
+        return containers;
+    }
+
+    /**
+     * Searches each container and object type separately.
+     * Searches of the same instance share the queue and use instance metadata context plus a few isolated contexts
+     * (instances with a single container are searched in the metadata context only).
+     */
+    private void searchConcurrently(
+        DBRProgressMonitor monitor,
+        List<DBSObjectContainer> containers,
+        List<DBSObjectType> objectTypes,
+        String objectNameMask,
+        SearchState state)
+        throws DBException
+    {
+        Map<DBSInstance, Queue<SearchTask>> instanceTasks = new LinkedHashMap<>();
+        Map<DBSInstance, Integer> instanceContainers = new HashMap<>();
+        for (DBSObjectContainer container : containers) {
+            DBSInstance instance = DBUtils.getObjectOwnerInstance(container);
+            Queue<SearchTask> tasks = instanceTasks.computeIfAbsent(instance, i -> new ConcurrentLinkedQueue<>());
+            for (DBSObjectType objectType : objectTypes) {
+                tasks.add(new SearchTask(container, objectType));
+            }
+            instanceContainers.merge(instance, 1, Integer::sum);
+        }
+
+        List<DBRRunnableWithProgress> workers = new ArrayList<>();
+        for (Map.Entry<DBSInstance, Queue<SearchTask>> entry : instanceTasks.entrySet()) {
+            DBSInstance instance = entry.getKey();
+            Queue<SearchTask> tasks = entry.getValue();
+            int contextCount = instanceContainers.get(instance) > 1 ?
+                Math.min(SearchMetadataConstants.MAX_INSTANCE_CONTEXTS, tasks.size()) : 1;
+            for (int i = 0; i < contextCount; i++) {
+                boolean isolated = i > 0;
+                workers.add(workerMonitor -> runSearchWorker(workerMonitor, instance, isolated, tasks, objectNameMask, state));
+            }
+        }
+        try {
+            RuntimeUtils.runParallelTasks(monitor, "Search metadata", workers, SearchMetadataConstants.MAX_CONCURRENT_SEARCHES);
+        } catch (InvocationTargetException e) {
+            throw new DBException("Error searching metadata", e.getTargetException());
+        } catch (InterruptedException e) {
+            // Search canceled. Keep found objects.
+        }
+    }
+
+    private void runSearchWorker(
+        DBRProgressMonitor monitor,
+        DBSInstance instance,
+        boolean isolated,
+        Queue<SearchTask> tasks,
+        String objectNameMask,
+        SearchState state)
+    {
+        DBCExecutionContext context;
+        try {
+            DBCExecutionContext metaContext = instance.getDefaultContext(monitor, true);
+            context = isolated ? instance.openIsolatedContext(monitor, "Metadata search", metaContext) : metaContext;
+        } catch (DBException e) {
+            // Other workers of this instance will process the queue
+            log.debug("Can't open metadata search context", e);
+            return;
+        }
+        try {
+            for (SearchTask task = tasks.poll(); task != null; task = tasks.poll()) {
+                if (monitor.isCanceled() || state.isLimitReached()) {
                     break;
                 }
                 try {
-                    DBSObject object = reference.resolveObject(localMonitor);
-                    if (object != null) {
-                        DBNNode node = navigatorModel.getNodeByObject(localMonitor, object, false);
-                        if (node != null) {
+                    Collection<DBSObjectReference> objects = structureAssistant.findObjectsByMask(
+                        monitor,
+                        context,
+                        task.container,
+                        new DBSObjectType[] { task.objectType },
+                        objectNameMask,
+                        params.isCaseSensitive(),
+                        true, state.getRemainingResults());
+                    addFoundObjects(monitor, objects, state);
+                } catch (DBException e) {
+                    log.error("Error searching " + task.objectType.getTypeName() + " in " + DBUtils.getObjectFullName(task.container, DBPEvaluationContext.UI), e);
+                }
+            }
+        } finally {
+            if (isolated) {
+                context.close();
+            }
+        }
+    }
+
+    private void addFoundObjects(DBRProgressMonitor monitor, Collection<DBSObjectReference> objects, SearchState state) {
+        DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+        for (DBSObjectReference reference : objects) {
+            if (monitor.isCanceled() || state.isLimitReached()) {
+                break;
+            }
+            try {
+                DBSObject object = reference.resolveObject(monitor);
+                if (object != null) {
+                    DBNNode node = navigatorModel.getNodeByObject(monitor, object, false);
+                    if (node != null && state.addNode(node)) {
+                        synchronized (searchResult) {
                             searchResult.addObjects(Collections.singletonList(node));
-                            totalObjects++;
                         }
                     }
-                } catch (DBException e) {
-                    log.error(e);
                 }
+            } catch (DBException e) {
+                log.error(e);
             }
-            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
-
-            return Status.OK_STATUS;
-        } catch (DBException e) {
-            log.debug(e);
-            return GeneralUtils.makeExceptionStatus(e);
         }
     }
 